@@ -0,0 +1,75 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the scalar alphabet fill against the Vector API fill for long passwords.
+ * <p>
+ * Random bytes come from {@link ThreadLocalRandom} so the mapping, not the SecureRandom, dominates. Run with
+ * {@code -jvmArgsAppend -XX:UseAVX=2} to see the AVX2 path on an AVX-512 machine.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-native-access=ALL-UNNAMED", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class AlphabetFillBenchmark {
+
+    @Param({"LOW", "HIGH"})
+    private PasswordComplexityEnum complexity;
+
+    @Param({"64", "1024"})
+    private int length;
+
+    private EntropyBuffer entropy;
+    private PasswordAlphabet alphabet;
+    private char[] characters;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entropy = new EntropyBuffer(bytes -> ThreadLocalRandom.current().nextBytes(bytes));
+        alphabet = PasswordAlphabet.forComplexity(complexity);
+        characters = new char[length];
+        bytes = new byte[length];
+    }
+
+    @Benchmark
+    public char[] scalarChars() {
+        alphabet.fillScalar(characters, 0, length, entropy);
+        return characters;
+    }
+
+    @Benchmark
+    public char[] vectorChars() {
+        alphabet.fill(characters, 0, length, entropy);
+        return characters;
+    }
+
+    @Benchmark
+    public byte[] scalarBytes() {
+        alphabet.fillScalar(bytes, 0, length, entropy);
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] vectorBytes() {
+        alphabet.fill(bytes, 0, length, entropy);
+        return bytes;
+    }
+}
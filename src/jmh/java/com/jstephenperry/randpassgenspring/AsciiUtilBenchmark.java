@@ -0,0 +1,65 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-character AsciiUtil methods against drawing a character from a precomputed alphabet.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+@State(Scope.Thread)
+public class AsciiUtilBenchmark {
+
+    private SecureRandom secureRandom;
+    private EntropyBuffer entropy;
+    private PasswordAlphabet alphabet;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SecureRandomProvider provider = new SecureRandomProvider();
+        secureRandom = provider.getSecureRandom();
+        entropy = new EntropyBuffer(provider);
+        alphabet = PasswordAlphabet.forComplexity(PasswordComplexityEnum.HIGH);
+    }
+
+    @Benchmark
+    public char randomLower() {
+        return AsciiUtil.getRandomLower(secureRandom);
+    }
+
+    @Benchmark
+    public char randomUpper() {
+        return AsciiUtil.getRandomUpper(secureRandom);
+    }
+
+    @Benchmark
+    public char randomDigit() {
+        return AsciiUtil.getRandomDigit(secureRandom);
+    }
+
+    @Benchmark
+    public char randomSpecialCharacter() {
+        return AsciiUtil.getRandomSpecialCharacter(secureRandom);
+    }
+
+    @Benchmark
+    public char alphabetNextChar() {
+        return alphabet.nextChar(entropy);
+    }
+}
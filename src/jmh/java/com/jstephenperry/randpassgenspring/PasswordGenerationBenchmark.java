@@ -0,0 +1,58 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures single-password generation for each complexity level and length,
+ * both through the in-place engine and through the formatted shell command.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+@State(Scope.Thread)
+public class PasswordGenerationBenchmark {
+
+    @Param({"LOW", "MEDIUM", "HIGH"})
+    public PasswordComplexityEnum complexity;
+
+    @Param({"8", "16", "64", "1024"})
+    public int length;
+
+    private PasswordEngine engine;
+    private RandomPasswordGenerator generator;
+    private char[] password;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SecureRandomProvider provider = new SecureRandomProvider();
+        engine = new PasswordEngine(provider);
+        generator = new RandomPasswordGenerator(provider);
+        password = new char[length];
+    }
+
+    @Benchmark
+    public char[] engineGenerate() {
+        engine.generate(password, complexity);
+        return password;
+    }
+
+    @Benchmark
+    public String generatePasswordCommand() {
+        return generator.generatePassword(length, complexity.getValue());
+    }
+}
@@ -0,0 +1,61 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures list generation including output formatting: the in-memory generate-password-list command
+ * against the chunked pipeline writing the same numbered lines to a discarding writer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+@State(Scope.Thread)
+public class PasswordListBenchmark {
+
+    @Param({"1000", "10000"})
+    public int listLength;
+
+    @Param({"16", "1024"})
+    public int length;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private SecureRandomProvider provider;
+    private RandomPasswordGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        provider = new SecureRandomProvider();
+        generator = new RandomPasswordGenerator(provider);
+    }
+
+    @Benchmark
+    public String generatePasswordList() {
+        return generator.generatePasswordList(listLength, length, "HIGH", parallelism, false, null);
+    }
+
+    @Benchmark
+    public long pipelineToWriter() throws IOException {
+        PasswordBatchPipeline pipeline = new PasswordBatchPipeline(provider, 1024, parallelism);
+        return pipeline.run(listLength, length, PasswordComplexityEnum.HIGH,
+                new WriterPasswordSink(Writer.nullWriter()), BatchProgressListener.NONE);
+    }
+}
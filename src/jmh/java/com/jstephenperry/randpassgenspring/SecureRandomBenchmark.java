@@ -0,0 +1,73 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures SecureRandom algorithm choices for per-call draws and 4 KiB block fills,
+ * with one thread and with every thread contending for the same instance.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class SecureRandomBenchmark {
+
+    @Param({"NativePRNG", "NativePRNGBlocking", "NativePRNGNonBlocking", "DRBG", "SHA1PRNG"})
+    public String algorithm;
+
+    private SecureRandom secureRandom;
+
+    @Setup(Level.Trial)
+    public void setup() throws NoSuchAlgorithmException {
+        secureRandom = SecureRandom.getInstance(algorithm);
+    }
+
+    @State(Scope.Thread)
+    public static class Block {
+        private final byte[] bytes = new byte[EntropyBuffer.DEFAULT_SIZE];
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int nextIntSingleThread() {
+        return secureRandom.nextInt(84);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int nextIntContended() {
+        return secureRandom.nextInt(84);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] nextBytesSingleThread(Block block) {
+        secureRandom.nextBytes(block.bytes);
+        return block.bytes;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public byte[] nextBytesContended(Block block) {
+        secureRandom.nextBytes(block.bytes);
+        return block.bytes;
+    }
+}
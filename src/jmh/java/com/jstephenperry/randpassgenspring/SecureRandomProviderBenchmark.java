@@ -0,0 +1,62 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures password generation through the provider modes, with one thread and with every thread
+ * generating concurrently, to show contention on the shared instance versus the DRBG pool.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class SecureRandomProviderBenchmark {
+
+    @Param({"SHARED", "DRBG_POOL"})
+    public SecureRandomProperties.Mode mode;
+
+    private PasswordEngine engine;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SecureRandomProperties defaults = SecureRandomProperties.defaults();
+        SecureRandomProperties properties = defaults.withDrbg(mode, defaults.drbgMechanism(),
+                defaults.drbgStrength(), defaults.poolSize(), defaults.reseedBytes(), defaults.reseedInterval());
+        engine = new PasswordEngine(new SecureRandomProvider(properties));
+    }
+
+    @State(Scope.Thread)
+    public static class Password {
+        private final char[] characters = new char[16];
+    }
+
+    @Benchmark
+    @Threads(1)
+    public char[] generateSingleThread(Password password) {
+        engine.generate(password.characters, PasswordComplexityEnum.HIGH);
+        return password.characters;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public char[] generateContended(Password password) {
+        engine.generate(password.characters, PasswordComplexityEnum.HIGH);
+        return password.characters;
+    }
+}
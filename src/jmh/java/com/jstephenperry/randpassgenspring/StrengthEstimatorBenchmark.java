@@ -0,0 +1,53 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures check-password strength estimation for short passwords and for maximum-length passwords
+ * whose repeats, dictionary words and keyboard walks give the sequence search the most matches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+@State(Scope.Thread)
+public class StrengthEstimatorBenchmark {
+
+    @Param({"password1", "correcthorsebatterystaple", "REPEATED_WORD", "REPEATED_CHARACTER", "KEYBOARD_WALK",
+            "MIXED"})
+    public String input;
+
+    private StrengthEstimator estimator;
+    private String password;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        estimator = new StrengthEstimator(StrengthProperties.defaults());
+        password = switch (input) {
+            case "REPEATED_WORD" -> "password".repeat(16);
+            case "REPEATED_CHARACTER" -> "a".repeat(128);
+            case "KEYBOARD_WALK" -> "1qaz2wsx".repeat(16);
+            case "MIXED" -> "pass1234qwer19".repeat(10).substring(0, 128);
+            default -> input;
+        };
+    }
+
+    @Benchmark
+    public StrengthEstimate estimate() {
+        return estimator.estimate(password);
+    }
+}
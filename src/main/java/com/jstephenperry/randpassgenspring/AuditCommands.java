@@ -0,0 +1,163 @@
+package com.jstephenperry.randpassgenspring;
+
+import jakarta.annotation.PreDestroy;
+import org.jline.terminal.Terminal;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.jstephenperry.randpassgenspring.PasswordRequestValidator.validateParallelism;
+
+/**
+ * Shell commands for auditing existing passwords against a local breach corpus.
+ */
+@ShellComponent
+public class AuditCommands {
+
+    private static final long PROGRESS_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final StrengthEstimator strengthEstimator;
+    private final AuditProperties properties;
+    private final BatchProperties batchProperties;
+    private final Terminal terminal;
+    private final ConcurrentMap<Path, BreachIndex> breachIndexes = new ConcurrentHashMap<>();
+
+    public AuditCommands(StrengthEstimator strengthEstimator, AuditProperties properties,
+                         BatchProperties batchProperties, Terminal terminal) {
+        this.strengthEstimator = strengthEstimator;
+        this.properties = properties;
+        this.batchProperties = batchProperties;
+        this.terminal = terminal;
+    }
+
+    /**
+     * Builds a memory-mappable breach index from a Have I Been Pwned style corpus sorted by hash.
+     *
+     * @param corpus the corpus file of SHA1:COUNT lines
+     * @param output the index file to write
+     * @return a summary of the build
+     */
+    @ShellMethod(value = "Build a breach index from a SHA-1 corpus sorted by hash", key = {"build-breach-index", "bbi"})
+    public String buildBreachIndex(
+            @ShellOption(help = "Corpus file of SHA1:COUNT lines, sorted by hash") String corpus,
+            @ShellOption(help = "Index file to write") String output) {
+
+        Path target = Path.of(output);
+        long start = System.nanoTime();
+        long count;
+        try {
+            count = BreachIndexBuilder.build(Path.of(corpus), target);
+        } catch (IOException e) {
+            throw new PasswordGenerationException(
+                    String.format("Failed to build breach index from '%s': %s", corpus, e.getMessage()), e);
+        }
+        BreachIndex stale = breachIndexes.remove(target.toAbsolutePath().normalize());
+        if (stale != null) {
+            stale.close();
+        }
+        return String.format("Indexed %d hashes into %s in %.1f s", count, target.toAbsolutePath(),
+                (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Checks every password in a file against the breach index and estimates its strength.
+     * Press Ctrl-C to stop after the current chunk.
+     *
+     * @param input       the file of candidate passwords, one per line
+     * @param index       the breach index, or null for the configured default
+     * @param report      a CSV file for per-password results, or null for the summary only
+     * @param parallelism the number of worker threads (1-256)
+     * @return the audit summary
+     */
+    @ShellMethod(value = "Audit a file of passwords against a breach index", key = {"audit-passwords", "ap"})
+    public String auditPasswords(
+            @ShellOption(help = "File of passwords, one per line") String input,
+            @ShellOption(help = "Breach index, defaults to rand-pass-gen.audit.breach-index",
+                    defaultValue = ShellOption.NULL) String index,
+            @ShellOption(help = "CSV report with one row per password (line number, not the password)",
+                    defaultValue = ShellOption.NULL) String report,
+            @ShellOption(help = "Number of worker threads (1-256)", defaultValue = "1") int parallelism) {
+
+        validateParallelism(parallelism);
+        BreachIndex breachIndex = breachIndex(index);
+        Path inputPath = Path.of(input);
+        PasswordAudit audit = new PasswordAudit(strengthEstimator, breachIndex, batchProperties.chunkSize(), parallelism);
+        Terminal.SignalHandler previousHandler = terminal != null
+                ? terminal.handle(Terminal.Signal.INT, signal -> audit.cancel())
+                : null;
+
+        AuditSummary summary;
+        try (InputStream in = Files.newInputStream(inputPath);
+             BufferedWriter writer = report != null
+                     ? Files.newBufferedWriter(Path.of(report), StandardCharsets.UTF_8)
+                     : null) {
+            summary = audit.run(in, writer, progressListener(), Files.size(inputPath));
+        } catch (IOException e) {
+            throw new PasswordGenerationException(
+                    String.format("Failed to audit '%s': %s", input, e.getMessage()), e);
+        } finally {
+            if (terminal != null) {
+                terminal.handle(Terminal.Signal.INT, previousHandler);
+            }
+        }
+
+        String result = String.format("Breach index: %s (%d hashes)%n%s", breachIndex.getPath(), breachIndex.size(),
+                summary);
+        return report != null ? result + String.format("%nReport written to %s", Path.of(report).toAbsolutePath())
+                : result;
+    }
+
+    /**
+     * Unmaps every open breach index.
+     */
+    @PreDestroy
+    public void close() {
+        breachIndexes.values().forEach(BreachIndex::close);
+        breachIndexes.clear();
+    }
+
+    private BreachIndex breachIndex(String path) {
+        String location = path != null ? path : properties.breachIndex();
+        if (location == null || location.isBlank()) {
+            throw new PasswordGenerationException(
+                    "No breach index configured. Pass --index or set rand-pass-gen.audit.breach-index; "
+                            + "build one with build-breach-index");
+        }
+
+        Path file = Path.of(location).toAbsolutePath().normalize();
+        return breachIndexes.computeIfAbsent(file, key -> {
+            try {
+                return BreachIndex.open(key);
+            } catch (IOException e) {
+                throw new PasswordGenerationException(
+                        String.format("Failed to open breach index '%s': %s", location, e.getMessage()), e);
+            }
+        });
+    }
+
+    private BatchProgressListener progressListener() {
+        if (terminal == null) {
+            return BatchProgressListener.NONE;
+        }
+
+        long[] lastReport = {System.nanoTime()};
+        return (completed, total) -> {
+            long now = System.nanoTime();
+            if (completed == total || now - lastReport[0] >= PROGRESS_INTERVAL_NANOS) {
+                lastReport[0] = now;
+                terminal.writer().printf("\rProgress: %.1f%%%s", total == 0 ? 100.0 : 100.0 * completed / total,
+                        completed == total ? System.lineSeparator() : "");
+                terminal.flush();
+            }
+        };
+    }
+}
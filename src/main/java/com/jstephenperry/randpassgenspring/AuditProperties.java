@@ -0,0 +1,22 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration for password audits.
+ *
+ * @param breachIndex the default breach index built by build-breach-index, or empty if none
+ */
+@ConfigurationProperties(prefix = "rand-pass-gen.audit")
+public record AuditProperties(@DefaultValue("") String breachIndex) {
+
+    /**
+     * Returns the default configuration, without a default breach index.
+     *
+     * @return the default properties
+     */
+    public static AuditProperties defaults() {
+        return new AuditProperties("");
+    }
+}
@@ -0,0 +1,43 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.util.Map;
+
+/**
+ * The outcome of a {@link PasswordAudit}.
+ *
+ * @param total        the number of passwords audited
+ * @param breached     the number found in the breach corpus
+ * @param scores       the number of passwords with each strength score, indexed 0-4
+ * @param levels       the number of passwords at each {@link PasswordStrength} level
+ * @param elapsedNanos the time the audit took
+ * @param cancelled    whether the audit was cancelled before the end of the input
+ */
+public record AuditSummary(long total, long breached, long[] scores,
+                           Map<PasswordStrength.StrengthLevel, Long> levels, long elapsedNanos, boolean cancelled) {
+
+    /**
+     * Returns the audit throughput.
+     *
+     * @return passwords audited per second
+     */
+    public double passwordsPerSecond() {
+        return elapsedNanos == 0 ? 0 : total * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Audited %d passwords in %.1f s (%.0f/s)%s%n", total, elapsedNanos / 1e9,
+                passwordsPerSecond(), cancelled ? ", cancelled" : ""));
+        builder.append(String.format("Breached: %d (%.1f%%)%n", breached, total == 0 ? 0.0 : 100.0 * breached / total));
+        builder.append("Scores:");
+        for (int score = 0; score < scores.length; score++) {
+            builder.append(String.format(" %d=%d", score, scores[score]));
+        }
+        builder.append(String.format("%nStrength:"));
+        for (PasswordStrength.StrengthLevel level : PasswordStrength.StrengthLevel.values()) {
+            builder.append(String.format("%n  %s: %d", level.name(), levels.getOrDefault(level, 0L)));
+        }
+        return builder.toString();
+    }
+}
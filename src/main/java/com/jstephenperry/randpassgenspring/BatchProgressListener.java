@@ -0,0 +1,19 @@
+package com.jstephenperry.randpassgenspring;
+
+/**
+ * Receives progress updates from a {@link PasswordBatchPipeline} after each chunk is consumed.
+ */
+@FunctionalInterface
+public interface BatchProgressListener {
+
+    BatchProgressListener NONE = (completed, total) -> {
+    };
+
+    /**
+     * Called after a chunk has been handed to the sink.
+     *
+     * @param completed the number of passwords written so far
+     * @param total     the number of passwords requested
+     */
+    void onProgress(long completed, long total);
+}
@@ -0,0 +1,25 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration for chunked bulk generation used by the streaming commands.
+ *
+ * @param maxListSize the maximum number of passwords a streaming command may generate
+ * @param chunkSize   the number of passwords generated and handed to the sink at a time
+ */
+@ConfigurationProperties(prefix = "rand-pass-gen.batch")
+public record BatchProperties(
+        @DefaultValue("10000000") int maxListSize,
+        @DefaultValue("1024") int chunkSize) {
+
+    /**
+     * Returns the default batch configuration.
+     *
+     * @return the default properties
+     */
+    public static BatchProperties defaults() {
+        return new BatchProperties(10_000_000, 1024);
+    }
+}
@@ -0,0 +1,26 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration for the {@link PasswordBlocklist}.
+ *
+ * @param file              a file of passwords never to hand out, one per line, or empty to disable the check
+ * @param falsePositiveRate the share of passwords not on the list that the filter still rejects; lower rates
+ *                          need more memory per entry
+ */
+@ConfigurationProperties(prefix = "rand-pass-gen.blocklist")
+public record BlocklistProperties(
+        @DefaultValue("") String file,
+        @DefaultValue("0.001") double falsePositiveRate) {
+
+    /**
+     * Returns the default configuration, without a blocklist.
+     *
+     * @return the default properties
+     */
+    public static BlocklistProperties defaults() {
+        return new BlocklistProperties("", 0.001);
+    }
+}
@@ -0,0 +1,130 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only, memory-mapped index of breached password SHA-1 hashes, built by {@link BreachIndexBuilder}.
+ * <p>
+ * The file holds a header, a prefix table and the sorted records. Each record is the 20-byte hash followed
+ * by a 4-byte big-endian breach count. The prefix table gives the first record for every value of the
+ * leading {@code prefixBits} bits of a hash, so a lookup reads one table entry and binary searches a
+ * bucket of a few dozen records, touching a handful of pages however large the corpus is. The mapping
+ * is shared by every thread and released by {@link #close()}.
+ */
+public final class BreachIndex implements Closeable {
+
+    static final long MAGIC = 0x5250474252454831L; // "RPGBREH1"
+    static final int HEADER_SIZE = 24;
+    static final int HASH_SIZE = 20;
+    static final int RECORD_SIZE = HASH_SIZE + 4;
+
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_ARRAY = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_ARRAY = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path path;
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final int prefixBits;
+    private final long recordCount;
+    private final long recordsOffset;
+
+    private BreachIndex(Path path, Arena arena, MemorySegment segment) {
+        this.path = path;
+        this.arena = arena;
+        this.segment = segment;
+        if (segment.byteSize() < HEADER_SIZE || segment.get(LONG, 0) != MAGIC) {
+            throw new PasswordGenerationException(
+                    String.format("'%s' is not a breach index; build one with build-breach-index", path));
+        }
+        this.prefixBits = segment.get(INT, 8);
+        this.recordCount = segment.get(LONG, 16);
+        this.recordsOffset = HEADER_SIZE + ((1L << prefixBits) + 1) * Long.BYTES;
+        if (prefixBits < 1 || prefixBits > 30 || recordsOffset + recordCount * RECORD_SIZE != segment.byteSize()) {
+            throw new PasswordGenerationException(String.format("Breach index '%s' is truncated or corrupt", path));
+        }
+    }
+
+    /**
+     * Maps an index file into memory.
+     *
+     * @param path the index file
+     * @return the opened index; close it to unmap the file
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static BreachIndex open(Path path) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            return new BreachIndex(path, arena, segment);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns how often a password hash appears in the breach corpus.
+     *
+     * @param sha1 the 20-byte SHA-1 hash of the password
+     * @return the breach count, or 0 if the hash is not in the corpus
+     */
+    public int count(byte[] sha1) {
+        long high = (long) LONG_ARRAY.get(sha1, 0);
+        long middle = (long) LONG_ARRAY.get(sha1, 8);
+        int low = (int) INT_ARRAY.get(sha1, 16);
+
+        int bucket = (int) (high >>> (Long.SIZE - prefixBits));
+        long first = segment.get(LONG, HEADER_SIZE + (long) bucket * Long.BYTES);
+        long last = segment.get(LONG, HEADER_SIZE + (long) (bucket + 1) * Long.BYTES) - 1;
+
+        while (first <= last) {
+            long mid = (first + last) >>> 1;
+            long offset = recordsOffset + mid * RECORD_SIZE;
+            int comparison = Long.compareUnsigned(segment.get(LONG, offset), high);
+            if (comparison == 0) {
+                comparison = Long.compareUnsigned(segment.get(LONG, offset + 8), middle);
+            }
+            if (comparison == 0) {
+                comparison = Integer.compareUnsigned(segment.get(INT, offset + 16), low);
+            }
+            if (comparison < 0) {
+                first = mid + 1;
+            } else if (comparison > 0) {
+                last = mid - 1;
+            } else {
+                return segment.get(INT, offset + HASH_SIZE);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the number of hashes in the index.
+     *
+     * @return the record count
+     */
+    public long size() {
+        return recordCount;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,235 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Builds a {@link BreachIndex} from a Have I Been Pwned style corpus: text lines of a 40-character hex
+ * SHA-1 hash, optionally followed by a colon and a breach count, sorted by hash (the "ordered by hash"
+ * download). The corpus is parsed as bytes a buffer at a time and the records are streamed to the index,
+ * so memory use is bounded by the prefix table rather than the corpus size. The index is written to a
+ * temporary file and renamed into place once complete.
+ */
+public final class BreachIndexBuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BreachIndexBuilder.class);
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MIN_PREFIX_BITS = 8;
+    private static final int MAX_PREFIX_BITS = 22;
+    // A corpus line is a 40-character hash, a colon, a count of a few digits and CR LF
+    private static final int ESTIMATED_LINE_SIZE = 46;
+    // A hash, a colon, a ten-digit count and CR take 52 bytes; longer lines are rejected as malformed
+    static final int MAX_LINE_LENGTH = 64;
+    private static final int TARGET_BUCKET_SIZE = 32;
+
+    private BreachIndexBuilder() {
+    }
+
+    /**
+     * Builds an index from a sorted corpus.
+     *
+     * @param corpus the corpus file
+     * @param target the index file to create or replace
+     * @return the number of hashes indexed
+     * @throws IOException                 if the corpus cannot be read or the index cannot be written
+     * @throws PasswordGenerationException if the corpus is malformed or not sorted by hash
+     */
+    public static long build(Path corpus, Path target) throws IOException {
+        int prefixBits = prefixBits(Files.size(corpus));
+        long[] table = new long[(1 << prefixBits) + 1];
+        long recordsOffset = BreachIndex.HEADER_SIZE + (long) table.length * Long.BYTES;
+
+        Path absoluteTarget = target.toAbsolutePath();
+        Path temporaryFile = Files.createTempFile(absoluteTarget.getParent(), "." + absoluteTarget.getFileName(), ".tmp");
+        boolean complete = false;
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE);
+             InputStream in = Files.newInputStream(corpus)) {
+            channel.position(recordsOffset);
+            long count = writeRecords(in, channel, table, prefixBits);
+
+            ByteBuffer header = ByteBuffer.allocate(BUFFER_SIZE);
+            header.putLong(BreachIndex.MAGIC).putInt(prefixBits).putInt(0).putLong(count);
+            channel.position(0);
+            for (long offset : table) {
+                if (!header.hasRemaining()) {
+                    writeFully(channel, header);
+                }
+                header.putLong(offset);
+            }
+            writeFully(channel, header);
+            channel.force(true);
+            complete = true;
+            logger.info("Indexed {} breached hashes from {} with {} prefix bits", count, corpus, prefixBits);
+            return count;
+        } finally {
+            if (complete) {
+                try {
+                    Files.move(temporaryFile, absoluteTarget, StandardCopyOption.ATOMIC_MOVE,
+                            StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporaryFile, absoluteTarget, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } else {
+                Files.deleteIfExists(temporaryFile);
+            }
+        }
+    }
+
+    /**
+     * Chooses the prefix table size from the corpus size, aiming for buckets of a few dozen records.
+     */
+    static int prefixBits(long corpusSize) {
+        long estimatedRecords = Math.max(1, corpusSize / ESTIMATED_LINE_SIZE / TARGET_BUCKET_SIZE);
+        int bits = Long.SIZE - Long.numberOfLeadingZeros(estimatedRecords);
+        return Math.clamp(bits, MIN_PREFIX_BITS, MAX_PREFIX_BITS);
+    }
+
+    private static long writeRecords(InputStream in, FileChannel channel, long[] table, int prefixBits)
+            throws IOException {
+        byte[] input = new byte[BUFFER_SIZE];
+        ByteBuffer output = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        byte[] hash = new byte[BreachIndex.HASH_SIZE];
+        byte[] previous = new byte[BreachIndex.HASH_SIZE];
+        long count = 0;
+        long line = 0;
+        int nextBucket = 0;
+        int carried = 0;
+
+        while (true) {
+            int read = in.read(input, carried, input.length - carried);
+            boolean last = read < 0;
+            int end = last ? carried : carried + read;
+            int start = 0;
+            while (start < end) {
+                int scanEnd = Math.min(end, start + MAX_LINE_LENGTH + 1);
+                int newline = indexOf(input, (byte) '\n', start, scanEnd);
+                if (newline < 0 && scanEnd < end) {
+                    throw new PasswordGenerationException(String.format(
+                            "Breach corpus line %d is longer than %d bytes", line + 1, MAX_LINE_LENGTH));
+                }
+                if (newline < 0 && !last) {
+                    break;
+                }
+                int lineEnd = newline < 0 ? end : newline;
+                line++;
+                int breaches = parseLine(input, start, lineEnd, hash, line);
+                start = lineEnd + 1;
+                if (breaches < 0) {
+                    continue;
+                }
+
+                int order = count == 0 ? 1 : Arrays.compareUnsigned(hash, previous);
+                if (order < 0) {
+                    throw new PasswordGenerationException(String.format(
+                            "Breach corpus is not sorted by hash at line %d; use the ordered-by-hash download", line));
+                }
+                if (order == 0) {
+                    continue;
+                }
+
+                int bucket = (hash[0] & 0xFF) << 24 | (hash[1] & 0xFF) << 16 | (hash[2] & 0xFF) << 8 | hash[3] & 0xFF;
+                bucket >>>= Integer.SIZE - prefixBits;
+                while (nextBucket <= bucket) {
+                    table[nextBucket++] = count;
+                }
+                if (output.remaining() < BreachIndex.RECORD_SIZE) {
+                    writeFully(channel, output);
+                }
+                output.put(hash).putInt(breaches);
+                System.arraycopy(hash, 0, previous, 0, hash.length);
+                count++;
+            }
+            if (last) {
+                break;
+            }
+
+            // Move the incomplete last line, at most MAX_LINE_LENGTH bytes, to the front and read the rest of it
+            carried = end - start;
+            System.arraycopy(input, start, input, 0, carried);
+        }
+
+        while (nextBucket < table.length) {
+            table[nextBucket++] = count;
+        }
+        writeFully(channel, output);
+        return count;
+    }
+
+    /**
+     * Parses one corpus line into a hash.
+     *
+     * @return the breach count (1 if the line has none), or -1 for a blank line
+     */
+    private static int parseLine(byte[] input, int start, int end, byte[] hash, long line) {
+        if (end > start && input[end - 1] == '\r') {
+            end--;
+        }
+        if (start == end) {
+            return -1;
+        }
+        int hexLength = BreachIndex.HASH_SIZE * 2;
+        if (end - start < hexLength) {
+            throw malformed(line);
+        }
+        for (int i = 0; i < BreachIndex.HASH_SIZE; i++) {
+            int high = Character.digit(input[start + 2 * i], 16);
+            int low = Character.digit(input[start + 2 * i + 1], 16);
+            if (high < 0 || low < 0) {
+                throw malformed(line);
+            }
+            hash[i] = (byte) (high << 4 | low);
+        }
+
+        int position = start + hexLength;
+        if (position == end) {
+            return 1;
+        }
+        if (input[position] != ':' || position + 1 == end) {
+            throw malformed(line);
+        }
+        long breaches = 0;
+        for (int i = position + 1; i < end; i++) {
+            if (input[i] < '0' || input[i] > '9') {
+                throw malformed(line);
+            }
+            breaches = Math.min(breaches * 10 + (input[i] - '0'), Integer.MAX_VALUE);
+        }
+        return (int) breaches;
+    }
+
+    private static PasswordGenerationException malformed(long line) {
+        return new PasswordGenerationException(String.format(
+                "Breach corpus line %d is not a 40-character SHA-1 hash with an optional :count", line));
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes everything put into the buffer so far and clears it for reuse.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
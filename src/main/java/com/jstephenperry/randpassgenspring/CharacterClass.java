@@ -0,0 +1,27 @@
+package com.jstephenperry.randpassgenspring;
+
+/**
+ * Character classes a {@link PasswordPolicy} can include and set minimums for.
+ */
+public enum CharacterClass {
+    LOWER("abcdefghijklmnopqrstuvwxyz"),
+    UPPER("ABCDEFGHIJKLMNOPQRSTUVWXYZ"),
+    DIGIT("0123456789"),
+    SYMBOL(new String(AsciiUtil.getSpecialCharArray()));
+
+    private final String defaultCharacters;
+
+    CharacterClass(String defaultCharacters) {
+        this.defaultCharacters = defaultCharacters;
+    }
+
+    /**
+     * Returns the characters of this class before any exclusions.
+     * Policies can replace the symbol set with their own.
+     *
+     * @return the default characters
+     */
+    public String getDefaultCharacters() {
+        return defaultCharacters;
+    }
+}
@@ -0,0 +1,287 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Immutable, precompiled form of a {@link PasswordPolicy}.
+ * Holds one character table per included class, with exclusions applied, and a table of how many
+ * passwords of each length satisfy the minimums. Generation samples uniformly from exactly the set
+ * of passwords that satisfy the policy, without retries: it first draws how many characters each class
+ * contributes, weighted by the number of valid passwords with that composition, then draws those
+ * characters and shuffles them into place. Because the result is uniform over the valid set, its entropy
+ * is exactly log2 of the set's size.
+ */
+public final class CompiledPasswordPolicy {
+
+    private static final double LN_2 = Math.log(2);
+    private static final double[] LOG_FACTORIALS = new double[PasswordEngine.MAX_PASSWORD_LENGTH + 1];
+
+    static {
+        for (int i = 1; i < LOG_FACTORIALS.length; i++) {
+            LOG_FACTORIALS[i] = LOG_FACTORIALS[i - 1] + Math.log(i);
+        }
+    }
+
+    private final PasswordPolicy policy;
+    private final CharacterClass[] classes;
+    private final char[][] classCharacters;
+    private final double[] logClassSizes;
+    private final int[] minimums;
+    private final int totalMinimum;
+    private final char[] alphabet;
+    private volatile double[][] logCounts;
+
+    CompiledPasswordPolicy(PasswordPolicy policy) {
+        BitSet excluded = new BitSet(128);
+        policy.excludeCharacters().chars().forEach(excluded::set);
+        if (policy.excludeAmbiguous()) {
+            PasswordPolicy.AMBIGUOUS_CHARACTERS.chars().forEach(excluded::set);
+        }
+
+        List<CharacterClass> included = new ArrayList<>();
+        List<char[]> characters = new ArrayList<>();
+        for (CharacterClass characterClass : policy.classes()) {
+            char[] classSet = classSet(characterClass, policy, excluded);
+            if (classSet.length == 0) {
+                if (policy.minimum(characterClass) > 0) {
+                    throw new InvalidPasswordRequestException(String.format(
+                            "Policy requires at least %d %s characters but excludes all of them",
+                            policy.minimum(characterClass), characterClass));
+                }
+                continue;
+            }
+            included.add(characterClass);
+            characters.add(classSet);
+        }
+        for (CharacterClass characterClass : policy.minimums().keySet()) {
+            int minimum = policy.minimum(characterClass);
+            if (minimum < 0) {
+                throw new InvalidPasswordRequestException(String.format(
+                        "Minimum for %s cannot be negative (provided: %d)", characterClass, minimum));
+            }
+            if (minimum > 0 && !policy.classes().contains(characterClass)) {
+                throw new InvalidPasswordRequestException(String.format(
+                        "Policy requires %s characters but does not include that class", characterClass));
+            }
+        }
+        if (included.isEmpty()) {
+            throw new InvalidPasswordRequestException("Policy must include at least one non-empty character class");
+        }
+
+        this.policy = policy;
+        this.classes = included.toArray(new CharacterClass[0]);
+        this.classCharacters = characters.toArray(new char[0][]);
+        this.logClassSizes = new double[classes.length];
+        this.minimums = new int[classes.length];
+        StringBuilder builder = new StringBuilder();
+        int sum = 0;
+        for (int i = 0; i < classes.length; i++) {
+            logClassSizes[i] = Math.log(classCharacters[i].length);
+            minimums[i] = policy.minimum(classes[i]);
+            sum += minimums[i];
+            builder.append(classCharacters[i]);
+        }
+        this.totalMinimum = sum;
+        this.alphabet = builder.toString().toCharArray();
+    }
+
+    /**
+     * Returns the policy this was compiled from.
+     *
+     * @return the source policy
+     */
+    public PasswordPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the number of distinct characters a password may contain.
+     *
+     * @return the alphabet size
+     */
+    public int alphabetSize() {
+        return alphabet.length;
+    }
+
+    /**
+     * Returns a copy of the characters a password may contain.
+     *
+     * @return the alphabet characters
+     */
+    public char[] toCharArray() {
+        return alphabet.clone();
+    }
+
+    /**
+     * Returns the exact entropy of a password of the given length: log2 of the number of passwords
+     * of that length that satisfy the policy, all of which are equally likely.
+     *
+     * @param length the password length
+     * @return the entropy in bits
+     */
+    public double entropyBits(int length) {
+        checkLength(length);
+        if (totalMinimum == 0) {
+            return length * Math.log(alphabet.length) / LN_2;
+        }
+        return logCounts(length)[0][length] / LN_2;
+    }
+
+    /**
+     * Fills a range of the destination array with a password satisfying the policy.
+     *
+     * @param destination the array to write into
+     * @param offset      the index of the first password character
+     * @param length      the password length
+     * @param entropy     the entropy buffer to draw from
+     */
+    public void fill(char[] destination, int offset, int length, EntropyBuffer entropy) {
+        checkLength(length);
+        if (totalMinimum == 0) {
+            // Without minimums every string over the alphabet is valid, so draw characters directly
+            for (int i = 0; i < length; i++) {
+                destination[offset + i] = alphabet[entropy.nextIndex(alphabet.length)];
+            }
+            return;
+        }
+
+        double[][] counts = logCounts(length);
+        int position = offset;
+        int remaining = length;
+        for (int c = 0; c < classes.length; c++) {
+            int count = c == classes.length - 1 ? remaining : sampleClassCount(counts, c, remaining, entropy);
+            char[] classSet = classCharacters[c];
+            for (int i = 0; i < count; i++) {
+                destination[position++] = classSet[entropy.nextIndex(classSet.length)];
+            }
+            remaining -= count;
+        }
+
+        // Fisher-Yates: every arrangement of the drawn characters is equally likely
+        for (int i = length - 1; i > 0; i--) {
+            int j = entropy.nextIndex(i + 1);
+            char swap = destination[offset + i];
+            destination[offset + i] = destination[offset + j];
+            destination[offset + j] = swap;
+        }
+    }
+
+    /**
+     * Draws how many of the remaining positions class c fills, with probability proportional to the
+     * number of valid completions: C(remaining, k) * size^k * count(classes after c, remaining - k).
+     */
+    private int sampleClassCount(double[][] counts, int c, int remaining, EntropyBuffer entropy) {
+        double logTotal = counts[c][remaining];
+        double target = entropy.nextDouble();
+        double cumulative = 0;
+        int last = minimums[c];
+
+        for (int k = minimums[c]; k <= remaining; k++) {
+            double logRest = counts[c + 1][remaining - k];
+            if (logRest == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+            last = k;
+            cumulative += Math.exp(logChoose(remaining, k) + k * logClassSizes[c] + logRest - logTotal);
+            if (target < cumulative) {
+                return k;
+            }
+        }
+        // Only reachable through rounding when the target falls in the last ulp of the distribution
+        return last;
+    }
+
+    /**
+     * Returns a table where [c][r] is the natural log of the number of strings of length r over classes
+     * c onwards that meet those classes' minimums, computed in log space as the counts overflow a double.
+     * Entries do not depend on the requested length, so one table grown on demand serves every length.
+     */
+    private double[][] logCounts(int length) {
+        double[][] table = logCounts;
+        if (table == null || table[0].length <= length) {
+            synchronized (this) {
+                table = logCounts;
+                if (table == null || table[0].length <= length) {
+                    int capacity = table == null ? length : Math.max(length, 2 * (table[0].length - 1));
+                    table = computeLogCounts(Math.min(capacity, PasswordEngine.MAX_PASSWORD_LENGTH));
+                    logCounts = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    private double[][] computeLogCounts(int length) {
+        int classCount = classes.length;
+        double[][] table = new double[classCount + 1][length + 1];
+        Arrays.fill(table[classCount], Double.NEGATIVE_INFINITY);
+        table[classCount][0] = 0;
+        double[] terms = new double[length + 1];
+
+        for (int c = classCount - 1; c >= 0; c--) {
+            for (int r = 0; r <= length; r++) {
+                double max = Double.NEGATIVE_INFINITY;
+                for (int k = 0; k <= r; k++) {
+                    double logRest = table[c + 1][r - k];
+                    terms[k] = k < minimums[c] || logRest == Double.NEGATIVE_INFINITY
+                            ? Double.NEGATIVE_INFINITY
+                            : logChoose(r, k) + k * logClassSizes[c] + logRest;
+                    max = Math.max(max, terms[k]);
+                }
+                if (max == Double.NEGATIVE_INFINITY) {
+                    table[c][r] = max;
+                    continue;
+                }
+                double sum = 0;
+                for (int k = 0; k <= r; k++) {
+                    sum += Math.exp(terms[k] - max);
+                }
+                table[c][r] = max + Math.log(sum);
+            }
+        }
+        return table;
+    }
+
+    private void checkLength(int length) {
+        if (length < totalMinimum) {
+            throw new InvalidPasswordRequestException(String.format(
+                    "Password length %d is shorter than the policy's combined minimums (%d)", length, totalMinimum));
+        }
+        if (length > PasswordEngine.MAX_PASSWORD_LENGTH) {
+            throw new InvalidPasswordRequestException(String.format(
+                    "Password length cannot exceed %d characters (provided: %d)",
+                    PasswordEngine.MAX_PASSWORD_LENGTH, length));
+        }
+    }
+
+    private static double logChoose(int n, int k) {
+        return LOG_FACTORIALS[n] - LOG_FACTORIALS[k] - LOG_FACTORIALS[n - k];
+    }
+
+    private static char[] classSet(CharacterClass characterClass, PasswordPolicy policy, BitSet excluded) {
+        String source = characterClass == CharacterClass.SYMBOL && policy.symbols() != null
+                ? validateSymbols(policy.symbols())
+                : characterClass.getDefaultCharacters();
+        return source.chars()
+                .filter(c -> !excluded.get(c))
+                .distinct()
+                .sorted()
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString()
+                .toCharArray();
+    }
+
+    private static String validateSymbols(String symbols) {
+        for (int i = 0; i < symbols.length(); i++) {
+            char c = symbols.charAt(i);
+            if (c < '!' || c > '~' || Character.isLetterOrDigit(c)) {
+                throw new InvalidPasswordRequestException(String.format(
+                        "Symbols must be printable ASCII punctuation (invalid character: '%s')", c));
+            }
+        }
+        return symbols;
+    }
+}
@@ -0,0 +1,117 @@
+package com.jstephenperry.randpassgenspring;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * Layout of the encrypted export files written by {@link EncryptedPasswordSink} and read by
+ * {@link EncryptedPasswordReader}. All integers are big-endian:
+ * <pre>
+ * header  "RPGX" | version (1 byte) | key nonce (12 bytes) | wrapped data key (32 bytes + 16-byte tag)
+ * frame   ciphertext length (4 bytes) | AES-GCM ciphertext of up to 64 KiB of records | 16-byte tag
+ * record  password length (2 bytes) | password as ASCII
+ * </pre>
+ * Each file is encrypted under a fresh 256-bit data key, itself encrypted with the keystore key under a
+ * random nonce, so the keystore key only ever encrypts one block per file and random nonces stay far from
+ * colliding. Frame nonces are the frame number followed by a flag marking the last frame, and every frame
+ * authenticates the whole header, so frames cannot be reordered, dropped, appended or cut off at a frame
+ * boundary without the tag check failing (the STREAM construction of Hoang, Reyhanitabar, Rogaway and Vizár).
+ */
+final class EncryptedExportFormat {
+
+    static final byte[] MAGIC = {'R', 'P', 'G', 'X'};
+    static final int VERSION = 1;
+    static final int NONCE_LENGTH = 12;
+    static final int TAG_LENGTH = 16;
+    static final int DATA_KEY_LENGTH = 32;
+    static final int HEADER_LENGTH = MAGIC.length + 1 + NONCE_LENGTH + DATA_KEY_LENGTH + TAG_LENGTH;
+    static final int FRAME_PREFIX = 4;
+    static final int MAX_FRAME_LENGTH = 1 << 16;
+    static final int RECORD_PREFIX = 2;
+    static final long MAX_FRAMES = 1L << 32;
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private EncryptedExportFormat() {
+    }
+
+    /**
+     * Returns a new AES-GCM cipher; instances are not thread-safe.
+     */
+    static Cipher cipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(TRANSFORMATION + " is not available", e);
+        }
+    }
+
+    /**
+     * Returns the associated data that binds the wrapped data key to the format version.
+     */
+    static byte[] keyAssociatedData() {
+        byte[] data = new byte[MAGIC.length + 1];
+        System.arraycopy(MAGIC, 0, data, 0, MAGIC.length);
+        data[MAGIC.length] = VERSION;
+        return data;
+    }
+
+    /**
+     * Returns the GCM parameters of a frame: 7 zero bytes, the frame number and the last-frame flag.
+     */
+    static GCMParameterSpec frameParameters(long frame, boolean last) {
+        byte[] nonce = new byte[NONCE_LENGTH];
+        nonce[7] = (byte) (frame >>> 24);
+        nonce[8] = (byte) (frame >>> 16);
+        nonce[9] = (byte) (frame >>> 8);
+        nonce[10] = (byte) frame;
+        nonce[11] = (byte) (last ? 1 : 0);
+        return new GCMParameterSpec(TAG_LENGTH * Byte.SIZE, nonce);
+    }
+
+    /**
+     * A data key that, unlike {@link javax.crypto.spec.SecretKeySpec}, can be destroyed, so the sink and
+     * reader zero their copy of it when closed. Like SecretKeySpec it hands out copies of the key bytes.
+     */
+    static final class DataKey implements SecretKey {
+
+        private final byte[] key;
+        private volatile boolean destroyed;
+
+        DataKey(byte[] key) {
+            this.key = key.clone();
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return "AES";
+        }
+
+        @Override
+        public String getFormat() {
+            return "RAW";
+        }
+
+        @Override
+        public byte[] getEncoded() {
+            if (destroyed) {
+                throw new IllegalStateException("The data key has been destroyed");
+            }
+            return key.clone();
+        }
+
+        @Override
+        public void destroy() {
+            destroyed = true;
+            Arrays.fill(key, (byte) 0);
+        }
+
+        @Override
+        public boolean isDestroyed() {
+            return destroyed;
+        }
+    }
+}
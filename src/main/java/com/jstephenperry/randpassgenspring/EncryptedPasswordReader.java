@@ -0,0 +1,233 @@
+package com.jstephenperry.randpassgenspring;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.DATA_KEY_LENGTH;
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.HEADER_LENGTH;
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.MAGIC;
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.MAX_FRAMES;
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.MAX_FRAME_LENGTH;
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.NONCE_LENGTH;
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.RECORD_PREFIX;
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.TAG_LENGTH;
+
+/**
+ * Streams the passwords back out of a file written by {@link EncryptedPasswordSink}.
+ * <p>
+ * Frames are read, authenticated and decrypted one at a time into a single reused buffer, so memory stays
+ * at two frames whatever the file size, and each decrypted frame is wiped once its records have been passed
+ * on. A frame's records are only passed on after its tag has been verified, but a file that is cut short or
+ * altered further on is only detected when that frame is reached, so consumers writing plaintext should
+ * discard their output when {@link #read(RecordConsumer)} throws. Closing the reader destroys the data key.
+ */
+public class EncryptedPasswordReader implements Closeable {
+
+    private final DataInputStream in;
+    private final byte[] header;
+    private final EncryptedExportFormat.DataKey dataKey;
+    private long frameCount;
+
+    /**
+     * Opens an encrypted export and recovers its data key.
+     *
+     * @param file the encrypted export
+     * @param key  the AES key from the export keystore
+     * @throws IOException if the file cannot be read, is not an encrypted export, or was encrypted with
+     *                     a different key
+     */
+    public EncryptedPasswordReader(Path file, SecretKey key) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+        try {
+            this.header = readHeader();
+            this.dataKey = unwrapDataKey(key);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Receives the passwords of an export in order.
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+
+        /**
+         * Consumes one password.
+         *
+         * @param ascii  the array holding the password, valid only for the duration of the call
+         * @param offset the index of the first byte
+         * @param length the password length
+         * @throws IOException if the password cannot be written
+         */
+        void accept(byte[] ascii, int offset, int length) throws IOException;
+    }
+
+    /**
+     * Reads every remaining frame, passing each password to the consumer.
+     *
+     * @param consumer the consumer of the decrypted passwords
+     * @return the number of passwords read
+     * @throws IOException if the file is truncated, malformed or fails authentication
+     */
+    public long read(RecordConsumer consumer) throws IOException {
+        Cipher cipher = EncryptedExportFormat.cipher();
+        byte[] sealed = new byte[MAX_FRAME_LENGTH + TAG_LENGTH];
+        byte[] plain = new byte[MAX_FRAME_LENGTH];
+        long records = 0;
+        try {
+            while (true) {
+                int length = readFrameLength();
+                if (length < TAG_LENGTH || length > sealed.length) {
+                    throw new IOException(String.format("Frame %d has an invalid length of %d bytes",
+                            frameCount, length));
+                }
+                readFully(sealed, length);
+                boolean last = atEnd();
+                int plainLength = open(cipher, sealed, length, plain, last);
+                records += parseRecords(plain, plainLength, consumer);
+                Arrays.fill(plain, 0, plainLength, (byte) 0);
+                frameCount++;
+                if (last) {
+                    return records;
+                }
+            }
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+        }
+    }
+
+    /**
+     * Returns the number of frames read so far.
+     *
+     * @return the frame count
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        dataKey.destroy();
+        in.close();
+    }
+
+    private byte[] readHeader() throws IOException {
+        byte[] bytes = new byte[HEADER_LENGTH];
+        try {
+            in.readFully(bytes);
+        } catch (EOFException e) {
+            throw new IOException("Not an encrypted export: the file is shorter than the header", e);
+        }
+        if (!Arrays.equals(bytes, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new IOException("Not an encrypted export: unknown file signature");
+        }
+        if (bytes[MAGIC.length] != EncryptedExportFormat.VERSION) {
+            throw new IOException("Unsupported encrypted export version " + (bytes[MAGIC.length] & 0xFF));
+        }
+        return bytes;
+    }
+
+    private EncryptedExportFormat.DataKey unwrapDataKey(SecretKey key) throws IOException {
+        int nonceOffset = MAGIC.length + 1;
+        int keyOffset = nonceOffset + NONCE_LENGTH;
+        byte[] dataKeyBytes = null;
+        try {
+            Cipher cipher = EncryptedExportFormat.cipher();
+            cipher.init(Cipher.DECRYPT_MODE, key,
+                    new GCMParameterSpec(TAG_LENGTH * Byte.SIZE, header, nonceOffset, NONCE_LENGTH));
+            cipher.updateAAD(header, 0, nonceOffset);
+            dataKeyBytes = cipher.doFinal(header, keyOffset, DATA_KEY_LENGTH + TAG_LENGTH);
+            return new EncryptedExportFormat.DataKey(dataKeyBytes);
+        } catch (AEADBadTagException e) {
+            throw new IOException("The export key does not match: the file was encrypted with a different key"
+                    + " or its header was modified", e);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Unable to decrypt with the export key: " + e.getMessage(), e);
+        } finally {
+            if (dataKeyBytes != null) {
+                Arrays.fill(dataKeyBytes, (byte) 0);
+            }
+        }
+    }
+
+    private int readFrameLength() throws IOException {
+        try {
+            return in.readInt();
+        } catch (EOFException e) {
+            throw new IOException(String.format("The file is truncated: it ends after %d frames without the final"
+                    + " frame", frameCount), e);
+        }
+    }
+
+    private void readFully(byte[] buffer, int length) throws IOException {
+        try {
+            in.readFully(buffer, 0, length);
+        } catch (EOFException e) {
+            throw new IOException(String.format("The file is truncated inside frame %d", frameCount), e);
+        }
+    }
+
+    /**
+     * Returns whether the stream is exhausted, which makes the frame just read the one that must be marked last.
+     */
+    private boolean atEnd() throws IOException {
+        in.mark(1);
+        if (in.read() < 0) {
+            return true;
+        }
+        in.reset();
+        return false;
+    }
+
+    private int open(Cipher cipher, byte[] sealed, int length, byte[] plain, boolean last) throws IOException {
+        if (frameCount >= MAX_FRAMES) {
+            throw new IOException("The file has more than " + MAX_FRAMES + " frames");
+        }
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, dataKey, EncryptedExportFormat.frameParameters(frameCount, last));
+            cipher.updateAAD(header);
+            return cipher.doFinal(sealed, 0, length, plain, 0);
+        } catch (AEADBadTagException e) {
+            throw new IOException(String.format("Frame %d failed authentication: the file was modified, reordered"
+                    + " or cut short", frameCount), e);
+        } catch (GeneralSecurityException e) {
+            throw new IOException(String.format("Unable to decrypt frame %d: %s", frameCount, e.getMessage()), e);
+        }
+    }
+
+    private long parseRecords(byte[] plain, int length, RecordConsumer consumer) throws IOException {
+        long records = 0;
+        int position = 0;
+        while (position < length) {
+            if (length - position < RECORD_PREFIX) {
+                throw malformed();
+            }
+            int recordLength = (plain[position] & 0xFF) << 8 | plain[position + 1] & 0xFF;
+            position += RECORD_PREFIX;
+            if (recordLength == 0 || recordLength > length - position) {
+                throw malformed();
+            }
+            consumer.accept(plain, position, recordLength);
+            position += recordLength;
+            records++;
+        }
+        return records;
+    }
+
+    private IOException malformed() {
+        return new IOException(String.format("Frame %d holds a malformed record", frameCount));
+    }
+}
@@ -0,0 +1,304 @@
+package com.jstephenperry.randpassgenspring;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.DATA_KEY_LENGTH;
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.FRAME_PREFIX;
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.MAX_FRAMES;
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.MAX_FRAME_LENGTH;
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.NONCE_LENGTH;
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.RECORD_PREFIX;
+import static com.jstephenperry.randpassgenspring.EncryptedExportFormat.TAG_LENGTH;
+
+/**
+ * Writes passwords to an encrypted, authenticated file in the {@link EncryptedExportFormat}, which
+ * {@link EncryptedPasswordReader} streams back.
+ * <p>
+ * The calling thread, which the pipeline already keeps apart from its generation workers, only encodes
+ * passwords into length-prefixed records in a frame buffer. Full frames pass through a bounded queue to an
+ * encryption thread that seals and writes them and hands the wiped buffer back, so generation, encryption
+ * and file I/O overlap while memory stays fixed at a few frames. If the encryption thread fails, it keeps
+ * recycling buffers so the caller never blocks, and the failure is rethrown on the next full frame or on
+ * {@link #commit()}.
+ * <p>
+ * Like {@link FileChannelPasswordSink}, output goes to a temporary file next to the target, which is
+ * optionally forced to disk and atomically renamed over the target on commit. Closing the sink without
+ * committing deletes it. Either way closing zeroes every frame buffer, including frames still queued, and
+ * destroys the data key.
+ */
+public class EncryptedPasswordSink implements PasswordSink, Closeable {
+
+    private static final int QUEUE_DEPTH = 4;
+
+    private final Path target;
+    private final Path temporaryFile;
+    private final boolean fsync;
+    private final FileChannel channel;
+    private final EncryptedExportFormat.DataKey dataKey;
+    private final byte[] header;
+    private final BlockingQueue<Frame> filled = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+    private final BlockingQueue<byte[]> free = new ArrayBlockingQueue<>(QUEUE_DEPTH + 1);
+    private final Thread encryptor;
+    private volatile Exception failure;
+    private byte[] current;
+    private int position;
+    private boolean committed;
+
+    /**
+     * Creates a sink encrypting under a fresh data key wrapped with the given key.
+     *
+     * @param target               the file to write
+     * @param fsync                whether to force the file to disk before renaming it into place
+     * @param key                  the AES key from the export keystore
+     * @param secureRandomProvider the source of the data key and its nonce
+     * @param threadFactory        the factory for the encryption thread
+     * @throws IOException if the temporary file cannot be created or the key cannot wrap the data key
+     */
+    public EncryptedPasswordSink(Path target, boolean fsync, SecretKey key, SecureRandomProvider secureRandomProvider,
+                                 ThreadFactory threadFactory) throws IOException {
+        byte[] dataKeyBytes = new byte[DATA_KEY_LENGTH];
+        byte[] keyNonce = new byte[NONCE_LENGTH];
+        secureRandomProvider.nextBytes(dataKeyBytes);
+        secureRandomProvider.nextBytes(keyNonce);
+        try {
+            this.header = header(key, keyNonce, dataKeyBytes);
+            this.dataKey = new EncryptedExportFormat.DataKey(dataKeyBytes);
+        } finally {
+            Arrays.fill(dataKeyBytes, (byte) 0);
+        }
+
+        Path absoluteTarget = target.toAbsolutePath();
+        this.target = absoluteTarget;
+        this.fsync = fsync;
+        this.temporaryFile = Files.createTempFile(absoluteTarget.getParent(),
+                "." + absoluteTarget.getFileName(), ".tmp");
+        FileChannel opened = null;
+        try {
+            opened = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            write(opened, ByteBuffer.wrap(header));
+
+            this.channel = opened;
+            for (int i = 0; i < QUEUE_DEPTH; i++) {
+                free.add(new byte[MAX_FRAME_LENGTH]);
+            }
+            this.current = new byte[MAX_FRAME_LENGTH];
+            this.encryptor = threadFactory.newThread(this::encryptFrames);
+            encryptor.start();
+        } catch (IOException | RuntimeException | Error e) {
+            dataKey.destroy();
+            discardTemporaryFile(opened, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void accept(PasswordChunk chunk) throws IOException {
+        char[] characters = chunk.getCharacters();
+        int length = chunk.getPasswordLength();
+
+        for (int i = 0; i < chunk.getCount(); i++) {
+            if (current.length - position < RECORD_PREFIX + length) {
+                submit(false);
+            }
+            current[position++] = (byte) (length >>> 8);
+            current[position++] = (byte) length;
+            int offset = chunk.offset(i);
+            for (int j = 0; j < length; j++) {
+                // Alphabet characters are all 7-bit ASCII, so narrowing is lossless
+                current[position++] = (byte) characters[offset + j];
+            }
+        }
+    }
+
+    /**
+     * Seals the remaining passwords as the last frame, waits for the encryption thread to write it,
+     * optionally forces the file to disk and atomically renames it over the target.
+     *
+     * @throws IOException if encryption or output failed, or the file cannot be moved into place
+     */
+    public void commit() throws IOException {
+        submit(true);
+        try {
+            encryptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while finishing the encrypted export");
+        }
+        checkFailure();
+        if (fsync) {
+            channel.force(true);
+        }
+        channel.close();
+        FileChannelPasswordSink.moveIntoPlace(temporaryFile, target, fsync);
+        committed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (encryptor.isAlive()) {
+            encryptor.interrupt();
+            joinUninterruptibly();
+        }
+        // The encryption thread has stopped, so the buffers are only reachable from here
+        if (current != null) {
+            Arrays.fill(current, (byte) 0);
+        }
+        for (Frame frame = filled.poll(); frame != null; frame = filled.poll()) {
+            Arrays.fill(frame.data(), (byte) 0);
+        }
+        for (byte[] buffer = free.poll(); buffer != null; buffer = free.poll()) {
+            Arrays.fill(buffer, (byte) 0);
+        }
+        dataKey.destroy();
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Hands the current frame to the encryption thread and takes an empty buffer for the next one.
+     */
+    private void submit(boolean last) throws IOException {
+        checkFailure();
+        try {
+            filled.put(new Frame(current, position, last));
+            current = last ? null : free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while queueing passwords for encryption");
+        }
+        position = 0;
+    }
+
+    private void checkFailure() throws IOException {
+        Exception cause = failure;
+        if (cause != null) {
+            throw new IOException("Encrypted export failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Body of the encryption thread: seals frames in order until the last one, recycling every buffer.
+     */
+    private void encryptFrames() {
+        Cipher cipher = EncryptedExportFormat.cipher();
+        byte[] sealed = new byte[FRAME_PREFIX + MAX_FRAME_LENGTH + TAG_LENGTH];
+        long frameNumber = 0;
+        try {
+            while (true) {
+                Frame frame = filled.take();
+                try {
+                    if (failure == null) {
+                        seal(cipher, sealed, frameNumber++, frame);
+                    }
+                } catch (IOException | GeneralSecurityException | RuntimeException e) {
+                    failure = e;
+                } finally {
+                    Arrays.fill(frame.data(), 0, frame.length(), (byte) 0);
+                    if (!frame.last()) {
+                        free.add(frame.data());
+                    }
+                }
+                if (frame.last()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Closed without committing; the temporary file is deleted
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void seal(Cipher cipher, byte[] sealed, long frameNumber, Frame frame)
+            throws IOException, GeneralSecurityException {
+        if (frameNumber >= MAX_FRAMES) {
+            throw new IOException("Export exceeds " + MAX_FRAMES + " frames");
+        }
+        GCMParameterSpec parameters = EncryptedExportFormat.frameParameters(frameNumber, frame.last());
+        cipher.init(Cipher.ENCRYPT_MODE, dataKey, parameters);
+        cipher.updateAAD(header);
+        int length = cipher.doFinal(frame.data(), 0, frame.length(), sealed, FRAME_PREFIX);
+        ByteBuffer.wrap(sealed, 0, FRAME_PREFIX).putInt(length);
+        write(channel, ByteBuffer.wrap(sealed, 0, FRAME_PREFIX + length));
+    }
+
+    private static void write(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    /**
+     * Closes the channel, if it was opened, and deletes the temporary file after a failed construction,
+     * recording any failure to do so on the exception being thrown.
+     */
+    private void discardTemporaryFile(FileChannel opened, Throwable failure) {
+        try {
+            if (opened != null) {
+                opened.close();
+            }
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+        try {
+            Files.deleteIfExists(temporaryFile);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void joinUninterruptibly() {
+        boolean interrupted = false;
+        while (encryptor.isAlive()) {
+            try {
+                encryptor.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Builds the file header, wrapping the data key with the keystore key under a random nonce.
+     */
+    private static byte[] header(SecretKey key, byte[] keyNonce, byte[] dataKeyBytes) throws IOException {
+        byte[] associatedData = EncryptedExportFormat.keyAssociatedData();
+        byte[] header = new byte[EncryptedExportFormat.HEADER_LENGTH];
+        System.arraycopy(associatedData, 0, header, 0, associatedData.length);
+        System.arraycopy(keyNonce, 0, header, associatedData.length, NONCE_LENGTH);
+        try {
+            Cipher cipher = EncryptedExportFormat.cipher();
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * Byte.SIZE, keyNonce));
+            cipher.updateAAD(associatedData);
+            cipher.doFinal(dataKeyBytes, 0, DATA_KEY_LENGTH, header, associatedData.length + NONCE_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Unable to encrypt with the export key: " + e.getMessage(), e);
+        }
+        return header;
+    }
+
+    /**
+     * A frame buffer holding {@code length} bytes of records.
+     */
+    private record Frame(byte[] data, int length, boolean last) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.util.Arrays;
+
+/**
+ * Reusable block of random bytes drawn from an {@link EntropySource}.
+ * Bytes are requested from the source in large blocks and handed out one at a time,
+ * so the source is only called when the buffer runs out. Consumed bytes are zeroed.
+ * Instances are not thread-safe; each generating thread should use its own buffer.
+ */
+public final class EntropyBuffer {
+
+    public static final int DEFAULT_SIZE = 4096;
+
+    private final EntropySource source;
+    private final byte[] buffer;
+    private int position;
+
+    public EntropyBuffer(EntropySource source) {
+        this(source, DEFAULT_SIZE);
+    }
+
+    public EntropyBuffer(EntropySource source, int size) {
+        if (size < Integer.BYTES) {
+            throw new IllegalArgumentException("Entropy buffer size must be at least " + Integer.BYTES);
+        }
+        this.source = source;
+        this.buffer = new byte[size];
+        this.position = size;
+    }
+
+    /**
+     * Returns the next random byte as an unsigned value.
+     *
+     * @return a uniformly distributed value in the range 0-255
+     */
+    public int nextByte() {
+        if (position == buffer.length) {
+            refill();
+        }
+        int value = buffer[position] & 0xFF;
+        buffer[position++] = 0;
+        return value;
+    }
+
+    /**
+     * Returns the next 32 random bits.
+     *
+     * @return a uniformly distributed int
+     */
+    public int nextInt() {
+        return nextByte() << 24 | nextByte() << 16 | nextByte() << 8 | nextByte();
+    }
+
+    /**
+     * Returns a uniformly distributed index in the range 0 (inclusive) to bound (exclusive).
+     * Random bits are masked to the next power of two and values outside the range are rejected,
+     * so no index is favoured.
+     *
+     * @param bound the exclusive upper bound, must be positive
+     * @return a uniformly distributed index
+     */
+    public int nextIndex(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive (provided: " + bound + ")");
+        }
+        int mask = -1 >>> Integer.numberOfLeadingZeros(Math.max(bound - 1, 1));
+        int index;
+        if (bound <= 256) {
+            do {
+                index = nextByte() & mask;
+            } while (index >= bound);
+        } else {
+            do {
+                index = nextInt() & mask;
+            } while (index >= bound);
+        }
+        return index;
+    }
+
+    /**
+     * Returns a uniformly distributed double in the range 0 (inclusive) to 1 (exclusive),
+     * built from 53 random bits.
+     *
+     * @return a uniformly distributed double
+     */
+    public double nextDouble() {
+        long bits = (long) nextInt() << 32 | nextInt() & 0xFFFFFFFFL;
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Returns the buffer for bulk reads, refilling it first if it is used up. The unconsumed bytes run
+     * from {@link #position()} to the end of the array; mark them consumed with {@link #skip(int)}.
+     */
+    byte[] block() {
+        if (position == buffer.length) {
+            refill();
+        }
+        return buffer;
+    }
+
+    int position() {
+        return position;
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Returns the number of bytes left before the next refill.
+     */
+    int remaining() {
+        return buffer.length - position;
+    }
+
+    /**
+     * Zeroes the next bytes and marks them consumed.
+     */
+    void skip(int count) {
+        Arrays.fill(buffer, position, position + count, (byte) 0);
+        position += count;
+    }
+
+    /**
+     * Zeroes the unconsumed bytes and marks the buffer used up, so the next read refills it.
+     */
+    void wipe() {
+        skip(remaining());
+    }
+
+    private void refill() {
+        source.nextBytes(buffer);
+        position = 0;
+    }
+}
@@ -0,0 +1,77 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Shared pool of {@link EntropyBuffer}s for callers that run on short-lived threads.
+ * <p>
+ * A thread-local buffer is created and filled once per thread, so on virtual threads, which serve a single
+ * request each, every request would draw a whole block from the random source for a few dozen bytes and
+ * throw the rest away. Buffers are instead borrowed from a fixed set of slots and returned after use, so a
+ * block drawn for one request serves the following ones on any thread. Slots are claimed and refilled with
+ * compare-and-set, starting at a slot chosen by thread id, so borrowing neither blocks nor allocates once the
+ * pool is warm. When every slot is empty a new buffer is created, and a buffer returned to a full pool is
+ * wiped and dropped.
+ */
+final class EntropyBufferPool {
+
+    private final EntropySource source;
+    private final AtomicReferenceArray<EntropyBuffer> slots;
+
+    /**
+     * Creates a pool with two slots per available processor.
+     *
+     * @param source the source the buffers draw from
+     */
+    EntropyBufferPool(EntropySource source) {
+        this(source, 2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    EntropyBufferPool(EntropySource source, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Entropy buffer pool capacity must be positive (provided: "
+                    + capacity + ")");
+        }
+        this.source = source;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Borrows a buffer for the exclusive use of the calling thread until it is {@link #release released}.
+     *
+     * @return a pooled buffer, or a new one if none is idle
+     */
+    EntropyBuffer acquire() {
+        int capacity = slots.length();
+        int start = startSlot(capacity);
+        for (int i = 0; i < capacity; i++) {
+            int slot = (start + i) % capacity;
+            EntropyBuffer buffer = slots.get(slot);
+            if (buffer != null && slots.compareAndSet(slot, buffer, null)) {
+                return buffer;
+            }
+        }
+        return new EntropyBuffer(source);
+    }
+
+    /**
+     * Returns a borrowed buffer to the pool; the caller must not use it afterwards.
+     *
+     * @param buffer the buffer from {@link #acquire()}
+     */
+    void release(EntropyBuffer buffer) {
+        int capacity = slots.length();
+        int start = startSlot(capacity);
+        for (int i = 0; i < capacity; i++) {
+            int slot = (start + i) % capacity;
+            if (slots.get(slot) == null && slots.compareAndSet(slot, null, buffer)) {
+                return;
+            }
+        }
+        buffer.wipe();
+    }
+
+    private static int startSlot(int capacity) {
+        return (int) (Thread.currentThread().threadId() % capacity);
+    }
+}
@@ -0,0 +1,112 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.security.SecureRandom;
+
+/**
+ * The SP 800-90B continuous health tests, applied to random bytes before they are used: the repetition
+ * count test catches a source stuck on one value, and the adaptive proportion test catches one value
+ * turning up in a 512-byte window far more often than chance.
+ * <p>
+ * Each byte is a sample credited with the full 8 bits of min-entropy a DRBG or conditioned source claims,
+ * and the cutoffs are set for a false alarm probability of 2⁻⁴⁰, the lowest SP 800-90B allows, so a healthy
+ * source trips a test about once per terabyte. The tests cost one or two comparisons per byte. Not thread-safe;
+ * each stream of bytes needs its own instance.
+ */
+final class EntropyHealthCheck {
+
+    /**
+     * The number of samples examined at startup; SP 800-90B requires at least 1024.
+     */
+    static final int STARTUP_SAMPLES = 4096;
+    static final int APT_WINDOW = 512;
+
+    private static final int ENTROPY_BITS = 8;
+    private static final int ALPHA_EXPONENT = 40;
+    static final int RCT_CUTOFF = 1 + (ALPHA_EXPONENT + ENTROPY_BITS - 1) / ENTROPY_BITS;
+    static final int APT_CUTOFF =
+            aptCutoff(APT_WINDOW, Math.scalb(1.0, -ENTROPY_BITS), Math.scalb(1.0, -ALPHA_EXPONENT));
+
+    private int previous = -1;
+    private int repetitions;
+    private int reference;
+    private int matches;
+    private int windowPosition;
+
+    /**
+     * Runs the startup tests on a new instance, discarding the bytes examined.
+     *
+     * @param random the instance to test
+     * @param name   the backend name for the error message
+     * @throws IllegalStateException if a test fails
+     */
+    static void startup(SecureRandom random, String name) {
+        byte[] samples = new byte[STARTUP_SAMPLES];
+        random.nextBytes(samples);
+        try {
+            new EntropyHealthCheck().check(samples);
+        } catch (EntropySourceException e) {
+            throw new IllegalStateException("Random source " + name + " failed its startup health test: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Feeds bytes through both tests.
+     *
+     * @param bytes the bytes drawn from the source
+     * @throws EntropySourceException if a test fails; the state is reset for the next call
+     */
+    void check(byte[] bytes) {
+        for (byte b : bytes) {
+            int sample = b & 0xFF;
+            if (sample == previous) {
+                if (++repetitions >= RCT_CUTOFF) {
+                    fail("repetition count test: " + repetitions + " consecutive bytes of " + sample);
+                }
+            } else {
+                previous = sample;
+                repetitions = 1;
+            }
+
+            if (windowPosition == 0) {
+                reference = sample;
+                matches = 1;
+            } else if (sample == reference && ++matches >= APT_CUTOFF) {
+                fail("adaptive proportion test: " + matches + " bytes of " + sample
+                        + " in a window of " + APT_WINDOW);
+            }
+            if (++windowPosition == APT_WINDOW) {
+                windowPosition = 0;
+            }
+        }
+    }
+
+    private void fail(String message) {
+        previous = -1;
+        repetitions = 0;
+        windowPosition = 0;
+        throw new EntropySourceException("Random source failed the " + message);
+    }
+
+    /**
+     * Returns the smallest count of the first sample in a window that a healthy source reaches with probability
+     * at most alpha: one plus the binomial critical value over the rest of the window.
+     */
+    static int aptCutoff(int window, double probability, double alpha) {
+        int trials = window - 1;
+        double[] pmf = new double[trials + 1];
+        pmf[0] = Math.pow(1 - probability, trials);
+        for (int k = 0; k < trials; k++) {
+            pmf[k + 1] = pmf[k] * (trials - k) / (k + 1) * probability / (1 - probability);
+        }
+        // Sum the upper tail from the top so the small probabilities keep their precision
+        double tail = 0;
+        for (int k = trials; k >= 0; k--) {
+            if (tail + pmf[k] > alpha) {
+                return k + 2;
+            }
+            tail += pmf[k];
+        }
+        return 1;
+    }
+}
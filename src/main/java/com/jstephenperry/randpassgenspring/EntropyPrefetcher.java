@@ -0,0 +1,199 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded ring of random blocks drawn ahead of demand by a background thread.
+ * <p>
+ * One producer thread keeps the ring full from the source; any number of generating threads take
+ * blocks without locks, so a slow draw (a reseed, a blocking read of /dev/random, an HSM round trip) stalls
+ * the producer rather than a request. Each slot carries a sequence number in the style of Vyukov's bounded
+ * queue: the producer publishes a filled slot by advancing its sequence, a consumer claims it by a
+ * compare-and-set on the shared head, copies the block out, zeroes the slot and hands it back to the
+ * producer. When the ring is empty {@link #take(byte[])} returns false at once and the caller draws from
+ * the source itself, so taking never waits.
+ */
+final class EntropyPrefetcher implements AutoCloseable {
+
+    private static final long FAILURE_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final EntropySource source;
+    private final byte[][] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final int blockSize;
+    private final AtomicLong head = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Thread producer;
+    private volatile boolean producerParked;
+    private volatile boolean closed;
+
+    /**
+     * Creates the ring and starts the producer.
+     *
+     * @param source        the source to draw blocks from
+     * @param slots         the number of blocks held, a power of two of at least 2
+     * @param blockSize     the size of each block in bytes
+     * @param threadFactory creates the producer thread
+     */
+    EntropyPrefetcher(EntropySource source, int slots, int blockSize, ThreadFactory threadFactory) {
+        if (slots < 2 || Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("Prefetch slots must be a power of two of at least 2 (provided: "
+                    + slots + ")");
+        }
+        if (blockSize < Integer.BYTES) {
+            throw new IllegalArgumentException("Prefetch block size must be at least " + Integer.BYTES
+                    + " (provided: " + blockSize + ")");
+        }
+        this.source = source;
+        this.slots = new byte[slots][blockSize];
+        this.sequences = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = slots - 1;
+        this.blockSize = blockSize;
+        this.producer = threadFactory.newThread(this::produce);
+        producer.start();
+    }
+
+    /**
+     * Fills the array from prefetched blocks if it is at least one block long and enough blocks are ready.
+     * Surplus bytes of the last block are zeroed and dropped.
+     *
+     * @param bytes the array to fill
+     * @return true if the array was filled, false if the caller must draw from the source itself
+     */
+    boolean take(byte[] bytes) {
+        if (bytes.length < blockSize || closed) {
+            return false;
+        }
+        int filled = 0;
+        while (filled < bytes.length) {
+            int copied = takeBlock(bytes, filled);
+            if (copied == 0) {
+                // Bytes already copied are fresh random bytes, so the caller may overwrite them
+                misses.increment();
+                return false;
+            }
+            filled += copied;
+        }
+        hits.increment();
+        return true;
+    }
+
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of blocks ready to take.
+     *
+     * @return the approximate count
+     */
+    int available() {
+        int ready = 0;
+        long position = head.get();
+        for (int i = 0; i < slots.length; i++) {
+            if (sequences.get((int) (position + i) & mask) == position + i + 1) {
+                ready++;
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * Stops the producer and zeroes every block not taken yet.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        producer.interrupt();
+        try {
+            producer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Claim the remaining blocks like a consumer, so none is zeroed while another thread copies it
+        while (takeBlock(null, 0) > 0) {
+            // Each claimed block is zeroed by takeBlock
+        }
+    }
+
+    /**
+     * Claims the next filled slot and copies it into the array at the offset, or only zeroes it if the array
+     * is null.
+     *
+     * @return the number of bytes taken, 0 if no block was ready
+     */
+    private int takeBlock(byte[] bytes, int offset) {
+        long position;
+        int index;
+        while (true) {
+            position = head.get();
+            index = (int) position & mask;
+            long difference = sequences.getAcquire(index) - (position + 1);
+            if (difference < 0) {
+                return 0;
+            }
+            if (difference == 0 && head.compareAndSet(position, position + 1)) {
+                break;
+            }
+        }
+
+        byte[] slot = slots[index];
+        int count = bytes == null ? blockSize : Math.min(blockSize, bytes.length - offset);
+        if (bytes != null) {
+            System.arraycopy(slot, 0, bytes, offset, count);
+        }
+        Arrays.fill(slot, (byte) 0);
+        // A volatile write, ordered before the read of producerParked, pairs with the producer's re-check
+        sequences.set(index, position + slots.length);
+        if (producerParked) {
+            LockSupport.unpark(producer);
+        }
+        return count;
+    }
+
+    private void produce() {
+        long tail = 0;
+        while (!closed) {
+            int index = (int) tail & mask;
+            if (sequences.getAcquire(index) != tail) {
+                // Full: wait for a consumer to hand a slot back, re-checking after announcing the wait
+                producerParked = true;
+                if (sequences.get(index) != tail && !closed) {
+                    LockSupport.park(this);
+                }
+                producerParked = false;
+                continue;
+            }
+            byte[] slot = slots[index];
+            try {
+                source.nextBytes(slot);
+            } catch (RuntimeException e) {
+                // The source rejected the block (for example a failed health test); consumers fall back to it
+                Arrays.fill(slot, (byte) 0);
+                LockSupport.parkNanos(this, FAILURE_BACKOFF_NANOS);
+                continue;
+            }
+            if (closed) {
+                Arrays.fill(slot, (byte) 0);
+                return;
+            }
+            sequences.setRelease(index, tail + 1);
+            tail++;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.jstephenperry.randpassgenspring;
+
+/**
+ * Source of random bytes used to refill entropy buffers.
+ */
+@FunctionalInterface
+public interface EntropySource {
+
+    /**
+     * Fills the given array with random bytes.
+     *
+     * @param bytes the array to fill
+     */
+    void nextBytes(byte[] bytes);
+}
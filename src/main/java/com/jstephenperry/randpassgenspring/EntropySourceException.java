@@ -0,0 +1,12 @@
+package com.jstephenperry.randpassgenspring;
+
+/**
+ * Exception thrown when random bytes fail a continuous health test and are discarded.
+ * The fault lies with the random source, not the request, so it is mapped to 503 Service Unavailable.
+ */
+public class EntropySourceException extends PasswordGenerationException {
+
+    public EntropySourceException(String message) {
+        super(message);
+    }
+}
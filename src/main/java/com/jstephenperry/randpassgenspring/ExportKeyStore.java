@@ -0,0 +1,62 @@
+package com.jstephenperry.randpassgenspring;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.util.Arrays;
+
+/**
+ * Loads the AES key for encrypted exports from a local PKCS12 keystore, such as one created with
+ * {@code keytool -genseckey -keyalg AES -keysize 256 -storetype PKCS12}.
+ */
+final class ExportKeyStore {
+
+    private ExportKeyStore() {
+    }
+
+    /**
+     * Loads a key entry from the configured keystore.
+     *
+     * @param properties the export configuration naming the keystore and its password
+     * @param alias      the alias of the key entry, or null for the configured alias
+     * @return the AES key
+     * @throws PasswordGenerationException if no keystore is configured or the key cannot be loaded
+     */
+    static SecretKey load(ExportProperties properties, String alias) {
+        if (properties.keystore().isBlank()) {
+            throw new PasswordGenerationException(
+                    "No export keystore configured; set rand-pass-gen.export.keystore to a PKCS12 file");
+        }
+        Path path = Path.of(properties.keystore());
+        String keyAlias = alias != null ? alias : properties.keyAlias();
+        char[] password = properties.keystorePassword().toCharArray();
+
+        try (InputStream in = Files.newInputStream(path)) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, password);
+            Key key = keyStore.getKey(keyAlias, password);
+            if (key == null) {
+                throw new PasswordGenerationException(
+                        String.format("Export keystore '%s' has no key named '%s'", path, keyAlias));
+            }
+            if (!(key instanceof SecretKey secretKey) || !"AES".equalsIgnoreCase(key.getAlgorithm())) {
+                throw new PasswordGenerationException(String.format(
+                        "Key '%s' in '%s' is a %s key, not an AES secret key", keyAlias, path, key.getAlgorithm()));
+            }
+            return secretKey;
+        } catch (NoSuchFileException e) {
+            throw new PasswordGenerationException(String.format("Export keystore not found: %s", path), e);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new PasswordGenerationException(
+                    String.format("Failed to open export keystore '%s': %s", path, e.getMessage()), e);
+        } finally {
+            Arrays.fill(password, '\0');
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration for encrypted exports.
+ *
+ * @param keystore         a PKCS12 keystore file holding the AES export key, or empty if none is configured
+ * @param keystorePassword the password of the keystore and its key entry, best supplied through the
+ *                         {@code RANDPASSGEN_EXPORT_KEYSTOREPASSWORD} environment variable
+ * @param keyAlias         the alias of the key entry used when a command names none
+ */
+@ConfigurationProperties(prefix = "rand-pass-gen.export")
+public record ExportProperties(
+        @DefaultValue("") String keystore,
+        @DefaultValue("") String keystorePassword,
+        @DefaultValue("export") String keyAlias) {
+
+    /**
+     * Returns the default configuration, without a keystore.
+     *
+     * @return the default properties
+     */
+    public static ExportProperties defaults() {
+        return new ExportProperties("", "", "export");
+    }
+}
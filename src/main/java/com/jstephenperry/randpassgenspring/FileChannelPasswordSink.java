@@ -0,0 +1,188 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes newline-delimited passwords to a file through a {@link FileChannel}.
+ * Characters are encoded as ASCII straight into a reusable direct buffer, so no String or byte array
+ * is created per password. Output goes to a temporary file next to the target, which is optionally
+ * forced to disk and then atomically renamed over the target by {@link #commit()}. Closing the sink
+ * without committing deletes the temporary file, so a failed or cancelled export never leaves a
+ * partial file at the target path.
+ */
+public class FileChannelPasswordSink implements PasswordSink, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileChannelPasswordSink.class);
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final byte[] ZEROS = new byte[8192];
+
+    private final Path target;
+    private final Path temporaryFile;
+    private final boolean fsync;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private boolean committed;
+
+    public FileChannelPasswordSink(Path target, boolean fsync) throws IOException {
+        this(target, fsync, BUFFER_SIZE);
+    }
+
+    FileChannelPasswordSink(Path target, boolean fsync, int bufferSize) throws IOException {
+        Path absoluteTarget = target.toAbsolutePath();
+        this.target = absoluteTarget;
+        this.fsync = fsync;
+        this.temporaryFile = Files.createTempFile(absoluteTarget.getParent(),
+                "." + absoluteTarget.getFileName(), ".tmp");
+        FileChannel opened = null;
+        try {
+            opened = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+            this.channel = opened;
+        } catch (IOException | RuntimeException | Error e) {
+            discardTemporaryFile(opened, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void accept(PasswordChunk chunk) throws IOException {
+        char[] characters = chunk.getCharacters();
+        int length = chunk.getPasswordLength();
+
+        for (int i = 0; i < chunk.getCount(); i++) {
+            if (buffer.remaining() < length + 1) {
+                drain();
+            }
+            int offset = chunk.offset(i);
+            for (int j = 0; j < length; j++) {
+                // Alphabet characters are all 7-bit ASCII, so narrowing is lossless
+                buffer.put((byte) characters[offset + j]);
+            }
+            buffer.put((byte) '\n');
+        }
+    }
+
+    /**
+     * Writes one password given as ASCII bytes, followed by a newline.
+     *
+     * @param ascii  the array holding the password
+     * @param offset the index of the first byte
+     * @param length the password length
+     * @throws IOException if the buffered output cannot be written
+     */
+    public void write(byte[] ascii, int offset, int length) throws IOException {
+        if (buffer.remaining() < length + 1) {
+            drain();
+        }
+        buffer.put(ascii, offset, length);
+        buffer.put((byte) '\n');
+    }
+
+    /**
+     * Flushes buffered output, optionally forces it to disk and atomically renames the temporary
+     * file over the target.
+     *
+     * @throws IOException if the output cannot be written or moved into place
+     */
+    public void commit() throws IOException {
+        drain();
+        if (fsync) {
+            channel.force(true);
+        }
+        channel.close();
+        moveIntoPlace(temporaryFile, target, fsync);
+        committed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        wipeBuffer(buffer.position());
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        int used = buffer.limit();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        wipeBuffer(used);
+    }
+
+    /**
+     * Zeroes the used part of the direct buffer so written passwords do not linger off-heap.
+     */
+    private void wipeBuffer(int used) {
+        buffer.clear();
+        for (int remaining = used; remaining > 0; remaining -= ZEROS.length) {
+            buffer.put(ZEROS, 0, Math.min(remaining, ZEROS.length));
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Closes the channel, if it was opened, and deletes the temporary file after a failed construction,
+     * recording any failure to do so on the exception being thrown.
+     */
+    private void discardTemporaryFile(FileChannel opened, Throwable failure) {
+        try {
+            if (opened != null) {
+                opened.close();
+            }
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+        try {
+            Files.deleteIfExists(temporaryFile);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Atomically renames a finished temporary file over the target, falling back to a regular move where
+     * the file system cannot rename atomically.
+     *
+     * @param temporaryFile the finished file, already forced to disk if required
+     * @param target        the path to replace
+     * @param fsync         whether to force the directory entry of the renamed file to disk
+     * @throws IOException if the file cannot be moved into place
+     */
+    static void moveIntoPlace(Path temporaryFile, Path target, boolean fsync) throws IOException {
+        try {
+            Files.move(temporaryFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            logger.warn("Atomic rename unsupported for {}, falling back to a regular move", target);
+            Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (fsync) {
+            forceDirectory(target.getParent());
+        }
+    }
+
+    /**
+     * Forces the directory entry for the renamed file to disk. Not every platform allows opening
+     * a directory as a channel, in which case the rename is left to the file system's own ordering.
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        } catch (IOException e) {
+            logger.debug("Unable to fsync directory {}: {}", directory, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.jstephenperry.randpassgenspring;
+
+/**
+ * Exception thrown when a request is rejected because of its parameters, as opposed to a failure while
+ * serving a valid one. Mapped to 400 Bad Request and counted as a validation failure.
+ */
+public class InvalidPasswordRequestException extends PasswordGenerationException {
+
+    public InvalidPasswordRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidPasswordRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
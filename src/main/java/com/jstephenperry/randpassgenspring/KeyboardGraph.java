@@ -0,0 +1,112 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.util.Arrays;
+
+/**
+ * Key adjacency for keyboard-walk detection, built once from the rows of a slanted keyboard layout.
+ * Each key has up to six neighbours, in a fixed direction order, so a walk can count its turns. Keys are
+ * looked up through a table indexed by ASCII code, and every key knows its unshifted and shifted character.
+ */
+final class KeyboardGraph {
+
+    private static final int DIRECTIONS = 6;
+    // Neighbour offsets on the slanted grid: left, upper-left, upper-right, right, lower-right, lower-left
+    private static final int[] DX = {-1, 0, 1, 1, 0, -1};
+    private static final int[] DY = {0, -1, -1, 0, 1, 1};
+
+    /**
+     * The US QWERTY layout. Rows below the number row are offset by one key, which together with the
+     * slanted neighbour directions models the physical stagger of the keys.
+     */
+    static final KeyboardGraph QWERTY = new KeyboardGraph(
+            new String[]{"`1234567890-=", "qwertyuiop[]\\", "asdfghjkl;'", "zxcvbnm,./"},
+            new String[]{"~!@#$%^&*()_+", "QWERTYUIOP{}|", "ASDFGHJKL:\"", "ZXCVBNM<>?"},
+            new int[]{0, 1, 1, 1});
+
+    private final int[] keyOf = new int[128];
+    private final boolean[] shifted = new boolean[128];
+    private final int[][] neighbours;
+    private final int startingPositions;
+    private final double averageDegree;
+
+    private KeyboardGraph(String[] rows, String[] shiftedRows, int[] offsets) {
+        Arrays.fill(keyOf, -1);
+        int width = 0;
+        int keyCount = 0;
+        for (String row : rows) {
+            keyCount += row.length();
+        }
+        for (int y = 0; y < rows.length; y++) {
+            width = Math.max(width, offsets[y] + rows[y].length());
+        }
+
+        int[][] grid = new int[rows.length][width];
+        for (int[] row : grid) {
+            Arrays.fill(row, -1);
+        }
+        int key = 0;
+        for (int y = 0; y < rows.length; y++) {
+            for (int i = 0; i < rows[y].length(); i++, key++) {
+                grid[y][offsets[y] + i] = key;
+                keyOf[rows[y].charAt(i)] = key;
+                keyOf[shiftedRows[y].charAt(i)] = key;
+                shifted[shiftedRows[y].charAt(i)] = true;
+            }
+        }
+
+        this.neighbours = new int[keyCount][DIRECTIONS];
+        int edges = 0;
+        for (int y = 0; y < grid.length; y++) {
+            for (int x = 0; x < width; x++) {
+                if (grid[y][x] < 0) {
+                    continue;
+                }
+                for (int d = 0; d < DIRECTIONS; d++) {
+                    int nx = x + DX[d];
+                    int ny = y + DY[d];
+                    boolean inside = ny >= 0 && ny < grid.length && nx >= 0 && nx < width;
+                    neighbours[grid[y][x]][d] = inside ? grid[ny][nx] : -1;
+                    if (inside && grid[ny][nx] >= 0) {
+                        edges++;
+                    }
+                }
+            }
+        }
+        // Both characters of a key start a walk and share its neighbours
+        this.startingPositions = keyCount * 2;
+        this.averageDegree = (double) edges / keyCount;
+    }
+
+    /**
+     * Returns the direction from one character's key to an adjacent character's key.
+     *
+     * @param from the previous character
+     * @param to   the next character
+     * @return the direction index, or -1 if the keys are not adjacent
+     */
+    int direction(char from, char to) {
+        if (from >= 128 || to >= 128 || keyOf[from] < 0 || keyOf[to] < 0) {
+            return -1;
+        }
+        int[] adjacent = neighbours[keyOf[from]];
+        int target = keyOf[to];
+        for (int d = 0; d < DIRECTIONS; d++) {
+            if (adjacent[d] == target) {
+                return d;
+            }
+        }
+        return -1;
+    }
+
+    boolean isShifted(char c) {
+        return c < 128 && shifted[c];
+    }
+
+    int getStartingPositions() {
+        return startingPositions;
+    }
+
+    double getAverageDegree() {
+        return averageDegree;
+    }
+}
@@ -0,0 +1,124 @@
+package com.jstephenperry.randpassgenspring;
+
+/**
+ * Set of primitive {@code long} values with open addressing and linear probing.
+ * <p>
+ * Values are stored unboxed in a single array, 8 bytes per slot, so a set presized for its final
+ * size costs about 10 bytes per value instead of the 50 or more of a {@code HashSet<Long>}. Values are
+ * expected to be well mixed hashes; the slot is taken from their high bits. Zero marks an empty slot
+ * and is tracked separately. Not thread-safe.
+ */
+final class LongHashSet {
+
+    private static final double MAX_LOAD = 0.8;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private long[] slots;
+    private int threshold;
+    private boolean containsZero;
+    private long size;
+
+    /**
+     * Creates a set that holds the expected number of values without resizing.
+     *
+     * @param expectedSize the expected number of values
+     */
+    LongHashSet(long expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value
+     * @return true if the value was not already in the set
+     */
+    boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int slot = slot(value, slots.length);
+        while (slots[slot] != 0) {
+            if (slots[slot] == value) {
+                return false;
+            }
+            slot = slot + 1 == slots.length ? 0 : slot + 1;
+        }
+        slots[slot] = value;
+        if (++size > threshold) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the set contains a value.
+     *
+     * @param value the value
+     * @return true if the value was added before
+     */
+    boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        int slot = slot(value, slots.length);
+        while (slots[slot] != 0) {
+            if (slots[slot] == value) {
+                return true;
+            }
+            slot = slot + 1 == slots.length ? 0 : slot + 1;
+        }
+        return false;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Returns the memory held by the slot array.
+     *
+     * @return the size in bytes
+     */
+    long memoryBytes() {
+        return (long) slots.length * Long.BYTES;
+    }
+
+    private void grow() {
+        long[] previous = slots;
+        if (previous.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Set is full at " + size + " values");
+        }
+        allocate((int) Math.min((long) previous.length * 2, MAX_CAPACITY));
+        for (long value : previous) {
+            if (value != 0) {
+                int slot = slot(value, slots.length);
+                while (slots[slot] != 0) {
+                    slot = slot + 1 == slots.length ? 0 : slot + 1;
+                }
+                slots[slot] = value;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        threshold = (int) Math.min((long) (capacity * MAX_LOAD), capacity - 1L);
+    }
+
+    private static int capacityFor(long expectedSize) {
+        long capacity = (long) Math.ceil(expectedSize / MAX_LOAD) + 1;
+        return Math.clamp(capacity, MIN_CAPACITY, MAX_CAPACITY);
+    }
+
+    private static int slot(long value, int capacity) {
+        return (int) Math.unsignedMultiplyHigh(value, capacity);
+    }
+}
@@ -0,0 +1,39 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reachability metadata for the GraalVM native image.
+ * JLine discovers its terminal providers by reading class names from resources and instantiating them
+ * reflectively, and Spring Shell invokes command methods reflectively, neither of which the native-image
+ * analysis can see on its own. The strength estimator's built-in dictionaries are classpath resources.
+ */
+public class NativeImageRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String[] JLINE_TERMINAL_PROVIDERS = {
+            "org.jline.terminal.impl.exec.ExecTerminalProvider",
+            "org.jline.terminal.impl.jni.JniTerminalProvider",
+            "org.jline.terminal.impl.ffm.FfmTerminalProvider",
+            "org.jline.terminal.impl.jna.JnaTerminalProvider",
+            "org.jline.terminal.impl.jansi.JansiTerminalProvider"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern("META-INF/services/org/jline/terminal/provider/*");
+        hints.resources().registerPattern("strength/*.txt");
+        for (String provider : JLINE_TERMINAL_PROVIDERS) {
+            hints.reflection().registerType(TypeReference.of(provider),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        hints.reflection().registerType(RandomPasswordGenerator.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(PassphraseCommands.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(StrengthCommands.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(AuditCommands.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(RandomSourceCommands.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
@@ -0,0 +1,74 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Writes passwords to a byte stream as newline-delimited text or as a JSON array of strings.
+ * Each chunk is encoded as ASCII into a reusable byte array, written in one call and flushed, so a
+ * response is sent chunk by chunk as it is generated. The array is wiped after every write.
+ * Alphabet characters never need JSON escaping, so passwords are written between quotes verbatim.
+ */
+public class OutputStreamPasswordSink implements PasswordSink {
+
+    private final OutputStream outputStream;
+    private final Format format;
+    private byte[] buffer = new byte[0];
+    private boolean first = true;
+
+    public OutputStreamPasswordSink(OutputStream outputStream, Format format) {
+        this.outputStream = outputStream;
+        this.format = format;
+    }
+
+    @Override
+    public void accept(PasswordChunk chunk) throws IOException {
+        char[] characters = chunk.getCharacters();
+        int length = chunk.getPasswordLength();
+        int perPassword = format == Format.JSON_ARRAY ? length + 3 : length + 1;
+        int required = chunk.getCount() * perPassword + 1;
+        if (buffer.length < required) {
+            buffer = new byte[required];
+        }
+
+        int position = 0;
+        for (int i = 0; i < chunk.getCount(); i++) {
+            if (format == Format.JSON_ARRAY) {
+                buffer[position++] = (byte) (first ? '[' : ',');
+                buffer[position++] = '"';
+            }
+            int offset = chunk.offset(i);
+            for (int j = 0; j < length; j++) {
+                // Alphabet characters are all 7-bit ASCII, so narrowing is lossless
+                buffer[position++] = (byte) characters[offset + j];
+            }
+            buffer[position++] = (byte) (format == Format.JSON_ARRAY ? '"' : '\n');
+            first = false;
+        }
+
+        try {
+            outputStream.write(buffer, 0, position);
+            outputStream.flush();
+        } finally {
+            Arrays.fill(buffer, 0, position, (byte) 0);
+        }
+    }
+
+    /**
+     * Writes whatever the format needs after the last password and flushes the stream.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    public void finish() throws IOException {
+        if (format == Format.JSON_ARRAY) {
+            outputStream.write(first ? new byte[]{'[', ']'} : new byte[]{']'});
+        }
+        outputStream.flush();
+    }
+
+    public enum Format {
+        LINES,
+        JSON_ARRAY
+    }
+}
@@ -0,0 +1,55 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import static com.jstephenperry.randpassgenspring.PasswordRequestValidator.validateWordCount;
+
+/**
+ * Shell commands for diceware-style passphrases.
+ */
+@ShellComponent
+public class PassphraseCommands {
+
+    private final PassphraseGenerator passphraseGenerator;
+    private final PassphraseProperties properties;
+
+    public PassphraseCommands(PassphraseGenerator passphraseGenerator, PassphraseProperties properties) {
+        this.passphraseGenerator = passphraseGenerator;
+        this.properties = properties;
+    }
+
+    /**
+     * Generates a passphrase of words drawn uniformly from a wordlist.
+     *
+     * @param words        the number of words (3-64), or null for the configured default
+     * @param separator    the text placed between words
+     * @param capitalize   whether to upper-case the first letter of each word
+     * @param digit        whether to append a random digit to a randomly chosen word
+     * @param wordlist     the wordlist file, or null for the configured default
+     * @return the passphrase with strength information
+     */
+    @ShellMethod(value = "Generate a passphrase from a wordlist", key = {"generate-passphrase", "gph"})
+    public String generatePassphrase(
+            @ShellOption(help = "Number of words (3-64), defaults to rand-pass-gen.passphrase.words",
+                    defaultValue = ShellOption.NULL) Integer words,
+            @ShellOption(help = "Separator between words", defaultValue = "-") String separator,
+            @ShellOption(help = "Capitalize each word", defaultValue = "false") boolean capitalize,
+            @ShellOption(help = "Append a random digit to one word", defaultValue = "false") boolean digit,
+            @ShellOption(help = "Wordlist file (one word per line or EFF dice format)",
+                    defaultValue = ShellOption.NULL) String wordlist) {
+
+        int wordCount = words != null ? words : properties.words();
+        validateWordCount(wordCount);
+        Wordlist list = passphraseGenerator.wordlist(wordlist);
+        PassphraseOptions options = new PassphraseOptions(wordCount, separator, capitalize, digit);
+
+        char[] buffer = passphraseGenerator.generate(list, options);
+        String passphrase = new String(buffer);
+        PasswordEngine.wipe(buffer);
+
+        return String.format("Passphrase: %s%nWordlist: %d words%n%s", passphrase, list.size(),
+                PasswordStrength.forPassphrase(list, options));
+    }
+}
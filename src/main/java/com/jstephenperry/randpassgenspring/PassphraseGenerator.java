@@ -0,0 +1,115 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Diceware-style passphrase generation.
+ * Words are drawn uniformly and independently from a {@link Wordlist} using an entropy buffer borrowed
+ * from a shared pool, and the passphrase is assembled directly into a character array the caller can wipe.
+ * Wordlists are loaded once per path and cached.
+ */
+@Component
+public class PassphraseGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PassphraseGenerator.class);
+
+    private final EntropyBufferPool entropyBuffers;
+    private final PassphraseProperties properties;
+    private final ConcurrentMap<Path, Wordlist> wordlists = new ConcurrentHashMap<>();
+
+    public PassphraseGenerator(SecureRandomProvider secureRandomProvider, PassphraseProperties properties) {
+        this.entropyBuffers = new EntropyBufferPool(secureRandomProvider);
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the wordlist at the given path, or the configured default wordlist when the path is null.
+     *
+     * @param path the wordlist file, or null for the default
+     * @return the loaded wordlist
+     * @throws PasswordGenerationException if no wordlist is configured or the file cannot be loaded
+     */
+    public Wordlist wordlist(String path) {
+        String location = path != null ? path : properties.wordlist();
+        if (location == null || location.isBlank()) {
+            throw new PasswordGenerationException(
+                    "No wordlist configured. Pass --wordlist or set rand-pass-gen.passphrase.wordlist, "
+                            + "for example to the EFF long wordlist");
+        }
+
+        Path file = Path.of(location).toAbsolutePath().normalize();
+        Wordlist wordlist = wordlists.get(file);
+        if (wordlist == null) {
+            try {
+                wordlist = Wordlist.load(file);
+            } catch (IOException e) {
+                throw new PasswordGenerationException(
+                        String.format("Failed to load wordlist '%s': %s", location, e.getMessage()), e);
+            }
+            logger.info("Loaded wordlist {} with {} words", file, wordlist.size());
+            Wordlist existing = wordlists.putIfAbsent(file, wordlist);
+            if (existing != null) {
+                wordlist = existing;
+            }
+        }
+        return wordlist;
+    }
+
+    /**
+     * Generates a passphrase into a new array sized to fit it exactly.
+     *
+     * @param wordlist the wordlist to draw from
+     * @param options  the passphrase shape
+     * @return the passphrase; wipe it with {@link PasswordEngine#wipe(char[])} after use
+     */
+    public char[] generate(Wordlist wordlist, PassphraseOptions options) {
+        // Words are drawn from the capitalized list so that entries differing only in case are not
+        // picked twice as often as the rest
+        Wordlist source = options.capitalize() ? wordlist.capitalized() : wordlist;
+        int words = options.words();
+        String separator = options.separator();
+
+        int[] picks = new int[words];
+        int length = separator.length() * (words - 1);
+        int digitWord = -1;
+        int digit = 0;
+        EntropyBuffer entropy = entropyBuffers.acquire();
+        try {
+            for (int i = 0; i < words; i++) {
+                picks[i] = entropy.nextIndex(source.size());
+                length += source.charLength(picks[i]);
+            }
+            if (options.includeDigit()) {
+                digitWord = entropy.nextIndex(words);
+                digit = entropy.nextIndex(10);
+                length++;
+            }
+        } finally {
+            entropyBuffers.release(entropy);
+        }
+
+        char[] passphrase = new char[length];
+        int position = 0;
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                separator.getChars(0, separator.length(), passphrase, position);
+                position += separator.length();
+            }
+            position = source.copyWord(picks[i], passphrase, position);
+            if (i == digitWord) {
+                passphrase[position++] = (char) ('0' + digit);
+            }
+        }
+
+        Arrays.fill(picks, 0);
+        return passphrase;
+    }
+}
@@ -0,0 +1,16 @@
+package com.jstephenperry.randpassgenspring;
+
+/**
+ * Shape of a generated passphrase.
+ *
+ * @param words        the number of words
+ * @param separator    the text placed between words
+ * @param capitalize   whether to upper-case the first letter of each word
+ * @param includeDigit whether to append a random digit to a randomly chosen word
+ */
+public record PassphraseOptions(int words, String separator, boolean capitalize, boolean includeDigit) {
+
+    public PassphraseOptions {
+        separator = separator == null ? "" : separator;
+    }
+}
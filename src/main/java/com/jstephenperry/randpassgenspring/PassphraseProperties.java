@@ -0,0 +1,25 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration for passphrase generation.
+ *
+ * @param wordlist the default wordlist file, for example the EFF long wordlist, or empty if none
+ * @param words    the default number of words
+ */
+@ConfigurationProperties(prefix = "rand-pass-gen.passphrase")
+public record PassphraseProperties(
+        @DefaultValue("") String wordlist,
+        @DefaultValue("6") int words) {
+
+    /**
+     * Returns the default configuration, without a default wordlist.
+     *
+     * @return the default properties
+     */
+    public static PassphraseProperties defaults() {
+        return new PassphraseProperties("", 6);
+    }
+}
@@ -0,0 +1,253 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Precomputed, immutable character alphabet for a password complexity level.
+ * Each alphabet is a single flat table, so one uniformly distributed index selects a character
+ * and every character of the alphabet is equally likely.
+ * <p>
+ * Fills of {@value #VECTOR_THRESHOLD} characters or more, such as long passwords and bulk chunks, run on
+ * {@link VectorizedAlphabet} when the JVM is started with {@code --add-modules jdk.incubator.vector};
+ * otherwise, and for the short tail of each fill, the scalar loop is used.
+ */
+public final class PasswordAlphabet {
+
+    /**
+     * The shortest fill handed to the vectorized path; below it the vector setup does not pay off.
+     */
+    static final int VECTOR_THRESHOLD = 64;
+
+    private static final MethodHandle VECTORIZED_FACTORY = vectorizedFactory();
+    private static final Map<PasswordComplexityEnum, PasswordAlphabet> ALPHABETS =
+            new EnumMap<>(PasswordComplexityEnum.class);
+
+    static {
+        for (PasswordComplexityEnum complexity : PasswordComplexityEnum.values()) {
+            ALPHABETS.put(complexity, new PasswordAlphabet(buildCharacters(complexity)));
+        }
+    }
+
+    private final char[] characters;
+    private final byte[] asciiCharacters;
+    private final int indexMask;
+    private final BulkFill vectorized;
+
+    private PasswordAlphabet(char[] characters) {
+        this.characters = characters;
+        this.asciiCharacters = new byte[characters.length];
+        for (int i = 0; i < characters.length; i++) {
+            asciiCharacters[i] = (byte) characters[i];
+        }
+        this.indexMask = -1 >>> Integer.numberOfLeadingZeros(characters.length - 1);
+        this.vectorized = vectorize(asciiCharacters, indexMask);
+    }
+
+    private PasswordAlphabet(PasswordAlphabet alphabet) {
+        this.characters = alphabet.characters;
+        this.asciiCharacters = alphabet.asciiCharacters;
+        this.indexMask = alphabet.indexMask;
+        this.vectorized = null;
+    }
+
+    /**
+     * Returns the precomputed alphabet for the given complexity level.
+     *
+     * @param complexity the password complexity level
+     * @return the shared, immutable alphabet
+     */
+    public static PasswordAlphabet forComplexity(PasswordComplexityEnum complexity) {
+        return ALPHABETS.get(complexity);
+    }
+
+    /**
+     * Returns the number of distinct characters in this alphabet.
+     *
+     * @return the alphabet size
+     */
+    public int size() {
+        return characters.length;
+    }
+
+    /**
+     * Returns the character at the given alphabet index.
+     *
+     * @param index the alphabet index
+     * @return the character at that index
+     */
+    public char charAt(int index) {
+        return characters[index];
+    }
+
+    /**
+     * Returns a copy of the characters in this alphabet.
+     *
+     * @return the alphabet characters
+     */
+    public char[] toCharArray() {
+        return characters.clone();
+    }
+
+    /**
+     * Returns whether long fills use the Vector API.
+     *
+     * @return true if the vectorized path is active
+     */
+    public boolean isVectorized() {
+        return vectorized != null;
+    }
+
+    /**
+     * Returns this alphabet with long fills on the scalar loop, to check that both paths agree.
+     */
+    PasswordAlphabet scalar() {
+        return vectorized == null ? this : new PasswordAlphabet(this);
+    }
+
+    /**
+     * Fills a range of the destination array with uniformly distributed characters from this alphabet.
+     * Each character consumes one byte from the entropy buffer; bytes outside the alphabet are rejected
+     * rather than reduced modulo the alphabet size, so no character is favoured.
+     *
+     * @param destination the array to fill
+     * @param offset      the first index to fill
+     * @param length      the number of characters to fill
+     * @param entropy     the entropy buffer to draw from
+     */
+    public void fill(char[] destination, int offset, int length, EntropyBuffer entropy) {
+        int position = offset;
+        if (vectorized != null && length >= VECTOR_THRESHOLD) {
+            position = vectorized.fill(destination, offset, offset + length, entropy);
+        }
+        fillScalar(destination, position, offset + length - position, entropy);
+    }
+
+    /**
+     * Fills a range of the destination array one character at a time.
+     */
+    void fillScalar(char[] destination, int offset, int length, EntropyBuffer entropy) {
+        int position = offset;
+        int end = offset + length;
+
+        while (position < end) {
+            int index = entropy.nextByte() & indexMask;
+            if (index < characters.length) {
+                destination[position++] = characters[index];
+            }
+        }
+    }
+
+    /**
+     * Fills a range of the destination array with uniformly distributed ASCII bytes from this alphabet.
+     *
+     * @param destination the array to fill
+     * @param offset      the first index to fill
+     * @param length      the number of bytes to fill
+     * @param entropy     the entropy buffer to draw from
+     */
+    public void fill(byte[] destination, int offset, int length, EntropyBuffer entropy) {
+        int position = offset;
+        if (vectorized != null && length >= VECTOR_THRESHOLD) {
+            position = vectorized.fill(destination, offset, offset + length, entropy);
+        }
+        fillScalar(destination, position, offset + length - position, entropy);
+    }
+
+    /**
+     * Fills a range of the destination array with ASCII bytes one character at a time.
+     */
+    void fillScalar(byte[] destination, int offset, int length, EntropyBuffer entropy) {
+        int position = offset;
+        int end = offset + length;
+
+        while (position < end) {
+            int index = entropy.nextByte() & indexMask;
+            if (index < asciiCharacters.length) {
+                destination[position++] = asciiCharacters[index];
+            }
+        }
+    }
+
+    /**
+     * Returns a single uniformly distributed character from this alphabet.
+     *
+     * @param entropy the entropy buffer to draw from
+     * @return a random character
+     */
+    public char nextChar(EntropyBuffer entropy) {
+        int index;
+        do {
+            index = entropy.nextByte() & indexMask;
+        } while (index >= characters.length);
+        return characters[index];
+    }
+
+    /**
+     * Looks up the factory of {@link VectorizedAlphabet} if the incubator module is present. The class is
+     * compiled separately against the module and only referenced by name here, so it is never loaded
+     * without the module.
+     */
+    private static MethodHandle vectorizedFactory() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            Class<?> type = Class.forName(PasswordAlphabet.class.getPackageName() + ".VectorizedAlphabet");
+            return MethodHandles.lookup().findStatic(type, "createIfSupported",
+                    MethodType.methodType(BulkFill.class, byte[].class, int.class));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates the vectorized mapper if the module is present and the hardware has vectors.
+     */
+    private static BulkFill vectorize(byte[] asciiCharacters, int indexMask) {
+        if (VECTORIZED_FACTORY == null) {
+            return null;
+        }
+        try {
+            return (BulkFill) VECTORIZED_FACTORY.invokeExact(asciiCharacters, indexMask);
+        } catch (LinkageError e) {
+            return null;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to create the vectorized alphabet", e);
+        }
+    }
+
+    private static char[] buildCharacters(PasswordComplexityEnum complexity) {
+        StringBuilder builder = new StringBuilder();
+        appendRange(builder, 'a', 'z');
+        appendRange(builder, 'A', 'Z');
+        if (complexity != PasswordComplexityEnum.LOW) {
+            appendRange(builder, '0', '9');
+        }
+        if (complexity == PasswordComplexityEnum.HIGH) {
+            builder.append(AsciiUtil.getSpecialCharArray());
+        }
+        return builder.toString().toCharArray();
+    }
+
+    private static void appendRange(StringBuilder builder, char first, char last) {
+        for (char c = first; c <= last; c++) {
+            builder.append(c);
+        }
+    }
+
+    /**
+     * Maps random bytes to alphabet characters in bulk; implemented by {@link VectorizedAlphabet}.
+     * Each method fills from the start position while at least one step's worth remains and returns the
+     * first position left unfilled, which the scalar loop then completes.
+     */
+    interface BulkFill {
+
+        int fill(char[] destination, int position, int end, EntropyBuffer entropy);
+
+        int fill(byte[] destination, int position, int end, EntropyBuffer entropy);
+    }
+}
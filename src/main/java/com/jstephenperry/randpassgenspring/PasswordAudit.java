@@ -0,0 +1,374 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Streams a file of candidate passwords, one per line, through a breach lookup and a strength estimate.
+ * <p>
+ * Lines are read as bytes a bounded chunk at a time. Each line's SHA-1 is taken over its UTF-8 bytes, as
+ * in the Have I Been Pwned corpus, and looked up in a {@link BreachIndex}; the line is then decoded into a
+ * reusable character buffer for the {@link StrengthEstimator}. Like {@link PasswordBatchPipeline}, two chunk
+ * buffers are recycled: workers process one chunk while the caller reads the next and reports the previous
+ * one, so memory use is independent of the file size. Password bytes are wiped as soon as a chunk has been
+ * processed, and the report identifies passwords only by line number.
+ */
+public final class PasswordAudit {
+
+    static final String REPORT_HEADER = "line,breaches,score,guesses_log10,strength";
+
+    // A 1024-character password, the longest the generator produces, takes at most 4096 bytes in UTF-8
+    static final int MAX_LINE_LENGTH = 4096;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final StrengthEstimator strengthEstimator;
+    private final BreachIndex breachIndex;
+    private final int chunkSize;
+    private final int parallelism;
+    private volatile boolean cancelled;
+
+    public PasswordAudit(StrengthEstimator strengthEstimator, BreachIndex breachIndex, int chunkSize, int parallelism) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1 (provided: " + chunkSize + ")");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1 (provided: " + parallelism + ")");
+        }
+        this.strengthEstimator = strengthEstimator;
+        this.breachIndex = breachIndex;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Requests that a running audit stops after the chunk currently being processed.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Audits every non-blank line of the input.
+     *
+     * @param input    the candidate passwords, one per line, UTF-8 encoded
+     * @param report   receives one CSV row per password, or null for a summary only
+     * @param listener receives the number of input bytes consumed after each chunk; the total passed on is
+     *                 the size hint
+     * @param sizeHint the input size in bytes, for progress reporting
+     * @return the audit summary
+     * @throws IOException if the input cannot be read or the report cannot be written
+     */
+    public AuditSummary run(InputStream input, Writer report, BatchProgressListener listener, long sizeHint)
+            throws IOException {
+        long startNanos = System.nanoTime();
+        LineSource source = new LineSource(input);
+        Chunk current = new Chunk(chunkSize);
+        Chunk next = new Chunk(chunkSize);
+        Tally tally = new Tally();
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+        if (report != null) {
+            report.write(REPORT_HEADER);
+            report.write(System.lineSeparator());
+        }
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            CompletableFuture<Void> pending = source.fill(current) ? process(executor, workers, current) : null;
+
+            while (pending != null) {
+                await(pending);
+                if (cancelled) {
+                    break;
+                }
+                pending = source.fill(next) ? process(executor, workers, next) : null;
+
+                tally.add(current, report);
+                listener.onProgress(Math.min(source.bytesConsumed, sizeHint), sizeHint);
+
+                Chunk consumed = current;
+                current = next;
+                next = consumed;
+            }
+        } finally {
+            current.wipe();
+            next.wipe();
+            source.wipe();
+        }
+        return tally.summary(System.nanoTime() - startNanos, cancelled);
+    }
+
+    /**
+     * Processes a chunk asynchronously, splitting it into one contiguous range per worker.
+     */
+    private CompletableFuture<Void> process(ExecutorService executor, ThreadLocal<Worker> workers, Chunk chunk) {
+        int size = chunk.count;
+        int workerCount = Math.min(parallelism, size);
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[workerCount];
+
+        for (int worker = 0; worker < workerCount; worker++) {
+            int start = (int) ((long) size * worker / workerCount);
+            int end = (int) ((long) size * (worker + 1) / workerCount);
+            tasks[worker] = CompletableFuture.runAsync(() -> workers.get().process(chunk, start, end), executor);
+        }
+        return CompletableFuture.allOf(tasks).whenComplete((ignored, failure) -> chunk.wipeData());
+    }
+
+    private void await(CompletableFuture<Void> pending) {
+        try {
+            pending.get();
+        } catch (ExecutionException e) {
+            throw new PasswordGenerationException("Password audit failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            // Let the in-flight chunk finish so its buffer can be wiped before returning
+            pending.join();
+        }
+    }
+
+    /**
+     * The per-thread hashing and decoding state.
+     */
+    private final class Worker {
+
+        private final MessageDigest sha1;
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final byte[] hash = new byte[BreachIndex.HASH_SIZE];
+        private char[] characters = new char[256];
+
+        private Worker() {
+            try {
+                this.sha1 = MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-1 is not available", e);
+            }
+        }
+
+        private void process(Chunk chunk, int start, int end) {
+            try {
+                for (int i = start; i < end; i++) {
+                    int offset = chunk.starts[i];
+                    int length = chunk.ends[i] - offset;
+
+                    sha1.update(chunk.data, offset, length);
+                    sha1.digest(hash, 0, hash.length);
+                    chunk.breaches[i] = breachIndex.count(hash);
+
+                    if (characters.length < length) {
+                        PasswordEngine.wipe(characters);
+                        characters = new char[Math.max(length, characters.length * 2)];
+                    }
+                    CharBuffer decoded = CharBuffer.wrap(characters);
+                    decoder.reset();
+                    decoder.decode(ByteBuffer.wrap(chunk.data, offset, length), decoded, true);
+                    decoder.flush(decoded);
+                    StrengthEstimate estimate = strengthEstimator.estimate(characters, 0, decoded.position());
+                    chunk.scores[i] = (byte) estimate.score();
+                    chunk.log10Guesses[i] = estimate.log10Guesses();
+                    chunk.levels[i] = estimate.toPasswordStrength().getLevel();
+                }
+            } catch (DigestException e) {
+                throw new IllegalStateException("SHA-1 digest failed", e);
+            } finally {
+                PasswordEngine.wipe(characters);
+                Arrays.fill(hash, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * A bounded batch of lines and their results.
+     */
+    private static final class Chunk {
+
+        private byte[] data = new byte[READ_BUFFER_SIZE];
+        private int dataLength;
+        private final int[] starts;
+        private final int[] ends;
+        private final long[] lineNumbers;
+        private final int[] breaches;
+        private final byte[] scores;
+        private final double[] log10Guesses;
+        private final PasswordStrength.StrengthLevel[] levels;
+        private int count;
+
+        private Chunk(int capacity) {
+            this.starts = new int[capacity];
+            this.ends = new int[capacity];
+            this.lineNumbers = new long[capacity];
+            this.breaches = new int[capacity];
+            this.scores = new byte[capacity];
+            this.log10Guesses = new double[capacity];
+            this.levels = new PasswordStrength.StrengthLevel[capacity];
+        }
+
+        private boolean isFull() {
+            return count == starts.length;
+        }
+
+        private void add(byte[] source, int start, int end, long lineNumber) {
+            int length = end - start;
+            if (dataLength + length > data.length) {
+                byte[] grown = Arrays.copyOf(data, Math.max(data.length * 2, dataLength + length));
+                Arrays.fill(data, (byte) 0);
+                data = grown;
+            }
+            System.arraycopy(source, start, data, dataLength, length);
+            starts[count] = dataLength;
+            ends[count] = dataLength + length;
+            lineNumbers[count++] = lineNumber;
+            dataLength += length;
+        }
+
+        private void wipeData() {
+            Arrays.fill(data, 0, dataLength, (byte) 0);
+            dataLength = 0;
+        }
+
+        private void wipe() {
+            wipeData();
+            count = 0;
+        }
+    }
+
+    /**
+     * Splits the input into lines, carrying a partial last line over to the next read. Lines longer than
+     * {@link #MAX_LINE_LENGTH} bytes are rejected, so the read buffer never grows.
+     */
+    private static final class LineSource {
+
+        private final InputStream input;
+        private final byte[] buffer = new byte[READ_BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private boolean exhausted;
+        private long lineNumber;
+        private long bytesConsumed;
+
+        private LineSource(InputStream input) {
+            this.input = input;
+        }
+
+        /**
+         * Resets the chunk and fills it with up to its capacity of non-blank lines.
+         *
+         * @return true if at least one line was added
+         */
+        private boolean fill(Chunk chunk) throws IOException {
+            chunk.wipe();
+            while (!chunk.isFull()) {
+                int newline = indexOf((byte) '\n');
+                if (newline < 0) {
+                    // One byte over the limit is allowed for the CR of a CR LF line ending
+                    if (limit - position > MAX_LINE_LENGTH + 1) {
+                        throw lineTooLong();
+                    }
+                    if (!exhausted) {
+                        read();
+                        continue;
+                    }
+                    if (position == limit) {
+                        break;
+                    }
+                    newline = limit;
+                }
+
+                int end = newline > position && buffer[newline - 1] == '\r' ? newline - 1 : newline;
+                if (end - position > MAX_LINE_LENGTH) {
+                    throw lineTooLong();
+                }
+                lineNumber++;
+                if (end > position) {
+                    chunk.add(buffer, position, end, lineNumber);
+                }
+                bytesConsumed += Math.min(newline + 1, limit) - position;
+                position = Math.min(newline + 1, limit);
+            }
+            return chunk.count > 0;
+        }
+
+        private void read() throws IOException {
+            int carried = limit - position;
+            System.arraycopy(buffer, position, buffer, 0, carried);
+            Arrays.fill(buffer, carried, limit, (byte) 0);
+            position = 0;
+            limit = carried;
+            int read = input.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                exhausted = true;
+            } else {
+                limit += read;
+            }
+        }
+
+        private PasswordGenerationException lineTooLong() {
+            return new PasswordGenerationException(String.format(
+                    "Audit input line %d is longer than %d bytes", lineNumber + 1, MAX_LINE_LENGTH));
+        }
+
+        private int indexOf(byte value) {
+            for (int i = position; i < limit; i++) {
+                if (buffer[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void wipe() {
+            Arrays.fill(buffer, (byte) 0);
+        }
+    }
+
+    /**
+     * Accumulates the summary and writes report rows on the calling thread.
+     */
+    private static final class Tally {
+
+        private long total;
+        private long breached;
+        private final long[] scores = new long[5];
+        private final Map<PasswordStrength.StrengthLevel, Long> levels =
+                new EnumMap<>(PasswordStrength.StrengthLevel.class);
+
+        private void add(Chunk chunk, Writer report) throws IOException {
+            for (int i = 0; i < chunk.count; i++) {
+                total++;
+                if (chunk.breaches[i] > 0) {
+                    breached++;
+                }
+                scores[chunk.scores[i]]++;
+                levels.merge(chunk.levels[i], 1L, Long::sum);
+                if (report != null) {
+                    report.write(String.format("%d,%d,%d,%.2f,%s%n", chunk.lineNumbers[i], chunk.breaches[i],
+                            chunk.scores[i], chunk.log10Guesses[i], chunk.levels[i].name()));
+                }
+            }
+        }
+
+        private AuditSummary summary(long elapsedNanos, boolean cancelled) {
+            return new AuditSummary(total, breached, scores.clone(), new EnumMap<>(levels), elapsedNanos, cancelled);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.jstephenperry.randpassgenspring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering one bulk generation run, from the first chunk to the last one handed to the sink.
+ * Recorded with any flight recording, e.g. {@code -XX:StartFlightRecording}; view it in JDK Mission
+ * Control or with {@code jfr print --events com.jstephenperry.randpassgen.PasswordBatch}.
+ */
+@Name("com.jstephenperry.randpassgen.PasswordBatch")
+@Label("Password Batch")
+@Category("Password Generator")
+@Description("Bulk password generation run")
+class PasswordBatchEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Requested Count")
+    long requested;
+
+    @Label("Generated Count")
+    long generated;
+
+    @Label("Password Length")
+    int length;
+
+    @Label("Complexity")
+    String complexity;
+
+    @Label("Parallelism")
+    int parallelism;
+
+    @Label("Cancelled")
+    boolean cancelled;
+}
@@ -0,0 +1,372 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+/**
+ * Chunked, back-pressured bulk password generator.
+ * Passwords are generated a bounded chunk at a time by a pool of worker threads and handed to a
+ * {@link PasswordSink}. Two chunk buffers are recycled: while the sink consumes one chunk the workers
+ * fill the other, and generation never runs more than one chunk ahead of the sink, so memory use is
+ * independent of the requested count. Passwords found on the {@link PasswordBlocklist} are regenerated
+ * by the worker that drew them. In a unique run the calling thread also checks every password against
+ * {@link PasswordFingerprints} of the ones already emitted and regenerates repeats before the chunk reaches
+ * the sink, which takes about 10 bytes per password. A run can be cancelled from another thread; it then stops
+ * after the chunk currently being consumed.
+ * <p>
+ * A {@linkplain #seeded seeded} pipeline is a test and benchmark mode: it draws from a {@link SplittableRandom}
+ * instead of the SecureRandom, splitting one stream per segment of {@value #SEGMENT_SIZE} passwords, so a seed
+ * always produces the same batch whatever the parallelism and chunk size. Its output must never be used as
+ * credentials.
+ */
+public final class PasswordBatchPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordBatchPipeline.class);
+
+    /**
+     * The number of consecutive passwords generated from one split stream in a seeded run.
+     */
+    static final int SEGMENT_SIZE = 64;
+    private static final int SEGMENT_ENTROPY_SIZE = 1024;
+
+    private final SecureRandomProvider secureRandomProvider;
+    private final PasswordBlocklist blocklist;
+    private final int chunkSize;
+    private final int parallelism;
+    private final ThreadFactory threadFactory;
+    private final OptionalLong seed;
+    private volatile boolean cancelled;
+    private volatile long duplicates;
+
+    public PasswordBatchPipeline(SecureRandomProvider secureRandomProvider, int chunkSize, int parallelism) {
+        this(secureRandomProvider, chunkSize, parallelism, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a pipeline whose workers are created by the given factory, for example virtual threads
+     * when the pipeline serves a request that itself runs on a virtual thread.
+     */
+    public PasswordBatchPipeline(SecureRandomProvider secureRandomProvider, int chunkSize, int parallelism,
+                                 ThreadFactory threadFactory) {
+        this(secureRandomProvider, PasswordBlocklist.disabled(), chunkSize, parallelism, threadFactory);
+    }
+
+    /**
+     * Creates a pipeline that regenerates passwords found on the blocklist.
+     */
+    public PasswordBatchPipeline(SecureRandomProvider secureRandomProvider, PasswordBlocklist blocklist,
+                                 int chunkSize, int parallelism, ThreadFactory threadFactory) {
+        this(secureRandomProvider, blocklist, chunkSize, parallelism, threadFactory, OptionalLong.empty());
+    }
+
+    private PasswordBatchPipeline(SecureRandomProvider secureRandomProvider, PasswordBlocklist blocklist,
+                                  int chunkSize, int parallelism, ThreadFactory threadFactory, OptionalLong seed) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1 (provided: " + chunkSize + ")");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1 (provided: " + parallelism + ")");
+        }
+        this.secureRandomProvider = secureRandomProvider;
+        this.blocklist = blocklist;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.threadFactory = threadFactory;
+        this.seed = seed;
+    }
+
+    /**
+     * Creates a pipeline that generates reproducible batches from a seed, for load tests, benchmarks and
+     * golden-output tests only. The same seed, count, length, complexity and uniqueness give the same passwords
+     * with any parallelism and chunk size. Passwords are still regenerated when found on the blocklist, whose
+     * filter is keyed per process, so byte-identical output across processes needs the blocklist disabled.
+     *
+     * @param seed the seed of the run
+     */
+    public static PasswordBatchPipeline seeded(long seed, PasswordBlocklist blocklist, int chunkSize,
+                                               int parallelism, ThreadFactory threadFactory) {
+        return new PasswordBatchPipeline(null, blocklist, chunkSize, parallelism, threadFactory, OptionalLong.of(seed));
+    }
+
+    /**
+     * Requests that a running batch stops after the chunk currently being consumed.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns the number of worker threads generating each chunk.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns whether this pipeline generates deterministic test output from a seed.
+     *
+     * @return true if the pipeline was created by {@link #seeded}
+     */
+    public boolean isSeeded() {
+        return seed.isPresent();
+    }
+
+    /**
+     * Returns whether the batch has been cancelled.
+     *
+     * @return true if {@link #cancel()} was called or the running thread was interrupted
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns how many duplicates the last unique run regenerated.
+     *
+     * @return the duplicate count
+     */
+    public long getDuplicateCount() {
+        return duplicates;
+    }
+
+    /**
+     * Generates passwords and hands them to the sink in order, one chunk at a time.
+     *
+     * @param count      the number of passwords to generate
+     * @param length     the length of each password
+     * @param complexity the complexity level
+     * @param sink       the destination for generated chunks
+     * @param listener   receives progress after each chunk
+     * @return the number of passwords handed to the sink, less than count if the batch was cancelled
+     * @throws IOException if the sink fails to write a chunk
+     */
+    public long run(long count, int length, PasswordComplexityEnum complexity,
+                    PasswordSink sink, BatchProgressListener listener) throws IOException {
+        return run(count, length, complexity, false, sink, listener);
+    }
+
+    /**
+     * Generates passwords and hands them to the sink in order, one chunk at a time, optionally without
+     * repeating any password within the run.
+     *
+     * @param count      the number of passwords to generate
+     * @param length     the length of each password
+     * @param complexity the complexity level
+     * @param unique     whether to regenerate passwords already emitted by this run
+     * @param sink       the destination for generated chunks
+     * @param listener   receives progress after each chunk
+     * @return the number of passwords handed to the sink, less than count if the batch was cancelled
+     * @throws IOException if the sink fails to write a chunk
+     */
+    public long run(long count, int length, PasswordComplexityEnum complexity, boolean unique,
+                    PasswordSink sink, BatchProgressListener listener) throws IOException {
+        return run(count, length, PasswordAlphabet.forComplexity(complexity), unique, sink, listener);
+    }
+
+    long run(long count, int length, PasswordAlphabet alphabet, boolean unique,
+             PasswordSink sink, BatchProgressListener listener) throws IOException {
+        duplicates = 0;
+        if (count <= 0) {
+            return 0;
+        }
+        // Seeded chunks hold whole segments so segment streams do not depend on the chunk size
+        int capacity = (int) Math.min(seed.isPresent() ? roundToSegments(chunkSize) : chunkSize, count);
+        PasswordChunk current = new PasswordChunk(capacity, length);
+        PasswordChunk next = new PasswordChunk(capacity, length);
+        SplittableRandom root;
+        ThreadLocal<EntropyBuffer> entropyBuffers;
+        Supplier<EntropyBuffer> refillEntropy;
+        PasswordFingerprints fingerprints;
+        if (seed.isPresent()) {
+            logger.warn("Generating {} passwords deterministically from seed {}; for testing only, never as credentials",
+                    count, seed.getAsLong());
+            root = new SplittableRandom(seed.getAsLong());
+            SipHash fingerprintHash = new SipHash(root.nextLong(), root.nextLong());
+            // Only the calling thread regenerates duplicates, in order, each from its own stream split off a
+            // dedicated root, so a refill never starts partway into a block another refill left behind
+            SplittableRandom refills = root.split();
+            entropyBuffers = null;
+            refillEntropy = () -> segmentEntropy(refills.split());
+            fingerprints = unique ? new PasswordFingerprints(fingerprintHash, count) : null;
+        } else {
+            root = null;
+            entropyBuffers = ThreadLocal.withInitial(() -> new EntropyBuffer(secureRandomProvider));
+            refillEntropy = entropyBuffers::get;
+            fingerprints = unique ? new PasswordFingerprints(secureRandomProvider, count) : null;
+        }
+        long completed = 0;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism, threadFactory)) {
+            CompletableFuture<Void> pending = root != null
+                    ? generateSeeded(executor, root, alphabet, current, 0, (int) Math.min(capacity, count))
+                    : generate(executor, entropyBuffers, alphabet, current, 0, (int) Math.min(capacity, count));
+
+            while (pending != null) {
+                await(pending);
+                if (cancelled) {
+                    break;
+                }
+
+                long nextStart = completed + current.getCount();
+                int nextSize = (int) Math.min(capacity, count - nextStart);
+                if (nextStart >= count) {
+                    pending = null;
+                } else if (root != null) {
+                    pending = generateSeeded(executor, root, alphabet, next, nextStart, nextSize);
+                } else {
+                    pending = generate(executor, entropyBuffers, alphabet, next, nextStart, nextSize);
+                }
+
+                if (fingerprints != null) {
+                    deduplicate(current, fingerprints, alphabet, refillEntropy);
+                    duplicates = fingerprints.getDuplicateCount();
+                }
+                try {
+                    sink.accept(current);
+                } finally {
+                    completed += current.getCount();
+                    current.wipe();
+                }
+                listener.onProgress(completed, count);
+
+                PasswordChunk consumed = current;
+                current = next;
+                next = consumed;
+            }
+        } finally {
+            current.wipe();
+            next.wipe();
+        }
+
+        return completed;
+    }
+
+    /**
+     * Fills a chunk asynchronously, splitting it into one contiguous range per worker.
+     */
+    private CompletableFuture<Void> generate(ExecutorService executor, ThreadLocal<EntropyBuffer> entropyBuffers,
+                                             PasswordAlphabet alphabet, PasswordChunk chunk,
+                                             long firstIndex, int size) {
+        chunk.reset(firstIndex, size);
+        int workers = Math.min(parallelism, size);
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[workers];
+
+        for (int worker = 0; worker < workers; worker++) {
+            int start = (int) ((long) size * worker / workers);
+            int end = (int) ((long) size * (worker + 1) / workers);
+            tasks[worker] = CompletableFuture.runAsync(
+                    () -> fill(chunk, start, end, alphabet, entropyBuffers.get()), executor);
+        }
+
+        return CompletableFuture.allOf(tasks);
+    }
+
+    /**
+     * Fills a chunk asynchronously from one split stream per segment, handing each worker a contiguous range
+     * of segments. Streams are split on the calling thread in segment order, so every segment gets the same
+     * stream whichever worker fills it.
+     */
+    private CompletableFuture<Void> generateSeeded(ExecutorService executor, SplittableRandom root,
+                                                   PasswordAlphabet alphabet, PasswordChunk chunk,
+                                                   long firstIndex, int size) {
+        chunk.reset(firstIndex, size);
+        SplittableRandom[] streams = new SplittableRandom[(size + SEGMENT_SIZE - 1) / SEGMENT_SIZE];
+        for (int segment = 0; segment < streams.length; segment++) {
+            streams[segment] = root.split();
+        }
+        int workers = Math.min(parallelism, streams.length);
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[workers];
+
+        for (int worker = 0; worker < workers; worker++) {
+            int first = streams.length * worker / workers;
+            int last = streams.length * (worker + 1) / workers;
+            tasks[worker] = CompletableFuture.runAsync(() -> {
+                for (int segment = first; segment < last; segment++) {
+                    int start = segment * SEGMENT_SIZE;
+                    fill(chunk, start, Math.min(start + SEGMENT_SIZE, size), alphabet,
+                            segmentEntropy(streams[segment]));
+                }
+            }, executor);
+        }
+
+        return CompletableFuture.allOf(tasks);
+    }
+
+    /**
+     * Fills a range of a chunk and regenerates the passwords in it found on the blocklist.
+     */
+    private void fill(PasswordChunk chunk, int start, int end, PasswordAlphabet alphabet, EntropyBuffer entropy) {
+        int length = chunk.getPasswordLength();
+        char[] characters = chunk.getCharacters();
+        alphabet.fill(characters, chunk.offset(start), (end - start) * length, entropy);
+        if (blocklist.isEnabled()) {
+            for (int i = start; i < end; i++) {
+                replaceBlocked(characters, chunk.offset(i), length, alphabet, entropy);
+            }
+        }
+    }
+
+    private static EntropyBuffer segmentEntropy(SplittableRandom stream) {
+        return new EntropyBuffer(stream::nextBytes, SEGMENT_ENTROPY_SIZE);
+    }
+
+    private static int roundToSegments(int size) {
+        return (int) Math.min(((long) size + SEGMENT_SIZE - 1) / SEGMENT_SIZE * SEGMENT_SIZE,
+                Integer.MAX_VALUE / SEGMENT_SIZE * SEGMENT_SIZE);
+    }
+
+    /**
+     * Regenerates every password of a finished chunk that was already emitted, in place and in order,
+     * taking the entropy for each regeneration from the supplier.
+     */
+    void deduplicate(PasswordChunk chunk, PasswordFingerprints fingerprints, PasswordAlphabet alphabet,
+                     Supplier<EntropyBuffer> refillEntropy) {
+        char[] characters = chunk.getCharacters();
+        int length = chunk.getPasswordLength();
+        for (int i = 0; i < chunk.getCount(); i++) {
+            int offset = chunk.offset(i);
+            while (!fingerprints.add(characters, offset, length)) {
+                EntropyBuffer entropy = refillEntropy.get();
+                alphabet.fill(characters, offset, length, entropy);
+                replaceBlocked(characters, offset, length, alphabet, entropy);
+            }
+        }
+    }
+
+    private void replaceBlocked(char[] characters, int offset, int length, PasswordAlphabet alphabet,
+                                EntropyBuffer entropy) {
+        for (int attempt = 1; blocklist.rejects(characters, offset, length); attempt++) {
+            PasswordBlocklist.checkAttempts(attempt);
+            alphabet.fill(characters, offset, length, entropy);
+        }
+    }
+
+    private void await(CompletableFuture<Void> pending) {
+        try {
+            pending.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof EntropySourceException healthFailure) {
+                // Keep the random source failure recognisable to callers mapping it to a status
+                throw healthFailure;
+            }
+            throw new PasswordGenerationException("Bulk password generation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            // Let the in-flight chunk finish so its buffer can be wiped before returning
+            pending.join();
+        }
+    }
+}
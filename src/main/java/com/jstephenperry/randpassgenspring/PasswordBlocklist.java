@@ -0,0 +1,277 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memory-resident filter of known-bad passwords, such as a breach corpus's most common entries, that
+ * generated passwords are checked against before they are handed out.
+ * <p>
+ * The list is loaded from {@code rand-pass-gen.blocklist.file} into a blocked Bloom filter: each entry
+ * sets a few bits inside one 512-bit block, so a lookup hashes the password once with a randomly keyed
+ * {@link SipHash} and reads a single cache line. A listed password is always found. A password not on the
+ * list is wrongly reported with the configured false-positive rate; for a generated password that only
+ * means it is regenerated, which removes that share of the password space and costs a negligible
+ * fraction of a bit of entropy. Without a file the filter is disabled and every check returns at once.
+ */
+@Component
+public class PasswordBlocklist {
+
+    /**
+     * Regeneration attempts for one password before giving up; reached only if the list covers nearly
+     * every password of the requested shape.
+     */
+    static final int MAX_ATTEMPTS = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordBlocklist.class);
+    private static final int BLOCK_BITS = 512;
+    private static final int BLOCK_LONGS = BLOCK_BITS / Long.SIZE;
+    private static final int MAX_BLOCKS = Integer.MAX_VALUE / BLOCK_LONGS;
+
+    private final SipHash hash;
+    private final long[] bits;
+    private final long blocks;
+    private final int hashCount;
+    private final long entries;
+    private final LongAdder rejections = new LongAdder();
+
+    @Autowired
+    public PasswordBlocklist(BlocklistProperties properties, SecureRandomProvider secureRandomProvider) {
+        double falsePositiveRate = properties.falsePositiveRate();
+        if (!(falsePositiveRate > 0 && falsePositiveRate <= 0.5)) {
+            throw new PasswordGenerationException(String.format(
+                    "Blocklist false-positive rate must be greater than 0 and at most 0.5 (provided: %s)",
+                    falsePositiveRate));
+        }
+        if (properties.file().isEmpty()) {
+            this.hash = null;
+            this.bits = null;
+            this.blocks = 0;
+            this.hashCount = 0;
+            this.entries = 0;
+            return;
+        }
+
+        Path file = Path.of(properties.file()).toAbsolutePath().normalize();
+        try {
+            this.entries = countEntries(file);
+            double bitsPerEntry = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+            this.hashCount = (int) Math.max(1, Math.round(bitsPerEntry * Math.log(2)));
+            this.blocks = blockCount(entries, bitsPerEntry, hashCount, falsePositiveRate);
+            this.bits = new long[(int) blocks * BLOCK_LONGS];
+            this.hash = SipHash.withRandomKey(secureRandomProvider);
+            insertEntries(file);
+        } catch (IOException e) {
+            throw new PasswordGenerationException(
+                    String.format("Failed to load blocklist '%s': %s", properties.file(), e.getMessage()), e);
+        }
+        logger.info("Loaded blocklist {} with {} passwords into a {} KB filter ({} hashes, false-positive rate {})",
+                file, entries, (long) bits.length * Long.BYTES / 1024, hashCount, falsePositiveRate);
+    }
+
+    /**
+     * Returns a filter that blocks nothing, for use outside Spring.
+     *
+     * @return a disabled blocklist
+     */
+    public static PasswordBlocklist disabled() {
+        return new PasswordBlocklist(BlocklistProperties.defaults(), null);
+    }
+
+    /**
+     * Returns whether a blocklist was loaded.
+     *
+     * @return true if passwords are checked
+     */
+    public boolean isEnabled() {
+        return bits != null;
+    }
+
+    /**
+     * Returns the number of non-blank lines loaded from the blocklist file.
+     *
+     * @return the entry count, 0 when disabled
+     */
+    public long size() {
+        return entries;
+    }
+
+    /**
+     * Returns how many generated passwords were rejected and regenerated.
+     *
+     * @return the rejection count
+     */
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Checks a password held in a range of a character array.
+     *
+     * @param password the array holding the password
+     * @param offset   the index of the first character
+     * @param length   the password length
+     * @return true if the password is on the list, or is a false positive
+     */
+    public boolean contains(char[] password, int offset, int length) {
+        if (bits == null) {
+            return false;
+        }
+        for (int i = offset; i < offset + length; i++) {
+            if (password[i] >= 0x80) {
+                return containsEncoded(password, offset, length);
+            }
+        }
+        return mightContain(hash.hash(password, offset, length));
+    }
+
+    /**
+     * Checks a password held as UTF-8 bytes in a range of a byte array.
+     *
+     * @param password the array holding the password
+     * @param offset   the index of the first byte
+     * @param length   the password length in bytes
+     * @return true if the password is on the list, or is a false positive
+     */
+    public boolean contains(byte[] password, int offset, int length) {
+        return bits != null && mightContain(hash.hash(password, offset, length));
+    }
+
+    /**
+     * Checks a freshly generated password and counts it if it has to be regenerated.
+     */
+    boolean rejects(char[] password, int offset, int length) {
+        if (contains(password, offset, length)) {
+            rejections.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks a freshly generated password held as bytes and counts it if it has to be regenerated.
+     */
+    boolean rejects(byte[] password, int offset, int length) {
+        if (contains(password, offset, length)) {
+            rejections.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Fails generation once a password has been rejected too many times in a row.
+     *
+     * @param attempt the number of rejections of the current password so far
+     */
+    static void checkAttempts(int attempt) {
+        if (attempt >= MAX_ATTEMPTS) {
+            throw new PasswordGenerationException(String.format(
+                    "Could not generate a password outside the blocklist in %d attempts; use a longer length or "
+                            + "a larger character set", MAX_ATTEMPTS));
+        }
+    }
+
+    private boolean containsEncoded(char[] password, int offset, int length) {
+        ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password, offset, length));
+        try {
+            return mightContain(hash.hash(encoded.array(), encoded.arrayOffset(), encoded.remaining()));
+        } finally {
+            Arrays.fill(encoded.array(), (byte) 0);
+        }
+    }
+
+    private boolean mightContain(long value) {
+        int base = (int) Math.unsignedMultiplyHigh(value, blocks) * BLOCK_LONGS;
+        long mixed = value * 0x9E3779B97F4A7C15L;
+        int probe = (int) mixed;
+        int step = (int) (mixed >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = probe >>> 23;
+            if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+            probe += step;
+        }
+        return true;
+    }
+
+    private void add(long value) {
+        int base = (int) Math.unsignedMultiplyHigh(value, blocks) * BLOCK_LONGS;
+        long mixed = value * 0x9E3779B97F4A7C15L;
+        int probe = (int) mixed;
+        int step = (int) (mixed >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = probe >>> 23;
+            bits[base + (bit >>> 6)] |= 1L << bit;
+            probe += step;
+        }
+    }
+
+    private static long countEntries(Path file) throws IOException {
+        long count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isEmpty()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void insertEntries(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isEmpty()) {
+                    byte[] entry = line.getBytes(StandardCharsets.UTF_8);
+                    add(hash.hash(entry, 0, entry.length));
+                }
+            }
+        }
+    }
+
+    /**
+     * Chooses the number of blocks. Entries do not spread evenly over blocks, so a blocked filter needs
+     * somewhat more space than a plain Bloom filter for the same rate; starting from the plain filter's
+     * size, blocks are added until the expected rate, averaged over the Poisson-distributed block loads,
+     * meets the target.
+     */
+    static long blockCount(long entries, double bitsPerEntry, int hashCount, double falsePositiveRate) {
+        long blocks = Math.max(1, (long) Math.ceil(entries * bitsPerEntry / BLOCK_BITS));
+        while (expectedFalsePositiveRate(entries, blocks, hashCount) > falsePositiveRate) {
+            blocks += Math.max(1, blocks / 32);
+        }
+        if (blocks > MAX_BLOCKS) {
+            throw new PasswordGenerationException(String.format(
+                    "Blocklist of %d passwords is too large for a false-positive rate of %s",
+                    entries, falsePositiveRate));
+        }
+        return blocks;
+    }
+
+    static double expectedFalsePositiveRate(long entries, long blocks, int hashCount) {
+        double load = (double) entries / blocks;
+        double probability = Math.exp(-load);
+        double rate = 0;
+        int maxLoad = (int) (load + 10 * Math.sqrt(load) + 20);
+        for (int i = 0; i <= maxLoad; i++) {
+            double bitSet = 1 - Math.pow(1 - 1.0 / BLOCK_BITS, (double) hashCount * i);
+            rate += probability * Math.pow(bitSet, hashCount);
+            probability *= load / (i + 1);
+        }
+        return rate;
+    }
+}
@@ -0,0 +1,57 @@
+package com.jstephenperry.randpassgenspring;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Reusable block of fixed-length passwords stored back to back in a single character array.
+ * Password {@code i} of the chunk occupies {@code passwordLength} characters starting at {@link #offset(int)}.
+ */
+@Getter
+public final class PasswordChunk {
+
+    private final char[] characters;
+    private final int passwordLength;
+    private final int capacity;
+    private long firstIndex;
+    private int count;
+
+    public PasswordChunk(int capacity, int passwordLength) {
+        this.characters = new char[Math.multiplyExact(capacity, passwordLength)];
+        this.passwordLength = passwordLength;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the offset of a password within the character array.
+     *
+     * @param index the index of the password within this chunk
+     * @return the offset of its first character
+     */
+    public int offset(int index) {
+        return index * passwordLength;
+    }
+
+    /**
+     * Prepares the chunk to hold a new run of passwords.
+     *
+     * @param firstIndex the zero-based position of the first password within the whole batch
+     * @param count      the number of passwords the chunk will hold
+     */
+    void reset(long firstIndex, int count) {
+        if (count > capacity) {
+            throw new IllegalArgumentException("Chunk capacity exceeded: " + count + " > " + capacity);
+        }
+        this.firstIndex = firstIndex;
+        this.count = count;
+    }
+
+    /**
+     * Overwrites all password characters so generated secrets do not linger on the heap.
+     */
+    void wipe() {
+        Arrays.fill(characters, '\0');
+        count = 0;
+    }
+}
@@ -0,0 +1,183 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+
+import static com.jstephenperry.randpassgenspring.PasswordRequestValidator.validateComplexity;
+import static com.jstephenperry.randpassgenspring.PasswordRequestValidator.validateLength;
+import static com.jstephenperry.randpassgenspring.PasswordRequestValidator.validateListLength;
+import static com.jstephenperry.randpassgenspring.PasswordRequestValidator.validateParallelism;
+
+/**
+ * HTTP endpoints for single and list password generation, active only with the http profile.
+ * Parameters follow the same rules as the shell commands. Lists are streamed: the batch pipeline
+ * writes each chunk to the response as soon as it is generated, on virtual threads, so a list is
+ * never held in memory as a whole.
+ */
+@RestController
+@RequestMapping("/api/passwords")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PasswordController {
+
+    static final String ENTROPY_HEADER = "X-Password-Entropy-Bits";
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordController.class);
+
+    private final SecureRandomProvider secureRandomProvider;
+    private final PasswordBlocklist blocklist;
+    private final PasswordPool passwordPool;
+    private final PasswordMetrics passwordMetrics;
+    private final BatchProperties batchProperties;
+
+    public PasswordController(SecureRandomProvider secureRandomProvider, PasswordBlocklist blocklist,
+                              PasswordPool passwordPool, PasswordMetrics passwordMetrics,
+                              BatchProperties batchProperties) {
+        this.secureRandomProvider = secureRandomProvider;
+        this.blocklist = blocklist;
+        this.passwordPool = passwordPool;
+        this.passwordMetrics = passwordMetrics;
+        this.batchProperties = batchProperties;
+    }
+
+    /**
+     * Generates a single password.
+     *
+     * @param length     the desired password length (8-1024 characters)
+     * @param complexity the complexity level: LOW, MEDIUM, or HIGH
+     * @return the password with its strength
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public PasswordResponse generatePassword(@RequestParam int length, @RequestParam String complexity) {
+        validateLength(length);
+        PasswordComplexityEnum complexityEnum = validateComplexity(complexity);
+
+        long start = System.nanoTime();
+        char[] buffer = new char[length];
+        passwordPool.take(buffer, complexityEnum);
+        long generated = System.nanoTime();
+        String password = new String(buffer);
+        PasswordEngine.wipe(buffer);
+        passwordMetrics.recordPhase(PasswordMetrics.Phase.GENERATE, complexityEnum, length, generated - start);
+        passwordMetrics.recordPhase(PasswordMetrics.Phase.STRING, complexityEnum, length,
+                System.nanoTime() - generated);
+
+        PasswordStrength strength = PasswordStrength.forGeneratedPassword(length, complexityEnum);
+        return new PasswordResponse(password, length, complexityEnum, strength.getEntropyBits(), strength.getLevel());
+    }
+
+    /**
+     * Streams a list of passwords as newline-delimited text.
+     *
+     * @param count       the number of passwords (1 to the configured maximum)
+     * @param length      the desired password length (8-1024 characters)
+     * @param complexity  the complexity level: LOW, MEDIUM, or HIGH
+     * @param parallelism the number of worker threads generating each chunk (1-256)
+     * @param unique      whether to regenerate passwords that repeat an earlier one in the list
+     * @return the streamed list, with the entropy per password in a response header
+     */
+    @GetMapping(value = "/list", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPasswordList(
+            @RequestParam int count,
+            @RequestParam int length,
+            @RequestParam String complexity,
+            @RequestParam(defaultValue = "1") int parallelism,
+            @RequestParam(defaultValue = "false") boolean unique) {
+        return streamPasswords(count, length, complexity, parallelism, unique,
+                OutputStreamPasswordSink.Format.LINES, MediaType.TEXT_PLAIN);
+    }
+
+    /**
+     * Streams a list of passwords as a JSON array of strings.
+     *
+     * @param count       the number of passwords (1 to the configured maximum)
+     * @param length      the desired password length (8-1024 characters)
+     * @param complexity  the complexity level: LOW, MEDIUM, or HIGH
+     * @param parallelism the number of worker threads generating each chunk (1-256)
+     * @param unique      whether to regenerate passwords that repeat an earlier one in the list
+     * @return the streamed array, with the entropy per password in a response header
+     */
+    @GetMapping(value = "/list", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPasswordListAsJson(
+            @RequestParam int count,
+            @RequestParam int length,
+            @RequestParam String complexity,
+            @RequestParam(defaultValue = "1") int parallelism,
+            @RequestParam(defaultValue = "false") boolean unique) {
+        return streamPasswords(count, length, complexity, parallelism, unique,
+                OutputStreamPasswordSink.Format.JSON_ARRAY,
+                MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Maps invalid parameters to 400 Bad Request with the validation message as detail.
+     */
+    @ExceptionHandler(InvalidPasswordRequestException.class)
+    public ProblemDetail handleInvalidRequest(InvalidPasswordRequestException e) {
+        passwordMetrics.recordValidationFailure("http");
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    /**
+     * Maps random bytes failing a health test to 503 Service Unavailable; the request may succeed on retry.
+     */
+    @ExceptionHandler(EntropySourceException.class)
+    public ProblemDetail handleEntropySourceFailure(EntropySourceException e) {
+        logger.error("Random source failed a health test while serving a request: {}", e.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE,
+                "The random source is temporarily unavailable");
+    }
+
+    /**
+     * Maps any other generation failure to 500 Internal Server Error without exposing its details.
+     */
+    @ExceptionHandler(PasswordGenerationException.class)
+    public ProblemDetail handleGenerationFailure(PasswordGenerationException e) {
+        logger.error("Password generation failed", e);
+        return ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Password generation failed");
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamPasswords(int count, int length, String complexity,
+                                                                  int parallelism, boolean unique,
+                                                                  OutputStreamPasswordSink.Format format,
+                                                                  MediaType contentType) {
+        // Validate before the response is committed so bad parameters still produce a 400
+        validateListLength(count, batchProperties.maxListSize());
+        validateLength(length);
+        PasswordComplexityEnum complexityEnum = validateComplexity(complexity);
+        validateParallelism(parallelism);
+        PasswordStrength strength = PasswordStrength.forGeneratedPassword(length, complexityEnum);
+
+        StreamingResponseBody body = outputStream -> {
+            PasswordBatchPipeline pipeline = new PasswordBatchPipeline(secureRandomProvider, blocklist,
+                    batchProperties.chunkSize(), parallelism, Thread.ofVirtual().name("password-worker-", 0).factory());
+            OutputStreamPasswordSink sink = new OutputStreamPasswordSink(outputStream, format);
+            PasswordMetrics.Batch batch =
+                    passwordMetrics.startBatch("http-list", complexityEnum, length, count, parallelism);
+            long written = 0;
+            try {
+                written = pipeline.run(count, length, complexityEnum, unique, sink, BatchProgressListener.NONE);
+                sink.finish();
+            } finally {
+                batch.stop(written, written < count);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(ENTROPY_HEADER, String.format(Locale.ROOT, "%.2f", strength.getEntropyBits()))
+                .body(body);
+    }
+}
@@ -0,0 +1,196 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Library-level password generation API for embedding services.
+ * Passwords are written in place into caller-supplied {@code char[]}, {@code byte[]} or {@link CharBuffer}
+ * storage, so the hot path allocates nothing once the entropy buffers exist, and the caller controls the
+ * secret's lifetime and can {@link #wipe(char[]) wipe} it after use.
+ * Instances are thread-safe. Each call borrows an entropy buffer from a shared {@link EntropyBufferPool}
+ * rather than a thread-local one, so requests served on short-lived virtual threads still share the bulk
+ * draws from the random source.
+ * When a {@link PasswordBlocklist} is loaded, a password found on it is regenerated in place.
+ */
+@Component
+public class PasswordEngine {
+
+    public static final int MIN_PASSWORD_LENGTH = 8;
+    public static final int MAX_PASSWORD_LENGTH = 1024;
+
+    private final EntropyBufferPool entropyBuffers;
+    private final PasswordBlocklist blocklist;
+
+    public PasswordEngine(SecureRandomProvider secureRandomProvider) {
+        this(secureRandomProvider, PasswordBlocklist.disabled());
+    }
+
+    @Autowired
+    public PasswordEngine(SecureRandomProvider secureRandomProvider, PasswordBlocklist blocklist) {
+        this.entropyBuffers = new EntropyBufferPool(secureRandomProvider);
+        this.blocklist = blocklist;
+    }
+
+    /**
+     * Returns the blocklist generated passwords are checked against.
+     *
+     * @return the blocklist, disabled if none was loaded
+     */
+    public PasswordBlocklist getBlocklist() {
+        return blocklist;
+    }
+
+    /**
+     * Fills the whole array with a password.
+     *
+     * @param destination the array to fill, its length is the password length
+     * @param complexity  the complexity level
+     */
+    public void generate(char[] destination, PasswordComplexityEnum complexity) {
+        generate(destination, 0, destination.length, complexity);
+    }
+
+    /**
+     * Writes a password into a range of the array.
+     *
+     * @param destination the array to write into
+     * @param offset      the index of the first password character
+     * @param length      the password length (8-1024 characters)
+     * @param complexity  the complexity level
+     */
+    public void generate(char[] destination, int offset, int length, PasswordComplexityEnum complexity) {
+        checkRange(destination.length, offset, length);
+        PasswordAlphabet alphabet = PasswordAlphabet.forComplexity(complexity);
+        EntropyBuffer entropy = entropyBuffers.acquire();
+        try {
+            alphabet.fill(destination, offset, length, entropy);
+            for (int attempt = 1; blocklist.rejects(destination, offset, length); attempt++) {
+                PasswordBlocklist.checkAttempts(attempt);
+                alphabet.fill(destination, offset, length, entropy);
+            }
+        } finally {
+            entropyBuffers.release(entropy);
+        }
+    }
+
+    /**
+     * Writes a password as ASCII bytes into a range of the array.
+     *
+     * @param destination the array to write into
+     * @param offset      the index of the first password byte
+     * @param length      the password length (8-1024 characters)
+     * @param complexity  the complexity level
+     */
+    public void generate(byte[] destination, int offset, int length, PasswordComplexityEnum complexity) {
+        checkRange(destination.length, offset, length);
+        PasswordAlphabet alphabet = PasswordAlphabet.forComplexity(complexity);
+        EntropyBuffer entropy = entropyBuffers.acquire();
+        try {
+            alphabet.fill(destination, offset, length, entropy);
+            for (int attempt = 1; blocklist.rejects(destination, offset, length); attempt++) {
+                PasswordBlocklist.checkAttempts(attempt);
+                alphabet.fill(destination, offset, length, entropy);
+            }
+        } finally {
+            entropyBuffers.release(entropy);
+        }
+    }
+
+    /**
+     * Writes a password at the buffer's position and advances the position past it.
+     *
+     * @param destination the buffer to write into
+     * @param length      the password length (8-1024 characters)
+     * @param complexity  the complexity level
+     */
+    public void generate(CharBuffer destination, int length, PasswordComplexityEnum complexity) {
+        checkRange(destination.remaining(), 0, length);
+
+        if (destination.hasArray()) {
+            int position = destination.position();
+            generate(destination.array(), destination.arrayOffset() + position, length, complexity);
+            destination.position(position + length);
+        } else if (blocklist.isEnabled()) {
+            // The password has to be checked before it is written, so it is staged in a scratch array
+            char[] password = new char[length];
+            generate(password, 0, length, complexity);
+            destination.put(password);
+            wipe(password);
+        } else {
+            PasswordAlphabet alphabet = PasswordAlphabet.forComplexity(complexity);
+            EntropyBuffer entropy = entropyBuffers.acquire();
+            try {
+                for (int i = 0; i < length; i++) {
+                    destination.put(alphabet.nextChar(entropy));
+                }
+            } finally {
+                entropyBuffers.release(entropy);
+            }
+        }
+    }
+
+    /**
+     * Fills the whole array with a password satisfying a compiled character set policy.
+     *
+     * @param destination the array to fill, its length is the password length
+     * @param policy      the compiled policy
+     */
+    public void generate(char[] destination, CompiledPasswordPolicy policy) {
+        checkRange(destination.length, 0, destination.length);
+        EntropyBuffer entropy = entropyBuffers.acquire();
+        try {
+            policy.fill(destination, 0, destination.length, entropy);
+            for (int attempt = 1; blocklist.rejects(destination, 0, destination.length); attempt++) {
+                PasswordBlocklist.checkAttempts(attempt);
+                policy.fill(destination, 0, destination.length, entropy);
+            }
+        } finally {
+            entropyBuffers.release(entropy);
+        }
+    }
+
+    /**
+     * Overwrites a password held in a character array.
+     *
+     * @param password the password to wipe
+     */
+    public static void wipe(char[] password) {
+        Arrays.fill(password, '\0');
+    }
+
+    /**
+     * Overwrites a password held in a byte array.
+     *
+     * @param password the password to wipe
+     */
+    public static void wipe(byte[] password) {
+        Arrays.fill(password, (byte) 0);
+    }
+
+    /**
+     * Overwrites every character of the buffer, from index 0 to its capacity, and clears it.
+     *
+     * @param password the buffer to wipe
+     */
+    public static void wipe(CharBuffer password) {
+        password.clear();
+        while (password.hasRemaining()) {
+            password.put('\0');
+        }
+        password.clear();
+    }
+
+    private static void checkRange(int capacity, int offset, int length) {
+        if (length < MIN_PASSWORD_LENGTH || length > MAX_PASSWORD_LENGTH) {
+            throw new InvalidPasswordRequestException(
+                    String.format("Password length must be between %d and %d characters (provided: %d)",
+                            MIN_PASSWORD_LENGTH, MAX_PASSWORD_LENGTH, length));
+        }
+        Objects.checkFromIndexSize(offset, length, capacity);
+    }
+}
@@ -0,0 +1,63 @@
+package com.jstephenperry.randpassgenspring;
+
+/**
+ * Remembers the passwords of one batch by fingerprint so duplicates can be regenerated.
+ * <p>
+ * A fingerprint is a 64-bit {@link SipHash} under a key drawn for the batch and discarded with it, so the
+ * set holds nothing that identifies a password once the batch is over. Two different passwords share a
+ * fingerprint with probability about n²/2⁶⁵, around 3 in a million for ten million passwords; such a pair is
+ * treated as a duplicate and merely regenerated. Not thread-safe.
+ */
+final class PasswordFingerprints {
+
+    private final SipHash hash;
+    private final LongHashSet seen;
+    private long duplicates;
+
+    /**
+     * Creates an empty set sized for a batch.
+     *
+     * @param secureRandomProvider the source of the fingerprint key
+     * @param expectedCount        the number of passwords in the batch
+     */
+    PasswordFingerprints(SecureRandomProvider secureRandomProvider, long expectedCount) {
+        this(SipHash.withRandomKey(secureRandomProvider), expectedCount);
+    }
+
+    /**
+     * Creates an empty set fingerprinting with the given hash, for seeded runs that must be reproducible.
+     */
+    PasswordFingerprints(SipHash hash, long expectedCount) {
+        this.hash = hash;
+        this.seen = new LongHashSet(expectedCount);
+    }
+
+    /**
+     * Records a password unless it was seen before.
+     *
+     * @param password the array holding the password
+     * @param offset   the index of the first character
+     * @param length   the password length
+     * @return true if the password is new, false if it is a duplicate and was counted as one
+     */
+    boolean add(char[] password, int offset, int length) {
+        if (seen.add(hash.hash(password, offset, length))) {
+            return true;
+        }
+        duplicates++;
+        return false;
+    }
+
+    /**
+     * Returns how many duplicates were found.
+     *
+     * @return the duplicate count
+     */
+    long getDuplicateCount() {
+        return duplicates;
+    }
+
+    long size() {
+        return seen.size();
+    }
+}
@@ -0,0 +1,225 @@
+package com.jstephenperry.randpassgenspring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation for password generation.
+ * Single passwords are timed per phase, tagged by complexity and a power-of-two length bucket; bulk runs
+ * are timed once per run and also emitted as {@link PasswordBatchEvent} JFR events. Other meters read
+ * counters the components keep themselves, so the hot paths do not depend on Micrometer.
+ */
+@Component
+public class PasswordMetrics {
+
+    static final String[] LENGTH_BUCKETS = {"8-15", "16-31", "32-63", "64-127", "128-255", "256-1024"};
+
+    private final MeterRegistry registry;
+    private final Map<Phase, Map<PasswordComplexityEnum, Timer[]>> phaseTimers = new EnumMap<>(Phase.class);
+
+    @Autowired
+    public PasswordMetrics(MeterRegistry registry, SecureRandomProvider secureRandomProvider,
+                           PasswordPool passwordPool, PasswordBlocklist blocklist) {
+        this(registry);
+
+        FunctionCounter.builder("passwords.random.bytes", secureRandomProvider,
+                        SecureRandomProvider::getBytesGenerated)
+                .tag("source", secureRandomProvider.getBackendName())
+                .description("Random bytes drawn from the SecureRandom source")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionTimer.builder("passwords.random.fill", secureRandomProvider,
+                        SecureRandomProvider::getNextBytesCalls, SecureRandomProvider::getNextBytesNanos,
+                        TimeUnit.NANOSECONDS)
+                .tag("source", secureRandomProvider.getBackendName())
+                .description("Time spent filling entropy blocks from the SecureRandom source")
+                .register(registry);
+        FunctionCounter.builder("passwords.random.prefetch", secureRandomProvider,
+                        SecureRandomProvider::getPrefetchHitCount)
+                .tag("result", "hit")
+                .description("Random blocks copied from the prefetch ring")
+                .register(registry);
+        FunctionCounter.builder("passwords.random.prefetch", secureRandomProvider,
+                        SecureRandomProvider::getPrefetchMissCount)
+                .tag("result", "miss")
+                .description("Random blocks drawn on the calling thread because the prefetch ring was empty")
+                .register(registry);
+        FunctionCounter.builder("passwords.random.health.failures", secureRandomProvider,
+                        SecureRandomProvider::getHealthFailureCount)
+                .description("Blocks of random bytes discarded after failing an SP 800-90B health test")
+                .register(registry);
+        FunctionCounter.builder("passwords.random.reseeds", secureRandomProvider,
+                        SecureRandomProvider::getReseedCount)
+                .description("Reseeds of pooled DRBG instances")
+                .register(registry);
+        FunctionCounter.builder("passwords.pool.handouts", passwordPool, PasswordPool::getHitCount)
+                .tag("result", "hit")
+                .description("Single passwords handed out from the pre-generated pool")
+                .register(registry);
+        FunctionCounter.builder("passwords.pool.handouts", passwordPool, PasswordPool::getMissCount)
+                .tag("result", "miss")
+                .description("Single passwords generated on request because the pool had no entry")
+                .register(registry);
+        FunctionCounter.builder("passwords.blocklist.rejections", blocklist, PasswordBlocklist::getRejectionCount)
+                .description("Generated passwords found on the blocklist and regenerated")
+                .register(registry);
+    }
+
+    private PasswordMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Phase phase : Phase.values()) {
+            Map<PasswordComplexityEnum, Timer[]> byComplexity = new EnumMap<>(PasswordComplexityEnum.class);
+            for (PasswordComplexityEnum complexity : PasswordComplexityEnum.values()) {
+                Timer[] timers = new Timer[LENGTH_BUCKETS.length];
+                for (int i = 0; i < timers.length; i++) {
+                    timers[i] = Timer.builder("passwords.generation")
+                            .description("Time per password spent in each generation phase")
+                            .tag("phase", phase.tag)
+                            .tag("complexity", complexity.name())
+                            .tag("length", LENGTH_BUCKETS[i])
+                            .register(registry);
+                }
+                byComplexity.put(complexity, timers);
+            }
+            phaseTimers.put(phase, byComplexity);
+        }
+    }
+
+    /**
+     * Returns instrumentation backed by a registry without any backends, for use outside Spring.
+     *
+     * @return metrics that record nothing
+     */
+    public static PasswordMetrics noop() {
+        return new PasswordMetrics(new CompositeMeterRegistry());
+    }
+
+    /**
+     * Records the time one password spent in a generation phase.
+     *
+     * @param phase      the phase
+     * @param complexity the complexity level
+     * @param length     the password length
+     * @param nanos      the elapsed time in nanoseconds
+     */
+    public void recordPhase(Phase phase, PasswordComplexityEnum complexity, int length, long nanos) {
+        phaseTimers.get(phase).get(complexity)[lengthBucket(length)].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a rejected request.
+     *
+     * @param source where the request came from, e.g. shell or http
+     */
+    public void recordValidationFailure(String source) {
+        Counter.builder("passwords.validation.failures")
+                .description("Requests rejected by parameter validation")
+                .tag("source", source)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Starts timing a bulk run; {@link Batch#stop(long, boolean)} records it.
+     *
+     * @param operation   the command or endpoint generating the batch
+     * @param complexity  the complexity level
+     * @param length      the password length
+     * @param requested   the number of passwords requested
+     * @param parallelism the number of worker threads
+     * @return the running batch
+     */
+    public Batch startBatch(String operation, PasswordComplexityEnum complexity, int length,
+                            long requested, int parallelism) {
+        return new Batch(operation, complexity, length, requested, parallelism);
+    }
+
+    static int lengthBucket(int length) {
+        int bucket = (Integer.SIZE - 1 - Integer.numberOfLeadingZeros(Math.max(length, 1))) - 3;
+        return Math.clamp(bucket, 0, LENGTH_BUCKETS.length - 1);
+    }
+
+    public enum Phase {
+        GENERATE("generate"),
+        STRING("string"),
+        FORMAT("format");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * A bulk run being timed.
+     */
+    public final class Batch {
+
+        private final String operation;
+        private final PasswordComplexityEnum complexity;
+        private final int length;
+        private final long requested;
+        private final int parallelism;
+        private final PasswordBatchEvent event = new PasswordBatchEvent();
+        private final long startNanos;
+
+        private Batch(String operation, PasswordComplexityEnum complexity, int length,
+                      long requested, int parallelism) {
+            this.operation = operation;
+            this.complexity = complexity;
+            this.length = length;
+            this.requested = requested;
+            this.parallelism = parallelism;
+            this.event.begin();
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * Records the run's duration, the number of passwords generated and the JFR event.
+         *
+         * @param generated the number of passwords actually generated
+         * @param cancelled whether the run was cancelled before completing
+         */
+        public void stop(long generated, boolean cancelled) {
+            long elapsed = System.nanoTime() - startNanos;
+            String lengthBucket = LENGTH_BUCKETS[lengthBucket(length)];
+
+            Timer.builder("passwords.batch")
+                    .description("Duration of bulk generation runs")
+                    .tag("operation", operation)
+                    .tag("complexity", complexity.name())
+                    .tag("length", lengthBucket)
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            Counter.builder("passwords.generated")
+                    .description("Passwords generated by bulk runs")
+                    .tag("operation", operation)
+                    .tag("complexity", complexity.name())
+                    .register(registry)
+                    .increment(generated);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.requested = requested;
+                event.generated = generated;
+                event.length = length;
+                event.complexity = complexity.name();
+                event.parallelism = parallelism;
+                event.cancelled = cancelled;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The configured named policies, compiled once at startup so an invalid policy fails fast.
+ */
+@Component
+public class PasswordPolicies {
+
+    private final Map<String, CompiledPasswordPolicy> policies = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    public PasswordPolicies(PasswordPolicyProperties properties) {
+        properties.policies().forEach((name, policy) -> {
+            try {
+                policies.put(name, policy.compile());
+            } catch (PasswordGenerationException e) {
+                throw new IllegalStateException("Invalid password policy '" + name + "': " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Returns the compiled policy with the given name.
+     *
+     * @param name the policy name, case-insensitive
+     * @return the compiled policy
+     * @throws InvalidPasswordRequestException if no policy has that name
+     */
+    public CompiledPasswordPolicy get(String name) {
+        CompiledPasswordPolicy policy = policies.get(name);
+        if (policy == null) {
+            throw new InvalidPasswordRequestException(String.format("Unknown password policy: '%s'. Configured policies: %s",
+                    name, policies.isEmpty() ? "none" : String.join(", ", policies.keySet())));
+        }
+        return policy;
+    }
+}
@@ -0,0 +1,94 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A user-defined character set policy: which character classes to draw from, the symbols to use,
+ * characters to leave out and the minimum number of characters required from each class.
+ * Policies are plain values; {@link #compile()} turns one into a cached {@link CompiledPasswordPolicy}.
+ *
+ * @param classes           the character classes to include
+ * @param symbols           the symbol set replacing the default symbols, or null for the default
+ * @param excludeCharacters characters never to use
+ * @param excludeAmbiguous  whether to leave out characters that are easily confused: I, l, 1, O, 0 and |
+ * @param minimums          the minimum number of characters required from each class
+ */
+public record PasswordPolicy(
+        @DefaultValue({"LOWER", "UPPER", "DIGIT", "SYMBOL"}) Set<CharacterClass> classes,
+        String symbols,
+        @DefaultValue("") String excludeCharacters,
+        @DefaultValue("false") boolean excludeAmbiguous,
+        Map<CharacterClass, Integer> minimums) {
+
+    static final String AMBIGUOUS_CHARACTERS = "Il1O0|";
+
+    private static final int MAX_CACHED_POLICIES = 256;
+    private static final Map<PasswordPolicy, CompiledPasswordPolicy> COMPILED = new ConcurrentHashMap<>();
+
+    public PasswordPolicy {
+        classes = classes == null || classes.isEmpty()
+                ? Collections.unmodifiableSet(EnumSet.noneOf(CharacterClass.class))
+                : Collections.unmodifiableSet(EnumSet.copyOf(classes));
+        excludeCharacters = excludeCharacters == null ? "" : excludeCharacters;
+        minimums = minimums == null || minimums.isEmpty()
+                ? Collections.unmodifiableMap(new EnumMap<>(CharacterClass.class))
+                : Collections.unmodifiableMap(new EnumMap<>(minimums));
+    }
+
+    /**
+     * Returns the policy equivalent to a complexity level, without minimums.
+     *
+     * @param complexity the complexity level
+     * @return the equivalent policy
+     */
+    public static PasswordPolicy forComplexity(PasswordComplexityEnum complexity) {
+        Set<CharacterClass> classes = EnumSet.of(CharacterClass.LOWER, CharacterClass.UPPER);
+        if (complexity != PasswordComplexityEnum.LOW) {
+            classes.add(CharacterClass.DIGIT);
+        }
+        if (complexity == PasswordComplexityEnum.HIGH) {
+            classes.add(CharacterClass.SYMBOL);
+        }
+        return new PasswordPolicy(classes, null, "", false, Map.of());
+    }
+
+    /**
+     * Returns the minimum number of characters required from a class.
+     *
+     * @param characterClass the character class
+     * @return the minimum, 0 if none is set
+     */
+    public int minimum(CharacterClass characterClass) {
+        return minimums.getOrDefault(characterClass, 0);
+    }
+
+    /**
+     * Compiles this policy into an immutable alphabet and sampling table, or returns the cached
+     * compiled form if an equal policy was compiled before. The cache holds a bounded number of
+     * policies; beyond that, policies are compiled on every call.
+     *
+     * @return the compiled policy
+     * @throws InvalidPasswordRequestException if the policy is invalid
+     */
+    public CompiledPasswordPolicy compile() {
+        CompiledPasswordPolicy compiled = COMPILED.get(this);
+        if (compiled == null) {
+            // Compile outside computeIfAbsent so an invalid policy throws without touching the cache
+            compiled = new CompiledPasswordPolicy(this);
+            if (COMPILED.size() < MAX_CACHED_POLICIES) {
+                CompiledPasswordPolicy existing = COMPILED.putIfAbsent(this, compiled);
+                if (existing != null) {
+                    compiled = existing;
+                }
+            }
+        }
+        return compiled;
+    }
+}
@@ -0,0 +1,24 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Named character set policies, selectable with {@code generate-policy-password --policy <name>}.
+ *
+ * @param policies the policies by name
+ */
+@ConfigurationProperties(prefix = "rand-pass-gen")
+public record PasswordPolicyProperties(@DefaultValue Map<String, PasswordPolicy> policies) {
+
+    /**
+     * Returns the default configuration, without named policies.
+     *
+     * @return the default properties
+     */
+    public static PasswordPolicyProperties defaults() {
+        return new PasswordPolicyProperties(Map.of());
+    }
+}
@@ -0,0 +1,259 @@
+package com.jstephenperry.randpassgenspring;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pre-generated passwords for low-latency single-password handout.
+ * Each length and complexity shape has its own lock-free queue of passwords, refilled up to the high
+ * watermark by a background worker whenever it drops below the low watermark, so handing out a password
+ * is a dequeue rather than a generation and does not wait on the random number source. Every entry is
+ * handed out at most once: it is copied into the caller's array and wiped. Remaining entries are wiped
+ * at shutdown. When pooling is disabled, or a shape has no pool, passwords are generated on request.
+ */
+@Component
+public class PasswordPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordPool.class);
+
+    private final PasswordEngine passwordEngine;
+    private final PasswordPoolProperties properties;
+    private final ConcurrentMap<PasswordPoolProperties.Shape, ShapePool> pools = new ConcurrentHashMap<>();
+    private final AtomicInteger shapeCount = new AtomicInteger();
+    private final ExecutorService refillExecutor;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile boolean closed;
+
+    public PasswordPool(PasswordEngine passwordEngine) {
+        this(passwordEngine, PasswordPoolProperties.defaults());
+    }
+
+    @Autowired
+    public PasswordPool(PasswordEngine passwordEngine, PasswordPoolProperties properties) {
+        if (properties.lowWatermark() < 0 || properties.highWatermark() <= properties.lowWatermark()) {
+            throw new IllegalArgumentException(String.format(
+                    "Pool watermarks must satisfy 0 <= low < high (provided: low %d, high %d)",
+                    properties.lowWatermark(), properties.highWatermark()));
+        }
+        this.passwordEngine = passwordEngine;
+        this.properties = properties;
+
+        if (properties.enabled()) {
+            this.refillExecutor = Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().name("password-pool-refill").daemon().factory());
+            for (PasswordPoolProperties.Shape shape : properties.shapes()) {
+                poolFor(shape.length(), shape.complexity());
+            }
+            logger.info("Password pool enabled (low watermark {}, high watermark {})",
+                    properties.lowWatermark(), properties.highWatermark());
+        } else {
+            this.refillExecutor = null;
+        }
+    }
+
+    /**
+     * Fills the whole array with a password, taken from the pool for its shape when one is available.
+     *
+     * @param destination the array to fill, its length is the password length
+     * @param complexity  the complexity level
+     */
+    public void take(char[] destination, PasswordComplexityEnum complexity) {
+        ShapePool pool = poolFor(destination.length, complexity);
+        char[] entry = pool != null ? pool.poll() : null;
+        if (entry == null) {
+            misses.increment();
+            passwordEngine.generate(destination, complexity);
+            return;
+        }
+
+        hits.increment();
+        System.arraycopy(entry, 0, destination, 0, entry.length);
+        PasswordEngine.wipe(entry);
+    }
+
+    /**
+     * Returns whether passwords are handed out from pre-generated pools.
+     *
+     * @return true if pooling is enabled
+     */
+    public boolean isEnabled() {
+        return refillExecutor != null;
+    }
+
+    /**
+     * Returns the number of passwords currently pooled for a shape.
+     *
+     * @param length     the password length
+     * @param complexity the complexity level
+     * @return the pooled count, 0 if the shape has no pool
+     */
+    public int size(int length, PasswordComplexityEnum complexity) {
+        ShapePool pool = pools.get(new PasswordPoolProperties.Shape(length, complexity));
+        return pool == null ? 0 : pool.size.get();
+    }
+
+    /**
+     * Returns the number of shapes that have a pool.
+     */
+    int shapeCount() {
+        return pools.size();
+    }
+
+    /**
+     * Returns the number of passwords handed out from a pool.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of passwords generated on request because no pooled entry was available.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Stops the refill worker and wipes every pooled password.
+     */
+    @PreDestroy
+    public void close() {
+        closed = true;
+        if (refillExecutor != null) {
+            refillExecutor.shutdownNow();
+            try {
+                // Wait for an in-flight refill so nothing is added after the pools are wiped
+                refillExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        pools.values().forEach(ShapePool::wipe);
+    }
+
+    private ShapePool poolFor(int length, PasswordComplexityEnum complexity) {
+        if (refillExecutor == null || closed
+                || length < PasswordEngine.MIN_PASSWORD_LENGTH || length > PasswordEngine.MAX_PASSWORD_LENGTH) {
+            return null;
+        }
+
+        PasswordPoolProperties.Shape shape = new PasswordPoolProperties.Shape(length, complexity);
+        ShapePool pool = pools.get(shape);
+        if (pool != null || shapeCount.get() >= properties.maxShapes()) {
+            return pool;
+        }
+        try {
+            pools.computeIfAbsent(shape, this::newShapePool).requestRefill();
+        } catch (ShapeLimitReachedException e) {
+            return null;
+        }
+        // The refill has only just been scheduled, so the first request for a shape is always served
+        // directly rather than racing the refill thread for its first entry
+        return null;
+    }
+
+    /**
+     * Creates the pool for a new shape, reserving its place under the shape cap inside the map computation
+     * so that concurrent first requests for different shapes cannot exceed the cap.
+     */
+    private ShapePool newShapePool(PasswordPoolProperties.Shape shape) {
+        if (shapeCount.incrementAndGet() > properties.maxShapes()) {
+            shapeCount.decrementAndGet();
+            throw new ShapeLimitReachedException();
+        }
+        return new ShapePool(shape);
+    }
+
+    /**
+     * Aborts the creation of a shape pool once the cap is reached; the shape is then generated on request.
+     */
+    private static final class ShapeLimitReachedException extends RuntimeException {
+
+        private ShapeLimitReachedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * The queue of pooled passwords for one shape, which also serves as its own refill task.
+     */
+    private final class ShapePool implements Runnable {
+
+        private final PasswordPoolProperties.Shape shape;
+        private final ConcurrentLinkedQueue<char[]> entries = new ConcurrentLinkedQueue<>();
+        // Tracked separately because ConcurrentLinkedQueue.size() traverses the queue
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean refillPending = new AtomicBoolean();
+
+        private ShapePool(PasswordPoolProperties.Shape shape) {
+            this.shape = shape;
+        }
+
+        private char[] poll() {
+            char[] entry = entries.poll();
+            if (entry == null || size.decrementAndGet() < properties.lowWatermark()) {
+                requestRefill();
+            }
+            return entry;
+        }
+
+        private void requestRefill() {
+            if (!closed && refillPending.compareAndSet(false, true)) {
+                try {
+                    refillExecutor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    refillPending.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed && !Thread.currentThread().isInterrupted()
+                        && size.get() < properties.highWatermark()) {
+                    char[] entry = new char[shape.length()];
+                    passwordEngine.generate(entry, shape.complexity());
+                    entries.offer(entry);
+                    size.incrementAndGet();
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Refilling the password pool for {} failed: {}", shape, e.getMessage());
+                refillPending.set(false);
+                return;
+            }
+            refillPending.set(false);
+            // A take that crossed the low watermark while this refill was finishing saw it still pending
+            // and did not request another, so check again once the flag is clear
+            if (size.get() < properties.lowWatermark()) {
+                requestRefill();
+            }
+        }
+
+        private void wipe() {
+            for (char[] entry = entries.poll(); entry != null; entry = entries.poll()) {
+                PasswordEngine.wipe(entry);
+                size.decrementAndGet();
+            }
+        }
+    }
+}
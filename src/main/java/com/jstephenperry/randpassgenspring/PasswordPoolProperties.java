@@ -0,0 +1,42 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Configuration for the pre-generated {@link PasswordPool}.
+ *
+ * @param enabled       whether single passwords are handed out from pre-generated pools
+ * @param lowWatermark  the pool size below which a background refill is started
+ * @param highWatermark the pool size a refill tops the pool up to
+ * @param maxShapes     the maximum number of distinct length and complexity combinations that get a pool
+ * @param shapes        shapes to fill at startup rather than on first request
+ */
+@ConfigurationProperties(prefix = "rand-pass-gen.pool")
+public record PasswordPoolProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("256") int lowWatermark,
+        @DefaultValue("1024") int highWatermark,
+        @DefaultValue("16") int maxShapes,
+        @DefaultValue List<Shape> shapes) {
+
+    /**
+     * Returns the default configuration, with pooling disabled.
+     *
+     * @return the default properties
+     */
+    public static PasswordPoolProperties defaults() {
+        return new PasswordPoolProperties(false, 256, 1024, 16, List.of());
+    }
+
+    /**
+     * A password length and complexity combination served by its own pool.
+     *
+     * @param length     the password length
+     * @param complexity the complexity level
+     */
+    public record Shape(int length, PasswordComplexityEnum complexity) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Validation rules shared by the shell commands and the HTTP endpoints.
+ * Every rule throws an {@link InvalidPasswordRequestException} describing the rejected value.
+ */
+public final class PasswordRequestValidator {
+
+    public static final int MIN_PASSWORD_LENGTH = PasswordEngine.MIN_PASSWORD_LENGTH;
+    public static final int MAX_PASSWORD_LENGTH = PasswordEngine.MAX_PASSWORD_LENGTH;
+    public static final int MAX_PARALLELISM = 256;
+    public static final int MIN_PASSPHRASE_WORDS = 3;
+    public static final int MAX_PASSPHRASE_WORDS = 64;
+
+    private PasswordRequestValidator() {
+    }
+
+    /**
+     * Validates password length.
+     *
+     * @param length the requested password length
+     */
+    public static void validateLength(int length) {
+        if (length < MIN_PASSWORD_LENGTH) {
+            throw new InvalidPasswordRequestException(
+                    String.format("Password length must be at least %d characters (provided: %d)",
+                            MIN_PASSWORD_LENGTH, length));
+        }
+        if (length > MAX_PASSWORD_LENGTH) {
+            throw new InvalidPasswordRequestException(
+                    String.format("Password length cannot exceed %d characters (provided: %d)",
+                            MAX_PASSWORD_LENGTH, length));
+        }
+    }
+
+    /**
+     * Validates list length against an upper bound.
+     *
+     * @param listLength    the requested number of passwords
+     * @param maxListLength the largest allowed number of passwords
+     */
+    public static void validateListLength(int listLength, int maxListLength) {
+        if (listLength < 1) {
+            throw new InvalidPasswordRequestException(
+                    String.format("List length must be at least 1 (provided: %d)", listLength));
+        }
+        if (listLength > maxListLength) {
+            throw new InvalidPasswordRequestException(
+                    String.format("List length cannot exceed %d (provided: %d)",
+                            maxListLength, listLength));
+        }
+    }
+
+    /**
+     * Validates the number of worker threads.
+     *
+     * @param parallelism the requested number of worker threads
+     */
+    public static void validateParallelism(int parallelism) {
+        if (parallelism < 1 || parallelism > MAX_PARALLELISM) {
+            throw new InvalidPasswordRequestException(
+                    String.format("Parallelism must be between 1 and %d (provided: %d)",
+                            MAX_PARALLELISM, parallelism));
+        }
+    }
+
+    /**
+     * Validates and parses complexity string.
+     *
+     * @param complexity the requested complexity, case-insensitive
+     * @return the parsed complexity level
+     */
+    public static PasswordComplexityEnum validateComplexity(String complexity) {
+        try {
+            return PasswordComplexityEnum.valueOf(complexity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPasswordRequestException(
+                    String.format("Invalid complexity level: '%s'. Must be one of: LOW, MEDIUM, HIGH",
+                            complexity), e);
+        }
+    }
+
+    /**
+     * Validates and parses a comma-separated list of character classes.
+     *
+     * @param classes the requested classes, case-insensitive, e.g. "lower,upper,digit"
+     * @return the parsed classes
+     */
+    public static Set<CharacterClass> validateCharacterClasses(String classes) {
+        Set<CharacterClass> parsed = EnumSet.noneOf(CharacterClass.class);
+        for (String name : classes.split(",")) {
+            if (name.isBlank()) {
+                continue;
+            }
+            try {
+                parsed.add(CharacterClass.valueOf(name.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidPasswordRequestException(
+                        String.format("Invalid character class: '%s'. Must be any of: LOWER, UPPER, DIGIT, SYMBOL",
+                                name.trim()), e);
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new InvalidPasswordRequestException("At least one character class is required");
+        }
+        return parsed;
+    }
+
+    /**
+     * Validates the number of words in a passphrase.
+     *
+     * @param words the requested number of words
+     */
+    public static void validateWordCount(int words) {
+        if (words < MIN_PASSPHRASE_WORDS || words > MAX_PASSPHRASE_WORDS) {
+            throw new InvalidPasswordRequestException(
+                    String.format("Passphrase word count must be between %d and %d (provided: %d)",
+                            MIN_PASSPHRASE_WORDS, MAX_PASSPHRASE_WORDS, words));
+        }
+    }
+}
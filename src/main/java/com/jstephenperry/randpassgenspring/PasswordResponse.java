@@ -0,0 +1,18 @@
+package com.jstephenperry.randpassgenspring;
+
+/**
+ * JSON body returned by the single-password HTTP endpoint.
+ *
+ * @param password    the generated password
+ * @param length      the password length
+ * @param complexity  the complexity level used
+ * @param entropyBits the entropy of the password in bits
+ * @param strength    the strength level derived from the entropy
+ */
+public record PasswordResponse(
+        String password,
+        int length,
+        PasswordComplexityEnum complexity,
+        double entropyBits,
+        PasswordStrength.StrengthLevel strength) {
+}
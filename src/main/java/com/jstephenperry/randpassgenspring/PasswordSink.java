@@ -0,0 +1,20 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.io.IOException;
+
+/**
+ * Destination for chunks of passwords produced by a {@link PasswordBatchPipeline}.
+ * Chunks are recycled once {@link #accept(PasswordChunk)} returns, so a sink must copy or write
+ * out the characters it needs before returning and must not keep a reference to the chunk.
+ */
+@FunctionalInterface
+public interface PasswordSink {
+
+    /**
+     * Consumes a chunk of generated passwords.
+     *
+     * @param chunk the chunk to consume, valid only for the duration of the call
+     * @throws IOException if the passwords cannot be written
+     */
+    void accept(PasswordChunk chunk) throws IOException;
+}
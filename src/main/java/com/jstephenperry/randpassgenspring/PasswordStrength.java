@@ -71,17 +71,59 @@ public class PasswordStrength {
         return length * (Math.log(charSetSize) / Math.log(2));
     }
 
+    /**
+     * Calculates the strength of a password drawn uniformly from the alphabet of a complexity level.
+     *
+     * @param length     the length of the password
+     * @param complexity the password complexity level
+     * @return the password strength
+     */
+    public static PasswordStrength forGeneratedPassword(int length, PasswordComplexityEnum complexity) {
+        return new PasswordStrength(calculateEntropy(getCharSetSize(complexity), length));
+    }
+
+    /**
+     * Calculates the strength of a password generated from a compiled policy, using the policy's
+     * exact entropy rather than length times log2 of the alphabet size, which overstates it when
+     * minimums rule out some strings.
+     *
+     * @param length the length of the password
+     * @param policy the compiled policy
+     * @return the password strength
+     */
+    public static PasswordStrength forPolicy(int length, CompiledPasswordPolicy policy) {
+        return new PasswordStrength(policy.entropyBits(length));
+    }
+
+    /**
+     * Calculates the strength of a passphrase: log2(wordlist size) bits per word, plus log2(10 * words)
+     * bits for an injected digit and its position. With capitalization the size is that of the
+     * {@linkplain Wordlist#capitalized() capitalized list}, which the words are then drawn from. The digit
+     * bits are left out when the wordlist itself contains digits, as a word ending in a digit could then be
+     * confused with an injected one.
+     *
+     * @param wordlist the wordlist the words are drawn from
+     * @param options  the passphrase shape
+     * @return the passphrase strength
+     */
+    public static PasswordStrength forPassphrase(Wordlist wordlist, PassphraseOptions options) {
+        int size = options.capitalize() ? wordlist.capitalized().size() : wordlist.size();
+        double entropy = options.words() * (Math.log(size) / Math.log(2));
+        if (options.includeDigit() && !wordlist.containsDigits()) {
+            entropy += Math.log(10.0 * options.words()) / Math.log(2);
+        }
+        return new PasswordStrength(entropy);
+    }
+
     /**
      * Determines the character set size based on password complexity.
+     * The size is taken from the precomputed alphabet actually used for generation.
      *
      * @param complexity the password complexity level
      * @return the character set size
      */
     public static int getCharSetSize(PasswordComplexityEnum complexity) {
-        return switch (complexity) {
-            case LOW -> 52;      // 26 uppercase + 26 lowercase
-            case MEDIUM -> 62;   // 52 letters + 10 digits
-            case HIGH -> 84;     // 62 alphanumeric + 22 special characters
-        };
+        // LOW: 26 uppercase + 26 lowercase, MEDIUM: 52 letters + 10 digits, HIGH: 62 alphanumeric + 22 special
+        return PasswordAlphabet.forComplexity(complexity).size();
     }
 }
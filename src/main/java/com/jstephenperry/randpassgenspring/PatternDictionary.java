@@ -0,0 +1,160 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.util.Arrays;
+
+/**
+ * Ranked dictionary for strength estimation, stored as lower-case ASCII in one byte array with an
+ * offset table and indexed by an open-addressing hash table. Lookups hash the candidate characters
+ * incrementally, so every substring starting at a position is checked in one pass without creating
+ * Strings, and a bit set of word prefix hashes ends the pass as soon as no word can start with the
+ * characters seen so far. Instances are immutable and safe to share across threads.
+ */
+final class PatternDictionary {
+
+    private static final int FNV_OFFSET = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private final String name;
+    private final byte[] words;
+    private final int[] offsets;
+    private final int[] table;
+    private final int[] rankTable;
+    private final long[] prefixes;
+    private final int maxWordLength;
+
+    PatternDictionary(String name, Wordlist wordlist) {
+        this.name = name;
+        int count = wordlist.size();
+        char[] scratch = new char[64];
+        byte[] bytes = new byte[64];
+        int[] wordOffsets = new int[count + 1];
+        int[] ranks = new int[count];
+        int size = 0;
+        int write = 0;
+        int longest = 0;
+
+        for (int i = 0; i < count; i++) {
+            int length = wordlist.charLength(i);
+            if (length > scratch.length) {
+                scratch = new char[length];
+            }
+            wordlist.copyWord(i, scratch, 0);
+            if (!isAscii(scratch, length)) {
+                // Passwords are matched as lower-case ASCII; other words can never match
+                continue;
+            }
+            if (write + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, write + length));
+            }
+            for (int j = 0; j < length; j++) {
+                bytes[write + j] = (byte) Character.toLowerCase(scratch[j]);
+            }
+            wordOffsets[size] = write;
+            ranks[size] = i + 1;
+            write += length;
+            wordOffsets[++size] = write;
+            longest = Math.max(longest, length);
+        }
+
+        this.words = Arrays.copyOf(bytes, write);
+        this.offsets = Arrays.copyOf(wordOffsets, size + 1);
+        this.maxWordLength = longest;
+        // Slots hold the word index plus one, so zero marks an empty slot; ranks sit in a parallel table
+        this.table = new int[Integer.highestOneBit(Math.max(size, 1)) << 2];
+        this.rankTable = new int[table.length];
+        // At least four bits per stored character, so the prefix set stays sparse
+        this.prefixes = new long[Math.max(1, Integer.highestOneBit(Math.max(write, 1)) >> 3)];
+        int mask = table.length - 1;
+        int prefixMask = prefixes.length * 64 - 1;
+        for (int i = 0; i < size; i++) {
+            int hash = FNV_OFFSET;
+            for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                hash = (hash ^ words[j]) * FNV_PRIME;
+                int bit = mix(hash) & prefixMask;
+                prefixes[bit >>> 6] |= 1L << bit;
+            }
+            int slot = mix(hash) & mask;
+            while (table[slot] != 0 && !sameWord(table[slot] - 1, i)) {
+                slot = (slot + 1) & mask;
+            }
+            if (table[slot] == 0) {
+                table[slot] = i + 1;
+                rankTable[slot] = ranks[i];
+            }
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Reports every dictionary word equal to a substring of the candidate starting at the given index.
+     *
+     * @param candidate lower-cased candidate characters
+     * @param start     the first index of the substrings
+     * @param end       the exclusive end of the candidate
+     * @param consumer  receives the start index, exclusive end index and rank of each match
+     */
+    void matchFrom(char[] candidate, int start, int end, MatchConsumer consumer) {
+        int limit = Math.min(end, start + maxWordLength);
+        int mask = table.length - 1;
+        int prefixMask = prefixes.length * 64 - 1;
+        int hash = FNV_OFFSET;
+
+        for (int j = start; j < limit; j++) {
+            char c = candidate[j];
+            if (c > 0x7F) {
+                return;
+            }
+            hash = (hash ^ (byte) c) * FNV_PRIME;
+            int bit = mix(hash) & prefixMask;
+            if ((prefixes[bit >>> 6] & 1L << bit) == 0) {
+                return;
+            }
+            int length = j + 1 - start;
+            for (int slot = mix(hash) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+                int word = table[slot] - 1;
+                if (offsets[word + 1] - offsets[word] == length && equalsWord(word, candidate, start)) {
+                    consumer.accept(start, j + 1, rankTable[slot]);
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean equalsWord(int word, char[] candidate, int start) {
+        for (int i = offsets[word], j = start; i < offsets[word + 1]; i++, j++) {
+            if (words[i] != candidate[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameWord(int a, int b) {
+        return Arrays.equals(words, offsets[a], offsets[a + 1], words, offsets[b], offsets[b + 1]);
+    }
+
+    private static int mix(int hash) {
+        return hash ^ hash >>> 16;
+    }
+
+    private static boolean isAscii(char[] characters, int length) {
+        for (int i = 0; i < length; i++) {
+            if (characters[i] > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    interface MatchConsumer {
+        void accept(int start, int end, int rank);
+    }
+}
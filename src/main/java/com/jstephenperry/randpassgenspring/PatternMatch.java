@@ -0,0 +1,35 @@
+package com.jstephenperry.randpassgenspring;
+
+/**
+ * A pattern found in a password by the {@link StrengthEstimator}. Matches record positions rather than
+ * the matched text, so an estimate never holds a copy of the password.
+ *
+ * @param kind          the kind of pattern
+ * @param start         the index of the first matched character
+ * @param end           the index after the last matched character
+ * @param log10Guesses  log10 of the guesses an attacker needs to hit this part of the password
+ * @param detail        a short description of the match, such as the dictionary and rank
+ */
+public record PatternMatch(Kind kind, int start, int end, double log10Guesses, String detail) {
+
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [%d-%d] %s (10^%.1f guesses)", kind, start, end - 1, detail, log10Guesses);
+    }
+
+    /**
+     * The kinds of pattern the estimator recognises.
+     */
+    public enum Kind {
+        DICTIONARY,
+        SPATIAL,
+        REPEAT,
+        SEQUENCE,
+        DATE,
+        BRUTEFORCE
+    }
+}
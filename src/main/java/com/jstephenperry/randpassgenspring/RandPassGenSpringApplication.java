@@ -2,12 +2,30 @@ package com.jstephenperry.randpassgenspring;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(NativeImageRuntimeHints.class)
 public class RandPassGenSpringApplication {
 
+    static final String BATCH_PROFILE = "batch";
+
     public static void main(String[] args) {
-        SpringApplication.run(RandPassGenSpringApplication.class, args);
+        SpringApplication application = new SpringApplication(RandPassGenSpringApplication.class);
+        if (args.length > 0) {
+            // A command on the command line runs once without the REPL, see application-batch.yml
+            application.setAdditionalProfiles(BATCH_PROFILE);
+        }
+        ConfigurableApplicationContext context = application.run(args);
+        if (context instanceof WebServerApplicationContext) {
+            // The http profile keeps serving requests until the process is stopped
+            return;
+        }
+        System.exit(SpringApplication.exit(context));
     }
 
 }
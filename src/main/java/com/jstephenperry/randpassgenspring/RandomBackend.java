@@ -0,0 +1,27 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.security.SecureRandom;
+
+/**
+ * A source of {@link SecureRandom} instances for {@link SecureRandomProvider}.
+ * The built-in backends in {@link RandomBackends} are selected with {@code rand-pass-gen.random.source};
+ * declaring a bean of this type replaces the configured backend, for example with a provider the
+ * configuration does not cover. Output of every backend passes the same health tests.
+ */
+public interface RandomBackend {
+
+    /**
+     * Returns a short description of the backend for logs, metrics and throughput reports.
+     *
+     * @return the backend name, such as {@code DRBG Hash_DRBG-256}
+     */
+    String name();
+
+    /**
+     * Creates a new, independently seeded instance.
+     *
+     * @return the instance
+     * @throws IllegalStateException if the algorithm or provider is unavailable
+     */
+    SecureRandom create();
+}
@@ -0,0 +1,221 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static java.security.DrbgParameters.Capability.RESEED_ONLY;
+
+/**
+ * The built-in {@link RandomBackend} implementations.
+ */
+public final class RandomBackends {
+
+    private static final Logger logger = LoggerFactory.getLogger(RandomBackends.class);
+    private static final String DRBG_CONFIG_PROPERTY = "securerandom.drbg.config";
+    private static final String[] DRBG_MECHANISMS = {"Hash_DRBG", "HMAC_DRBG", "CTR_DRBG"};
+    private static final AtomicInteger drbgInstances = new AtomicInteger();
+
+    private RandomBackends() {
+    }
+
+    /**
+     * Returns the backend selected by the configuration.
+     *
+     * @param properties the random source configuration
+     * @return the backend
+     */
+    public static RandomBackend forProperties(SecureRandomProperties properties) {
+        return switch (properties.source()) {
+            case STRONG -> strong();
+            case ALGORITHM -> algorithm(properties.algorithm(), properties.provider());
+            case DRBG -> drbg(properties.drbgMechanism(), properties.drbgStrength());
+            case PKCS11 -> pkcs11(properties.pkcs11Config());
+        };
+    }
+
+    /**
+     * Returns the backends worth comparing on this platform: the configured one, the strong and non-blocking
+     * native sources, and the JVM's DRBG mechanism at the configured strength.
+     *
+     * @param configured the backend in use
+     * @param properties the random source configuration
+     * @return the candidate backends, the configured one first
+     */
+    public static List<RandomBackend> candidates(RandomBackend configured, SecureRandomProperties properties) {
+        List<RandomBackend> candidates = new ArrayList<>();
+        candidates.add(configured);
+        List<RandomBackend> standard = new ArrayList<>(List.of(strong(), algorithm("NativePRNGNonBlocking", "")));
+        standard.add(drbg(configuredDrbgMechanism(), properties.drbgStrength()));
+        if (!properties.pkcs11Config().isEmpty()) {
+            standard.add(pkcs11(properties.pkcs11Config()));
+        }
+        for (RandomBackend backend : standard) {
+            if (candidates.stream().noneMatch(candidate -> candidate.name().equals(backend.name()))) {
+                candidates.add(backend);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the strongest algorithm of the platform, falling back to the platform default if none is
+     * configured. On Linux this is NativePRNGBlocking, which reads /dev/random.
+     *
+     * @return the backend
+     */
+    public static RandomBackend strong() {
+        return new Backend("strong", () -> {
+            try {
+                return SecureRandom.getInstanceStrong();
+            } catch (NoSuchAlgorithmException e) {
+                SecureRandom instance = new SecureRandom();
+                logger.warn("Strong SecureRandom algorithm unavailable, using default: {}", instance.getAlgorithm());
+                return instance;
+            }
+        });
+    }
+
+    /**
+     * Returns a named SecureRandom algorithm, such as NativePRNGNonBlocking.
+     *
+     * @param algorithm the algorithm name
+     * @param provider  the provider name, or empty for the first provider offering the algorithm
+     * @return the backend
+     */
+    public static RandomBackend algorithm(String algorithm, String provider) {
+        return new Backend(provider.isEmpty() ? algorithm : algorithm + "/" + provider, () -> {
+            try {
+                return provider.isEmpty()
+                        ? SecureRandom.getInstance(algorithm)
+                        : SecureRandom.getInstance(algorithm, provider);
+            } catch (NoSuchAlgorithmException | NoSuchProviderException e) {
+                throw new IllegalStateException("SecureRandom unavailable: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Returns an SP 800-90A DRBG with the given mechanism and strength, reseedable but without prediction
+     * resistance, each instance personalized with a counter and the time. The JDK takes the mechanism from
+     * the JVM-wide {@code securerandom.drbg.config} security property, so the requested mechanism must be
+     * the one configured there; set it in a {@code java.security.properties} override to use another.
+     *
+     * @param mechanism the mechanism: Hash_DRBG, HMAC_DRBG or CTR_DRBG
+     * @param strength  the security strength in bits
+     * @return the backend
+     */
+    public static RandomBackend drbg(String mechanism, int strength) {
+        return new Backend("DRBG " + mechanism + "-" + strength, () -> {
+            String configured = configuredDrbgMechanism();
+            if (!configured.equalsIgnoreCase(mechanism)) {
+                throw new IllegalStateException(String.format(
+                        "DRBG mechanism %s requested but the JVM is configured for %s; set %s=%s in a "
+                                + "java.security.properties override", mechanism, configured,
+                        DRBG_CONFIG_PROPERTY, mechanism));
+            }
+            byte[] personalization = ByteBuffer.allocate(Integer.BYTES + Long.BYTES)
+                    .putInt(drbgInstances.getAndIncrement())
+                    .putLong(System.nanoTime())
+                    .array();
+            try {
+                return SecureRandom.getInstance("DRBG",
+                        DrbgParameters.instantiation(strength, RESEED_ONLY, personalization));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("DRBG unavailable: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Returns the DRBG mechanism named by the {@code securerandom.drbg.config} security property, or
+     * Hash_DRBG, the JDK default, if it names none.
+     *
+     * @return the mechanism new DRBG instances use
+     */
+    static String configuredDrbgMechanism() {
+        String config = Security.getProperty(DRBG_CONFIG_PROPERTY);
+        if (config != null) {
+            for (String part : config.split(",")) {
+                for (String mechanism : DRBG_MECHANISMS) {
+                    if (mechanism.equalsIgnoreCase(part.strip())) {
+                        return mechanism;
+                    }
+                }
+            }
+        }
+        return DRBG_MECHANISMS[0];
+    }
+
+    /**
+     * Returns the random number generator of a PKCS#11 token through the SunPKCS11 provider, such as an HSM
+     * or SoftHSM standing in for one. The provider is configured once from the SunPKCS11 configuration file
+     * naming the token's library and slot.
+     *
+     * @param configFile the SunPKCS11 configuration file
+     * @return the backend
+     */
+    public static RandomBackend pkcs11(String configFile) {
+        return new Backend("PKCS11 " + Path.of(configFile).getFileName(), new Supplier<>() {
+            private final ReentrantLock lock = new ReentrantLock();
+            private Provider provider;
+
+            @Override
+            public SecureRandom get() {
+                lock.lock();
+                try {
+                    if (provider == null) {
+                        provider = configurePkcs11(configFile);
+                    }
+                    return SecureRandom.getInstance("PKCS11", provider);
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException("PKCS#11 token has no random number generator: "
+                            + e.getMessage(), e);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    private static Provider configurePkcs11(String configFile) {
+        if (configFile.isEmpty()) {
+            throw new IllegalStateException("rand-pass-gen.random.pkcs11-config must name a SunPKCS11 configuration");
+        }
+        if (!Files.isReadable(Path.of(configFile))) {
+            throw new IllegalStateException("SunPKCS11 configuration not readable: " + configFile);
+        }
+        Provider base = Security.getProvider("SunPKCS11");
+        if (base == null) {
+            throw new IllegalStateException("SunPKCS11 provider unavailable in this runtime");
+        }
+        try {
+            return base.configure(configFile);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Failed to configure SunPKCS11 from " + configFile + ": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    private record Backend(String name, Supplier<SecureRandom> factory) implements RandomBackend {
+
+        @Override
+        public SecureRandom create() {
+            return factory.get();
+        }
+    }
+}
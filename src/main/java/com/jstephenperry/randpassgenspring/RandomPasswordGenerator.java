@@ -1,12 +1,32 @@
 package com.jstephenperry.randpassgenspring;
 
+import org.jline.terminal.Terminal;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellOption;
 
-import java.security.SecureRandom;
+import javax.crypto.SecretKey;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.jstephenperry.randpassgenspring.PasswordRequestValidator.validateCharacterClasses;
+import static com.jstephenperry.randpassgenspring.PasswordRequestValidator.validateComplexity;
+import static com.jstephenperry.randpassgenspring.PasswordRequestValidator.validateLength;
+import static com.jstephenperry.randpassgenspring.PasswordRequestValidator.validateListLength;
+import static com.jstephenperry.randpassgenspring.PasswordRequestValidator.validateParallelism;
 
 /**
  * Password generator using cryptographically secure random number generation.
@@ -16,14 +36,44 @@ import java.util.List;
 @ShellComponent
 public class RandomPasswordGenerator {
 
-    private static final int MIN_PASSWORD_LENGTH = 8;
-    private static final int MAX_PASSWORD_LENGTH = 1024;
     private static final int MAX_LIST_SIZE = 10000;
+    private static final long PROGRESS_INTERVAL_NANOS = 1_000_000_000L;
+    private static final String SEED_HELP =
+            "Seed for reproducible test and benchmark output; never use seeded passwords as credentials";
 
     private final SecureRandomProvider secureRandomProvider;
+    private final PasswordEngine passwordEngine;
+    private final PasswordPool passwordPool;
+    private final PasswordMetrics passwordMetrics;
+    private final PasswordPolicies passwordPolicies;
+    private final Terminal terminal;
+    private final BatchProperties batchProperties;
+    private final ExportProperties exportProperties;
 
     public RandomPasswordGenerator(SecureRandomProvider secureRandomProvider) {
+        this(secureRandomProvider, new PasswordEngine(secureRandomProvider), null, BatchProperties.defaults());
+    }
+
+    private RandomPasswordGenerator(SecureRandomProvider secureRandomProvider, PasswordEngine passwordEngine,
+                                    Terminal terminal, BatchProperties batchProperties) {
+        this(secureRandomProvider, passwordEngine, new PasswordPool(passwordEngine), PasswordMetrics.noop(),
+                new PasswordPolicies(PasswordPolicyProperties.defaults()), terminal, batchProperties,
+                ExportProperties.defaults());
+    }
+
+    @Autowired
+    public RandomPasswordGenerator(SecureRandomProvider secureRandomProvider, PasswordEngine passwordEngine,
+                                   PasswordPool passwordPool, PasswordMetrics passwordMetrics,
+                                   PasswordPolicies passwordPolicies, Terminal terminal,
+                                   BatchProperties batchProperties, ExportProperties exportProperties) {
         this.secureRandomProvider = secureRandomProvider;
+        this.passwordEngine = passwordEngine;
+        this.passwordPool = passwordPool;
+        this.passwordMetrics = passwordMetrics;
+        this.passwordPolicies = passwordPolicies;
+        this.terminal = terminal;
+        this.batchProperties = batchProperties;
+        this.exportProperties = exportProperties;
     }
 
     /**
@@ -41,38 +91,126 @@ public class RandomPasswordGenerator {
         validateLength(length);
         PasswordComplexityEnum complexityEnum = validateComplexity(complexity);
 
-        String password = generatePasswordInternal(length, complexityEnum);
+        // Single passwords come from the pre-generated pool when pooling is enabled
+        long start = System.nanoTime();
+        char[] buffer = new char[length];
+        passwordPool.take(buffer, complexityEnum);
+        long generated = System.nanoTime();
+        String password = new String(buffer);
+        PasswordEngine.wipe(buffer);
+        long converted = System.nanoTime();
         PasswordStrength strength = calculateStrength(length, complexityEnum);
+        String result = String.format("Password: %s%n%s", password, strength);
+
+        passwordMetrics.recordPhase(PasswordMetrics.Phase.GENERATE, complexityEnum, length, generated - start);
+        passwordMetrics.recordPhase(PasswordMetrics.Phase.STRING, complexityEnum, length, converted - generated);
+        passwordMetrics.recordPhase(PasswordMetrics.Phase.FORMAT, complexityEnum, length,
+                System.nanoTime() - converted);
+        return result;
+    }
+
+    /**
+     * Generates a single password from a character set policy.
+     * Either names a policy configured under rand-pass-gen.policies or describes one with the remaining
+     * options. Minimums are met by construction and every password satisfying the policy is equally
+     * likely, so the reported entropy is exact.
+     *
+     * @param length           the desired password length (8-1024 characters)
+     * @param policy           the name of a configured policy, or null to use the options below
+     * @param classes          the character classes to draw from, comma-separated
+     * @param symbols          the symbol set replacing the default symbols, or null for the default
+     * @param exclude          characters never to use
+     * @param excludeAmbiguous whether to leave out easily confused characters
+     * @param minLower         the minimum number of lowercase letters
+     * @param minUpper         the minimum number of uppercase letters
+     * @param minDigits        the minimum number of digits
+     * @param minSymbols       the minimum number of symbols
+     * @return a randomly generated password with strength information
+     */
+    @ShellMethod(value = "Generate a password from a character set policy", key = {"generate-policy-password", "gpp"})
+    public String generatePolicyPassword(
+            @ShellOption(help = "Password length (8-1024)") int length,
+            @ShellOption(help = "Named policy from rand-pass-gen.policies, overrides the options below",
+                    defaultValue = ShellOption.NULL) String policy,
+            @ShellOption(help = "Character classes: any of LOWER, UPPER, DIGIT, SYMBOL",
+                    defaultValue = "LOWER,UPPER,DIGIT,SYMBOL") String classes,
+            @ShellOption(help = "Symbols to use instead of the default set", defaultValue = ShellOption.NULL)
+            String symbols,
+            @ShellOption(help = "Characters never to use", defaultValue = "") String exclude,
+            @ShellOption(help = "Leave out easily confused characters (I, l, 1, O, 0, |)", defaultValue = "false")
+            boolean excludeAmbiguous,
+            @ShellOption(help = "Minimum lowercase letters", defaultValue = "0") int minLower,
+            @ShellOption(help = "Minimum uppercase letters", defaultValue = "0") int minUpper,
+            @ShellOption(help = "Minimum digits", defaultValue = "0") int minDigits,
+            @ShellOption(help = "Minimum symbols", defaultValue = "0") int minSymbols) {
+
+        validateLength(length);
+        CompiledPasswordPolicy compiledPolicy = policy != null
+                ? passwordPolicies.get(policy)
+                : new PasswordPolicy(validateCharacterClasses(classes), symbols, exclude, excludeAmbiguous,
+                Map.of(CharacterClass.LOWER, minLower, CharacterClass.UPPER, minUpper,
+                        CharacterClass.DIGIT, minDigits, CharacterClass.SYMBOL, minSymbols)).compile();
 
-        return String.format("Password: %s%n%s", password, strength);
+        char[] buffer = new char[length];
+        passwordEngine.generate(buffer, compiledPolicy);
+        String password = new String(buffer);
+        PasswordEngine.wipe(buffer);
+
+        return String.format("Password: %s%n%s", password, PasswordStrength.forPolicy(length, compiledPolicy));
     }
 
     /**
      * Generates a list of passwords with the specified parameters.
      *
-     * @param listLength the number of passwords to generate (1-10000)
-     * @param length     the desired password length (8-1024 characters)
-     * @param complexity the complexity level: LOW, MEDIUM, or HIGH
+     * @param listLength  the number of passwords to generate (1-10000)
+     * @param length      the desired password length (8-1024 characters)
+     * @param complexity  the complexity level: LOW, MEDIUM, or HIGH
+     * @param parallelism the number of worker threads generating the list (1-256)
+     * @param unique      whether to regenerate passwords that repeat an earlier one in the list
+     * @param seed        a seed for reproducible test output, or null for secure random passwords
      * @return a list of randomly generated passwords with strength information
      */
     @ShellMethod(value = "Generate a list of passwords", key = {"generate-password-list", "gpl"})
     public String generatePasswordList(
             @ShellOption(help = "Number of passwords to generate (1-10000)") int listLength,
             @ShellOption(help = "Password length (8-1024)") int length,
-            @ShellOption(help = "Complexity: LOW, MEDIUM, or HIGH") String complexity) {
+            @ShellOption(help = "Complexity: LOW, MEDIUM, or HIGH") String complexity,
+            @ShellOption(help = "Number of worker threads (1-256)", defaultValue = "1") int parallelism,
+            @ShellOption(help = "Regenerate repeated passwords so all are distinct", defaultValue = "false")
+            boolean unique,
+            @ShellOption(help = SEED_HELP, defaultValue = ShellOption.NULL) Long seed) {
 
-        validateListLength(listLength);
+        validateListLength(listLength, MAX_LIST_SIZE);
         validateLength(length);
         PasswordComplexityEnum complexityEnum = validateComplexity(complexity);
+        validateParallelism(parallelism);
 
-        List<String> passwordList = new ArrayList<>(listLength);
-        for (int i = 0; i < listLength; i++) {
-            passwordList.add(generatePasswordInternal(length, complexityEnum));
+        List<String> passwordList;
+        long duplicates;
+        if (seed != null) {
+            PasswordBatchPipeline pipeline = createPipeline(parallelism, seed);
+            passwordList = collectSeeded(pipeline, listLength, length, complexityEnum, unique);
+            duplicates = pipeline.getDuplicateCount();
+        } else {
+            PasswordMetrics.Batch batch = passwordMetrics.startBatch("generate-password-list", complexityEnum,
+                    length, listLength, parallelism);
+            passwordList = parallelism == 1
+                    ? generatePasswords(listLength, length, complexityEnum)
+                    : generatePasswordsInParallel(listLength, length, complexityEnum, parallelism);
+            duplicates = unique ? deduplicate(passwordList, length, complexityEnum) : 0;
+            batch.stop(passwordList.size(), false);
         }
 
         PasswordStrength strength = calculateStrength(length, complexityEnum);
         StringBuilder result = new StringBuilder();
-        result.append(String.format("Generated %d passwords%n%s%n%n", listLength, strength));
+        if (seed != null) {
+            result.append(seededLabel(seed)).append(System.lineSeparator());
+        }
+        result.append(String.format("Generated %d passwords%n%s%n", listLength, strength));
+        if (unique) {
+            result.append(uniquenessSummary(duplicates)).append(System.lineSeparator());
+        }
+        result.append(System.lineSeparator());
 
         for (int i = 0; i < passwordList.size(); i++) {
             result.append(String.format("%d. %s%n", i + 1, passwordList.get(i)));
@@ -82,118 +220,422 @@ public class RandomPasswordGenerator {
     }
 
     /**
-     * Generates a password based on complexity level.
+     * Generates a list of passwords on the calling thread, without the uniqueness check or a seed.
      *
-     * @param length     the password length
-     * @param complexity the complexity enum
-     * @return the generated password
+     * @param listLength the number of passwords to generate (1-10000)
+     * @param length     the desired password length (8-1024 characters)
+     * @param complexity the complexity level: LOW, MEDIUM, or HIGH
+     * @return a list of randomly generated passwords with strength information
      */
-    private String generatePasswordInternal(int length, PasswordComplexityEnum complexity) {
-        // Implementation note: No first-character restrictions for maximum entropy
-        StringBuilder builder = new StringBuilder(length);
-        SecureRandom random = secureRandomProvider.getSecureRandom();
+    public String generatePasswordList(int listLength, int length, String complexity) {
+        return generatePasswordList(listLength, length, complexity, 1, false, null);
+    }
+
+    /**
+     * Streams a list of passwords to the terminal or a file as they are generated.
+     * Passwords are generated a chunk at a time and written straight to the output without building the
+     * whole list in memory, so memory use stays constant regardless of count and the first lines appear
+     * immediately. Press Ctrl-C to cancel a running batch after the current chunk.
+     *
+     * @param listLength  the number of passwords to generate (1 to the configured maximum, 10000000 by default)
+     * @param length      the desired password length (8-1024 characters)
+     * @param complexity  the complexity level: LOW, MEDIUM, or HIGH
+     * @param outputFile  the file to write to, or null to write to the terminal
+     * @param parallelism the number of worker threads generating each chunk (1-256)
+     * @param unique      whether to regenerate passwords that repeat an earlier one in the list
+     * @param seed        a seed for reproducible test output, or null for secure random passwords
+     * @return a summary when writing to a file, when cancelled or for a unique list, otherwise null as the
+     * passwords were printed
+     */
+    @ShellMethod(value = "Stream a list of passwords to the terminal or a file", key = {"stream-password-list", "spl"})
+    public String streamPasswordList(
+            @ShellOption(help = "Number of passwords to generate") int listLength,
+            @ShellOption(help = "Password length (8-1024)") int length,
+            @ShellOption(help = "Complexity: LOW, MEDIUM, or HIGH") String complexity,
+            @ShellOption(help = "File to write to instead of the terminal", defaultValue = ShellOption.NULL)
+            String outputFile,
+            @ShellOption(help = "Number of worker threads (1-256)", defaultValue = "1") int parallelism,
+            @ShellOption(help = "Regenerate repeated passwords so all are distinct", defaultValue = "false")
+            boolean unique,
+            @ShellOption(help = SEED_HELP, defaultValue = ShellOption.NULL) Long seed) {
 
-        for (int i = 0; i < length; i++) {
-            char nextChar = switch (complexity) {
-                case LOW -> generateLowComplexityChar(random);
-                case MEDIUM -> generateMediumComplexityChar(random);
-                case HIGH -> generateHighComplexityChar(random);
-            };
-            builder.append(nextChar);
+        validateStreamListLength(listLength);
+        validateLength(length);
+        PasswordComplexityEnum complexityEnum = validateComplexity(complexity);
+        validateParallelism(parallelism);
+        PasswordStrength strength = calculateStrength(length, complexityEnum);
+        PasswordBatchPipeline pipeline = createPipeline(parallelism, seed);
+        String header = (seed != null ? seededLabel(seed) + System.lineSeparator() : "")
+                + String.format("Generated %d passwords%n%s%n%n", listLength, strength);
+
+        if (outputFile == null) {
+            PrintWriter writer = terminal != null ? terminal.writer() : new PrintWriter(System.out);
+            long written;
+            try {
+                writer.write(header);
+                written = runPipeline("stream-password-list", pipeline, listLength, length, complexityEnum,
+                        unique, new WriterPasswordSink(writer), BatchProgressListener.NONE);
+            } catch (IOException e) {
+                throw new PasswordGenerationException("Failed to write passwords to the terminal", e);
+            }
+            if (pipeline.isCancelled()) {
+                return String.format("Cancelled after %d of %d passwords", written, listLength);
+            }
+            return unique ? uniquenessSummary(pipeline.getDuplicateCount()) : null;
         }
 
-        return builder.toString();
+        Path path = Path.of(outputFile);
+        long written;
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+            writer.write(header);
+            written = runPipeline("stream-password-list", pipeline, listLength, length, complexityEnum,
+                    unique, new WriterPasswordSink(writer), terminalProgressListener());
+        } catch (IOException e) {
+            throw new PasswordGenerationException(
+                    String.format("Failed to write passwords to '%s': %s", outputFile, e.getMessage()), e);
+        }
+        if (pipeline.isCancelled()) {
+            return String.format("Cancelled after %d of %d passwords; partial output written to %s",
+                    written, listLength, path.toAbsolutePath());
+        }
+        return String.format("Wrote %d passwords to %s%n%s", written, path.toAbsolutePath(), strength)
+                + (unique ? System.lineSeparator() + uniquenessSummary(pipeline.getDuplicateCount()) : "");
     }
 
     /**
-     * Generates a character for LOW complexity (letters only).
+     * Exports newline-delimited passwords to a file through a FileChannel.
+     * Passwords are encoded straight into a direct buffer and written to a temporary file that is
+     * renamed over the target only when the export completes, so readers never see a partial file.
+     * Seeded exports start with a TEST OUTPUT line so the file cannot be mistaken for credentials.
+     *
+     * @param count       the number of passwords to export (1 to the configured maximum, 10000000 by default)
+     * @param length      the desired password length (8-1024 characters)
+     * @param complexity  the complexity level: LOW, MEDIUM, or HIGH
+     * @param outputFile  the file to write to
+     * @param parallelism the number of worker threads generating each chunk (1-256)
+     * @param fsync       whether to force the file and its directory entry to disk before returning
+     * @param unique      whether to regenerate passwords that repeat an earlier one in the file
+     * @param seed        a seed for reproducible test output, or null for secure random passwords
+     * @return a summary of the export
      */
-    private char generateLowComplexityChar(SecureRandom random) {
-        int mode = random.nextInt(2);
-        return switch (mode) {
-            case 0 -> AsciiUtil.getRandomLower(random);
-            case 1 -> AsciiUtil.getRandomUpper(random);
-            default -> throw new IllegalStateException("Unexpected mode: " + mode);
-        };
+    @ShellMethod(value = "Export newline-delimited passwords to a file", key = {"export-passwords", "ep"})
+    public String exportPasswords(
+            @ShellOption(help = "Number of passwords to export") int count,
+            @ShellOption(help = "Password length (8-1024)") int length,
+            @ShellOption(help = "Complexity: LOW, MEDIUM, or HIGH") String complexity,
+            @ShellOption(help = "File to write to") String outputFile,
+            @ShellOption(help = "Number of worker threads (1-256)", defaultValue = "1") int parallelism,
+            @ShellOption(help = "Force the file to disk before renaming it into place", defaultValue = "true")
+            boolean fsync,
+            @ShellOption(help = "Regenerate repeated passwords so all are distinct", defaultValue = "false")
+            boolean unique,
+            @ShellOption(help = SEED_HELP, defaultValue = ShellOption.NULL) Long seed) {
+
+        validateStreamListLength(count);
+        validateLength(length);
+        PasswordComplexityEnum complexityEnum = validateComplexity(complexity);
+        validateParallelism(parallelism);
+        PasswordBatchPipeline pipeline = createPipeline(parallelism, seed);
+
+        Path path = Path.of(outputFile);
+        long written;
+        try (FileChannelPasswordSink sink = new FileChannelPasswordSink(path, fsync)) {
+            if (seed != null) {
+                byte[] label = seededLabel(seed).getBytes(StandardCharsets.US_ASCII);
+                sink.write(label, 0, label.length);
+            }
+            written = runPipeline("export-passwords", pipeline, count, length, complexityEnum, unique, sink,
+                    terminalProgressListener());
+            if (pipeline.isCancelled()) {
+                return String.format("Cancelled after %d of %d passwords; %s was not written",
+                        written, count, path.toAbsolutePath());
+            }
+            sink.commit();
+        } catch (IOException e) {
+            throw new PasswordGenerationException(
+                    String.format("Failed to export passwords to '%s': %s", outputFile, e.getMessage()), e);
+        }
+
+        return String.format("Exported %d passwords to %s%n%s", written, path.toAbsolutePath(),
+                calculateStrength(length, complexityEnum))
+                + (unique ? System.lineSeparator() + uniquenessSummary(pipeline.getDuplicateCount()) : "")
+                + (seed != null ? System.lineSeparator() + seededLabel(seed) : "");
     }
 
     /**
-     * Generates a character for MEDIUM complexity (alphanumeric).
+     * Exports passwords to a file encrypted with AES-GCM under a key from the export keystore.
+     * Passwords are written as length-prefixed records in authenticated frames rather than text lines, and
+     * frames are sealed and written on a separate thread while the next ones are generated. The file is
+     * renamed over the target only when the export completes. read-encrypted-passwords reads it back.
+     *
+     * @param count       the number of passwords to export (1 to the configured maximum, 10000000 by default)
+     * @param length      the desired password length (8-1024 characters)
+     * @param complexity  the complexity level: LOW, MEDIUM, or HIGH
+     * @param outputFile  the file to write to
+     * @param parallelism the number of worker threads generating each chunk (1-256)
+     * @param fsync       whether to force the file and its directory entry to disk before returning
+     * @param unique      whether to regenerate passwords that repeat an earlier one in the file
+     * @param keyAlias    the key entry in the export keystore, or null for the configured alias
+     * @return a summary of the export
      */
-    private char generateMediumComplexityChar(SecureRandom random) {
-        int mode = random.nextInt(3);
-        return switch (mode) {
-            case 0 -> AsciiUtil.getRandomLower(random);
-            case 1 -> AsciiUtil.getRandomUpper(random);
-            case 2 -> AsciiUtil.getRandomDigit(random);
-            default -> throw new IllegalStateException("Unexpected mode: " + mode);
-        };
+    @ShellMethod(value = "Export passwords to an encrypted file", key = {"export-encrypted-passwords", "eep"})
+    public String exportEncryptedPasswords(
+            @ShellOption(help = "Number of passwords to export") int count,
+            @ShellOption(help = "Password length (8-1024)") int length,
+            @ShellOption(help = "Complexity: LOW, MEDIUM, or HIGH") String complexity,
+            @ShellOption(help = "File to write to") String outputFile,
+            @ShellOption(help = "Number of worker threads (1-256)", defaultValue = "1") int parallelism,
+            @ShellOption(help = "Force the file to disk before renaming it into place", defaultValue = "true")
+            boolean fsync,
+            @ShellOption(help = "Regenerate repeated passwords so all are distinct", defaultValue = "false")
+            boolean unique,
+            @ShellOption(help = "Key alias in the export keystore", defaultValue = ShellOption.NULL) String keyAlias) {
+
+        validateStreamListLength(count);
+        validateLength(length);
+        PasswordComplexityEnum complexityEnum = validateComplexity(complexity);
+        validateParallelism(parallelism);
+        SecretKey key = ExportKeyStore.load(exportProperties, keyAlias);
+        PasswordBatchPipeline pipeline = createPipeline(parallelism, null);
+
+        Path path = Path.of(outputFile);
+        long written;
+        try (EncryptedPasswordSink sink = new EncryptedPasswordSink(path, fsync, key, secureRandomProvider,
+                Thread.ofPlatform().name("export-encryptor").daemon().factory())) {
+            written = runPipeline("export-encrypted-passwords", pipeline, count, length, complexityEnum, unique,
+                    sink, terminalProgressListener());
+            if (pipeline.isCancelled()) {
+                return String.format("Cancelled after %d of %d passwords; %s was not written",
+                        written, count, path.toAbsolutePath());
+            }
+            sink.commit();
+        } catch (IOException e) {
+            throw new PasswordGenerationException(
+                    String.format("Failed to export encrypted passwords to '%s': %s", outputFile, e.getMessage()), e);
+        }
+
+        return String.format("Exported %d encrypted passwords to %s%n%s", written, path.toAbsolutePath(),
+                calculateStrength(length, complexityEnum))
+                + (unique ? System.lineSeparator() + uniquenessSummary(pipeline.getDuplicateCount()) : "");
     }
 
     /**
-     * Generates a character for HIGH complexity (alphanumeric + special).
+     * Reads an encrypted export back, authenticating every frame.
+     * Without an output file the export is only verified. With one, the passwords are decrypted to it
+     * newline-delimited, through a temporary file that is renamed into place only once the whole export has
+     * been authenticated, so a tampered or truncated export never leaves partial plaintext behind.
+     *
+     * @param inputFile  the encrypted export
+     * @param outputFile the file to decrypt the passwords to, or null to verify only
+     * @param fsync      whether to force the output file to disk before returning
+     * @param keyAlias   the key entry in the export keystore, or null for the configured alias
+     * @return a summary of the passwords read
      */
-    private char generateHighComplexityChar(SecureRandom random) {
-        int mode = random.nextInt(4);
-        return switch (mode) {
-            case 0 -> AsciiUtil.getRandomLower(random);
-            case 1 -> AsciiUtil.getRandomUpper(random);
-            case 2 -> AsciiUtil.getRandomDigit(random);
-            case 3 -> AsciiUtil.getRandomSpecialCharacter(random);
-            default -> throw new IllegalStateException("Unexpected mode: " + mode);
-        };
+    @ShellMethod(value = "Verify or decrypt an encrypted export", key = {"read-encrypted-passwords", "rep"})
+    public String readEncryptedPasswords(
+            @ShellOption(help = "Encrypted export to read") String inputFile,
+            @ShellOption(help = "File to decrypt the passwords to; omit to verify only",
+                    defaultValue = ShellOption.NULL) String outputFile,
+            @ShellOption(help = "Force the output file to disk before renaming it into place", defaultValue = "true")
+            boolean fsync,
+            @ShellOption(help = "Key alias in the export keystore", defaultValue = ShellOption.NULL) String keyAlias) {
+
+        SecretKey key = ExportKeyStore.load(exportProperties, keyAlias);
+        Path input = Path.of(inputFile);
+        try (EncryptedPasswordReader reader = new EncryptedPasswordReader(input, key)) {
+            if (outputFile == null) {
+                long read = reader.read((ascii, offset, length) -> { });
+                return String.format("Verified %d passwords in %d frames of %s", read, reader.getFrameCount(),
+                        input.toAbsolutePath());
+            }
+            Path output = Path.of(outputFile);
+            try (FileChannelPasswordSink sink = new FileChannelPasswordSink(output, fsync)) {
+                long read = reader.read(sink::write);
+                sink.commit();
+                return String.format("Decrypted %d passwords from %s to %s", read, input.toAbsolutePath(),
+                        output.toAbsolutePath());
+            }
+        } catch (IOException e) {
+            throw new PasswordGenerationException(
+                    String.format("Failed to read encrypted passwords from '%s': %s", inputFile, e.getMessage()), e);
+        }
     }
 
     /**
-     * Validates password length.
+     * Creates the pipeline for a bulk command, seeded for reproducible test output when a seed is given.
      */
-    private void validateLength(int length) {
-        if (length < MIN_PASSWORD_LENGTH) {
-            throw new PasswordGenerationException(
-                    String.format("Password length must be at least %d characters (provided: %d)",
-                            MIN_PASSWORD_LENGTH, length));
+    private PasswordBatchPipeline createPipeline(int parallelism, Long seed) {
+        return seed != null
+                ? PasswordBatchPipeline.seeded(seed, passwordEngine.getBlocklist(), batchProperties.chunkSize(),
+                parallelism, Executors.defaultThreadFactory())
+                : new PasswordBatchPipeline(secureRandomProvider, passwordEngine.getBlocklist(),
+                batchProperties.chunkSize(), parallelism, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Runs a seeded pipeline into a list, so the list matches the streamed and exported output for the seed.
+     */
+    private List<String> collectSeeded(PasswordBatchPipeline pipeline, int count, int length,
+                                       PasswordComplexityEnum complexity, boolean unique) {
+        List<String> passwords = new ArrayList<>(count);
+        try {
+            runPipeline("generate-password-list", pipeline, count, length, complexity, unique, chunk -> {
+                for (int i = 0; i < chunk.getCount(); i++) {
+                    passwords.add(new String(chunk.getCharacters(), chunk.offset(i), length));
+                }
+            }, BatchProgressListener.NONE);
+        } catch (IOException e) {
+            throw new PasswordGenerationException("Failed to collect passwords", e);
         }
-        if (length > MAX_PASSWORD_LENGTH) {
-            throw new PasswordGenerationException(
-                    String.format("Password length cannot exceed %d characters (provided: %d)",
-                            MAX_PASSWORD_LENGTH, length));
+        return passwords;
+    }
+
+    private static String seededLabel(long seed) {
+        return String.format("TEST OUTPUT from seed %d: reproducible and predictable, never use as credentials",
+                seed);
+    }
+
+    /**
+     * Runs a batch pipeline with Ctrl-C mapped to cancellation for the duration of the run.
+     */
+    private long runPipeline(String operation, PasswordBatchPipeline pipeline, long count, int length,
+                             PasswordComplexityEnum complexity, boolean unique, PasswordSink sink,
+                             BatchProgressListener listener) throws IOException {
+        PasswordMetrics.Batch batch =
+                passwordMetrics.startBatch(operation, complexity, length, count, pipeline.getParallelism());
+        Terminal.SignalHandler previousHandler = terminal != null
+                ? terminal.handle(Terminal.Signal.INT, signal -> pipeline.cancel())
+                : null;
+        long written = 0;
+        try {
+            written = pipeline.run(count, length, complexity, unique, sink, listener);
+            return written;
+        } finally {
+            if (terminal != null) {
+                terminal.handle(Terminal.Signal.INT, previousHandler);
+            }
+            batch.stop(written, pipeline.isCancelled());
         }
     }
 
     /**
-     * Validates list length.
+     * Creates a listener that reports progress on the terminal at most once per second.
      */
-    private void validateListLength(int listLength) {
-        if (listLength < 1) {
-            throw new PasswordGenerationException(
-                    String.format("List length must be at least 1 (provided: %d)", listLength));
+    private BatchProgressListener terminalProgressListener() {
+        if (terminal == null) {
+            return BatchProgressListener.NONE;
         }
-        if (listLength > MAX_LIST_SIZE) {
-            throw new PasswordGenerationException(
-                    String.format("List length cannot exceed %d (provided: %d)",
-                            MAX_LIST_SIZE, listLength));
+
+        long[] lastReport = {System.nanoTime()};
+        return (completed, total) -> {
+            long now = System.nanoTime();
+            if (completed == total || now - lastReport[0] >= PROGRESS_INTERVAL_NANOS) {
+                lastReport[0] = now;
+                terminal.writer().printf("\rProgress: %d/%d (%.1f%%)%s", completed, total,
+                        100.0 * completed / total, completed == total ? System.lineSeparator() : "");
+                terminal.flush();
+            }
+        };
+    }
+
+    /**
+     * Generates passwords sequentially on the calling thread.
+     */
+    private List<String> generatePasswords(int count, int length, PasswordComplexityEnum complexity) {
+        List<String> passwords = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            passwords.add(generatePasswordInternal(length, complexity));
         }
+        return passwords;
     }
 
     /**
-     * Validates and parses complexity string.
+     * Generates passwords on a pool of worker threads.
+     * The count is split into contiguous ranges, one per worker, and each worker draws from its own
+     * thread's entropy buffer and writes into its own range of the result, so the list keeps its order.
      */
-    private PasswordComplexityEnum validateComplexity(String complexity) {
-        try {
-            return PasswordComplexityEnum.valueOf(complexity.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new PasswordGenerationException(
-                    String.format("Invalid complexity level: '%s'. Must be one of: LOW, MEDIUM, HIGH",
-                            complexity), e);
+    private List<String> generatePasswordsInParallel(int count, int length, PasswordComplexityEnum complexity,
+                                                     int parallelism) {
+        String[] passwords = new String[count];
+        int workers = Math.min(parallelism, count);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(workers)) {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int worker = 0; worker < workers; worker++) {
+                int start = (int) ((long) count * worker / workers);
+                int end = (int) ((long) count * (worker + 1) / workers);
+                futures.add(executor.submit(() -> {
+                    for (int i = start; i < end; i++) {
+                        passwords[i] = generatePasswordInternal(length, complexity);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new PasswordGenerationException("Parallel password generation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordGenerationException("Parallel password generation was interrupted", e);
         }
+
+        return Arrays.asList(passwords);
+    }
+
+    /**
+     * Regenerates every password that repeats an earlier one in the list, in place.
+     *
+     * @return the number of duplicates replaced
+     */
+    private long deduplicate(List<String> passwords, int length, PasswordComplexityEnum complexity) {
+        PasswordFingerprints fingerprints = new PasswordFingerprints(secureRandomProvider, passwords.size());
+        char[] buffer = new char[length];
+        for (int i = 0; i < passwords.size(); i++) {
+            passwords.get(i).getChars(0, length, buffer, 0);
+            while (!fingerprints.add(buffer, 0, length)) {
+                passwordEngine.generate(buffer, complexity);
+                passwords.set(i, new String(buffer));
+            }
+        }
+        PasswordEngine.wipe(buffer);
+        return fingerprints.getDuplicateCount();
+    }
+
+    private static String uniquenessSummary(long duplicates) {
+        return String.format("All passwords are distinct (%d duplicate%s regenerated)",
+                duplicates, duplicates == 1 ? "" : "s");
+    }
+
+    /**
+     * Generates a password based on complexity level.
+     * Each character is drawn uniformly from the precomputed alphabet for the complexity level. List runs
+     * call this per password and are timed as a whole by their batch, so it reads no clock itself.
+     *
+     * @param length     the password length
+     * @param complexity the complexity enum
+     * @return the generated password
+     */
+    private String generatePasswordInternal(int length, PasswordComplexityEnum complexity) {
+        // Implementation note: No first-character restrictions for maximum entropy
+        char[] buffer = new char[length];
+        passwordEngine.generate(buffer, complexity);
+        String password = new String(buffer);
+        PasswordEngine.wipe(buffer);
+        return password;
+    }
+
+    /**
+     * Validates the list length of a streaming command against the configured maximum.
+     */
+    private void validateStreamListLength(int listLength) {
+        validateListLength(listLength, batchProperties.maxListSize());
     }
 
     /**
      * Calculates password strength based on entropy.
      */
     private PasswordStrength calculateStrength(int length, PasswordComplexityEnum complexity) {
-        int charSetSize = PasswordStrength.getCharSetSize(complexity);
-        double entropy = PasswordStrength.calculateEntropy(charSetSize, length);
-        return new PasswordStrength(entropy);
+        return PasswordStrength.forGeneratedPassword(length, complexity);
     }
 }
@@ -0,0 +1,62 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Shell commands for inspecting the random number source.
+ */
+@ShellComponent
+public class RandomSourceCommands {
+
+    private static final int MAX_SECONDS = 60;
+    private static final int MIN_BLOCK_SIZE = 16;
+    private static final int MAX_BLOCK_SIZE = 1 << 20;
+
+    private final SecureRandomProperties properties;
+    private final SecureRandomProvider secureRandomProvider;
+
+    public RandomSourceCommands(SecureRandomProperties properties, SecureRandomProvider secureRandomProvider) {
+        this.properties = properties;
+        this.secureRandomProvider = secureRandomProvider;
+    }
+
+    /**
+     * Measures the single-threaded throughput of the configured random backend and the built-in alternatives
+     * available on this platform, with the health tests applied, so the fastest compliant source can be
+     * chosen for the deployment.
+     *
+     * @param seconds   how long to measure each backend (1-60)
+     * @param blockSize the bytes drawn per call (16-1048576), 4096 matching the generation entropy buffers
+     * @return one line per backend, the configured one first
+     */
+    @ShellMethod(value = "Measure the throughput of the available random backends", key = {"random-throughput", "rtp"})
+    public String randomThroughput(
+            @ShellOption(help = "Seconds to measure each backend (1-60)", defaultValue = "1") int seconds,
+            @ShellOption(help = "Bytes drawn per call", defaultValue = "4096") int blockSize) {
+
+        if (seconds < 1 || seconds > MAX_SECONDS) {
+            throw new InvalidPasswordRequestException(
+                    String.format("Seconds must be between 1 and %d (provided: %d)", MAX_SECONDS, seconds));
+        }
+        if (blockSize < MIN_BLOCK_SIZE || blockSize > MAX_BLOCK_SIZE) {
+            throw new InvalidPasswordRequestException(String.format("Block size must be between %d and %d (provided: %d)",
+                    MIN_BLOCK_SIZE, MAX_BLOCK_SIZE, blockSize));
+        }
+
+        RandomBackend configured = secureRandomProvider.getBackend();
+        List<RandomBackend> candidates = RandomBackends.candidates(configured, properties);
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("In use: %s (%s mode)%n", configured.name(), properties.mode()));
+        for (RandomBackend backend : candidates) {
+            RandomThroughput throughput = RandomThroughput.measure(backend, Duration.ofSeconds(seconds), blockSize);
+            report.append(backend == configured ? "* " : "  ").append(throughput.format())
+                    .append(System.lineSeparator());
+        }
+        return report.toString().stripTrailing();
+    }
+}
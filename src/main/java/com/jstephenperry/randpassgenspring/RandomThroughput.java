@@ -0,0 +1,78 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Single-threaded throughput of a {@link RandomBackend}, measured with the continuous health tests applied
+ * as in production.
+ *
+ * @param backend        the backend name
+ * @param bytes          the number of bytes drawn
+ * @param nanos          the time spent drawing and testing them
+ * @param healthFailures the number of blocks that failed a health test
+ * @param error          why the backend could not be measured, or null
+ */
+record RandomThroughput(String backend, long bytes, long nanos, long healthFailures, String error) {
+
+    /**
+     * Draws blocks from a new instance of the backend for the given time, after the startup health tests.
+     *
+     * @param backend   the backend to measure
+     * @param duration  how long to draw for
+     * @param blockSize the bytes drawn per call
+     * @return the measurement, with the error set if the backend is unavailable or failed its startup test
+     */
+    static RandomThroughput measure(RandomBackend backend, Duration duration, int blockSize) {
+        SecureRandom random;
+        try {
+            random = backend.create();
+            EntropyHealthCheck.startup(random, backend.name());
+        } catch (RuntimeException e) {
+            return new RandomThroughput(backend.name(), 0, 0, 0, e.getMessage());
+        }
+
+        EntropyHealthCheck healthTest = new EntropyHealthCheck();
+        byte[] block = new byte[blockSize];
+        long bytes = 0;
+        long failures = 0;
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        long now;
+        do {
+            random.nextBytes(block);
+            try {
+                healthTest.check(block);
+            } catch (PasswordGenerationException e) {
+                failures++;
+            }
+            bytes += blockSize;
+            now = System.nanoTime();
+        } while (now < deadline);
+        Arrays.fill(block, (byte) 0);
+        return new RandomThroughput(backend.name(), bytes, now - start, failures, null);
+    }
+
+    /**
+     * Returns the measured throughput.
+     *
+     * @return bytes per second, 0 if nothing was measured
+     */
+    double bytesPerSecond() {
+        return nanos == 0 ? 0 : bytes * 1e9 / nanos;
+    }
+
+    /**
+     * Formats the measurement as one report line.
+     *
+     * @return the line
+     */
+    String format() {
+        if (error != null) {
+            return String.format("%-28s unavailable: %s", backend, error);
+        }
+        return String.format("%-28s %10.1f MB/s  health: %s", backend, bytesPerSecond() / 1e6,
+                healthFailures == 0 ? "pass" : healthFailures + " failure(s)");
+    }
+}
@@ -0,0 +1,122 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the random number source used by {@link SecureRandomProvider}.
+ *
+ * @param mode           SHARED for a single strong instance, DRBG_POOL for striped SP 800-90A DRBG instances
+ * @param drbgMechanism  the DRBG mechanism: Hash_DRBG, HMAC_DRBG or CTR_DRBG, as set by securerandom.drbg.config
+ * @param drbgStrength   the DRBG security strength in bits
+ * @param poolSize       the number of DRBG instances in the pool (0 uses the number of available processors)
+ * @param reseedBytes    the number of bytes a pooled DRBG may produce before it is reseeded
+ * @param reseedInterval the maximum time between reseeds of a pooled DRBG
+ * @param source         the backend of the shared instance, which also seeds the pool
+ * @param algorithm      the SecureRandom algorithm for the ALGORITHM source
+ * @param provider       the JCA provider for the ALGORITHM source, or empty for the default
+ * @param pkcs11Config   the SunPKCS11 configuration file for the PKCS11 source
+ * @param healthTests    whether to run the SP 800-90B startup and continuous health tests
+ * @param prefetch       the background prefetch of random blocks
+ */
+@ConfigurationProperties(prefix = "rand-pass-gen.random")
+public record SecureRandomProperties(
+        @DefaultValue("shared") Mode mode,
+        @DefaultValue("Hash_DRBG") String drbgMechanism,
+        @DefaultValue("256") int drbgStrength,
+        @DefaultValue("0") int poolSize,
+        @DefaultValue("64MB") DataSize reseedBytes,
+        @DefaultValue("1h") Duration reseedInterval,
+        @DefaultValue("strong") Source source,
+        @DefaultValue("NativePRNGNonBlocking") String algorithm,
+        @DefaultValue("") String provider,
+        @DefaultValue("") String pkcs11Config,
+        @DefaultValue("true") boolean healthTests,
+        @DefaultValue Prefetch prefetch) {
+
+    /**
+     * Returns the default configuration: a single shared instance from the strongest available algorithm.
+     *
+     * @return the default properties
+     */
+    public static SecureRandomProperties defaults() {
+        return new SecureRandomProperties(Mode.SHARED, "Hash_DRBG", 256, 0,
+                DataSize.ofMegabytes(64), Duration.ofHours(1), Source.STRONG, "NativePRNGNonBlocking", "", "", true,
+                Prefetch.defaults());
+    }
+
+    /**
+     * Returns a copy with another mode and DRBG settings, keeping the source.
+     *
+     * @return the modified properties
+     */
+    public SecureRandomProperties withDrbg(Mode mode, String drbgMechanism, int drbgStrength, int poolSize,
+                                           DataSize reseedBytes, Duration reseedInterval) {
+        return new SecureRandomProperties(mode, drbgMechanism, drbgStrength, poolSize, reseedBytes, reseedInterval,
+                source, algorithm, provider, pkcs11Config, healthTests, prefetch);
+    }
+
+    /**
+     * Returns a copy with another source, keeping the mode and DRBG settings.
+     *
+     * @return the modified properties
+     */
+    public SecureRandomProperties withSource(Source source, String algorithm, String provider, String pkcs11Config) {
+        return new SecureRandomProperties(mode, drbgMechanism, drbgStrength, poolSize, reseedBytes, reseedInterval,
+                source, algorithm, provider, pkcs11Config, healthTests, prefetch);
+    }
+
+    /**
+     * Returns a copy with other prefetch settings.
+     *
+     * @return the modified properties
+     */
+    public SecureRandomProperties withPrefetch(Prefetch prefetch) {
+        return new SecureRandomProperties(mode, drbgMechanism, drbgStrength, poolSize, reseedBytes, reseedInterval,
+                source, algorithm, provider, pkcs11Config, healthTests, prefetch);
+    }
+
+    public enum Mode {
+        SHARED,
+        DRBG_POOL
+    }
+
+    /**
+     * The built-in {@link RandomBackend}s.
+     */
+    public enum Source {
+        /** {@code SecureRandom.getInstanceStrong()}, NativePRNGBlocking on Linux */
+        STRONG,
+        /** A named algorithm, such as NativePRNGNonBlocking, optionally from a named provider */
+        ALGORITHM,
+        /** An SP 800-90A DRBG with the configured mechanism and strength */
+        DRBG,
+        /** The random number generator of a PKCS#11 token, such as an HSM or SoftHSM */
+        PKCS11
+    }
+
+    /**
+     * Configuration for drawing random blocks ahead of demand on a background thread.
+     *
+     * @param enabled   whether generating threads take prefetched blocks instead of drawing themselves
+     * @param slots     the number of blocks kept ready, a power of two
+     * @param blockSize the size of a block, matching the entropy buffers of the generating threads
+     */
+    public record Prefetch(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("64") int slots,
+            @DefaultValue("4096") int blockSize) {
+
+        /**
+         * Returns the default configuration, with prefetching disabled.
+         *
+         * @return the default properties
+         */
+        public static Prefetch defaults() {
+            return new Prefetch(false, 64, EntropyBuffer.DEFAULT_SIZE);
+        }
+    }
+}
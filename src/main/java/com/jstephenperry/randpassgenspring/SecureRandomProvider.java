@@ -1,44 +1,366 @@
 package com.jstephenperry.randpassgenspring;
 
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.security.SecureRandomSpi;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Provides a thread-safe, cryptographically secure random number generator.
- * Attempts to use the strongest available SecureRandom algorithm, with fallback to platform default.
+ * In SHARED mode a single instance from the configured {@link RandomBackend} is used, by default the
+ * strongest available SecureRandom algorithm with fallback to platform default. In DRBG_POOL mode callers
+ * are spread over a pool of SP 800-90A DRBG instances that are seeded once from the backend and reseeded on
+ * a byte budget or time interval, so concurrent callers do not serialize on a single lock or block on
+ * /dev/random. Every instance passes the SP 800-90B startup health tests before use, and every block drawn
+ * through {@link #nextBytes(byte[])} the continuous ones. With prefetching enabled a background thread draws
+ * blocks ahead of demand into an {@link EntropyPrefetcher} ring, and generating threads only copy them out,
+ * drawing themselves only when the ring has run dry.
  * Suitable for security-critical applications such as password generation.
  */
 @Component
-public class SecureRandomProvider {
+public class SecureRandomProvider implements EntropySource {
 
     private static final Logger logger = LoggerFactory.getLogger(SecureRandomProvider.class);
+
+    private final RandomBackend backend;
     private final SecureRandom secureRandom;
+    private final DrbgStripe[] stripes;
+    private final long reseedBytes;
+    private final long reseedIntervalNanos;
+    private final AtomicLong reseedCount = new AtomicLong();
+    private final LongAdder bytesGenerated = new LongAdder();
+    private final LongAdder nextBytesCalls = new LongAdder();
+    private final LongAdder nextBytesNanos = new LongAdder();
+    private final LongAdder healthFailures = new LongAdder();
+    private final boolean healthTestsEnabled;
+    // Continuous test state is kept per stripe rather than per thread, so it survives short-lived virtual threads
+    private final HealthStripe[] healthStripes;
+    private final EntropyPrefetcher prefetcher;
+    private final SecureRandom routedSecureRandom;
 
     public SecureRandomProvider() {
-        SecureRandom instance;
-        try {
-            // Attempt to use the strongest available algorithm
-            instance = SecureRandom.getInstanceStrong();
-            logger.info("Initialized SecureRandom with strong algorithm: {}", instance.getAlgorithm());
-        } catch (NoSuchAlgorithmException e) {
-            // Fallback to platform default if strong algorithm is unavailable
-            instance = new SecureRandom();
-            logger.warn("Strong SecureRandom algorithm unavailable, using default: {}", instance.getAlgorithm());
+        this(SecureRandomProperties.defaults());
+    }
+
+    public SecureRandomProvider(SecureRandomProperties properties) {
+        this(properties, RandomBackends.forProperties(properties));
+    }
+
+    /**
+     * Creates a provider drawing from a {@link RandomBackend} bean if one is declared, otherwise from the
+     * configured source.
+     */
+    @Autowired
+    public SecureRandomProvider(SecureRandomProperties properties, ObjectProvider<RandomBackend> backends) {
+        this(properties, backends.getIfAvailable(() -> RandomBackends.forProperties(properties)));
+    }
+
+    public SecureRandomProvider(SecureRandomProperties properties, RandomBackend backend) {
+        this.backend = backend;
+        this.secureRandom = backend.create();
+        this.healthTestsEnabled = properties.healthTests();
+        if (healthTestsEnabled) {
+            EntropyHealthCheck.startup(secureRandom, backend.name());
+        }
+        logger.info("Initialized SecureRandom from {} backend: {} ({})",
+                backend.name(), secureRandom.getAlgorithm(), secureRandom.getProvider().getName());
+        this.reseedBytes = properties.reseedBytes().toBytes();
+        this.reseedIntervalNanos = properties.reseedInterval().toNanos();
+
+        if (properties.mode() == SecureRandomProperties.Mode.DRBG_POOL) {
+            int poolSize = properties.poolSize() > 0
+                    ? properties.poolSize()
+                    : Runtime.getRuntime().availableProcessors();
+            this.stripes = new DrbgStripe[poolSize];
+            RandomBackend drbg = RandomBackends.drbg(properties.drbgMechanism(), properties.drbgStrength());
+            for (int i = 0; i < poolSize; i++) {
+                stripes[i] = new DrbgStripe(createDrbg(drbg, properties.drbgStrength()));
+            }
+            logger.info("Initialized pool of {} {} instances ({}-bit strength)",
+                    poolSize, properties.drbgMechanism(), properties.drbgStrength());
+        } else {
+            this.stripes = null;
+        }
+        // In DRBG_POOL mode the health stripes line up with the DRBG stripes, so each tests one instance's output
+        this.healthStripes = healthTestsEnabled
+                ? healthStripes(stripes != null ? stripes.length : Runtime.getRuntime().availableProcessors())
+                : null;
+
+        SecureRandomProperties.Prefetch prefetch = properties.prefetch();
+        if (prefetch.enabled()) {
+            this.prefetcher = new EntropyPrefetcher(this::draw, prefetch.slots(), prefetch.blockSize(),
+                    Thread.ofPlatform().name("entropy-prefetch").daemon().factory());
+            logger.info("Entropy prefetch enabled ({} blocks of {} bytes)", prefetch.slots(), prefetch.blockSize());
+        } else {
+            this.prefetcher = null;
         }
-        this.secureRandom = instance;
+        this.routedSecureRandom = new RoutedSecureRandom();
     }
 
     /**
-     * Returns the SecureRandom instance.
-     * SecureRandom is thread-safe and can be reused across multiple operations.
+     * Returns a SecureRandom view of this provider for APIs that need one.
+     * Its bytes come through {@link #nextBytes(byte[])}, so they are drawn from the calling thread's pooled
+     * instance in DRBG_POOL mode, count towards its reseed budget, pass the continuous health tests and are
+     * included in the byte and call counts. The view is thread-safe and does not serialize callers.
      *
-     * @return the SecureRandom instance configured with the strongest available algorithm
+     * @return the SecureRandom view, the same instance on every call
      */
     public SecureRandom getSecureRandom() {
-        return secureRandom;
+        return routedSecureRandom;
+    }
+
+    /**
+     * Fills the given array with random bytes, copied from prefetched blocks when prefetching is enabled and
+     * enough are ready, otherwise drawn in a single call to the SecureRandom instance.
+     * Callers should request large blocks and buffer them rather than drawing per character.
+     *
+     * @param bytes the array to fill
+     */
+    @Override
+    public void nextBytes(byte[] bytes) {
+        if (prefetcher == null || !prefetcher.take(bytes)) {
+            draw(bytes);
+        }
+    }
+
+    /**
+     * Returns the number of requests served from prefetched blocks.
+     *
+     * @return the hit count, always 0 without prefetching
+     */
+    public long getPrefetchHitCount() {
+        return prefetcher == null ? 0 : prefetcher.getHitCount();
+    }
+
+    /**
+     * Returns the number of requests that found too few prefetched blocks and drew from the source themselves.
+     *
+     * @return the miss count, always 0 without prefetching
+     */
+    public long getPrefetchMissCount() {
+        return prefetcher == null ? 0 : prefetcher.getMissCount();
+    }
+
+    /**
+     * Stops the prefetch thread and zeroes the blocks it drew.
+     */
+    @PreDestroy
+    public void close() {
+        if (prefetcher != null) {
+            prefetcher.close();
+        }
+    }
+
+    /**
+     * Draws bytes from the source, timing the draw and running the continuous health tests.
+     */
+    private void draw(byte[] bytes) {
+        long start = System.nanoTime();
+        if (stripes == null) {
+            secureRandom.nextBytes(bytes);
+        } else {
+            currentStripe().nextBytes(bytes);
+        }
+        nextBytesNanos.add(System.nanoTime() - start);
+        nextBytesCalls.increment();
+        bytesGenerated.add(bytes.length);
+        if (healthStripes != null) {
+            HealthStripe stripe = healthStripes[stripeIndex(healthStripes.length)];
+            stripe.lock().lock();
+            try {
+                stripe.check().check(bytes);
+            } catch (EntropySourceException e) {
+                Arrays.fill(bytes, (byte) 0);
+                healthFailures.increment();
+                logger.error("Discarded a block of random bytes from {}: {}", backend.name(), e.getMessage());
+                throw e;
+            } finally {
+                stripe.lock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the backend the random bytes come from.
+     *
+     * @return the backend
+     */
+    public RandomBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Returns the name of the backend the random bytes come from.
+     *
+     * @return the backend name
+     */
+    public String getBackendName() {
+        return backend.name();
+    }
+
+    /**
+     * Returns the number of blocks discarded because they failed a continuous health test.
+     *
+     * @return the failure count
+     */
+    public long getHealthFailureCount() {
+        return healthFailures.sum();
+    }
+
+    /**
+     * Returns the number of times pooled DRBG instances have been reseeded.
+     *
+     * @return the reseed count, always 0 in SHARED mode
+     */
+    public long getReseedCount() {
+        return reseedCount.get();
+    }
+
+    /**
+     * Returns the number of random bytes produced through {@link #nextBytes(byte[])}.
+     *
+     * @return the byte count
+     */
+    public long getBytesGenerated() {
+        return bytesGenerated.sum();
+    }
+
+    /**
+     * Returns the number of calls to {@link #nextBytes(byte[])}.
+     *
+     * @return the call count
+     */
+    public long getNextBytesCalls() {
+        return nextBytesCalls.sum();
+    }
+
+    /**
+     * Returns the total time spent in {@link #nextBytes(byte[])}.
+     *
+     * @return the accumulated time in nanoseconds
+     */
+    public long getNextBytesNanos() {
+        return nextBytesNanos.sum();
+    }
+
+    private DrbgStripe currentStripe() {
+        return stripes[stripeIndex(stripes.length)];
+    }
+
+    private static int stripeIndex(int stripeCount) {
+        return (int) (Thread.currentThread().threadId() % stripeCount);
+    }
+
+    private static HealthStripe[] healthStripes(int count) {
+        HealthStripe[] healthStripes = new HealthStripe[count];
+        for (int i = 0; i < count; i++) {
+            healthStripes[i] = new HealthStripe(new EntropyHealthCheck(), new ReentrantLock());
+        }
+        return healthStripes;
+    }
+
+    private SecureRandom createDrbg(RandomBackend drbg, int strength) {
+        SecureRandom instance = drbg.create();
+        // Seed once from the backend in addition to the DRBG's own entropy input
+        instance.setSeed(secureRandom.generateSeed(strength / Byte.SIZE));
+        if (healthTestsEnabled) {
+            EntropyHealthCheck.startup(instance, drbg.name());
+        }
+        return instance;
+    }
+
+    /**
+     * SecureRandom whose bytes are drawn through {@link #nextBytes(byte[])}. Overriding nextBytes directly
+     * keeps it free of the lock SecureRandom takes around SPIs that are not registered as thread-safe.
+     */
+    private final class RoutedSecureRandom extends SecureRandom {
+
+        private final String algorithm;
+
+        private RoutedSecureRandom() {
+            super(new RoutedSpi(), secureRandom.getProvider());
+            this.algorithm = stripes == null ? secureRandom.getAlgorithm() : stripes[0].drbg.getAlgorithm();
+        }
+
+        @Override
+        public void nextBytes(byte[] bytes) {
+            SecureRandomProvider.this.nextBytes(bytes);
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return algorithm;
+        }
+    }
+
+    /**
+     * Service provider behind {@link RoutedSecureRandom} for the calls it does not override.
+     */
+    private final class RoutedSpi extends SecureRandomSpi {
+
+        @Override
+        protected void engineSetSeed(byte[] seed) {
+            // Supplements rather than replaces the seed, as SecureRandom.setSeed specifies
+            secureRandom.setSeed(seed);
+        }
+
+        @Override
+        protected void engineNextBytes(byte[] bytes) {
+            SecureRandomProvider.this.nextBytes(bytes);
+        }
+
+        @Override
+        protected byte[] engineGenerateSeed(int numBytes) {
+            return secureRandom.generateSeed(numBytes);
+        }
+    }
+
+    /**
+     * Continuous health test state shared by the threads mapped to one stripe. The lock is a ReentrantLock
+     * rather than a monitor so that virtual threads waiting for it do not pin their carrier.
+     */
+    private record HealthStripe(EntropyHealthCheck check, ReentrantLock lock) {
+    }
+
+    /**
+     * A pooled DRBG instance together with its reseed accounting.
+     */
+    private final class DrbgStripe {
+
+        private final SecureRandom drbg;
+        private final AtomicLong bytesSinceReseed = new AtomicLong();
+        private volatile long lastReseedNanos = System.nanoTime();
+
+        private DrbgStripe(SecureRandom drbg) {
+            this.drbg = drbg;
+        }
+
+        private void nextBytes(byte[] bytes) {
+            long produced = bytesSinceReseed.addAndGet(bytes.length);
+            if (produced > reseedBytes || System.nanoTime() - lastReseedNanos > reseedIntervalNanos) {
+                reseed();
+            }
+            drbg.nextBytes(bytes);
+        }
+
+        private synchronized void reseed() {
+            // Re-check under the lock so concurrent callers trigger a single reseed
+            if (bytesSinceReseed.get() <= reseedBytes && System.nanoTime() - lastReseedNanos <= reseedIntervalNanos) {
+                return;
+            }
+            drbg.reseed();
+            bytesSinceReseed.set(0);
+            lastReseedNanos = System.nanoTime();
+            reseedCount.incrementAndGet();
+        }
     }
 }
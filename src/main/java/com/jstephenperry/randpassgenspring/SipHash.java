@@ -0,0 +1,133 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * SipHash-2-4, a keyed 64-bit hash. With a secret random key its outputs cannot be predicted, so
+ * nobody can choose inputs that collide in a filter or set built on it, and its fingerprints of
+ * passwords cannot be reversed by looking them up in a precomputed table.
+ * <p>
+ * Characters are hashed as the low byte of each char. For ASCII text that is its UTF-8 encoding, so
+ * a generated password in a {@code char[]} hashes the same as the same password read from a file.
+ */
+final class SipHash {
+
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final long k0;
+    private final long k1;
+
+    /**
+     * Creates a hash function with the given 128-bit key.
+     *
+     * @param k0 the first half of the key
+     * @param k1 the second half of the key
+     */
+    SipHash(long k0, long k1) {
+        this.k0 = k0;
+        this.k1 = k1;
+    }
+
+    /**
+     * Creates a hash function with a key drawn from the random source.
+     *
+     * @param secureRandomProvider the random source
+     * @return the keyed hash function
+     */
+    static SipHash withRandomKey(SecureRandomProvider secureRandomProvider) {
+        byte[] key = new byte[16];
+        secureRandomProvider.nextBytes(key);
+        SipHash hash = new SipHash((long) LONG_LE.get(key, 0), (long) LONG_LE.get(key, 8));
+        Arrays.fill(key, (byte) 0);
+        return hash;
+    }
+
+    /**
+     * Hashes a range of bytes.
+     */
+    long hash(byte[] data, int offset, int length) {
+        long[] v = initialState();
+
+        int end = offset + (length & ~7);
+        for (int i = offset; i < end; i += 8) {
+            long m = (long) LONG_LE.get(data, i);
+            v[3] ^= m;
+            compress(v, 2);
+            v[0] ^= m;
+        }
+
+        long last = (long) length << 56;
+        for (int i = 0; i < (length & 7); i++) {
+            last |= (data[end + i] & 0xFFL) << (8 * i);
+        }
+        return finish(v, last);
+    }
+
+    /**
+     * Hashes a range of characters, taking the low byte of each.
+     */
+    long hash(char[] data, int offset, int length) {
+        long[] v = initialState();
+
+        int end = offset + (length & ~7);
+        for (int i = offset; i < end; i += 8) {
+            long m = 0;
+            for (int j = 0; j < 8; j++) {
+                m |= (data[i + j] & 0xFFL) << (8 * j);
+            }
+            v[3] ^= m;
+            compress(v, 2);
+            v[0] ^= m;
+        }
+
+        long last = (long) length << 56;
+        for (int i = 0; i < (length & 7); i++) {
+            last |= (data[end + i] & 0xFFL) << (8 * i);
+        }
+        return finish(v, last);
+    }
+
+    private long[] initialState() {
+        return new long[]{
+                k0 ^ 0x736f6d6570736575L,
+                k1 ^ 0x646f72616e646f6dL,
+                k0 ^ 0x6c7967656e657261L,
+                k1 ^ 0x7465646279746573L
+        };
+    }
+
+    private static long finish(long[] v, long last) {
+        v[3] ^= last;
+        compress(v, 2);
+        v[0] ^= last;
+
+        v[2] ^= 0xFF;
+        compress(v, 4);
+        return v[0] ^ v[1] ^ v[2] ^ v[3];
+    }
+
+    /**
+     * Applies SipRound to the state the given number of times.
+     */
+    private static void compress(long[] v, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            v[0] += v[1];
+            v[1] = Long.rotateLeft(v[1], 13);
+            v[1] ^= v[0];
+            v[0] = Long.rotateLeft(v[0], 32);
+            v[2] += v[3];
+            v[3] = Long.rotateLeft(v[3], 16);
+            v[3] ^= v[2];
+            v[0] += v[3];
+            v[3] = Long.rotateLeft(v[3], 21);
+            v[3] ^= v[0];
+            v[2] += v[1];
+            v[1] = Long.rotateLeft(v[1], 17);
+            v[1] ^= v[2];
+            v[2] = Long.rotateLeft(v[2], 32);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.jline.reader.EndOfFileException;
+import org.jline.reader.LineReader;
+import org.jline.reader.UserInterruptException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+/**
+ * Shell commands for estimating the strength of existing passwords.
+ */
+@ShellComponent
+public class StrengthCommands {
+
+    private final StrengthEstimator strengthEstimator;
+    private final ObjectProvider<LineReader> lineReader;
+
+    public StrengthCommands(StrengthEstimator strengthEstimator, ObjectProvider<LineReader> lineReader) {
+        this.strengthEstimator = strengthEstimator;
+        this.lineReader = lineReader;
+    }
+
+    /**
+     * Estimates how many guesses an attacker needs to find a password, and which patterns make it guessable.
+     * Without the password option the password is read from a masked prompt, which keeps it out of the
+     * shell history.
+     *
+     * @param password the password to check, or null to prompt for it
+     * @return the estimate, score, crack times and the patterns found
+     */
+    @ShellMethod(value = "Estimate the strength of an existing password (the built-in dictionaries are small "
+            + "samples; add full lists with rand-pass-gen.strength.dictionaries)", key = {"check-password", "cpw"})
+    public String checkPassword(
+            @ShellOption(help = "Password to check (prompted for with masked input if omitted; "
+                    + "a password given here is kept in the shell history)",
+                    defaultValue = ShellOption.NULL) String password) {
+
+        String candidate = password != null ? password : readMasked();
+        if (candidate.isEmpty()) {
+            throw new InvalidPasswordRequestException("Password must not be empty");
+        }
+
+        StrengthEstimate estimate = strengthEstimator.estimate(candidate);
+        StringBuilder output = new StringBuilder();
+        output.append(String.format("Guesses: 10^%.1f%n", estimate.log10Guesses()));
+        output.append(estimate.toPasswordStrength()).append(System.lineSeparator());
+        output.append(String.format("Score: %d/4%n", estimate.score()));
+        output.append(String.format("Crack time:%n"));
+        for (StrengthEstimate.Attack attack : StrengthEstimate.Attack.values()) {
+            output.append(String.format("  %s: %s%n", attack, estimate.crackTime(attack)));
+        }
+        output.append("Patterns:");
+        for (PatternMatch match : estimate.matches()) {
+            output.append(System.lineSeparator()).append("  ").append(match);
+        }
+        return output.toString();
+    }
+
+    private String readMasked() {
+        LineReader reader = lineReader.getIfAvailable();
+        if (reader == null) {
+            throw new PasswordGenerationException("No terminal available to prompt for the password; pass --password");
+        }
+        try {
+            return reader.readLine("Password to check: ", '*');
+        } catch (UserInterruptException | EndOfFileException e) {
+            throw new PasswordGenerationException("Password check cancelled");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.util.List;
+
+/**
+ * The estimated strength of an arbitrary password: the number of guesses needed by an attacker who
+ * tries common patterns first, and the sequence of patterns that gives that lowest estimate.
+ *
+ * @param log10Guesses log10 of the estimated number of guesses
+ * @param matches      the non-overlapping patterns covering the password, in order
+ */
+public record StrengthEstimate(double log10Guesses, List<PatternMatch> matches) {
+
+    private static final double LOG2_10 = Math.log(10) / Math.log(2);
+
+    /**
+     * Returns the estimate as bits, so it can be compared with the entropy of generated passwords.
+     *
+     * @return log2 of the estimated number of guesses
+     */
+    public double entropyBits() {
+        return log10Guesses * LOG2_10;
+    }
+
+    /**
+     * Returns a score from 0 (too guessable) to 4 (very unguessable), using the zxcvbn thresholds of
+     * 10^3, 10^6, 10^8 and 10^10 guesses.
+     *
+     * @return the score
+     */
+    public int score() {
+        if (log10Guesses < 3) {
+            return 0;
+        } else if (log10Guesses < 6) {
+            return 1;
+        } else if (log10Guesses < 8) {
+            return 2;
+        } else if (log10Guesses < 10) {
+            return 3;
+        }
+        return 4;
+    }
+
+    /**
+     * Returns how long an attacker would take on average to reach this password.
+     *
+     * @param attack the attack scenario
+     * @return a human-readable duration
+     */
+    public String crackTime(Attack attack) {
+        return formatDuration(log10Guesses - Math.log10(attack.getGuessesPerSecond()));
+    }
+
+    public PasswordStrength toPasswordStrength() {
+        return new PasswordStrength(entropyBits());
+    }
+
+    private static String formatDuration(double log10Seconds) {
+        if (log10Seconds < 0) {
+            return "less than a second";
+        }
+        double seconds = Math.pow(10, log10Seconds);
+        String[] units = {"second", "minute", "hour", "day", "month", "year"};
+        double[] sizes = {1, 60, 3600, 86400, 86400 * 31, 86400 * 365};
+        if (seconds >= sizes[5] * 100) {
+            return "centuries";
+        }
+        int unit = units.length - 1;
+        while (unit > 0 && seconds < sizes[unit]) {
+            unit--;
+        }
+        long count = Math.round(seconds / sizes[unit]);
+        return count + " " + units[unit] + (count == 1 ? "" : "s");
+    }
+
+    /**
+     * Attack scenarios with the guess rates used by zxcvbn.
+     */
+    public enum Attack {
+        ONLINE_THROTTLED("online, throttled (100/hour)", 100.0 / 3600),
+        ONLINE_UNTHROTTLED("online, unthrottled (10/s)", 10),
+        OFFLINE_SLOW_HASH("offline, slow hash (10k/s)", 1e4),
+        OFFLINE_FAST_HASH("offline, fast hash (10B/s)", 1e10);
+
+        private final String description;
+        private final double guessesPerSecond;
+
+        Attack(String description, double guessesPerSecond) {
+            this.description = description;
+            this.guessesPerSecond = guessesPerSecond;
+        }
+
+        public double getGuessesPerSecond() {
+            return guessesPerSecond;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,807 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estimates the strength of arbitrary passwords, zxcvbn-style. The password is scanned for dictionary
+ * words (plain, reversed and with common l33t substitutions), keyboard walks, repeats, sequences and
+ * dates, and the estimate is the number of guesses for the cheapest sequence of non-overlapping patterns,
+ * with brute force filling the gaps between them.
+ * <p>
+ * Dictionaries and the keyboard graph are built once and shared by every call; built-in dictionaries
+ * are additionally shared across instances. Estimation works on private copies of the password that
+ * are wiped before returning, and instances are thread-safe.
+ */
+@Component
+public class StrengthEstimator {
+
+    private static final Logger logger = LoggerFactory.getLogger(StrengthEstimator.class);
+
+    /** Characters beyond this length are counted as brute force rather than scanned for patterns. */
+    public static final int MAX_ANALYZED_LENGTH = 128;
+
+    private static final double LOG10_2 = Math.log10(2);
+    private static final double LOG10_MIN_GUESSES_BEFORE_GROWING_SEQUENCE = 4;
+    private static final double LOG10_MIN_SUBMATCH_GUESSES_SINGLE_CHAR = 1;
+    private static final double LOG10_MIN_SUBMATCH_GUESSES_MULTI_CHAR = Math.log10(50);
+    private static final int MIN_YEAR_SPACE = 20;
+    private static final int MAX_SEQUENCE_DELTA = 5;
+    private static final double[] LOG10_FACTORIAL = new double[MAX_ANALYZED_LENGTH + 2];
+
+    static {
+        for (int i = 2; i < LOG10_FACTORIAL.length; i++) {
+            LOG10_FACTORIAL[i] = LOG10_FACTORIAL[i - 1] + Math.log10(i);
+        }
+    }
+
+    /**
+     * Splits of unseparated digit runs into day, month and year parts, indexed by run length;
+     * each split gives the end of the first and second part.
+     */
+    private static final int[][][] DATE_SPLITS = {
+            {}, {}, {}, {},
+            {{1, 2}, {2, 3}},
+            {{1, 3}, {2, 3}},
+            {{1, 2}, {2, 4}, {4, 5}},
+            {{1, 3}, {2, 3}, {4, 5}, {4, 6}},
+            {{2, 4}, {4, 6}}
+    };
+
+    /**
+     * L33t substitution tables indexed by ASCII code. Characters that stand for more than one letter
+     * resolve to their first letter in the primary table and to their second in the alternate table.
+     */
+    private static final char[] L33T_PRIMARY = l33tTable("4a@a8b(c{c[c<c3e6g9g1i!i|i7t0o$s5s+t%x2z");
+    private static final char[] L33T_ALTERNATE = l33tTable("4a@a8b(c{c[c<c3e6g9g1l!i|l7l0o$s5s+t%x2z");
+
+    private final List<PatternDictionary> dictionaries;
+    private final KeyboardGraph keyboard = KeyboardGraph.QWERTY;
+    private final int referenceYear;
+
+    public StrengthEstimator(StrengthProperties properties) {
+        List<PatternDictionary> loaded = new ArrayList<>(BuiltInDictionaries.DICTIONARIES);
+        for (String location : properties.dictionaries()) {
+            loaded.add(loadFile(location));
+        }
+        this.dictionaries = List.copyOf(loaded);
+        this.referenceYear = Year.now().getValue();
+    }
+
+    /**
+     * Estimates the strength of a password.
+     *
+     * @param password the password
+     * @return the estimate
+     */
+    public StrengthEstimate estimate(CharSequence password) {
+        char[] characters = new char[password.length()];
+        for (int i = 0; i < characters.length; i++) {
+            characters[i] = password.charAt(i);
+        }
+        try {
+            return estimate(characters, 0, characters.length);
+        } finally {
+            PasswordEngine.wipe(characters);
+        }
+    }
+
+    /**
+     * Estimates the strength of a password held in a range of a character array, without creating a String.
+     *
+     * @param password the array holding the password
+     * @param offset   the index of the first password character
+     * @param length   the password length
+     * @return the estimate
+     */
+    public StrengthEstimate estimate(char[] password, int offset, int length) {
+        return estimate(password, offset, length, null);
+    }
+
+    /**
+     * Counts the cells of the sequence table the search visits for a password, a machine-independent
+     * measure of the cost of an estimate.
+     *
+     * @param password the password
+     * @return the number of end position and length pairs read or updated
+     */
+    long countSequenceCells(CharSequence password) {
+        char[] characters = new char[password.length()];
+        for (int i = 0; i < characters.length; i++) {
+            characters[i] = password.charAt(i);
+        }
+        LongAdder cellsVisited = new LongAdder();
+        try {
+            estimate(characters, 0, characters.length, cellsVisited);
+        } finally {
+            PasswordEngine.wipe(characters);
+        }
+        return cellsVisited.sum();
+    }
+
+    private StrengthEstimate estimate(char[] password, int offset, int length, LongAdder cellsVisited) {
+        Objects.checkFromIndexSize(offset, length, password.length);
+        if (length == 0) {
+            return new StrengthEstimate(0, List.of());
+        }
+
+        int analyzed = Math.min(length, MAX_ANALYZED_LENGTH);
+        char[] characters = Arrays.copyOfRange(password, offset, offset + analyzed);
+        char[] lowered = new char[analyzed];
+        try {
+            for (int i = 0; i < analyzed; i++) {
+                lowered[i] = Character.toLowerCase(characters[i]);
+            }
+
+            List<PatternMatch> matches = new ArrayList<>();
+            matchDictionaries(characters, lowered, matches);
+            matchSpatial(characters, matches);
+            matchRepeats(characters, matches);
+            matchSequences(characters, matches);
+            matchDates(characters, matches);
+            Optimal optimal = new Optimal(analyzed);
+            StrengthEstimate estimate = mostGuessableSequence(optimal, matches);
+            if (cellsVisited != null) {
+                cellsVisited.add(optimal.cellsVisited);
+            }
+
+            if (length == analyzed) {
+                return estimate;
+            }
+            List<PatternMatch> sequence = new ArrayList<>(estimate.matches());
+            int tail = length - analyzed;
+            sequence.add(new PatternMatch(PatternMatch.Kind.BRUTEFORCE, analyzed, length, tail, "unanalyzed tail"));
+            return new StrengthEstimate(estimate.log10Guesses() + tail, List.copyOf(sequence));
+        } finally {
+            PasswordEngine.wipe(characters);
+            PasswordEngine.wipe(lowered);
+        }
+    }
+
+    List<PatternDictionary> getDictionaries() {
+        return dictionaries;
+    }
+
+    private void matchDictionaries(char[] characters, char[] lowered, List<PatternMatch> matches) {
+        int n = lowered.length;
+        char[] reversed = new char[n];
+        char[] substituted = new char[n];
+        try {
+            for (int i = 0; i < n; i++) {
+                reversed[i] = lowered[n - 1 - i];
+            }
+            for (PatternDictionary dictionary : dictionaries) {
+                for (int i = 0; i < n; i++) {
+                    dictionary.matchFrom(lowered, i, n, (start, end, rank) -> matches.add(match(
+                            PatternMatch.Kind.DICTIONARY, start, end, n,
+                            Math.log10(rank) + log10UppercaseVariations(characters, start, end),
+                            dictionary.getName() + " #" + rank)));
+                }
+                for (int i = 0; i < n; i++) {
+                    dictionary.matchFrom(reversed, i, n, (start, end, rank) -> {
+                        int originalStart = n - end;
+                        int originalEnd = n - start;
+                        if (!isPalindrome(lowered, originalStart, originalEnd)) {
+                            matches.add(match(PatternMatch.Kind.DICTIONARY, originalStart, originalEnd, n,
+                                    Math.log10(rank) + log10UppercaseVariations(characters, originalStart, originalEnd)
+                                            + LOG10_2,
+                                    dictionary.getName() + " #" + rank + " reversed"));
+                        }
+                    });
+                }
+            }
+
+            matchL33t(characters, lowered, substituted, L33T_PRIMARY, matches);
+            if (containsAny(lowered, "1|7")) {
+                matchL33t(characters, lowered, substituted, L33T_ALTERNATE, matches);
+            }
+        } finally {
+            PasswordEngine.wipe(reversed);
+            PasswordEngine.wipe(substituted);
+        }
+    }
+
+    private void matchL33t(char[] characters, char[] lowered, char[] substituted, char[] table,
+                           List<PatternMatch> matches) {
+        int n = lowered.length;
+        boolean any = false;
+        for (int i = 0; i < n; i++) {
+            char c = lowered[i];
+            char letter = c < 128 ? table[c] : 0;
+            substituted[i] = letter != 0 ? letter : c;
+            any |= letter != 0;
+        }
+        if (!any) {
+            return;
+        }
+
+        for (PatternDictionary dictionary : dictionaries) {
+            for (int i = 0; i < n; i++) {
+                dictionary.matchFrom(substituted, i, n, (start, end, rank) -> {
+                    double l33t = log10L33tVariations(lowered, substituted, start, end);
+                    if (l33t > 0) {
+                        matches.add(match(PatternMatch.Kind.DICTIONARY, start, end, n,
+                                Math.log10(rank) + log10UppercaseVariations(characters, start, end) + l33t,
+                                dictionary.getName() + " #" + rank + " l33t"));
+                    }
+                });
+            }
+        }
+    }
+
+    private void matchSpatial(char[] characters, List<PatternMatch> matches) {
+        int n = characters.length;
+        int i = 0;
+        while (i < n - 1) {
+            int j = i + 1;
+            int lastDirection = -1;
+            int turns = 0;
+            int shiftedCount = keyboard.isShifted(characters[i]) ? 1 : 0;
+            while (j < n) {
+                int direction = keyboard.direction(characters[j - 1], characters[j]);
+                if (direction < 0) {
+                    break;
+                }
+                if (keyboard.isShifted(characters[j])) {
+                    shiftedCount++;
+                }
+                if (direction != lastDirection) {
+                    turns++;
+                    lastDirection = direction;
+                }
+                j++;
+            }
+            if (j - i > 2) {
+                matches.add(match(PatternMatch.Kind.SPATIAL, i, j, n, log10SpatialGuesses(j - i, turns, shiftedCount),
+                        String.format("keyboard walk, %d turn%s", turns, turns == 1 ? "" : "s")));
+            }
+            i = j;
+        }
+    }
+
+    private double log10SpatialGuesses(int length, int turns, int shiftedCount) {
+        double startingPositions = keyboard.getStartingPositions();
+        double degree = keyboard.getAverageDegree();
+        double guesses = 0;
+        for (int i = 2; i <= length; i++) {
+            int possibleTurns = Math.min(turns, i - 1);
+            for (int j = 1; j <= possibleTurns; j++) {
+                guesses += binomial(i - 1, j - 1) * startingPositions * Math.pow(degree, j);
+            }
+        }
+        double log10 = Math.log10(guesses);
+        if (shiftedCount > 0) {
+            int unshifted = length - shiftedCount;
+            log10 += unshifted == 0 ? LOG10_2 : log10Variations(shiftedCount, unshifted);
+        }
+        return log10;
+    }
+
+    /**
+     * Finds runs of a repeated base string, preferring the longest run and then the shortest base.
+     * The base is priced by a recursive estimate, times the number of repetitions.
+     */
+    private void matchRepeats(char[] characters, List<PatternMatch> matches) {
+        int n = characters.length;
+        int i = 0;
+        while (i < n - 1) {
+            int bestEnd = i;
+            int bestBase = 0;
+            for (int base = 1; base <= (n - i) / 2; base++) {
+                int end = i + base;
+                while (end + base <= n && Arrays.equals(characters, i, i + base, characters, end, end + base)) {
+                    end += base;
+                }
+                if (end - i >= 2 * base && end > bestEnd) {
+                    bestEnd = end;
+                    bestBase = base;
+                }
+            }
+            if (bestBase == 0) {
+                i++;
+                continue;
+            }
+            int count = (bestEnd - i) / bestBase;
+            double baseGuesses = estimate(characters, i, bestBase).log10Guesses();
+            matches.add(match(PatternMatch.Kind.REPEAT, i, bestEnd, n, baseGuesses + Math.log10(count),
+                    String.format("%d-character base repeated %d times", bestBase, count)));
+            i = bestEnd;
+        }
+    }
+
+    private void matchSequences(char[] characters, List<PatternMatch> matches) {
+        int n = characters.length;
+        if (n < 2) {
+            return;
+        }
+        int i = 0;
+        int lastDelta = characters[1] - characters[0];
+        for (int k = 2; k < n; k++) {
+            int delta = characters[k] - characters[k - 1];
+            if (delta == lastDelta) {
+                continue;
+            }
+            addSequence(characters, i, k, lastDelta, matches);
+            i = k - 1;
+            lastDelta = delta;
+        }
+        addSequence(characters, i, n, lastDelta, matches);
+    }
+
+    private static void addSequence(char[] characters, int start, int end, int delta, List<PatternMatch> matches) {
+        int absoluteDelta = Math.abs(delta);
+        if ((end - start <= 2 && absoluteDelta != 1) || absoluteDelta == 0 || absoluteDelta > MAX_SEQUENCE_DELTA) {
+            return;
+        }
+        char first = characters[start];
+        int base;
+        if ("aAzZ019".indexOf(first) >= 0) {
+            base = 4;
+        } else if (first >= '0' && first <= '9') {
+            base = 10;
+        } else {
+            base = 26;
+        }
+        if (delta < 0) {
+            base *= 2;
+        }
+        matches.add(match(PatternMatch.Kind.SEQUENCE, start, end, characters.length,
+                Math.log10((double) base * (end - start)), delta > 0 ? "ascending sequence" : "descending sequence"));
+    }
+
+    private void matchDates(char[] characters, List<PatternMatch> matches) {
+        int n = characters.length;
+        for (int i = 0; i < n; i++) {
+            int digitsEnd = i;
+            while (digitsEnd < n && isDigit(characters[digitsEnd])) {
+                digitsEnd++;
+            }
+
+            if (digitsEnd - i >= 4) {
+                int year = parseDigits(characters, i, i + 4);
+                if (year >= 1900 && year <= 2039) {
+                    matches.add(match(PatternMatch.Kind.DATE, i, i + 4, n,
+                            Math.log10(Math.max(Math.abs(year - referenceYear), MIN_YEAR_SPACE)), "recent year"));
+                }
+            }
+            for (int end = i + 4; end <= Math.min(digitsEnd, i + 8); end++) {
+                int bestYear = -1;
+                for (int[] split : DATE_SPLITS[end - i]) {
+                    int year = dateYear(parseDigits(characters, i, i + split[0]),
+                            parseDigits(characters, i + split[0], i + split[1]),
+                            parseDigits(characters, i + split[1], end));
+                    if (year >= 0 && (bestYear < 0
+                            || Math.abs(year - referenceYear) < Math.abs(bestYear - referenceYear))) {
+                        bestYear = year;
+                    }
+                }
+                if (bestYear >= 0) {
+                    matches.add(match(PatternMatch.Kind.DATE, i, end, n, log10DateGuesses(bestYear, false), "date"));
+                }
+            }
+
+            for (int end = i + 6; end <= Math.min(n, i + 10); end++) {
+                int year = separatedDateYear(characters, i, end);
+                if (year >= 0) {
+                    matches.add(match(PatternMatch.Kind.DATE, i, end, n, log10DateGuesses(year, true),
+                            "date with separators"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a date of the form digits, separator, one or two digits, the same separator, digits.
+     *
+     * @return the four-digit year, or -1 if the range is not a valid date
+     */
+    private static int separatedDateYear(char[] characters, int start, int end) {
+        int first = start;
+        while (first < end && first - start < 4 && isDigit(characters[first])) {
+            first++;
+        }
+        if (first == start || first >= end || !isDateSeparator(characters[first])) {
+            return -1;
+        }
+        char separator = characters[first];
+        int second = first + 1;
+        while (second < end && second - first - 1 < 2 && isDigit(characters[second])) {
+            second++;
+        }
+        if (second == first + 1 || second >= end || characters[second] != separator) {
+            return -1;
+        }
+        int third = second + 1;
+        int length = end - third;
+        if (length < 1 || length > 4) {
+            return -1;
+        }
+        for (int i = third; i < end; i++) {
+            if (!isDigit(characters[i])) {
+                return -1;
+            }
+        }
+        return dateYear(parseDigits(characters, start, first), parseDigits(characters, first + 1, second),
+                parseDigits(characters, third, end));
+    }
+
+    /**
+     * Interprets three integers as a day, month and year in some order, the way zxcvbn does.
+     *
+     * @return the four-digit year, or -1 if no order gives a valid date
+     */
+    private static int dateYear(int a, int b, int c) {
+        if (b > 31 || b <= 0) {
+            return -1;
+        }
+        int over12 = 0;
+        int over31 = 0;
+        int under1 = 0;
+        for (int value : new int[]{a, b, c}) {
+            if ((value > 99 && value < 1000) || value > 2050) {
+                return -1;
+            }
+            if (value > 31) {
+                over31++;
+            }
+            if (value > 12) {
+                over12++;
+            }
+            if (value <= 0) {
+                under1++;
+            }
+        }
+        if (over31 >= 2 || over12 == 3 || under1 >= 2) {
+            return -1;
+        }
+
+        // Four-digit years first, at the end then at the start
+        int[][] yearSplits = {{c, a, b}, {a, b, c}};
+        for (int[] split : yearSplits) {
+            if (split[0] >= 1000 && split[0] <= 2050) {
+                return isDayMonth(split[1], split[2]) ? split[0] : -1;
+            }
+        }
+        for (int[] split : yearSplits) {
+            if (isDayMonth(split[1], split[2])) {
+                int year = split[0];
+                if (year > 99) {
+                    return year;
+                }
+                return year > 50 ? year + 1900 : year + 2000;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDayMonth(int first, int second) {
+        return (first >= 1 && first <= 31 && second >= 1 && second <= 12)
+                || (second >= 1 && second <= 31 && first >= 1 && first <= 12);
+    }
+
+    private double log10DateGuesses(int year, boolean separated) {
+        double guesses = Math.max(Math.abs(year - referenceYear), MIN_YEAR_SPACE) * 365.0;
+        return Math.log10(separated ? guesses * 4 : guesses);
+    }
+
+    /**
+     * Finds the sequence of non-overlapping matches, with brute force in between, that minimises
+     * l! * (product of match guesses) + 10000^(l - 1) for a sequence of length l, as in zxcvbn.
+     * The first term counts the orderings of the patterns, and the second keeps a long sequence of
+     * cheap matches from scoring below a shorter one. All values are log10.
+     * <p>
+     * Each candidate is checked against a running best per end position and length, so a match is
+     * extended from every sequence ending before it in O(n), and brute force runs are extended from the
+     * single cheapest sequence per length rather than from every earlier position.
+     */
+    private static StrengthEstimate mostGuessableSequence(Optimal optimal, List<PatternMatch> matches) {
+        int n = optimal.match.length;
+        matches.sort(Comparator.comparingInt(PatternMatch::end));
+        // A brute force run of two or more characters guesses 10 per character, so of the sequences of each
+        // length ending in a pattern, the one to extend with a run up to k is the one minimising its product
+        // minus the run's start, whatever k is; it is tracked as positions go by
+        double[] runBase = new double[n + 1];
+        int[] runStart = new int[n + 1];
+        Arrays.fill(runBase, Double.POSITIVE_INFINITY);
+
+        int next = 0;
+        for (int k = 0; k < n; k++) {
+            while (next < matches.size() && matches.get(next).end() == k + 1) {
+                PatternMatch match = matches.get(next++);
+                if (match.start() == 0) {
+                    optimal.update(k, 1, match, 0);
+                    optimal.cellsVisited++;
+                } else {
+                    int previous = match.start() - 1;
+                    optimal.cellsVisited += previous + 1;
+                    for (int l = 1; l <= previous + 1; l++) {
+                        if (optimal.match[previous][l] != null) {
+                            optimal.update(k, l + 1, match, optimal.product[previous][l]);
+                        }
+                    }
+                }
+            }
+
+            optimal.update(k, 1, bruteforce(0, k + 1, n), 0);
+            optimal.cellsVisited += 1 + Math.max(k - 1, 0) + k;
+            for (int l = 1; l < k; l++) {
+                int start = runStart[l];
+                if (start > 0) {
+                    optimal.update(k, l + 1, bruteforce(start, k + 1, n), optimal.product[start - 1][l]);
+                }
+            }
+            if (k > 0) {
+                PatternMatch bruteforce = bruteforce(k, k + 1, n);
+                for (int l = 1; l <= k; l++) {
+                    PatternMatch previous = optimal.match[k - 1][l];
+                    // Adjacent brute force runs are never split, the longer run is always cheaper
+                    if (previous == null || previous.kind() == PatternMatch.Kind.BRUTEFORCE) {
+                        continue;
+                    }
+                    optimal.update(k, l + 1, bruteforce, optimal.product[k - 1][l]);
+                    if (optimal.product[k - 1][l] - k < runBase[l]) {
+                        runBase[l] = optimal.product[k - 1][l] - k;
+                        runStart[l] = k;
+                    }
+                }
+            }
+        }
+
+        int k = n - 1;
+        int bestLength = 1;
+        for (int l = 1; l <= n; l++) {
+            if (optimal.match[k][l] != null && (optimal.match[k][bestLength] == null
+                    || optimal.guesses[k][l] < optimal.guesses[k][bestLength])) {
+                bestLength = l;
+            }
+        }
+        double log10Guesses = optimal.guesses[k][bestLength];
+        List<PatternMatch> sequence = new ArrayList<>();
+        for (int l = bestLength; k >= 0; l--) {
+            PatternMatch match = optimal.match[k][l];
+            sequence.add(match);
+            k = match.start() - 1;
+        }
+        Collections.reverse(sequence);
+        return new StrengthEstimate(log10Guesses, List.copyOf(sequence));
+    }
+
+    private static PatternMatch bruteforce(int start, int end, int n) {
+        int length = end - start;
+        double log10 = length == 1 ? Math.log10(11) : length;
+        return match(PatternMatch.Kind.BRUTEFORCE, start, end, n, log10, "brute force");
+    }
+
+    /**
+     * Creates a match, raising its guesses to the zxcvbn floor for patterns that cover only part of the
+     * password, so that a short pattern never makes a longer password look cheaper than brute force would.
+     */
+    private static PatternMatch match(PatternMatch.Kind kind, int start, int end, int n, double log10Guesses,
+                                      String detail) {
+        double floor = 0;
+        if (end - start < n) {
+            floor = end - start == 1 ? LOG10_MIN_SUBMATCH_GUESSES_SINGLE_CHAR : LOG10_MIN_SUBMATCH_GUESSES_MULTI_CHAR;
+        }
+        return new PatternMatch(kind, start, end, Math.max(log10Guesses, floor), detail);
+    }
+
+    /**
+     * Counts the capitalisations an attacker tries: none for lower case, two for a single leading or
+     * trailing capital or all capitals, otherwise every placement of up to the smaller of the upper- and
+     * lower-case counts.
+     */
+    private static double log10UppercaseVariations(char[] characters, int start, int end) {
+        int upper = 0;
+        int lower = 0;
+        for (int i = start; i < end; i++) {
+            if (Character.isUpperCase(characters[i])) {
+                upper++;
+            } else if (Character.isLowerCase(characters[i])) {
+                lower++;
+            }
+        }
+        if (upper == 0) {
+            return 0;
+        }
+        if (lower == 0 || (upper == 1
+                && (Character.isUpperCase(characters[start]) || Character.isUpperCase(characters[end - 1])))) {
+            return LOG10_2;
+        }
+        return log10Variations(upper, lower);
+    }
+
+    /**
+     * Counts the l33t variations an attacker tries for each substituted letter in the range.
+     *
+     * @return log10 of the variations, or 0 if the range has no substitutions
+     */
+    private static double log10L33tVariations(char[] lowered, char[] substituted, int start, int end) {
+        double log10 = 0;
+        for (int i = start; i < end; i++) {
+            char subbed = lowered[i];
+            char letter = substituted[i];
+            if (subbed == letter || indexOf(lowered, subbed, start, i) >= 0) {
+                continue;
+            }
+            int subbedCount = 0;
+            int unsubbedCount = 0;
+            for (int j = start; j < end; j++) {
+                if (lowered[j] == subbed) {
+                    subbedCount++;
+                } else if (lowered[j] == letter) {
+                    unsubbedCount++;
+                }
+            }
+            log10 += unsubbedCount == 0 ? LOG10_2 : log10Variations(subbedCount, unsubbedCount);
+        }
+        return log10;
+    }
+
+    private static double log10Variations(int changed, int unchanged) {
+        double variations = 0;
+        for (int i = 1; i <= Math.min(changed, unchanged); i++) {
+            variations += binomial(changed + unchanged, i);
+        }
+        return Math.log10(variations);
+    }
+
+    private static double binomial(int n, int k) {
+        double result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+
+    private static double log10Sum(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log10(1 + Math.pow(10, Math.min(a, b) - max));
+    }
+
+    private static boolean isPalindrome(char[] characters, int start, int end) {
+        for (int i = start, j = end - 1; i < j; i++, j--) {
+            if (characters[i] != characters[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsAny(char[] characters, String candidates) {
+        for (char c : characters) {
+            if (candidates.indexOf(c) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOf(char[] characters, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (characters[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isDateSeparator(char c) {
+        return c == '/' || c == '\\' || c == '_' || c == '.' || c == '-' || Character.isWhitespace(c);
+    }
+
+    private static int parseDigits(char[] characters, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (characters[i] - '0');
+        }
+        return value;
+    }
+
+    private static char[] l33tTable(String pairs) {
+        char[] table = new char[128];
+        for (int i = 0; i < pairs.length(); i += 2) {
+            table[pairs.charAt(i)] = pairs.charAt(i + 1);
+        }
+        return table;
+    }
+
+    private static PatternDictionary loadFile(String location) {
+        Path file = Path.of(location).toAbsolutePath().normalize();
+        try {
+            String name = file.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+            PatternDictionary dictionary = new PatternDictionary(name, Wordlist.parse(Files.readAllBytes(file)));
+            logger.info("Loaded strength dictionary {} with {} words", file, dictionary.size());
+            return dictionary;
+        } catch (IOException e) {
+            throw new PasswordGenerationException(
+                    String.format("Failed to load strength dictionary '%s': %s", location, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * The best sequence found so far for each end position k and sequence length l, zxcvbn's {@code optimal}.
+     */
+    private static final class Optimal {
+
+        private final PatternMatch[][] match;
+        private final double[][] product;
+        private final double[][] guesses;
+        // The lowest guesses at k over all lengths up to l, so a candidate is checked without a scan
+        private final double[][] best;
+        // The cells of the table read or updated, counted for tests rather than timed
+        private long cellsVisited;
+
+        private Optimal(int n) {
+            this.match = new PatternMatch[n][n + 1];
+            this.product = new double[n][n + 1];
+            this.guesses = new double[n][n + 1];
+            this.best = new double[n][n + 1];
+            for (double[] row : best) {
+                Arrays.fill(row, Double.POSITIVE_INFINITY);
+            }
+        }
+
+        /**
+         * Records the match as the end of the sequence of the given length ending at k, unless an equal or
+         * shorter sequence ending there is at least as cheap.
+         */
+        private void update(int k, int length, PatternMatch candidate, double previousProduct) {
+            double matchProduct = candidate.log10Guesses() + previousProduct;
+            double orderings = LOG10_FACTORIAL[length] + matchProduct;
+            double growth = LOG10_MIN_GUESSES_BEFORE_GROWING_SEQUENCE * (length - 1);
+            double competing = best[k][length];
+            // The larger term is a lower bound on the sum, so most losing candidates skip the logarithm
+            if (competing <= Math.max(orderings, growth)) {
+                return;
+            }
+            double total = log10Sum(orderings, growth);
+            if (competing <= total) {
+                return;
+            }
+            match[k][length] = candidate;
+            product[k][length] = matchProduct;
+            guesses[k][length] = total;
+            for (int l = length; l < best[k].length && best[k][l] > total; l++) {
+                best[k][l] = total;
+            }
+        }
+    }
+
+    /**
+     * Built-in dictionaries, loaded from the classpath on first use and shared by every estimator.
+     */
+    private static final class BuiltInDictionaries {
+
+        private static final List<PatternDictionary> DICTIONARIES = List.of(load("passwords"), load("english"));
+
+        private static PatternDictionary load(String name) {
+            String resource = "/strength/" + name + ".txt";
+            try (InputStream in = StrengthEstimator.class.getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing built-in strength dictionary " + resource);
+                }
+                return new PatternDictionary(name, Wordlist.parse(in.readAllBytes()));
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read built-in strength dictionary " + resource, e);
+            }
+        }
+    }
+}
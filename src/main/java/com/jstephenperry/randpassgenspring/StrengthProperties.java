@@ -0,0 +1,25 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Configuration for the {@link StrengthEstimator}.
+ *
+ * @param dictionaries extra dictionary files, one word per line in rank order, checked after the built-in
+ *                     common password and English word lists
+ */
+@ConfigurationProperties(prefix = "rand-pass-gen.strength")
+public record StrengthProperties(@DefaultValue List<String> dictionaries) {
+
+    /**
+     * Returns the default configuration, with only the built-in dictionaries.
+     *
+     * @return the default properties
+     */
+    public static StrengthProperties defaults() {
+        return new StrengthProperties(List.of());
+    }
+}
@@ -0,0 +1,28 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.springframework.shell.command.CommandExceptionResolver;
+import org.springframework.shell.command.CommandHandlingResult;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts shell commands rejected by parameter validation.
+ * Returns no result, so Spring Shell still reports the exception to the user as before.
+ */
+@Component
+public class ValidationFailureRecorder implements CommandExceptionResolver {
+
+    private final PasswordMetrics passwordMetrics;
+
+    public ValidationFailureRecorder(PasswordMetrics passwordMetrics) {
+        this.passwordMetrics = passwordMetrics;
+    }
+
+    @Override
+    public CommandHandlingResult resolve(Exception e) {
+        // Generation, random source and I/O failures are not the caller's fault
+        if (e instanceof InvalidPasswordRequestException) {
+            passwordMetrics.recordValidationFailure("shell");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,238 @@
+package com.jstephenperry.randpassgenspring;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * Vector API implementation of {@link PasswordAlphabet}'s rejection sampling for long fills.
+ * <p>
+ * A whole vector of random bytes is masked to alphabet indexes and compared with the alphabet size at
+ * once, and the characters are looked up by permuting the alphabet table, split into vector-sized
+ * pieces. The accepted lanes are then packed into the output in order: with 512-bit vectors (AVX-512)
+ * by widening to ints and compressing, which compiles to a single instruction; on narrower hardware,
+ * where compress is not an intrinsic, by walking the bits of the accept mask. Block tails shorter than
+ * a vector are consumed a byte at a time, so the result is identical to the scalar loop given the same
+ * random bytes, wherever the entropy buffer's position falls.
+ * <p>
+ * This class is compiled on its own against {@code jdk.incubator.vector} and only looked up by name once
+ * {@link PasswordAlphabet} has found the module, so the rest of the application neither compiles against
+ * the module nor needs it to run on the scalar path.
+ */
+final class VectorizedAlphabet implements PasswordAlphabet.BulkFill {
+
+    private static final VectorSpecies<Byte> BYTES = VectorSpecies.of(byte.class,
+            VectorShape.forBitSize(Math.clamp(ByteVector.SPECIES_PREFERRED.vectorBitSize() / 2, 128, 256)));
+    private static final int LANES = BYTES.length();
+    private static final boolean COMPRESS = IntVector.SPECIES_PREFERRED.vectorBitSize() >= 512;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_512;
+    private static final VectorSpecies<Short> CHARS = ShortVector.SPECIES_256;
+    private static final VectorSpecies<Byte> ASCII = ByteVector.SPECIES_128;
+    private static final int PART_LANES = INTS.length();
+
+    private final byte[] asciiCharacters;
+    private final int size;
+    private final byte indexMask;
+    private final ByteVector[] pieces;
+    private final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[LANES]);
+
+    private VectorizedAlphabet(byte[] asciiCharacters, int indexMask) {
+        this.asciiCharacters = asciiCharacters.clone();
+        this.size = asciiCharacters.length;
+        this.indexMask = (byte) indexMask;
+        byte[] table = new byte[(size + LANES - 1) / LANES * LANES];
+        System.arraycopy(asciiCharacters, 0, table, 0, size);
+        this.pieces = new ByteVector[table.length / LANES];
+        for (int i = 0; i < pieces.length; i++) {
+            pieces[i] = ByteVector.fromArray(BYTES, table, i * LANES);
+        }
+    }
+
+    /**
+     * Creates a vectorized mapper for an alphabet of at most 128 ASCII characters if the hardware vectors
+     * are wide enough to pay off. Called by {@link PasswordAlphabet} through a method handle.
+     *
+     * @param asciiCharacters the alphabet as ASCII bytes
+     * @param indexMask       the power-of-two mask applied to each random byte
+     * @return the thread-safe mapper, or null on hardware without 128-bit vectors
+     */
+    static PasswordAlphabet.BulkFill createIfSupported(byte[] asciiCharacters, int indexMask) {
+        return ByteVector.SPECIES_PREFERRED.vectorBitSize() >= 128
+                ? new VectorizedAlphabet(asciiCharacters, indexMask)
+                : null;
+    }
+
+    /**
+     * Returns the number of characters a step produces at most; callers finish shorter tails themselves.
+     */
+    static int lanes() {
+        return LANES;
+    }
+
+    /**
+     * Fills characters from the start position while at least a vector's worth remains.
+     *
+     * @return the position of the first character left unfilled, fewer than {@link #lanes()} from the end
+     */
+    @Override
+    public int fill(char[] destination, int position, int end, EntropyBuffer entropy) {
+        if (entropy.capacity() < LANES) {
+            return position;
+        }
+        byte[] mapped = COMPRESS ? null : scratch.get();
+        while (end - position >= LANES) {
+            if (entropy.remaining() > 0 && entropy.remaining() < LANES) {
+                position = fillTail(destination, position, entropy);
+                continue;
+            }
+            byte[] random = entropy.block();
+            int from = entropy.position();
+            int offset = from;
+            int limit = from + (entropy.remaining() / LANES) * LANES;
+            while (offset < limit && end - position >= LANES) {
+                ByteVector index = ByteVector.fromArray(BYTES, random, offset).and(indexMask);
+                ByteVector characters = lookup(index);
+                position = COMPRESS
+                        ? compressInto(destination, position, characters, index)
+                        : scatterInto(destination, position, characters, index.lt((byte) size).toLong(), mapped);
+                offset += LANES;
+            }
+            entropy.skip(offset - from);
+        }
+        if (mapped != null) {
+            Arrays.fill(mapped, (byte) 0);
+        }
+        return position;
+    }
+
+    /**
+     * Fills ASCII bytes from the start position while at least a vector's worth remains.
+     *
+     * @return the position of the first byte left unfilled, fewer than {@link #lanes()} from the end
+     */
+    @Override
+    public int fill(byte[] destination, int position, int end, EntropyBuffer entropy) {
+        if (entropy.capacity() < LANES) {
+            return position;
+        }
+        byte[] mapped = COMPRESS ? null : scratch.get();
+        while (end - position >= LANES) {
+            if (entropy.remaining() > 0 && entropy.remaining() < LANES) {
+                position = fillTail(destination, position, entropy);
+                continue;
+            }
+            byte[] random = entropy.block();
+            int from = entropy.position();
+            int offset = from;
+            int limit = from + (entropy.remaining() / LANES) * LANES;
+            while (offset < limit && end - position >= LANES) {
+                ByteVector index = ByteVector.fromArray(BYTES, random, offset).and(indexMask);
+                ByteVector characters = lookup(index);
+                position = COMPRESS
+                        ? compressInto(destination, position, characters, index)
+                        : scatterInto(destination, position, characters, index.lt((byte) size).toLong(), mapped);
+                offset += LANES;
+            }
+            entropy.skip(offset - from);
+        }
+        if (mapped != null) {
+            Arrays.fill(mapped, (byte) 0);
+        }
+        return position;
+    }
+
+    /**
+     * Consumes a block tail too short for one vector the way the scalar loop does. The caller has room for
+     * at least a vector's worth, so every byte of the tail is used.
+     */
+    private int fillTail(char[] destination, int position, EntropyBuffer entropy) {
+        for (int remaining = entropy.remaining(); remaining > 0; remaining--) {
+            int index = entropy.nextByte() & indexMask;
+            if (index < size) {
+                destination[position++] = (char) asciiCharacters[index];
+            }
+        }
+        return position;
+    }
+
+    private int fillTail(byte[] destination, int position, EntropyBuffer entropy) {
+        for (int remaining = entropy.remaining(); remaining > 0; remaining--) {
+            int index = entropy.nextByte() & indexMask;
+            if (index < size) {
+                destination[position++] = asciiCharacters[index];
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Looks every index up in the alphabet table, one table piece per permute.
+     */
+    private ByteVector lookup(ByteVector index) {
+        ByteVector result = pieces[0].rearrange(index.and((byte) (LANES - 1)).toShuffle());
+        for (int piece = 1; piece < pieces.length; piece++) {
+            ByteVector local = index.sub((byte) (piece * LANES));
+            VectorMask<Byte> inPiece = local.compare(VectorOperators.UNSIGNED_LT, (byte) LANES);
+            ByteVector found = pieces[piece].rearrange(local.and((byte) (LANES - 1)).toShuffle());
+            result = result.blend(found, inPiece);
+        }
+        return result;
+    }
+
+    /**
+     * Widens the looked-up characters to ints, sixteen lanes at a time, and compresses the accepted
+     * lanes to the front.
+     */
+    private int compressInto(char[] destination, int position, ByteVector characters, ByteVector index) {
+        for (int part = 0; part < LANES / PART_LANES; part++) {
+            IntVector wide = (IntVector) characters.convertShape(VectorOperators.B2I, INTS, part);
+            VectorMask<Integer> accepted = ((IntVector) index.convertShape(VectorOperators.B2I, INTS, part)).lt(size);
+            int count = accepted.trueCount();
+            ShortVector packed = (ShortVector) wide.compress(accepted).convertShape(VectorOperators.I2S, CHARS, 0);
+            packed.intoCharArray(destination, position, CHARS.indexInRange(0, count));
+            position += count;
+        }
+        return position;
+    }
+
+    private int compressInto(byte[] destination, int position, ByteVector characters, ByteVector index) {
+        for (int part = 0; part < LANES / PART_LANES; part++) {
+            IntVector wide = (IntVector) characters.convertShape(VectorOperators.B2I, INTS, part);
+            VectorMask<Integer> accepted = ((IntVector) index.convertShape(VectorOperators.B2I, INTS, part)).lt(size);
+            int count = accepted.trueCount();
+            ByteVector packed = (ByteVector) wide.compress(accepted).convertShape(VectorOperators.I2B, ASCII, 0);
+            packed.intoArray(destination, position, ASCII.indexInRange(0, count));
+            position += count;
+        }
+        return position;
+    }
+
+    /**
+     * Stores the looked-up characters and copies the accepted ones in lane order.
+     */
+    private static int scatterInto(char[] destination, int position, ByteVector characters, long accepted,
+                                   byte[] mapped) {
+        characters.intoArray(mapped, 0);
+        while (accepted != 0) {
+            destination[position++] = (char) mapped[Long.numberOfTrailingZeros(accepted)];
+            accepted &= accepted - 1;
+        }
+        return position;
+    }
+
+    private static int scatterInto(byte[] destination, int position, ByteVector characters, long accepted,
+                                   byte[] mapped) {
+        characters.intoArray(mapped, 0);
+        while (accepted != 0) {
+            destination[position++] = mapped[Long.numberOfTrailingZeros(accepted)];
+            accepted &= accepted - 1;
+        }
+        return position;
+    }
+}
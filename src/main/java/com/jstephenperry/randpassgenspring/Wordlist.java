@@ -0,0 +1,285 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Compact, immutable index over a passphrase wordlist.
+ * All words are stored back to back as UTF-8 in a single byte array with an offset table, rather than
+ * as one String per word, so a list costs roughly its file size plus four bytes per word and loads with
+ * one read and one pass. Accepts one word per line or the EFF dice format ("11111&lt;tab&gt;word");
+ * blank lines and lines starting with '#' are skipped and duplicate words are dropped so every entry
+ * contributes full entropy.
+ */
+public final class Wordlist {
+
+    private final byte[] words;
+    private final int[] offsets;
+    private final boolean ascii;
+    private final boolean containsDigits;
+    private volatile Wordlist capitalized;
+
+    private Wordlist(byte[] words, int[] offsets) {
+        this.words = words;
+        this.offsets = offsets;
+        boolean allAscii = true;
+        boolean digits = false;
+        for (byte b : words) {
+            allAscii &= b >= 0;
+            digits |= b >= '0' && b <= '9';
+        }
+        this.ascii = allAscii;
+        this.containsDigits = digits;
+    }
+
+    /**
+     * Loads a wordlist file.
+     *
+     * @param path the file to read
+     * @return the wordlist
+     * @throws IOException if the file cannot be read
+     */
+    public static Wordlist load(Path path) throws IOException {
+        return parse(Files.readAllBytes(path));
+    }
+
+    /**
+     * Parses wordlist content. The array is compacted in place and must not be used afterwards.
+     *
+     * @param content the UTF-8 file content
+     * @return the wordlist
+     */
+    public static Wordlist parse(byte[] content) {
+        try {
+            StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(content));
+        } catch (CharacterCodingException e) {
+            throw new PasswordGenerationException("Wordlist is not valid UTF-8", e);
+        }
+
+        int[] offsets = new int[64];
+        int count = 0;
+        int write = 0;
+        int line = 0;
+        for (int start = 0; start < content.length; ) {
+            int end = start;
+            while (end < content.length && content[end] != '\n') {
+                end++;
+            }
+            line++;
+            int wordStart = skipWhitespace(content, start, end);
+            // EFF lists prefix each word with its dice roll
+            int afterDice = wordStart;
+            while (afterDice < end && content[afterDice] >= '1' && content[afterDice] <= '6') {
+                afterDice++;
+            }
+            if (afterDice > wordStart && afterDice < end && isWhitespace(content[afterDice])) {
+                wordStart = skipWhitespace(content, afterDice, end);
+            }
+            int wordEnd = end;
+            while (wordEnd > wordStart && isWhitespace(content[wordEnd - 1])) {
+                wordEnd--;
+            }
+            start = end + 1;
+
+            if (wordEnd == wordStart || content[wordStart] == '#') {
+                continue;
+            }
+            for (int i = wordStart; i < wordEnd; i++) {
+                if (isWhitespace(content[i])) {
+                    throw new PasswordGenerationException(
+                            String.format("Wordlist line %d contains more than one word", line));
+                }
+            }
+
+            // Earlier bytes are already consumed, so moving the word down never overwrites unread input
+            System.arraycopy(content, wordStart, content, write, wordEnd - wordStart);
+            if (count + 1 >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[count++] = write;
+            write += wordEnd - wordStart;
+            offsets[count] = write;
+        }
+
+        return deduplicate(Arrays.copyOf(content, write), offsets, count);
+    }
+
+    /**
+     * Returns the number of distinct words.
+     *
+     * @return the wordlist size
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns whether any word contains a decimal digit.
+     *
+     * @return true if a word contains a digit
+     */
+    public boolean containsDigits() {
+        return containsDigits;
+    }
+
+    /**
+     * Returns the number of UTF-16 characters in a word.
+     *
+     * @param index the word index
+     * @return the word length in characters
+     */
+    public int charLength(int index) {
+        int start = offsets[index];
+        int end = offsets[index + 1];
+        if (ascii) {
+            return end - start;
+        }
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            int b = words[i] & 0xFF;
+            if ((b & 0xC0) != 0x80) {
+                // Lead bytes start a character; four-byte sequences need a surrogate pair
+                length += b >= 0xF0 ? 2 : 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Decodes a word into the destination array.
+     *
+     * @param index       the word index
+     * @param destination the array to write into
+     * @param offset      the index of the first character
+     * @return the index after the last character written
+     */
+    public int copyWord(int index, char[] destination, int offset) {
+        int position = offset;
+        int end = offsets[index + 1];
+        for (int i = offsets[index]; i < end; ) {
+            int b = words[i] & 0xFF;
+            if (b < 0x80) {
+                destination[position++] = (char) b;
+                i++;
+            } else if (b < 0xE0) {
+                destination[position++] = (char) ((b & 0x1F) << 6 | words[i + 1] & 0x3F);
+                i += 2;
+            } else if (b < 0xF0) {
+                destination[position++] = (char) ((b & 0x0F) << 12 | (words[i + 1] & 0x3F) << 6 | words[i + 2] & 0x3F);
+                i += 3;
+            } else {
+                int codePoint = (b & 0x07) << 18 | (words[i + 1] & 0x3F) << 12
+                        | (words[i + 2] & 0x3F) << 6 | words[i + 3] & 0x3F;
+                destination[position++] = Character.highSurrogate(codePoint);
+                destination[position++] = Character.lowSurrogate(codePoint);
+                i += 4;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Returns a word as a String, for display and tests.
+     *
+     * @param index the word index
+     * @return the word
+     */
+    public String word(int index) {
+        return new String(words, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns this list with the first character of every word upper-cased. Words that become equal, such
+     * as "may" and "May", are kept once, so every entry still contributes full entropy. Built on first use.
+     *
+     * @return the capitalized wordlist
+     */
+    public Wordlist capitalized() {
+        Wordlist result = capitalized;
+        if (result == null) {
+            result = capitalize();
+            capitalized = result;
+        }
+        return result;
+    }
+
+    private Wordlist capitalize() {
+        int count = size();
+        ByteArrayOutputStream capitalizedWords = new ByteArrayOutputStream(words.length);
+        int[] capitalizedOffsets = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            String word = word(i);
+            String capitalizedWord = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+            capitalizedWords.writeBytes(capitalizedWord.getBytes(StandardCharsets.UTF_8));
+            capitalizedOffsets[i + 1] = capitalizedWords.size();
+        }
+        return deduplicate(capitalizedWords.toByteArray(), capitalizedOffsets, count);
+    }
+
+    /**
+     * Drops repeated words, keeping first occurrences, using an open-addressing table of word indexes
+     * that compares byte ranges directly.
+     */
+    private static Wordlist deduplicate(byte[] words, int[] offsets, int count) {
+        int[] table = new int[Integer.highestOneBit(Math.max(count, 1)) << 2];
+        int mask = table.length - 1;
+        byte[] unique = words;
+        int[] uniqueOffsets = new int[count + 1];
+        int uniqueCount = 0;
+        int write = 0;
+
+        for (int i = 0; i < count; i++) {
+            int start = offsets[i];
+            int end = offsets[i + 1];
+            int slot = hash(words, start, end) & mask;
+            boolean duplicate = false;
+            while (table[slot] != 0) {
+                int other = table[slot] - 1;
+                if (Arrays.equals(unique, uniqueOffsets[other], uniqueOffsets[other + 1], words, start, end)) {
+                    duplicate = true;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (duplicate) {
+                continue;
+            }
+            System.arraycopy(words, start, unique, write, end - start);
+            uniqueOffsets[uniqueCount] = write;
+            write += end - start;
+            uniqueOffsets[++uniqueCount] = write;
+            table[slot] = uniqueCount;
+        }
+
+        if (uniqueCount < 2) {
+            throw new PasswordGenerationException(
+                    String.format("Wordlist must contain at least 2 distinct words (found: %d)", uniqueCount));
+        }
+        return new Wordlist(Arrays.copyOf(unique, write), Arrays.copyOf(uniqueOffsets, uniqueCount + 1));
+    }
+
+    private static int hash(byte[] bytes, int start, int end) {
+        int hash = 0x811C9DC5;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ bytes[i]) * 0x01000193;
+        }
+        return hash ^ hash >>> 16;
+    }
+
+    private static int skipWhitespace(byte[] content, int position, int end) {
+        while (position < end && isWhitespace(content[position])) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
@@ -0,0 +1,32 @@
+package com.jstephenperry.randpassgenspring;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes each chunk as numbered lines ("1. password") to a character stream and flushes it,
+ * so output appears as soon as each chunk is generated.
+ */
+public class WriterPasswordSink implements PasswordSink {
+
+    private final Writer writer;
+    private final String lineSeparator = System.lineSeparator();
+
+    public WriterPasswordSink(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void accept(PasswordChunk chunk) throws IOException {
+        char[] characters = chunk.getCharacters();
+        int length = chunk.getPasswordLength();
+
+        for (int i = 0; i < chunk.getCount(); i++) {
+            writer.write(Long.toString(chunk.getFirstIndex() + i + 1));
+            writer.write(". ");
+            writer.write(characters, chunk.offset(i), length);
+            writer.write(lineSeparator);
+        }
+        writer.flush();
+    }
+}
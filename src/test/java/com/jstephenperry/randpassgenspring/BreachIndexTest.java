@@ -0,0 +1,121 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BreachIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLooksUpEveryIndexedHash() throws IOException {
+        TreeMap<String, Integer> corpus = new TreeMap<>();
+        for (int i = 0; i < 5000; i++) {
+            corpus.put(sha1Hex("password" + i), i + 1);
+        }
+        Path index = build(corpus);
+
+        try (BreachIndex breachIndex = BreachIndex.open(index)) {
+            assertEquals(5000, breachIndex.size());
+            for (int i = 0; i < 5000; i++) {
+                assertEquals(i + 1, breachIndex.count(sha1("password" + i)));
+            }
+            assertEquals(0, breachIndex.count(sha1("not-in-the-corpus")));
+        }
+    }
+
+    @Test
+    void testAcceptsCrLfLowerCaseAndMissingCounts() throws IOException {
+        Path corpus = tempDir.resolve("corpus.txt");
+        List<String> hashes = List.of(sha1Hex("alpha"), sha1Hex("beta"), sha1Hex("gamma")).stream().sorted().toList();
+        Files.writeString(corpus, hashes.get(0) + ":7\r\n" + hashes.get(1).toLowerCase() + "\r\n\r\n"
+                + hashes.get(2) + ":3", StandardCharsets.US_ASCII);
+        Path index = tempDir.resolve("corpus.idx");
+
+        assertEquals(3, BreachIndexBuilder.build(corpus, index));
+        try (BreachIndex breachIndex = BreachIndex.open(index)) {
+            assertEquals(7, breachIndex.count(HexFormat.of().parseHex(hashes.get(0))));
+            assertEquals(1, breachIndex.count(HexFormat.of().parseHex(hashes.get(1))));
+            assertEquals(3, breachIndex.count(HexFormat.of().parseHex(hashes.get(2))));
+        }
+    }
+
+    @Test
+    void testRejectsUnsortedAndMalformedCorpus() throws IOException {
+        Path corpus = tempDir.resolve("corpus.txt");
+        Path index = tempDir.resolve("corpus.idx");
+
+        Files.writeString(corpus, "FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF:1\n0000000000000000000000000000000000000000:1\n");
+        PasswordGenerationException unsorted =
+                assertThrows(PasswordGenerationException.class, () -> BreachIndexBuilder.build(corpus, index));
+        assertTrue(unsorted.getMessage().contains("not sorted"));
+
+        Files.writeString(corpus, "0000000000000000000000000000000000000000:1\nnot-a-hash\n");
+        PasswordGenerationException malformed =
+                assertThrows(PasswordGenerationException.class, () -> BreachIndexBuilder.build(corpus, index));
+        assertTrue(malformed.getMessage().contains("line 2"));
+        assertFalse(Files.exists(index));
+    }
+
+    @Test
+    void testRejectsOverlongLines() throws IOException {
+        Path corpus = tempDir.resolve("corpus.txt");
+        Path index = tempDir.resolve("corpus.idx");
+        String hash = sha1Hex("alpha");
+
+        // Counts beyond an int saturate rather than overflowing
+        Files.writeString(corpus, hash + ":99999999999\r\n", StandardCharsets.US_ASCII);
+        assertEquals(1, BreachIndexBuilder.build(corpus, index));
+
+        Files.writeString(corpus, hash + ":1\n" + hash + ":" + "1".repeat(5_000_000) + "\n", StandardCharsets.US_ASCII);
+        PasswordGenerationException overlong =
+                assertThrows(PasswordGenerationException.class, () -> BreachIndexBuilder.build(corpus, index));
+        assertTrue(overlong.getMessage().contains("line 2 is longer than 64 bytes"), overlong.getMessage());
+
+        Files.writeString(corpus, hash + " ".repeat(BreachIndexBuilder.MAX_LINE_LENGTH), StandardCharsets.US_ASCII);
+        assertThrows(PasswordGenerationException.class, () -> BreachIndexBuilder.build(corpus, index));
+    }
+
+    @Test
+    void testRejectsFileThatIsNotAnIndex() throws IOException {
+        Path file = tempDir.resolve("random.idx");
+        Files.writeString(file, "this is not a breach index at all");
+
+        assertThrows(PasswordGenerationException.class, () -> BreachIndex.open(file));
+    }
+
+    private Path build(TreeMap<String, Integer> corpus) throws IOException {
+        StringBuilder content = new StringBuilder();
+        corpus.forEach((hash, count) -> content.append(hash).append(':').append(count).append('\n'));
+        Path corpusFile = tempDir.resolve("corpus.txt");
+        Files.writeString(corpusFile, content, StandardCharsets.US_ASCII);
+        Path index = tempDir.resolve("corpus.idx");
+        BreachIndexBuilder.build(corpusFile, index);
+        return index;
+    }
+
+    static byte[] sha1(String password) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String sha1Hex(String password) {
+        return HexFormat.of().withUpperCase().formatHex(sha1(password));
+    }
+}
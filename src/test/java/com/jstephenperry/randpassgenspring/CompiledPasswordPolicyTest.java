@@ -0,0 +1,128 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledPasswordPolicyTest {
+
+    private final EntropyBuffer entropy = new EntropyBuffer(new SecureRandomProvider());
+
+    @Test
+    void testMinimumsAreAlwaysMet() {
+        CompiledPasswordPolicy policy = policy(EnumSet.allOf(CharacterClass.class), null, "", false,
+                Map.of(CharacterClass.DIGIT, 2, CharacterClass.SYMBOL, 3, CharacterClass.UPPER, 1));
+
+        for (int i = 0; i < 1000; i++) {
+            String password = generate(policy, 8);
+            assertTrue(password.chars().filter(Character::isDigit).count() >= 2, password);
+            assertTrue(password.chars().filter(c -> !Character.isLetterOrDigit(c)).count() >= 3, password);
+            assertTrue(password.chars().filter(Character::isUpperCase).count() >= 1, password);
+        }
+    }
+
+    @Test
+    void testExclusionsAndCustomSymbolsAreRespected() {
+        CompiledPasswordPolicy policy = policy(EnumSet.allOf(CharacterClass.class), "#$%", "abc", true,
+                Map.of(CharacterClass.SYMBOL, 1));
+
+        String alphabet = new String(policy.toCharArray());
+        for (char c : "abcIl1O0|!@".toCharArray()) {
+            assertEquals(-1, alphabet.indexOf(c), "Unexpected character in alphabet: " + c);
+        }
+        assertEquals(22 + 24 + 8 + 3, policy.alphabetSize());
+        for (int i = 0; i < 200; i++) {
+            String password = generate(policy, 16);
+            assertTrue(password.matches("^[d-km-zA-HJ-NP-Z2-9#$%]{16}$"), password);
+        }
+    }
+
+    @Test
+    void testEntropyIsExactForSmallPolicy() {
+        // Strings of length 3 over 10 digits and 2 symbols with at least one of each: 12^3 - 10^3 - 2^3
+        CompiledPasswordPolicy policy = policy(EnumSet.of(CharacterClass.DIGIT, CharacterClass.SYMBOL), "!@", "",
+                false, Map.of(CharacterClass.DIGIT, 1, CharacterClass.SYMBOL, 1));
+
+        assertEquals(Math.log(720) / Math.log(2), policy.entropyBits(3), 1e-9);
+    }
+
+    @Test
+    void testEntropyWithoutMinimumsMatchesAlphabet() {
+        CompiledPasswordPolicy policy = PasswordPolicy.forComplexity(PasswordComplexityEnum.HIGH).compile();
+
+        assertEquals(PasswordStrength.calculateEntropy(84, 16), policy.entropyBits(16), 1e-9);
+        assertEquals(policy.entropyBits(16), PasswordStrength.forPolicy(16, policy).getEntropyBits(), 1e-12);
+    }
+
+    @Test
+    void testGenerationIsUniformOverValidPasswords() {
+        // Digits limited to 0 and 1, one symbol, at least one symbol in 3 characters: 3^3 - 2^3 = 19 passwords
+        CompiledPasswordPolicy policy = policy(EnumSet.of(CharacterClass.DIGIT, CharacterClass.SYMBOL), "!",
+                "23456789", false, Map.of(CharacterClass.SYMBOL, 1));
+        int samples = 19_000;
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < samples; i++) {
+            counts.merge(generate(policy, 3), 1, Integer::sum);
+        }
+
+        assertEquals(19, counts.size(), "Unexpected passwords: " + counts.keySet());
+        // Each count is binomial with mean 1000 and standard deviation ~31; allow six deviations
+        counts.forEach((password, count) ->
+                assertTrue(Math.abs(count - 1000) < 190, password + " occurred " + count + " times"));
+    }
+
+    @Test
+    void testCompiledPoliciesAreCached() {
+        PasswordPolicy first = new PasswordPolicy(Set.of(CharacterClass.LOWER, CharacterClass.DIGIT), null, "", false,
+                Map.of(CharacterClass.DIGIT, 1));
+        PasswordPolicy second = new PasswordPolicy(EnumSet.of(CharacterClass.DIGIT, CharacterClass.LOWER), null, "",
+                false, Map.of(CharacterClass.DIGIT, 1));
+
+        assertSame(first.compile(), second.compile());
+    }
+
+    @Test
+    void testInvalidPoliciesAreRejected() {
+        assertThrows(PasswordGenerationException.class, () -> policy(EnumSet.of(CharacterClass.DIGIT), null,
+                "0123456789", false, Map.of(CharacterClass.DIGIT, 1)));
+        assertThrows(PasswordGenerationException.class, () -> policy(EnumSet.of(CharacterClass.LOWER), null, "",
+                false, Map.of(CharacterClass.DIGIT, 1)));
+        assertThrows(PasswordGenerationException.class, () -> policy(EnumSet.of(CharacterClass.SYMBOL), "ab", "",
+                false, Map.of()));
+
+        CompiledPasswordPolicy policy = policy(EnumSet.allOf(CharacterClass.class), null, "", false,
+                Map.of(CharacterClass.DIGIT, 5, CharacterClass.SYMBOL, 5));
+        assertThrows(PasswordGenerationException.class, () -> policy.entropyBits(9));
+    }
+
+    @Test
+    void testLongPasswordsWithMinimums() {
+        CompiledPasswordPolicy policy = policy(EnumSet.allOf(CharacterClass.class), null, "", false,
+                Map.of(CharacterClass.LOWER, 1, CharacterClass.UPPER, 1, CharacterClass.DIGIT, 1,
+                        CharacterClass.SYMBOL, 1));
+
+        String password = generate(policy, PasswordEngine.MAX_PASSWORD_LENGTH);
+        assertEquals(PasswordEngine.MAX_PASSWORD_LENGTH, password.length());
+        // Minimums barely constrain long passwords but noticeably reduce the entropy of short ones
+        assertEquals(PasswordStrength.calculateEntropy(84, PasswordEngine.MAX_PASSWORD_LENGTH),
+                policy.entropyBits(PasswordEngine.MAX_PASSWORD_LENGTH), 1e-6);
+        assertTrue(policy.entropyBits(8) < PasswordStrength.calculateEntropy(84, 8) - 0.5);
+    }
+
+    private static CompiledPasswordPolicy policy(Set<CharacterClass> classes, String symbols, String exclude,
+                                                 boolean excludeAmbiguous, Map<CharacterClass, Integer> minimums) {
+        return new PasswordPolicy(classes, symbols, exclude, excludeAmbiguous, minimums).compile();
+    }
+
+    private String generate(CompiledPasswordPolicy policy, int length) {
+        char[] password = new char[length];
+        policy.fill(password, 0, length, entropy);
+        return new String(password);
+    }
+}
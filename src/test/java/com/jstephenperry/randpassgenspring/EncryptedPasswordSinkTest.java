@@ -0,0 +1,287 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncryptedPasswordSinkTest {
+
+    private static final String KEYSTORE_PASSWORD = "changeit";
+
+    @TempDir
+    Path tempDir;
+
+    private final SecureRandomProvider provider = new SecureRandomProvider();
+
+    @Test
+    void testExportRoundTripsThroughReader() throws Exception {
+        SecretKey key = newKey();
+        Path target = tempDir.resolve("export.rpgx");
+        List<String> generated = export(target, key, 5000, 24);
+
+        List<String> read = readAll(target, key);
+        assertEquals(generated, read);
+        assertEquals(5000, read.size());
+
+        byte[] file = Files.readAllBytes(target);
+        // 2520 records of 26 bytes fill a 64 KiB frame, leaving 2480 for the last one
+        assertEquals(EncryptedExportFormat.HEADER_LENGTH + 2 * (4 + 16) + 5000 * 26, file.length);
+        assertFalse(contains(file, generated.get(0).getBytes(StandardCharsets.US_ASCII)), "Plaintext in export");
+        try (var files = Files.list(tempDir)) {
+            assertEquals(List.of(target), files.toList());
+        }
+    }
+
+    @Test
+    void testLargeExportSpansSeveralFrames() throws Exception {
+        SecretKey key = newKey();
+        Path target = tempDir.resolve("large.rpgx");
+        List<String> generated = export(target, key, 3000, 1024);
+
+        List<String> read = new ArrayList<>();
+        try (EncryptedPasswordReader reader = new EncryptedPasswordReader(target, key)) {
+            assertEquals(3000, reader.read((ascii, offset, length) ->
+                    read.add(new String(ascii, offset, length, StandardCharsets.US_ASCII))));
+            // 63 records of 1026 bytes fit a 64 KiB frame
+            assertEquals(48, reader.getFrameCount());
+        }
+        assertEquals(generated, read);
+    }
+
+    @Test
+    void testEmptyExportIsReadable() throws Exception {
+        SecretKey key = newKey();
+        Path target = tempDir.resolve("empty.rpgx");
+        try (EncryptedPasswordSink sink = sink(target, key)) {
+            sink.commit();
+        }
+
+        assertEquals(List.of(), readAll(target, key));
+    }
+
+    @Test
+    void testModifiedByteFailsAuthentication() throws Exception {
+        SecretKey key = newKey();
+        Path target = tempDir.resolve("modified.rpgx");
+        export(target, key, 100, 16);
+        byte[] file = Files.readAllBytes(target);
+        file[file.length - 40] ^= 1;
+        Files.write(target, file);
+
+        IOException e = assertThrows(IOException.class, () -> readAll(target, key));
+        assertTrue(e.getMessage().contains("failed authentication"), e.getMessage());
+    }
+
+    @Test
+    void testTruncationIsDetected() throws Exception {
+        SecretKey key = newKey();
+        Path target = tempDir.resolve("truncated.rpgx");
+        export(target, key, 3000, 1024);
+        byte[] file = Files.readAllBytes(target);
+        int firstFrameEnd = EncryptedExportFormat.HEADER_LENGTH + 4
+                + ByteBuffer.wrap(file, EncryptedExportFormat.HEADER_LENGTH, 4).getInt();
+
+        // Cut at a frame boundary, the remaining last frame is not marked as last
+        Files.write(target, Arrays.copyOf(file, firstFrameEnd));
+        assertThrows(IOException.class, () -> readAll(target, key));
+
+        Files.write(target, Arrays.copyOf(file, firstFrameEnd + 100));
+        IOException e = assertThrows(IOException.class, () -> readAll(target, key));
+        assertTrue(e.getMessage().contains("truncated"), e.getMessage());
+    }
+
+    @Test
+    void testAppendedDataIsDetected() throws Exception {
+        SecretKey key = newKey();
+        Path target = tempDir.resolve("appended.rpgx");
+        export(target, key, 100, 16);
+        try (OutputStream out = Files.newOutputStream(target, StandardOpenOption.APPEND)) {
+            out.write(new byte[]{0, 0, 0, 16});
+            out.write(new byte[16]);
+        }
+
+        assertThrows(IOException.class, () -> readAll(target, key));
+    }
+
+    @Test
+    void testWrongKeyIsRejected() throws Exception {
+        Path target = tempDir.resolve("export.rpgx");
+        export(target, newKey(), 10, 16);
+
+        IOException e = assertThrows(IOException.class, () -> readAll(target, newKey()));
+        assertTrue(e.getMessage().contains("different key"), e.getMessage());
+    }
+
+    @Test
+    void testClosingWithoutCommitLeavesNoFile() throws Exception {
+        Path target = tempDir.resolve("cancelled.rpgx");
+        PasswordBatchPipeline pipeline = new PasswordBatchPipeline(provider, 256, 2);
+
+        try (EncryptedPasswordSink sink = sink(target, newKey())) {
+            pipeline.run(2000, 16, PasswordComplexityEnum.MEDIUM, sink, BatchProgressListener.NONE);
+        }
+
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testFailedConstructionLeavesNoFile() throws Exception {
+        Path target = tempDir.resolve("failed.rpgx");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> new EncryptedPasswordSink(
+                target, false, newKey(), provider, runnable -> {
+                    throw new IllegalStateException("No threads left");
+                }));
+        assertEquals("No threads left", e.getMessage());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testClosingWithQueuedFramesLeavesNoFile() throws Exception {
+        Path target = tempDir.resolve("stalled.rpgx");
+        PasswordChunk chunk = new PasswordChunk(2500, 24);
+        chunk.reset(0, 2500);
+        PasswordAlphabet.forComplexity(PasswordComplexityEnum.HIGH)
+                .fill(chunk.getCharacters(), 0, 2500 * 24, new EntropyBuffer(provider));
+
+        // An encryption thread that exits at once leaves every submitted frame in the queue
+        try (EncryptedPasswordSink sink = new EncryptedPasswordSink(target, false, newKey(), provider,
+                runnable -> new Thread(() -> { }))) {
+            sink.accept(chunk);
+            sink.accept(chunk);
+        }
+
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testDataKeyCanBeDestroyed() {
+        byte[] bytes = new byte[EncryptedExportFormat.DATA_KEY_LENGTH];
+        Arrays.fill(bytes, (byte) 7);
+        EncryptedExportFormat.DataKey key = new EncryptedExportFormat.DataKey(bytes);
+        assertArrayEquals(bytes, key.getEncoded());
+        assertNotSame(key.getEncoded(), key.getEncoded());
+
+        key.destroy();
+        assertTrue(key.isDestroyed());
+        assertThrows(IllegalStateException.class, key::getEncoded);
+    }
+
+    @Test
+    void testKeyIsLoadedFromKeystore() throws Exception {
+        SecretKey key = newKey();
+        Path keystore = keystore(key, "export");
+        ExportProperties properties = new ExportProperties(keystore.toString(), KEYSTORE_PASSWORD, "export");
+
+        assertArrayEquals(key.getEncoded(), ExportKeyStore.load(properties, null).getEncoded());
+        PasswordGenerationException missing = assertThrows(PasswordGenerationException.class,
+                () -> ExportKeyStore.load(properties, "other"));
+        assertTrue(missing.getMessage().contains("no key named 'other'"), missing.getMessage());
+        assertThrows(PasswordGenerationException.class, () -> ExportKeyStore.load(
+                new ExportProperties(keystore.toString(), "wrong-password", "export"), null));
+        assertThrows(PasswordGenerationException.class, () -> ExportKeyStore.load(ExportProperties.defaults(), null));
+    }
+
+    @Test
+    void testCommandsExportAndDecrypt() throws Exception {
+        Path keystore = keystore(newKey(), "provisioning");
+        PasswordEngine engine = new PasswordEngine(provider);
+        RandomPasswordGenerator generator = new RandomPasswordGenerator(provider, engine, new PasswordPool(engine),
+                PasswordMetrics.noop(), new PasswordPolicies(PasswordPolicyProperties.defaults()), null,
+                BatchProperties.defaults(), new ExportProperties(keystore.toString(), KEYSTORE_PASSWORD, "export"));
+        Path encrypted = tempDir.resolve("export.rpgx");
+        Path decrypted = tempDir.resolve("export.txt");
+
+        String exported = generator.exportEncryptedPasswords(2500, 20, "HIGH", encrypted.toString(), 2, false, true,
+                "provisioning");
+        String verified = generator.readEncryptedPasswords(encrypted.toString(), null, false, "provisioning");
+        String read = generator.readEncryptedPasswords(encrypted.toString(), decrypted.toString(), false,
+                "provisioning");
+
+        assertTrue(exported.startsWith("Exported 2500 encrypted passwords"), exported);
+        assertTrue(verified.startsWith("Verified 2500 passwords in 1 frames"), verified);
+        assertTrue(read.startsWith("Decrypted 2500 passwords"), read);
+        List<String> lines = Files.readAllLines(decrypted, StandardCharsets.US_ASCII);
+        assertEquals(2500, lines.size());
+        assertEquals(2500, lines.stream().distinct().count());
+        lines.forEach(line -> assertEquals(20, line.length(), line));
+    }
+
+    private List<String> export(Path target, SecretKey key, int count, int length) throws IOException {
+        PasswordBatchPipeline pipeline = new PasswordBatchPipeline(provider, 500, 2);
+        List<String> generated = new ArrayList<>(count);
+        try (EncryptedPasswordSink sink = sink(target, key)) {
+            pipeline.run(count, length, PasswordComplexityEnum.HIGH, chunk -> {
+                for (int i = 0; i < chunk.getCount(); i++) {
+                    generated.add(new String(chunk.getCharacters(), chunk.offset(i), length));
+                }
+                sink.accept(chunk);
+            }, BatchProgressListener.NONE);
+            sink.commit();
+        }
+        return generated;
+    }
+
+    private EncryptedPasswordSink sink(Path target, SecretKey key) throws IOException {
+        return new EncryptedPasswordSink(target, false, key, provider, Executors.defaultThreadFactory());
+    }
+
+    private static List<String> readAll(Path file, SecretKey key) throws IOException {
+        List<String> passwords = new ArrayList<>();
+        try (EncryptedPasswordReader reader = new EncryptedPasswordReader(file, key)) {
+            reader.read((ascii, offset, length) ->
+                    passwords.add(new String(ascii, offset, length, StandardCharsets.US_ASCII)));
+        }
+        return passwords;
+    }
+
+    private static SecretKey newKey() throws GeneralSecurityException {
+        KeyGenerator generator = KeyGenerator.getInstance("AES");
+        generator.init(256);
+        return generator.generateKey();
+    }
+
+    private Path keystore(SecretKey key, String alias) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        keyStore.setEntry(alias, new KeyStore.SecretKeyEntry(key),
+                new KeyStore.PasswordProtection(KEYSTORE_PASSWORD.toCharArray()));
+        Path path = tempDir.resolve("export.p12");
+        try (OutputStream out = Files.newOutputStream(path)) {
+            keyStore.store(out, KEYSTORE_PASSWORD.toCharArray());
+        }
+        return path;
+    }
+
+    private static boolean contains(byte[] haystack, byte[] needle) {
+        for (int i = 0; i + needle.length <= haystack.length; i++) {
+            if (Arrays.equals(haystack, i, i + needle.length, needle, 0, needle.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,99 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntropyBufferTest {
+
+    @Test
+    void testSourceIsCalledOncePerBlock() {
+        AtomicInteger refills = new AtomicInteger();
+        SecureRandom secureRandom = new SecureRandom();
+        EntropyBuffer entropy = new EntropyBuffer(bytes -> {
+            refills.incrementAndGet();
+            secureRandom.nextBytes(bytes);
+        }, 64);
+
+        for (int i = 0; i < 64; i++) {
+            entropy.nextByte();
+        }
+        assertEquals(1, refills.get());
+
+        entropy.nextByte();
+        assertEquals(2, refills.get());
+    }
+
+    @Test
+    void testNextIndexStaysWithinBound() {
+        EntropyBuffer entropy = new EntropyBuffer(new SecureRandom()::nextBytes);
+        int[] bounds = {1, 2, 10, 52, 84, 255, 256, 257, 7776, 1_000_000};
+
+        for (int bound : bounds) {
+            for (int i = 0; i < 1000; i++) {
+                int index = entropy.nextIndex(bound);
+                assertTrue(index >= 0 && index < bound, "Index " + index + " out of range for bound " + bound);
+            }
+        }
+    }
+
+    @Test
+    void testNextIndexRejectsOutOfRangeValues() {
+        // A source that always yields 0xFF forces rejection until a smaller value appears
+        AtomicInteger calls = new AtomicInteger();
+        EntropyBuffer entropy = new EntropyBuffer(bytes -> {
+            byte value = calls.getAndIncrement() == 0 ? (byte) 0xFF : (byte) 0x01;
+            java.util.Arrays.fill(bytes, value);
+        }, 8);
+
+        assertEquals(1, entropy.nextIndex(10));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testPooledBuffersAreSharedAcrossThreads() throws InterruptedException {
+        AtomicInteger refills = new AtomicInteger();
+        SecureRandom secureRandom = new SecureRandom();
+        EntropyBufferPool pool = new EntropyBufferPool(bytes -> {
+            refills.incrementAndGet();
+            secureRandom.nextBytes(bytes);
+        }, 4);
+
+        for (int i = 0; i < 100; i++) {
+            Thread.ofVirtual().start(() -> {
+                EntropyBuffer entropy = pool.acquire();
+                for (int j = 0; j < 16; j++) {
+                    entropy.nextByte();
+                }
+                pool.release(entropy);
+            }).join();
+        }
+        assertEquals(1, refills.get());
+    }
+
+    @Test
+    void testBuffersReturnedToFullPoolAreWiped() {
+        EntropyBufferPool pool = new EntropyBufferPool(new SecureRandom()::nextBytes, 1);
+        EntropyBuffer first = pool.acquire();
+        EntropyBuffer second = pool.acquire();
+        assertNotSame(first, second);
+        first.nextByte();
+        second.nextByte();
+
+        pool.release(first);
+        pool.release(second);
+        assertEquals(0, second.remaining());
+        assertSame(first, pool.acquire());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new EntropyBuffer(bytes -> { }, 2));
+        EntropyBuffer entropy = new EntropyBuffer(new SecureRandom()::nextBytes);
+        assertThrows(IllegalArgumentException.class, () -> entropy.nextIndex(0));
+        assertThrows(IllegalArgumentException.class, () -> new EntropyBufferPool(bytes -> { }, 0));
+    }
+}
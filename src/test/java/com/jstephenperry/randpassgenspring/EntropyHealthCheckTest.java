@@ -0,0 +1,77 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntropyHealthCheckTest {
+
+    @Test
+    void testCutoffsMatchSp80090bFormulas() {
+        // RCT: 1 + ceil(40 / 8); APT: 1 + critbinom(512, 2^-8, 1 - 2^-40)
+        assertEquals(6, EntropyHealthCheck.RCT_CUTOFF);
+        assertEquals(20, EntropyHealthCheck.APT_CUTOFF);
+    }
+
+    @Test
+    void testRandomBytesPass() {
+        EntropyHealthCheck check = new EntropyHealthCheck();
+        SecureRandom random = new SecureRandom();
+        byte[] block = new byte[4096];
+
+        for (int i = 0; i < 1024; i++) {
+            random.nextBytes(block);
+            check.check(block);
+        }
+    }
+
+    @Test
+    void testRepetitionCountTestCatchesStuckSource() {
+        EntropyHealthCheck check = new EntropyHealthCheck();
+        check.check(new byte[]{1, 7, 7, 7, 7, 7, 2});
+
+        // The run continues across calls
+        check.check(new byte[]{9, 9, 9});
+        PasswordGenerationException e =
+                assertThrows(PasswordGenerationException.class, () -> check.check(new byte[]{9, 9, 9}));
+        assertTrue(e.getMessage().contains("repetition count"), e.getMessage());
+
+        // A failure resets the state
+        check.check(new byte[]{9, 9, 9, 9, 9});
+    }
+
+    @Test
+    void testAdaptiveProportionTestCatchesBiasedWindow() {
+        EntropyHealthCheck check = new EntropyHealthCheck();
+        byte[] window = new byte[EntropyHealthCheck.APT_WINDOW];
+        for (int i = 0; i < window.length; i++) {
+            window[i] = (byte) (i % 2 == 0 ? 42 : i);
+        }
+
+        PasswordGenerationException e = assertThrows(PasswordGenerationException.class, () -> check.check(window));
+        assertTrue(e.getMessage().contains("adaptive proportion"), e.getMessage());
+
+        // One short of the cutoff in a window passes
+        byte[] borderline = new byte[EntropyHealthCheck.APT_WINDOW];
+        for (int i = 0; i < borderline.length; i++) {
+            borderline[i] = (byte) (i < (EntropyHealthCheck.APT_CUTOFF - 1) * 2 && i % 2 == 0 ? 42 : 50 + i % 200);
+        }
+        new EntropyHealthCheck().check(borderline);
+    }
+
+    @Test
+    void testStartupRejectsBrokenSource() {
+        SecureRandom zeros = new SecureRandom() {
+            @Override
+            public void nextBytes(byte[] bytes) {
+            }
+        };
+
+        IllegalStateException e =
+                assertThrows(IllegalStateException.class, () -> EntropyHealthCheck.startup(zeros, "zeros"));
+        assertTrue(e.getMessage().contains("zeros"), e.getMessage());
+        EntropyHealthCheck.startup(new SecureRandom(), "default");
+    }
+}
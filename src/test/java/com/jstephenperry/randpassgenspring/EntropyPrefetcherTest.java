@@ -0,0 +1,152 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntropyPrefetcherTest {
+
+    private static final int BLOCK_SIZE = 64;
+
+    @Test
+    void testBlocksAreTakenInOrderAndSlotsZeroed() throws InterruptedException {
+        Semaphore permits = new Semaphore(4);
+        List<byte[]> filledSlots = new ArrayList<>();
+        AtomicLong counter = new AtomicLong();
+        try (EntropyPrefetcher prefetcher = new EntropyPrefetcher(bytes -> {
+            permits.acquireUninterruptibly();
+            ByteBuffer.wrap(bytes).putLong(counter.incrementAndGet());
+            synchronized (filledSlots) {
+                filledSlots.add(bytes);
+            }
+        }, 8, BLOCK_SIZE, Thread::new)) {
+            awaitAvailable(prefetcher, 4);
+
+            byte[] block = new byte[BLOCK_SIZE];
+            for (long expected = 1; expected <= 4; expected++) {
+                assertTrue(prefetcher.take(block));
+                assertEquals(expected, ByteBuffer.wrap(block).getLong());
+                synchronized (filledSlots) {
+                    assertArrayEquals(new byte[BLOCK_SIZE], filledSlots.get((int) expected - 1),
+                            "A taken slot must be zeroed");
+                }
+            }
+
+            // The producer is stalled, so the ring is empty and the caller must draw itself
+            assertFalse(prefetcher.take(block));
+            assertEquals(4, prefetcher.getHitCount());
+            assertEquals(1, prefetcher.getMissCount());
+            permits.release(1000);
+        }
+    }
+
+    @Test
+    void testSmallRequestsAreNotServed() throws InterruptedException {
+        try (EntropyPrefetcher prefetcher = new EntropyPrefetcher(bytes -> bytes[0] = 1, 4, BLOCK_SIZE, Thread::new)) {
+            awaitAvailable(prefetcher, 4);
+
+            assertFalse(prefetcher.take(new byte[BLOCK_SIZE - 1]));
+            byte[] large = new byte[BLOCK_SIZE * 2 + 8];
+            assertTrue(prefetcher.take(large));
+            assertEquals(1, large[0]);
+            assertEquals(1, large[BLOCK_SIZE]);
+            assertEquals(1, large[BLOCK_SIZE * 2]);
+        }
+    }
+
+    @Test
+    void testConcurrentConsumersTakeEveryBlockOnce() throws InterruptedException {
+        AtomicLong counter = new AtomicLong();
+        Set<Long> taken = ConcurrentHashMap.newKeySet();
+        int[] duplicates = {0};
+        try (EntropyPrefetcher prefetcher = new EntropyPrefetcher(
+                bytes -> ByteBuffer.wrap(bytes).putLong(counter.incrementAndGet()), 16, BLOCK_SIZE, Thread::new)) {
+            List<Thread> consumers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                consumers.add(Thread.ofPlatform().start(() -> {
+                    byte[] block = new byte[BLOCK_SIZE];
+                    for (int took = 0; took < 5000; ) {
+                        if (prefetcher.take(block)) {
+                            if (!taken.add(ByteBuffer.wrap(block).getLong())) {
+                                synchronized (duplicates) {
+                                    duplicates[0]++;
+                                }
+                            }
+                            took++;
+                        } else {
+                            Thread.onSpinWait();
+                        }
+                    }
+                }));
+            }
+            for (Thread consumer : consumers) {
+                consumer.join();
+            }
+        }
+
+        assertEquals(0, duplicates[0], "A block was handed out twice");
+        assertEquals(20000, taken.size());
+    }
+
+    @Test
+    void testCloseZeroesUntakenBlocks() throws InterruptedException {
+        Set<byte[]> slots = ConcurrentHashMap.newKeySet();
+        EntropyPrefetcher prefetcher = new EntropyPrefetcher(bytes -> {
+            bytes[0] = 7;
+            slots.add(bytes);
+        }, 8, BLOCK_SIZE, Thread::new);
+        awaitAvailable(prefetcher, 8);
+
+        prefetcher.close();
+
+        for (byte[] slot : slots) {
+            assertArrayEquals(new byte[BLOCK_SIZE], slot);
+        }
+        assertFalse(prefetcher.take(new byte[BLOCK_SIZE]));
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new EntropyPrefetcher(bytes -> { }, 6, BLOCK_SIZE, Thread::new));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EntropyPrefetcher(bytes -> { }, 8, 2, Thread::new));
+    }
+
+    @Test
+    void testProviderServesPrefetchedBlocks() throws InterruptedException {
+        SecureRandomProperties properties = SecureRandomProperties.defaults()
+                .withPrefetch(new SecureRandomProperties.Prefetch(true, 8, EntropyBuffer.DEFAULT_SIZE));
+        SecureRandomProvider provider = new SecureRandomProvider(properties);
+        try {
+            Set<String> blocks = new HashSet<>();
+            byte[] block = new byte[EntropyBuffer.DEFAULT_SIZE];
+            for (int i = 0; i < 50; i++) {
+                provider.nextBytes(block);
+                assertTrue(blocks.add(new String(block, StandardCharsets.ISO_8859_1)));
+                Thread.sleep(2);
+            }
+            assertTrue(provider.getPrefetchHitCount() > 0);
+            assertEquals(50, provider.getPrefetchHitCount() + provider.getPrefetchMissCount());
+        } finally {
+            provider.close();
+        }
+    }
+
+    private static void awaitAvailable(EntropyPrefetcher prefetcher, int blocks) throws InterruptedException {
+        for (int i = 0; i < 500 && prefetcher.available() < blocks; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(blocks, prefetcher.available());
+    }
+}
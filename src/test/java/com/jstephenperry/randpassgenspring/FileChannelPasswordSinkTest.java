@@ -0,0 +1,88 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileChannelPasswordSinkTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SecureRandomProvider provider = new SecureRandomProvider();
+
+    @Test
+    void testExportWritesNewlineDelimitedPasswords() throws IOException {
+        Path target = tempDir.resolve("export.txt");
+        PasswordBatchPipeline pipeline = new PasswordBatchPipeline(provider, 500, 2);
+
+        try (FileChannelPasswordSink sink = new FileChannelPasswordSink(target, true)) {
+            pipeline.run(5000, 24, PasswordComplexityEnum.HIGH, sink, BatchProgressListener.NONE);
+            sink.commit();
+        }
+
+        List<String> lines = Files.readAllLines(target, StandardCharsets.US_ASCII);
+        assertEquals(5000, lines.size());
+        for (String line : lines) {
+            assertEquals(24, line.length(), "Unexpected line: " + line);
+        }
+        assertEquals(5000L * 25, Files.size(target));
+        assertOnlyFile(target);
+    }
+
+    @Test
+    void testUncommittedExportLeavesNoFiles() throws IOException {
+        Path target = tempDir.resolve("aborted.txt");
+        PasswordBatchPipeline pipeline = new PasswordBatchPipeline(provider, 100, 1);
+
+        try (FileChannelPasswordSink sink = new FileChannelPasswordSink(target, false)) {
+            pipeline.run(1000, 16, PasswordComplexityEnum.LOW, sink, BatchProgressListener.NONE);
+        }
+
+        assertFalse(Files.exists(target));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count(), "Temporary file should be removed");
+        }
+    }
+
+    @Test
+    void testCommitReplacesExistingFile() throws IOException {
+        Path target = tempDir.resolve("existing.txt");
+        Files.writeString(target, "old contents\n");
+        PasswordBatchPipeline pipeline = new PasswordBatchPipeline(provider, 10, 1);
+
+        try (FileChannelPasswordSink sink = new FileChannelPasswordSink(target, false)) {
+            pipeline.run(3, 8, PasswordComplexityEnum.MEDIUM, sink, BatchProgressListener.NONE);
+            sink.commit();
+        }
+
+        List<String> lines = Files.readAllLines(target, StandardCharsets.US_ASCII);
+        assertEquals(3, lines.size());
+        assertTrue(lines.stream().allMatch(line -> line.matches("^[a-zA-Z0-9]{8}$")));
+        assertOnlyFile(target);
+    }
+
+    @Test
+    void testFailedConstructionLeavesNoFiles() throws IOException {
+        Path target = tempDir.resolve("failed.txt");
+
+        assertThrows(IllegalArgumentException.class, () -> new FileChannelPasswordSink(target, false, -1));
+
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count(), "Temporary file should be removed");
+        }
+    }
+
+    private void assertOnlyFile(Path target) throws IOException {
+        try (var files = Files.list(tempDir)) {
+            assertEquals(List.of(target), files.toList());
+        }
+    }
+}
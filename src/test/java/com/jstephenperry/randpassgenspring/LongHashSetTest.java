@@ -0,0 +1,55 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void testAddReportsNewValuesOnly() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertTrue(set.add(42));
+        assertTrue(set.add(0));
+        assertTrue(set.add(-1));
+        assertFalse(set.add(42));
+        assertFalse(set.add(0));
+
+        assertEquals(3, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-1));
+        assertFalse(set.contains(7));
+    }
+
+    @Test
+    void testGrowsBeyondExpectedSize() {
+        LongHashSet set = new LongHashSet(16);
+        SplittableRandom random = new SplittableRandom(1);
+        long[] values = new long[100_000];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong();
+            assertTrue(set.add(values[i]));
+        }
+        assertEquals(values.length, set.size());
+        for (long value : values) {
+            assertTrue(set.contains(value));
+            assertFalse(set.add(value));
+        }
+    }
+
+    @Test
+    void testPresizedSetUsesAboutTenBytesPerValue() {
+        LongHashSet set = new LongHashSet(1_000_000);
+        SplittableRandom random = new SplittableRandom(2);
+        for (int i = 0; i < 1_000_000; i++) {
+            set.add(random.nextLong());
+        }
+
+        assertEquals(1_000_000, set.size());
+        assertTrue(set.memoryBytes() <= 10_000_016, "Unexpected memory use " + set.memoryBytes());
+    }
+}
@@ -0,0 +1,50 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutputStreamPasswordSinkTest {
+
+    private final SecureRandomProvider provider = new SecureRandomProvider();
+
+    @Test
+    void testLinesFormatWritesOnePasswordPerLine() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        OutputStreamPasswordSink sink = new OutputStreamPasswordSink(output, OutputStreamPasswordSink.Format.LINES);
+
+        new PasswordBatchPipeline(provider, 100, 2)
+                .run(1000, 10, PasswordComplexityEnum.MEDIUM, sink, BatchProgressListener.NONE);
+        sink.finish();
+
+        assertEquals(1000 * 11, output.size());
+        for (String line : output.toString(StandardCharsets.US_ASCII).split("\n")) {
+            assertTrue(line.matches("^[a-zA-Z0-9]{10}$"), "Unexpected line: " + line);
+        }
+    }
+
+    @Test
+    void testJsonArrayFormatSeparatesChunks() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        OutputStreamPasswordSink sink =
+                new OutputStreamPasswordSink(output, OutputStreamPasswordSink.Format.JSON_ARRAY);
+
+        new PasswordBatchPipeline(provider, 2, 1)
+                .run(5, 8, PasswordComplexityEnum.LOW, sink, BatchProgressListener.NONE);
+        sink.finish();
+
+        assertTrue(output.toString(StandardCharsets.US_ASCII).matches("^\\[\"[a-zA-Z]{8}\"(,\"[a-zA-Z]{8}\"){4}]$"));
+    }
+
+    @Test
+    void testJsonArrayFormatWithoutPasswordsIsEmptyArray() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new OutputStreamPasswordSink(output, OutputStreamPasswordSink.Format.JSON_ARRAY).finish();
+
+        assertEquals("[]", output.toString(StandardCharsets.US_ASCII));
+    }
+}
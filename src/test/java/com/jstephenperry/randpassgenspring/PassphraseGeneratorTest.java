@@ -0,0 +1,119 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PassphraseGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private PassphraseGenerator generator;
+    private Path wordlistFile;
+
+    @BeforeEach
+    void setup() throws IOException {
+        // 676 distinct three-letter words "waa" to "wzz"
+        StringBuilder content = new StringBuilder();
+        for (char first = 'a'; first <= 'z'; first++) {
+            for (char second = 'a'; second <= 'z'; second++) {
+                content.append('w').append(first).append(second).append('\n');
+            }
+        }
+        wordlistFile = tempDir.resolve("words.txt");
+        Files.writeString(wordlistFile, content, StandardCharsets.UTF_8);
+        generator = new PassphraseGenerator(new SecureRandomProvider(),
+                new PassphraseProperties(wordlistFile.toString(), 6));
+    }
+
+    @Test
+    void testGeneratesWordsFromList() {
+        Wordlist wordlist = generator.wordlist(null);
+        char[] passphrase = generator.generate(wordlist, new PassphraseOptions(5, "-", false, false));
+
+        String[] words = new String(passphrase).split("-");
+        assertEquals(5, words.length);
+        for (String word : words) {
+            assertTrue(word.matches("^w[a-z]{2}$"), "Unexpected word: " + word);
+        }
+    }
+
+    @Test
+    void testCapitalizationAndDigit() {
+        Wordlist wordlist = generator.wordlist(wordlistFile.toString());
+        for (int i = 0; i < 100; i++) {
+            String passphrase = new String(generator.generate(wordlist, new PassphraseOptions(4, ".", true, true)));
+
+            assertTrue(passphrase.matches("^(W[a-z]{2}\\d?\\.){3}W[a-z]{2}\\d?$"), passphrase);
+            assertEquals(1, passphrase.chars().filter(Character::isDigit).count(), passphrase);
+        }
+    }
+
+    @Test
+    void testWordsAreDrawnUniformly() {
+        Wordlist wordlist = generator.wordlist(null);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            for (String word : new String(generator.generate(wordlist, new PassphraseOptions(3, " ", false, false)))
+                    .split(" ")) {
+                counts.merge(word, 1, Integer::sum);
+            }
+        }
+
+        // 60000 draws over 676 words: mean ~88.8, standard deviation ~9.4
+        assertEquals(676, counts.size());
+        counts.forEach((word, count) -> assertTrue(Math.abs(count - 88.8) < 60, word + " drawn " + count + " times"));
+    }
+
+    @Test
+    void testEntropyIsWordsTimesLog2ListSize() {
+        Wordlist wordlist = generator.wordlist(null);
+
+        PasswordStrength strength = PasswordStrength.forPassphrase(wordlist, new PassphraseOptions(6, "-", false, false));
+        assertEquals(6 * Math.log(676) / Math.log(2), strength.getEntropyBits(), 1e-9);
+
+        PasswordStrength withDigit = PasswordStrength.forPassphrase(wordlist, new PassphraseOptions(6, "-", false, true));
+        assertEquals(strength.getEntropyBits() + Math.log(60) / Math.log(2), withDigit.getEntropyBits(), 1e-9);
+    }
+
+    @Test
+    void testCapitalizedEntropyCountsDistinctCapitalizedWords() {
+        Wordlist wordlist = Wordlist.parse("may\nMay\nmarch\njune\n".getBytes(StandardCharsets.UTF_8));
+        PassphraseOptions options = new PassphraseOptions(4, "-", true, false);
+
+        assertEquals(4 * Math.log(3) / Math.log(2), PasswordStrength.forPassphrase(wordlist, options).getEntropyBits(),
+                1e-9);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 3_000; i++) {
+            for (String word : new String(generator.generate(wordlist, options)).split("-")) {
+                counts.merge(word, 1, Integer::sum);
+            }
+        }
+        // 12000 draws over the 3 distinct words: "May" must not come up twice as often as the others
+        assertEquals(Set.of("May", "March", "June"), counts.keySet());
+        counts.forEach((word, count) -> assertTrue(Math.abs(count - 4000) < 400, word + " drawn " + count + " times"));
+    }
+
+    @Test
+    void testMissingWordlistIsReported() {
+        PassphraseGenerator unconfigured =
+                new PassphraseGenerator(new SecureRandomProvider(), PassphraseProperties.defaults());
+
+        PasswordGenerationException exception =
+                assertThrows(PasswordGenerationException.class, () -> unconfigured.wordlist(null));
+        assertTrue(exception.getMessage().contains("No wordlist configured"));
+        assertThrows(PasswordGenerationException.class,
+                () -> unconfigured.wordlist(tempDir.resolve("missing.txt").toString()));
+    }
+}
@@ -0,0 +1,168 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordAlphabetTest {
+
+    private final EntropyBuffer entropy = new EntropyBuffer(new SecureRandom()::nextBytes);
+
+    @Test
+    void testAlphabetSizesMatchCharSetSizes() {
+        assertEquals(52, PasswordAlphabet.forComplexity(PasswordComplexityEnum.LOW).size());
+        assertEquals(62, PasswordAlphabet.forComplexity(PasswordComplexityEnum.MEDIUM).size());
+        assertEquals(84, PasswordAlphabet.forComplexity(PasswordComplexityEnum.HIGH).size());
+
+        for (PasswordComplexityEnum complexity : PasswordComplexityEnum.values()) {
+            assertEquals(PasswordStrength.getCharSetSize(complexity),
+                    PasswordAlphabet.forComplexity(complexity).size());
+        }
+    }
+
+    @Test
+    void testAlphabetCharactersAreDistinct() {
+        for (PasswordComplexityEnum complexity : PasswordComplexityEnum.values()) {
+            PasswordAlphabet alphabet = PasswordAlphabet.forComplexity(complexity);
+            Set<Character> characters = new HashSet<>();
+            for (char c : alphabet.toCharArray()) {
+                characters.add(c);
+            }
+            assertEquals(alphabet.size(), characters.size(), "Duplicate characters in " + complexity);
+        }
+    }
+
+    @Test
+    void testFillOnlyWritesRequestedRange() {
+        PasswordAlphabet alphabet = PasswordAlphabet.forComplexity(PasswordComplexityEnum.MEDIUM);
+        char[] buffer = new char[20];
+
+        alphabet.fill(buffer, 5, 10, entropy);
+
+        for (int i = 0; i < buffer.length; i++) {
+            if (i < 5 || i >= 15) {
+                assertEquals('\0', buffer[i], "Unexpected write at index " + i);
+            } else {
+                assertTrue(String.valueOf(buffer[i]).matches("^[a-zA-Z0-9]"),
+                        "Expected alphanumeric character, got: " + buffer[i]);
+            }
+        }
+    }
+
+    @Test
+    void testFillCoversWholeAlphabet() {
+        PasswordAlphabet alphabet = PasswordAlphabet.forComplexity(PasswordComplexityEnum.HIGH);
+        char[] buffer = new char[10000];
+        alphabet.fill(buffer, 0, buffer.length, entropy);
+
+        Set<Character> seen = new HashSet<>();
+        for (char c : buffer) {
+            seen.add(c);
+        }
+
+        // With 10000 draws over 84 characters, a missing character is statistically impossible
+        assertEquals(alphabet.size(), seen.size(), "Every alphabet character should be produced");
+    }
+
+    @Test
+    void testVectorizedPathIsFoundWithTheModule() {
+        // The vectorized class is only looked up by name, so a broken lookup would silently fall back
+        boolean modulePresent = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+        assertEquals(modulePresent, PasswordAlphabet.forComplexity(PasswordComplexityEnum.HIGH).isVectorized());
+        assertFalse(PasswordAlphabet.forComplexity(PasswordComplexityEnum.HIGH).scalar().isVectorized());
+    }
+
+    @Test
+    void testLongFillMatchesScalarFill() {
+        // Same seed, same bytes: the vectorized path must pick exactly the characters the scalar loop picks
+        for (PasswordComplexityEnum complexity : PasswordComplexityEnum.values()) {
+            PasswordAlphabet alphabet = PasswordAlphabet.forComplexity(complexity);
+            for (int length : new int[]{PasswordAlphabet.VECTOR_THRESHOLD, 100, 1000, 20000}) {
+                char[] expected = new char[length];
+                char[] actual = new char[length];
+                alphabet.fillScalar(expected, 0, length, seeded(length));
+                alphabet.fill(actual, 0, length, seeded(length));
+                assertArrayEquals(expected, actual, complexity + " length " + length);
+
+                byte[] expectedBytes = new byte[length];
+                byte[] actualBytes = new byte[length];
+                alphabet.fillScalar(expectedBytes, 0, length, seeded(length));
+                alphabet.fill(actualBytes, 0, length, seeded(length));
+                assertArrayEquals(expectedBytes, actualBytes, complexity + " length " + length);
+            }
+        }
+    }
+
+    @Test
+    void testLongFillAfterPartialDrawMatchesScalarFill() {
+        // Drawing a few bytes first leaves the buffer position, and its tail, off the vector width
+        PasswordAlphabet alphabet = PasswordAlphabet.forComplexity(PasswordComplexityEnum.HIGH);
+        for (int drawn = 1; drawn <= 67; drawn++) {
+            for (int blockSize : new int[]{EntropyBuffer.DEFAULT_SIZE, 1001}) {
+                EntropyBuffer scalar = seeded(drawn, blockSize);
+                EntropyBuffer vector = seeded(drawn, blockSize);
+                for (int i = 0; i < drawn; i++) {
+                    assertEquals(scalar.nextByte(), vector.nextByte());
+                }
+                char[] expected = new char[6000];
+                char[] actual = new char[6000];
+                alphabet.fillScalar(expected, 0, expected.length, scalar);
+                alphabet.fill(actual, 0, actual.length, vector);
+                assertArrayEquals(expected, actual, "drawn " + drawn + " block " + blockSize);
+                assertEquals(scalar.position(), vector.position(), "drawn " + drawn + " block " + blockSize);
+
+                byte[] expectedBytes = new byte[6000];
+                byte[] actualBytes = new byte[6000];
+                alphabet.fillScalar(expectedBytes, 0, expectedBytes.length, scalar);
+                alphabet.fill(actualBytes, 0, actualBytes.length, vector);
+                assertArrayEquals(expectedBytes, actualBytes, "drawn " + drawn + " block " + blockSize);
+            }
+        }
+    }
+
+    @Test
+    void testLongFillWithUnalignedEntropyStaysInAlphabet() {
+        PasswordAlphabet alphabet = PasswordAlphabet.forComplexity(PasswordComplexityEnum.HIGH);
+        Random random = new Random(42);
+        byte[][] blocks = new byte[1][];
+        // An odd block size leaves tails too short for a vector at every refill
+        EntropyBuffer unaligned = new EntropyBuffer(bytes -> {
+            random.nextBytes(bytes);
+            blocks[0] = bytes;
+        }, 1001);
+        int[] counts = new int[128];
+        char[] buffer = new char[5000];
+
+        for (int round = 0; round < 20; round++) {
+            alphabet.fill(buffer, 0, buffer.length, unaligned);
+            for (char c : buffer) {
+                counts[c]++;
+            }
+        }
+        for (char c : alphabet.toCharArray()) {
+            // 100000 draws over 84 characters: about 1190 each
+            assertTrue(counts[c] > 900 && counts[c] < 1500, "Skewed count " + counts[c] + " for " + c);
+            counts[c] = 0;
+        }
+        assertEquals(0, Arrays.stream(counts).sum(), "Character outside the alphabet");
+
+        byte[] consumed = Arrays.copyOf(blocks[0], unaligned.position());
+        assertArrayEquals(new byte[consumed.length], consumed, "Consumed entropy should be zeroed");
+    }
+
+    private static EntropyBuffer seeded(long seed) {
+        return seeded(seed, EntropyBuffer.DEFAULT_SIZE);
+    }
+
+    private static EntropyBuffer seeded(long seed, int blockSize) {
+        Random random = new Random(seed);
+        return new EntropyBuffer(random::nextBytes, blockSize);
+    }
+}
@@ -0,0 +1,103 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordAuditTest {
+
+    private static final StrengthEstimator ESTIMATOR = new StrengthEstimator(StrengthProperties.defaults());
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReportsBreachesAndStrengthByLineNumber() throws IOException {
+        try (BreachIndex index = index("password", "letmein")) {
+            String input = "password\r\n\nXq7#vL9@mZ2!pR4k\nletmein\nnaïve-café\n";
+            StringWriter report = new StringWriter();
+
+            AuditSummary summary = new PasswordAudit(ESTIMATOR, index, 2, 2)
+                    .run(stream(input), report, BatchProgressListener.NONE, input.length());
+
+            assertEquals(4, summary.total());
+            assertEquals(2, summary.breached());
+            assertFalse(summary.cancelled());
+            List<String> rows = report.toString().lines().toList();
+            assertEquals(PasswordAudit.REPORT_HEADER, rows.get(0));
+            assertTrue(rows.get(1).startsWith("1,1,0,"), rows.get(1));
+            assertTrue(rows.get(2).startsWith("3,0,4,"), rows.get(2));
+            assertTrue(rows.get(3).startsWith("4,1,"), rows.get(3));
+            assertTrue(rows.get(4).startsWith("5,0,"), rows.get(4));
+            assertFalse(report.toString().contains("password"), "Report must not contain passwords");
+        }
+    }
+
+    @Test
+    void testLargeInputInParallelKeepsOrder() throws IOException {
+        try (BreachIndex index = index("candidate42")) {
+            StringBuilder input = new StringBuilder();
+            for (int i = 1; i <= 20000; i++) {
+                input.append("candidate").append(i).append('\n');
+            }
+            StringWriter report = new StringWriter();
+            long[] progress = {0};
+
+            AuditSummary summary = new PasswordAudit(ESTIMATOR, index, 512, 4)
+                    .run(stream(input.toString()), report, (completed, total) -> progress[0] = completed, input.length());
+
+            assertEquals(20000, summary.total());
+            assertEquals(1, summary.breached());
+            assertEquals(input.length(), progress[0]);
+            List<String> rows = report.toString().lines().skip(1).toList();
+            for (int i = 0; i < rows.size(); i++) {
+                assertTrue(rows.get(i).startsWith((i + 1) + ","), rows.get(i));
+            }
+            assertTrue(rows.get(41).startsWith("42,1,"));
+        }
+    }
+
+    @Test
+    void testOverlongLinesAreRejected() throws IOException {
+        try (BreachIndex index = index("password")) {
+            String longest = "x".repeat(PasswordAudit.MAX_LINE_LENGTH);
+            AuditSummary summary = new PasswordAudit(ESTIMATOR, index, 4, 1)
+                    .run(stream("password\r\n" + longest + "\r\n" + longest), null, BatchProgressListener.NONE, 0);
+            assertEquals(3, summary.total());
+
+            for (String overlong : List.of(longest + "x\n", longest + "x", "x".repeat(5_000_000) + "\n")) {
+                PasswordGenerationException e = assertThrows(PasswordGenerationException.class,
+                        () -> new PasswordAudit(ESTIMATOR, index, 4, 1)
+                                .run(stream("password\n" + overlong), null, BatchProgressListener.NONE, 0));
+                assertTrue(e.getMessage().contains("line 2 is longer than 4096 bytes"), e.getMessage());
+            }
+        }
+    }
+
+    private BreachIndex index(String... passwords) throws IOException {
+        String corpus = Arrays.stream(passwords)
+                .map(BreachIndexTest::sha1Hex)
+                .sorted()
+                .map(hash -> hash + ":1\n")
+                .reduce("", String::concat);
+        Path corpusFile = tempDir.resolve("corpus.txt");
+        Files.writeString(corpusFile, corpus, StandardCharsets.US_ASCII);
+        Path indexFile = tempDir.resolve("corpus.idx");
+        BreachIndexBuilder.build(corpusFile, indexFile);
+        return BreachIndex.open(indexFile);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
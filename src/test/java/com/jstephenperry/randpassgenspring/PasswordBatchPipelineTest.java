@@ -0,0 +1,185 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordBatchPipelineTest {
+
+    private final SecureRandomProvider provider = new SecureRandomProvider();
+
+    @Test
+    void testChunksAreDeliveredInOrder() throws IOException {
+        final int COUNT = 10_000;
+        final int LENGTH = 12;
+        PasswordBatchPipeline pipeline = new PasswordBatchPipeline(provider, 128, 4);
+        List<String> passwords = new ArrayList<>();
+        List<Long> progress = new ArrayList<>();
+
+        long written = pipeline.run(COUNT, LENGTH, PasswordComplexityEnum.MEDIUM, chunk -> {
+            assertEquals(passwords.size(), chunk.getFirstIndex(), "Chunks must arrive in order");
+            for (int i = 0; i < chunk.getCount(); i++) {
+                passwords.add(new String(chunk.getCharacters(), chunk.offset(i), chunk.getPasswordLength()));
+            }
+        }, (completed, total) -> progress.add(completed));
+
+        assertEquals(COUNT, written);
+        assertEquals(COUNT, passwords.size());
+        assertEquals(COUNT, progress.get(progress.size() - 1).longValue());
+        assertFalse(pipeline.isCancelled());
+
+        Set<String> distinct = new HashSet<>(passwords);
+        assertEquals(COUNT, distinct.size(), "Passwords should not repeat across workers or chunks");
+        for (String password : passwords) {
+            assertTrue(password.matches("^[a-zA-Z0-9]{" + LENGTH + "}$"), "Unexpected password: " + password);
+        }
+    }
+
+    @Test
+    void testUniqueRunRegeneratesDuplicates() throws IOException {
+        // Random bytes of 0 or 1 draw every character from the first two letters: only 256 passwords exist
+        SecureRandomProvider lowEntropy = new SecureRandomProvider() {
+            private final Random random = new Random();
+
+            @Override
+            public synchronized void nextBytes(byte[] bytes) {
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = (byte) random.nextInt(2);
+                }
+            }
+        };
+        PasswordBatchPipeline pipeline = new PasswordBatchPipeline(lowEntropy, 64, 2);
+        Set<String> passwords = new HashSet<>();
+
+        long written = pipeline.run(200, 8, PasswordComplexityEnum.LOW, true, chunk -> {
+            for (int i = 0; i < chunk.getCount(); i++) {
+                passwords.add(new String(chunk.getCharacters(), chunk.offset(i), chunk.getPasswordLength()));
+            }
+        }, BatchProgressListener.NONE);
+
+        assertEquals(200, written);
+        assertEquals(200, passwords.size(), "Every password must be distinct");
+        assertTrue(pipeline.getDuplicateCount() > 0);
+    }
+
+    @Test
+    void testSeededRunIsIndependentOfParallelismAndChunkSize() throws IOException {
+        List<String> expected = seededRun(42, 1000, 1, false);
+
+        assertEquals(5000, expected.size());
+        assertEquals(expected, seededRun(42, 100, 4, false));
+        assertEquals(expected, seededRun(42, 64, 3, false));
+        assertNotEquals(expected, seededRun(43, 1000, 1, false));
+        assertEquals(seededRun(7, 1000, 1, true), seededRun(7, 130, 5, true));
+        assertTrue(PasswordBatchPipeline.seeded(42, PasswordBlocklist.disabled(), 64, 1, Thread::new).isSeeded());
+    }
+
+    @Test
+    void testSeededUniqueRunIsIndependentOfVectorization() throws IOException {
+        PasswordAlphabet alphabet = PasswordAlphabet.forComplexity(PasswordComplexityEnum.HIGH);
+        for (int length : new int[]{64, 65, 100, 130}) {
+            assertEquals(seededRun(11, alphabet.scalar(), length), seededRun(11, alphabet, length), "length " + length);
+        }
+    }
+
+    @Test
+    void testSeededRegenerationIsIndependentOfVectorization() {
+        // Every password is already known, so each one is regenerated from the refill streams
+        PasswordAlphabet alphabet = PasswordAlphabet.forComplexity(PasswordComplexityEnum.HIGH);
+        for (int length : new int[]{10, 64, 100}) {
+            assertEquals(regenerated(alphabet.scalar(), length), regenerated(alphabet, length), "length " + length);
+        }
+    }
+
+    @Test
+    void testCancellationStopsAfterCurrentChunk() throws IOException {
+        PasswordBatchPipeline pipeline = new PasswordBatchPipeline(provider, 100, 2);
+        int[] chunks = {0};
+
+        long written = pipeline.run(1_000_000, 16, PasswordComplexityEnum.HIGH, chunk -> {
+            if (++chunks[0] == 3) {
+                pipeline.cancel();
+            }
+        }, BatchProgressListener.NONE);
+
+        assertTrue(pipeline.isCancelled());
+        assertEquals(300, written);
+        assertEquals(3, chunks[0]);
+    }
+
+    @Test
+    void testSinkFailureIsPropagated() {
+        PasswordBatchPipeline pipeline = new PasswordBatchPipeline(provider, 10, 2);
+
+        assertThrows(IOException.class, () -> pipeline.run(100, 8, PasswordComplexityEnum.LOW, chunk -> {
+            throw new IOException("disk full");
+        }, BatchProgressListener.NONE));
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new PasswordBatchPipeline(provider, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new PasswordBatchPipeline(provider, 1, 0));
+    }
+
+    private static List<String> seededRun(long seed, PasswordAlphabet alphabet, int length) throws IOException {
+        PasswordBatchPipeline pipeline =
+                PasswordBatchPipeline.seeded(seed, PasswordBlocklist.disabled(), 100, 2, Thread::new);
+        List<String> passwords = new ArrayList<>();
+        pipeline.run(500, length, alphabet, true, chunk -> passwords.addAll(toStrings(chunk)),
+                BatchProgressListener.NONE);
+        return passwords;
+    }
+
+    private static List<String> regenerated(PasswordAlphabet alphabet, int length) {
+        PasswordBatchPipeline pipeline =
+                PasswordBatchPipeline.seeded(5, PasswordBlocklist.disabled(), 64, 1, Thread::new);
+        PasswordChunk chunk = new PasswordChunk(64, length);
+        chunk.reset(0, 64);
+        alphabet.fill(chunk.getCharacters(), 0, 64 * length, new EntropyBuffer(new Random(3)::nextBytes));
+        PasswordFingerprints fingerprints = new PasswordFingerprints(new SipHash(1, 2), 128);
+        for (int i = 0; i < chunk.getCount(); i++) {
+            fingerprints.add(chunk.getCharacters(), chunk.offset(i), length);
+        }
+        List<String> original = toStrings(chunk);
+        SplittableRandom refills = new SplittableRandom(9);
+
+        pipeline.deduplicate(chunk, fingerprints, alphabet,
+                () -> new EntropyBuffer(refills.split()::nextBytes, 1024));
+        List<String> passwords = toStrings(chunk);
+        assertEquals(64, fingerprints.getDuplicateCount());
+        for (int i = 0; i < passwords.size(); i++) {
+            assertNotEquals(original.get(i), passwords.get(i));
+        }
+        return passwords;
+    }
+
+    private static List<String> toStrings(PasswordChunk chunk) {
+        List<String> passwords = new ArrayList<>();
+        for (int i = 0; i < chunk.getCount(); i++) {
+            passwords.add(new String(chunk.getCharacters(), chunk.offset(i), chunk.getPasswordLength()));
+        }
+        return passwords;
+    }
+
+    private static List<String> seededRun(long seed, int chunkSize, int parallelism, boolean unique)
+            throws IOException {
+        PasswordBatchPipeline pipeline =
+                PasswordBatchPipeline.seeded(seed, PasswordBlocklist.disabled(), chunkSize, parallelism, Thread::new);
+        List<String> passwords = new ArrayList<>();
+        pipeline.run(5000, 10, PasswordComplexityEnum.HIGH, unique, chunk -> {
+            for (int i = 0; i < chunk.getCount(); i++) {
+                passwords.add(new String(chunk.getCharacters(), chunk.offset(i), chunk.getPasswordLength()));
+            }
+        }, BatchProgressListener.NONE);
+        return passwords;
+    }
+}
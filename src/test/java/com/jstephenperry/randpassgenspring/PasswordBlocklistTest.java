@@ -0,0 +1,146 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordBlocklistTest {
+
+    private final SecureRandomProvider provider = new SecureRandomProvider();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testListedPasswordsAreAlwaysFound() throws IOException {
+        List<String> entries = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            entries.add("password" + i);
+        }
+        entries.add("naïve-café");
+        PasswordBlocklist blocklist = blocklist(String.join("\r\n", entries) + "\n\n", 0.01);
+
+        assertTrue(blocklist.isEnabled());
+        assertEquals(entries.size(), blocklist.size());
+        for (String entry : entries) {
+            assertTrue(blocklist.contains(entry.toCharArray(), 0, entry.length()), entry);
+            byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+            assertTrue(blocklist.contains(bytes, 0, bytes.length), entry);
+        }
+        char[] padded = "xxpassword42yy".toCharArray();
+        assertTrue(blocklist.contains(padded, 2, 10));
+    }
+
+    @Test
+    void testFalsePositiveRateIsNearTarget() throws IOException {
+        PasswordBlocklist blocklist = blocklist(numberedEntries(50000), 0.01);
+
+        int falsePositives = 0;
+        int trials = 200000;
+        for (int i = 0; i < trials; i++) {
+            char[] candidate = ("unlisted" + i).toCharArray();
+            if (blocklist.contains(candidate, 0, candidate.length)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / trials;
+        assertTrue(rate > 0.002 && rate < 0.015, "Unexpected false-positive rate " + rate);
+    }
+
+    @Test
+    void testExpectedRateMeetsTargetWithBlockedLayout() {
+        for (double target : new double[]{0.1, 0.01, 0.001, 0.0001}) {
+            double bitsPerEntry = -Math.log(target) / (Math.log(2) * Math.log(2));
+            int hashCount = (int) Math.round(bitsPerEntry * Math.log(2));
+            long blocks = PasswordBlocklist.blockCount(1_000_000, bitsPerEntry, hashCount, target);
+
+            assertTrue(PasswordBlocklist.expectedFalsePositiveRate(1_000_000, blocks, hashCount) <= target);
+            assertTrue(blocks * 512 < 1_000_000 * bitsPerEntry * 1.5, "Filter too large for " + target);
+        }
+    }
+
+    @Test
+    void testDisabledBlocklistContainsNothing() {
+        PasswordBlocklist blocklist = PasswordBlocklist.disabled();
+
+        assertFalse(blocklist.isEnabled());
+        assertFalse(blocklist.contains("password".toCharArray(), 0, 8));
+        assertEquals(0, blocklist.size());
+    }
+
+    @Test
+    void testInvalidFalsePositiveRateIsRejected() {
+        assertThrows(PasswordGenerationException.class,
+                () -> new PasswordBlocklist(new BlocklistProperties("", 0), provider));
+        assertThrows(PasswordGenerationException.class,
+                () -> new PasswordBlocklist(new BlocklistProperties("", 0.9), provider));
+    }
+
+    @Test
+    void testMissingFileIsReported() {
+        PasswordGenerationException e = assertThrows(PasswordGenerationException.class,
+                () -> new PasswordBlocklist(new BlocklistProperties(tempDir.resolve("missing.txt").toString(), 0.01),
+                        provider));
+        assertTrue(e.getMessage().contains("missing.txt"), e.getMessage());
+    }
+
+    @Test
+    void testEngineRegeneratesBlockedPasswords() throws IOException {
+        // With a full filter at a 50% false-positive rate about half of all generated passwords are rejected
+        PasswordBlocklist blocklist = blocklist(numberedEntries(5000), 0.5);
+        PasswordEngine engine = new PasswordEngine(provider, blocklist);
+
+        for (int i = 0; i < 200; i++) {
+            char[] password = new char[8];
+            engine.generate(password, PasswordComplexityEnum.LOW);
+            assertFalse(blocklist.contains(password, 0, password.length));
+
+            byte[] bytes = new byte[12];
+            engine.generate(bytes, 2, 8, PasswordComplexityEnum.HIGH);
+            assertFalse(blocklist.contains(bytes, 2, 8));
+        }
+        assertTrue(blocklist.getRejectionCount() > 0);
+    }
+
+    @Test
+    void testPipelineRegeneratesBlockedPasswords() throws IOException {
+        PasswordBlocklist blocklist = blocklist(numberedEntries(5000), 0.5);
+        PasswordBatchPipeline pipeline =
+                new PasswordBatchPipeline(provider, blocklist, 64, 2, Executors.defaultThreadFactory());
+        int[] checked = {0};
+
+        long written = pipeline.run(1000, 8, PasswordComplexityEnum.MEDIUM, chunk -> {
+            for (int i = 0; i < chunk.getCount(); i++) {
+                assertFalse(blocklist.contains(chunk.getCharacters(), chunk.offset(i), 8));
+                checked[0]++;
+            }
+        }, BatchProgressListener.NONE);
+
+        assertEquals(1000, written);
+        assertEquals(1000, checked[0]);
+        assertTrue(blocklist.getRejectionCount() > 0);
+    }
+
+    private static String numberedEntries(int count) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            content.append("listed").append(i).append('\n');
+        }
+        return content.toString();
+    }
+
+    private PasswordBlocklist blocklist(String content, double falsePositiveRate) throws IOException {
+        Path file = tempDir.resolve("blocklist.txt");
+        Files.writeString(file, content);
+        return new PasswordBlocklist(new BlocklistProperties(file.toString(), falsePositiveRate), provider);
+    }
+}
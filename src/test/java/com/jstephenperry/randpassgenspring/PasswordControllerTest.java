@@ -0,0 +1,102 @@
+package com.jstephenperry.randpassgenspring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordControllerTest {
+
+    private PasswordController controller;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setup() {
+        SecureRandomProvider provider = new SecureRandomProvider();
+        PasswordPool pool = new PasswordPool(new PasswordEngine(provider));
+        registry = new SimpleMeterRegistry();
+        controller = new PasswordController(provider, PasswordBlocklist.disabled(), pool,
+                new PasswordMetrics(registry, provider, pool, PasswordBlocklist.disabled()),
+                new BatchProperties(1000, 64));
+    }
+
+    @Test
+    void testGeneratePasswordReturnsPasswordWithStrength() {
+        PasswordResponse response = controller.generatePassword(20, "medium");
+
+        assertTrue(response.password().matches("^[a-zA-Z0-9]{20}$"), "Unexpected password: " + response.password());
+        assertEquals(20, response.length());
+        assertEquals(PasswordComplexityEnum.MEDIUM, response.complexity());
+        assertEquals(PasswordStrength.calculateEntropy(62, 20), response.entropyBits(), 1e-9);
+        assertEquals(PasswordStrength.StrengthLevel.STRONG, response.strength());
+    }
+
+    @Test
+    void testStreamPasswordListWritesLines() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = controller.streamPasswordList(500, 16, "LOW", 2, false);
+
+        String body = write(response.getBody());
+        String[] lines = body.split("\n");
+        assertEquals(500, lines.length);
+        for (String line : lines) {
+            assertTrue(line.matches("^[a-zA-Z]{16}$"), "Unexpected line: " + line);
+        }
+        assertEquals("91.21", response.getHeaders().getFirst(PasswordController.ENTROPY_HEADER));
+    }
+
+    @Test
+    void testStreamPasswordListAsJsonWritesArray() throws IOException {
+        String body = write(controller.streamPasswordListAsJson(3, 12, "HIGH", 1, false).getBody());
+
+        assertTrue(body.matches("^\\[\"[^\"]{12}\",\"[^\"]{12}\",\"[^\"]{12}\"]$"), "Unexpected body: " + body);
+    }
+
+    @Test
+    void testStreamPasswordListRejectsCountAboveConfiguredMaximum() {
+        PasswordGenerationException exception = assertThrows(
+                PasswordGenerationException.class,
+                () -> controller.streamPasswordList(1001, 16, "LOW", 1, false)
+        );
+        assertTrue(exception.getMessage().contains("cannot exceed 1000"));
+    }
+
+    @Test
+    void testInvalidRequestMapsToBadRequest() {
+        InvalidPasswordRequestException exception = assertThrows(
+                InvalidPasswordRequestException.class,
+                () -> controller.generatePassword(7, "LOW")
+        );
+
+        ProblemDetail problem = controller.handleInvalidRequest(exception);
+        assertEquals(HttpStatus.BAD_REQUEST.value(), problem.getStatus());
+        assertTrue(problem.getDetail().contains("at least 8 characters"));
+        assertEquals(1, registry.get("passwords.validation.failures").tag("source", "http").counter().count(), 1e-9);
+    }
+
+    @Test
+    void testServerFailuresAreNotReportedAsBadRequests() {
+        ProblemDetail unhealthy = controller.handleEntropySourceFailure(
+                new EntropySourceException("Random source failed the repetition count test: 6 consecutive bytes"));
+        ProblemDetail failed = controller.handleGenerationFailure(
+                new PasswordGenerationException("Could not generate a password outside the blocklist in 100 attempts"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), unhealthy.getStatus());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), failed.getStatus());
+        assertNull(registry.find("passwords.validation.failures").counter());
+    }
+
+    private static String write(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        body.writeTo(output);
+        return output.toString(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,91 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEngineTest {
+
+    private final PasswordEngine engine = new PasswordEngine(new SecureRandomProvider());
+
+    @Test
+    void testGenerateIntoCharArray() {
+        char[] password = new char[32];
+        engine.generate(password, PasswordComplexityEnum.MEDIUM);
+
+        assertTrue(new String(password).matches("^[a-zA-Z0-9]{32}$"), "Unexpected password: " + new String(password));
+
+        PasswordEngine.wipe(password);
+        assertArrayEquals(new char[32], password);
+    }
+
+    @Test
+    void testVirtualThreadsShareEntropyBuffers() throws InterruptedException {
+        SecureRandomProvider provider = new SecureRandomProvider();
+        PasswordEngine sharedEngine = new PasswordEngine(provider);
+
+        for (int i = 0; i < 100; i++) {
+            Thread.ofVirtual().start(() -> sharedEngine.generate(new char[16], PasswordComplexityEnum.HIGH)).join();
+        }
+        // One 4 KB block per thread before the buffers were pooled
+        assertTrue(provider.getNextBytesCalls() < 10, "Draws: " + provider.getNextBytesCalls());
+    }
+
+    @Test
+    void testGenerateIntoByteArrayRange() {
+        byte[] buffer = new byte[40];
+        engine.generate(buffer, 4, 16, PasswordComplexityEnum.LOW);
+
+        String password = new String(buffer, 4, 16, StandardCharsets.US_ASCII);
+        assertTrue(password.matches("^[a-zA-Z]{16}$"), "Unexpected password: " + password);
+        for (int i = 0; i < buffer.length; i++) {
+            if (i < 4 || i >= 20) {
+                assertEquals(0, buffer[i], "Unexpected write at index " + i);
+            }
+        }
+
+        PasswordEngine.wipe(buffer);
+        assertArrayEquals(new byte[40], buffer);
+    }
+
+    @Test
+    void testGenerateIntoHeapAndDirectCharBuffers() {
+        CharBuffer heap = CharBuffer.allocate(64);
+        heap.position(10);
+        engine.generate(heap, 20, PasswordComplexityEnum.HIGH);
+        assertEquals(30, heap.position());
+
+        CharBuffer direct = ByteBuffer.allocateDirect(128).asCharBuffer();
+        engine.generate(direct, 20, PasswordComplexityEnum.HIGH);
+        assertEquals(20, direct.position());
+
+        String special = new String(AsciiUtil.getSpecialCharArray());
+        for (CharBuffer buffer : new CharBuffer[]{heap.flip().position(10), direct.flip()}) {
+            while (buffer.hasRemaining()) {
+                char c = buffer.get();
+                assertTrue(Character.isLetterOrDigit(c) || special.indexOf(c) >= 0, "Unexpected character: " + c);
+            }
+        }
+
+        PasswordEngine.wipe(direct);
+        while (direct.hasRemaining()) {
+            assertEquals('\0', direct.get());
+        }
+    }
+
+    @Test
+    void testRejectsInvalidLengthsAndRanges() {
+        assertThrows(PasswordGenerationException.class,
+                () -> engine.generate(new char[7], PasswordComplexityEnum.LOW));
+        assertThrows(PasswordGenerationException.class,
+                () -> engine.generate(new char[1025], PasswordComplexityEnum.LOW));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> engine.generate(new char[10], 4, 8, PasswordComplexityEnum.LOW));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> engine.generate(CharBuffer.allocate(4), 8, PasswordComplexityEnum.LOW));
+    }
+}
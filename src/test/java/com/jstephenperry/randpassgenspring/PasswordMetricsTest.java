@@ -0,0 +1,90 @@
+package com.jstephenperry.randpassgenspring;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private SecureRandomProvider provider;
+    private PasswordMetrics metrics;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        provider = new SecureRandomProvider();
+        metrics = new PasswordMetrics(registry, provider, new PasswordPool(new PasswordEngine(provider)),
+                PasswordBlocklist.disabled());
+    }
+
+    @Test
+    void testLengthBuckets() {
+        assertEquals("8-15", PasswordMetrics.LENGTH_BUCKETS[PasswordMetrics.lengthBucket(8)]);
+        assertEquals("8-15", PasswordMetrics.LENGTH_BUCKETS[PasswordMetrics.lengthBucket(15)]);
+        assertEquals("16-31", PasswordMetrics.LENGTH_BUCKETS[PasswordMetrics.lengthBucket(16)]);
+        assertEquals("64-127", PasswordMetrics.LENGTH_BUCKETS[PasswordMetrics.lengthBucket(64)]);
+        assertEquals("256-1024", PasswordMetrics.LENGTH_BUCKETS[PasswordMetrics.lengthBucket(1024)]);
+    }
+
+    @Test
+    void testPhaseTimersAreTaggedByComplexityAndLength() {
+        metrics.recordPhase(PasswordMetrics.Phase.GENERATE, PasswordComplexityEnum.HIGH, 64, 1_000);
+        metrics.recordPhase(PasswordMetrics.Phase.GENERATE, PasswordComplexityEnum.HIGH, 100, 3_000);
+
+        Timer timer = registry.get("passwords.generation")
+                .tag("phase", "generate").tag("complexity", "HIGH").tag("length", "64-127").timer();
+        assertEquals(2, timer.count());
+        assertEquals(4_000, timer.totalTime(TimeUnit.NANOSECONDS), 1e-6);
+    }
+
+    @Test
+    void testBatchRecordsDurationAndCount() {
+        PasswordMetrics.Batch batch = metrics.startBatch("test", PasswordComplexityEnum.LOW, 16, 100, 2);
+        batch.stop(80, true);
+
+        assertEquals(1, registry.get("passwords.batch").tag("operation", "test").timer().count());
+        assertEquals(80, registry.get("passwords.generated").tag("operation", "test").counter().count(), 1e-9);
+    }
+
+    @Test
+    void testListRunsAreTimedPerBatchNotPerPassword() {
+        PasswordEngine engine = new PasswordEngine(provider);
+        RandomPasswordGenerator generator = new RandomPasswordGenerator(provider, engine, new PasswordPool(engine),
+                metrics, new PasswordPolicies(PasswordPolicyProperties.defaults()), null, BatchProperties.defaults(),
+                ExportProperties.defaults());
+
+        generator.generatePasswordList(500, 16, "LOW", 2, false, null);
+
+        assertEquals(1, registry.get("passwords.batch").tag("operation", "generate-password-list").timer().count());
+        assertEquals(0, registry.get("passwords.generation").tag("phase", "generate").tag("complexity", "LOW")
+                .tag("length", "16-31").timer().count());
+    }
+
+    @Test
+    void testRandomByteConsumptionIsReported() {
+        provider.nextBytes(new byte[4096]);
+        provider.nextBytes(new byte[1024]);
+
+        assertEquals(5120, registry.get("passwords.random.bytes").functionCounter().count(), 1e-9);
+        assertEquals(2, registry.get("passwords.random.fill").functionTimer().count(), 1e-9);
+    }
+
+    @Test
+    void testValidationFailuresAreCountedPerSource() {
+        ValidationFailureRecorder recorder = new ValidationFailureRecorder(metrics);
+
+        assertNull(recorder.resolve(new InvalidPasswordRequestException("Password length must be at least 8")));
+        recorder.resolve(new PasswordGenerationException("Failed to write", new IOException("disk full")));
+        recorder.resolve(new EntropySourceException("Random source failed the repetition count test"));
+        recorder.resolve(new PasswordGenerationException("Could not generate a password outside the blocklist"));
+
+        assertEquals(1, registry.get("passwords.validation.failures").tag("source", "shell").counter().count(), 1e-9);
+    }
+}
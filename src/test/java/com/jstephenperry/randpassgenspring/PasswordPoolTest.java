@@ -0,0 +1,138 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordPoolTest {
+
+    private final PasswordEngine engine = new PasswordEngine(new SecureRandomProvider());
+    private PasswordPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void testDisabledPoolGeneratesOnRequest() {
+        pool = new PasswordPool(engine);
+        char[] password = new char[16];
+
+        pool.take(password, PasswordComplexityEnum.LOW);
+
+        assertFalse(pool.isEnabled());
+        assertTrue(new String(password).matches("^[a-zA-Z]{16}$"));
+        assertEquals(0, pool.size(16, PasswordComplexityEnum.LOW));
+        assertEquals(1, pool.getMissCount());
+    }
+
+    @Test
+    void testConfiguredShapeIsFilledToHighWatermark() throws InterruptedException {
+        pool = new PasswordPool(engine, properties(List.of(
+                new PasswordPoolProperties.Shape(24, PasswordComplexityEnum.HIGH))));
+
+        awaitSize(24, PasswordComplexityEnum.HIGH, 64);
+        assertEquals(64, pool.size(24, PasswordComplexityEnum.HIGH));
+    }
+
+    @Test
+    void testEntriesAreHandedOutOnceAndRefilled() throws InterruptedException {
+        pool = new PasswordPool(engine, properties(List.of(
+                new PasswordPoolProperties.Shape(12, PasswordComplexityEnum.MEDIUM))));
+        awaitSize(12, PasswordComplexityEnum.MEDIUM, 64);
+
+        Set<String> handedOut = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            char[] password = new char[12];
+            pool.take(password, PasswordComplexityEnum.MEDIUM);
+            assertTrue(new String(password).matches("^[a-zA-Z0-9]{12}$"));
+            assertTrue(handedOut.add(new String(password)), "Password handed out twice");
+        }
+
+        assertTrue(pool.getHitCount() >= 56, "Expected the pooled entries to be used, hits: " + pool.getHitCount());
+        // A refill tops the pool up to the high watermark, but takes racing the last refill can leave it
+        // anywhere above the low watermark, which does not trigger another
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (pool.size(12, PasswordComplexityEnum.MEDIUM) < 16 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(pool.size(12, PasswordComplexityEnum.MEDIUM) >= 16);
+    }
+
+    @Test
+    void testUnconfiguredShapeIsPooledAfterFirstRequest() throws InterruptedException {
+        pool = new PasswordPool(engine, properties(List.of()));
+
+        pool.take(new char[10], PasswordComplexityEnum.LOW);
+
+        assertEquals(1, pool.getMissCount());
+        awaitSize(10, PasswordComplexityEnum.LOW, 64);
+    }
+
+    @Test
+    void testConcurrentFirstRequestsRespectShapeCap() throws InterruptedException {
+        pool = new PasswordPool(engine, properties(List.of()));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int length = 8; length < 40; length++) {
+            char[] password = new char[length];
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                pool.take(password, PasswordComplexityEnum.MEDIUM);
+            }));
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(4, pool.shapeCount());
+        assertEquals(32, pool.getMissCount());
+    }
+
+    @Test
+    void testCloseWipesPool() throws InterruptedException {
+        pool = new PasswordPool(engine, properties(List.of(
+                new PasswordPoolProperties.Shape(16, PasswordComplexityEnum.LOW))));
+        awaitSize(16, PasswordComplexityEnum.LOW, 64);
+
+        pool.close();
+
+        assertEquals(0, pool.size(16, PasswordComplexityEnum.LOW));
+        char[] password = new char[16];
+        pool.take(password, PasswordComplexityEnum.LOW);
+        assertTrue(new String(password).matches("^[a-zA-Z]{16}$"));
+    }
+
+    @Test
+    void testInvalidWatermarksAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PasswordPool(engine, new PasswordPoolProperties(true, 10, 10, 4, List.of())));
+    }
+
+    private static PasswordPoolProperties properties(List<PasswordPoolProperties.Shape> shapes) {
+        return new PasswordPoolProperties(true, 16, 64, 4, shapes);
+    }
+
+    private void awaitSize(int length, PasswordComplexityEnum complexity, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (pool.size(length, complexity) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, pool.size(length, complexity));
+    }
+}
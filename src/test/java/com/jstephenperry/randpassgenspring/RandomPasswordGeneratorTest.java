@@ -2,7 +2,13 @@ package com.jstephenperry.randpassgenspring;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -74,6 +80,119 @@ class RandomPasswordGeneratorTest {
         assertEquals(LIST_SIZE, passwordCount);
     }
 
+    @Test
+    void testGeneratePasswordListInParallel() {
+        final int LIST_SIZE = 1000;
+        String result = generator.generatePasswordList(LIST_SIZE, VALID_PASSWORD_LENGTH, "MEDIUM", 4, false, null);
+
+        assertTrue(result.contains("Generated " + LIST_SIZE + " passwords"));
+
+        // Entries must be numbered in order and every password must be complete
+        List<String> entries = Pattern.compile("(\\d+)\\. ([^\\r\\n]+)").matcher(result).results()
+                .map(match -> match.group(1) + ":" + match.group(2))
+                .toList();
+        assertEquals(LIST_SIZE, entries.size());
+        for (int i = 0; i < LIST_SIZE; i++) {
+            String[] entry = entries.get(i).split(":", 2);
+            assertEquals(String.valueOf(i + 1), entry[0]);
+            assertTrue(entry[1].matches("^[a-zA-Z0-9]{" + VALID_PASSWORD_LENGTH + "}$"),
+                    "Unexpected password: " + entry[1]);
+        }
+    }
+
+    @Test
+    void testGeneratePasswordListUnique() {
+        final int LIST_SIZE = 2000;
+        String result = generator.generatePasswordList(LIST_SIZE, 8, "LOW", 4, true, null);
+
+        assertTrue(result.contains("All passwords are distinct"), result.lines().limit(4).toList().toString());
+        List<String> passwords = Pattern.compile("\\d+\\. ([^\\r\\n]+)").matcher(result).results()
+                .map(match -> match.group(1))
+                .toList();
+        assertEquals(LIST_SIZE, passwords.size());
+        assertEquals(LIST_SIZE, passwords.stream().distinct().count());
+    }
+
+    @Test
+    void testGeneratePasswordListSeededIsReproducible() {
+        String result = generator.generatePasswordList(300, VALID_PASSWORD_LENGTH, "HIGH", 1, false, 1234L);
+
+        assertTrue(result.startsWith("TEST OUTPUT from seed 1234"), result.lines().findFirst().orElse(""));
+        assertEquals(result, generator.generatePasswordList(300, VALID_PASSWORD_LENGTH, "HIGH", 4, false, 1234L));
+        assertNotEquals(result, generator.generatePasswordList(300, VALID_PASSWORD_LENGTH, "HIGH", 1, false, 1235L));
+    }
+
+    @Test
+    void testStreamPasswordListToFile(@TempDir Path tempDir) throws IOException {
+        final int LIST_SIZE = 500;
+        Path outputFile = tempDir.resolve("passwords.txt");
+
+        String result = generator.streamPasswordList(LIST_SIZE, VALID_PASSWORD_LENGTH, "LOW", outputFile.toString(), 2,
+                false, null);
+
+        assertTrue(result.contains("Wrote " + LIST_SIZE + " passwords"));
+        assertTrue(result.contains("Strength:"));
+
+        List<String> lines = Files.readAllLines(outputFile, StandardCharsets.US_ASCII);
+        assertTrue(lines.get(0).contains("Generated " + LIST_SIZE + " passwords"));
+        List<String> entries = lines.stream().filter(line -> line.matches("^\\d+\\. .*")).toList();
+        assertEquals(LIST_SIZE, entries.size());
+        for (int i = 0; i < LIST_SIZE; i++) {
+            assertTrue(entries.get(i).matches("^" + (i + 1) + "\\. [a-zA-Z]{" + VALID_PASSWORD_LENGTH + "}$"),
+                    "Unexpected entry: " + entries.get(i));
+        }
+    }
+
+    @Test
+    void testExportPasswordsSeededFileIsLabelled(@TempDir Path tempDir) throws IOException {
+        Path outputFile = tempDir.resolve("seeded.txt");
+
+        generator.exportPasswords(200, VALID_PASSWORD_LENGTH, "LOW", outputFile.toString(), 1, false, false, 1234L);
+
+        List<String> lines = Files.readAllLines(outputFile, StandardCharsets.US_ASCII);
+        assertTrue(lines.get(0).startsWith("TEST OUTPUT from seed 1234"), lines.get(0));
+        assertEquals(201, lines.size());
+        assertTrue(lines.stream().skip(1).allMatch(line -> line.matches("^[a-zA-Z]{" + VALID_PASSWORD_LENGTH + "}$")));
+    }
+
+    @Test
+    void testValidationParallelism() {
+        PasswordGenerationException exception = assertThrows(
+                PasswordGenerationException.class,
+                () -> generator.generatePasswordList(5, VALID_PASSWORD_LENGTH, "LOW", 0, false, null)
+        );
+        assertTrue(exception.getMessage().contains("Parallelism must be between 1 and 256"));
+    }
+
+    @Test
+    void testGeneratePolicyPasswordMeetsMinimums() {
+        for (int i = 0; i < 50; i++) {
+            String result = generator.generatePolicyPassword(12, null, "lower,digit,symbol", "#!", "", true,
+                    0, 0, 3, 2);
+
+            String password = extractPasswordFromOutput(result);
+            assertTrue(password.matches("^[a-km-z2-9#!]{12}$"), "Unexpected password: " + password);
+            assertTrue(password.replaceAll("[^0-9]", "").length() >= 3, "Too few digits: " + password);
+            assertTrue(password.replaceAll("[^#!]", "").length() >= 2, "Too few symbols: " + password);
+            assertTrue(result.contains("bits of entropy"));
+        }
+    }
+
+    @Test
+    void testGeneratePolicyPasswordRejectsInvalidPolicy() {
+        PasswordGenerationException unknownClass = assertThrows(
+                PasswordGenerationException.class,
+                () -> generator.generatePolicyPassword(12, null, "lower,emoji", null, "", false, 0, 0, 0, 0)
+        );
+        assertTrue(unknownClass.getMessage().contains("Invalid character class"));
+
+        PasswordGenerationException unknownPolicy = assertThrows(
+                PasswordGenerationException.class,
+                () -> generator.generatePolicyPassword(12, "corporate", "lower", null, "", false, 0, 0, 0, 0)
+        );
+        assertTrue(unknownPolicy.getMessage().contains("Unknown password policy"));
+    }
+
     @Test
     void testValidationMinLength() {
         PasswordGenerationException exception = assertThrows(
@@ -0,0 +1,220 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.security.SecureRandom;
+import java.security.Security;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecureRandomProviderTest {
+
+    @Test
+    void testSharedModeUsesSingleInstance() {
+        SecureRandomProvider provider = new SecureRandomProvider();
+
+        assertSame(provider.getSecureRandom(), provider.getSecureRandom());
+        assertEquals(0, provider.getReseedCount());
+    }
+
+    @Test
+    void testDrbgPoolProducesRandomBytes() {
+        SecureRandomProvider provider = new SecureRandomProvider(poolProperties("Hash_DRBG", DataSize.ofMegabytes(1)));
+
+        assertEquals("DRBG", provider.getSecureRandom().getAlgorithm());
+
+        byte[] first = new byte[64];
+        byte[] second = new byte[64];
+        provider.nextBytes(first);
+        provider.nextBytes(second);
+        assertFalse(Arrays.equals(first, second), "Consecutive blocks should differ");
+    }
+
+    @Test
+    void testDrbgPoolReseedsWhenByteBudgetIsExhausted() {
+        SecureRandomProvider provider = new SecureRandomProvider(poolProperties("Hash_DRBG", DataSize.ofBytes(1024)));
+
+        byte[] block = new byte[512];
+        for (int i = 0; i < 8; i++) {
+            provider.nextBytes(block);
+        }
+
+        assertTrue(provider.getReseedCount() > 0, "Expected at least one reseed after exceeding the budget");
+    }
+
+    @Test
+    void testSecureRandomViewDrawsThroughPoolAccounting() {
+        SecureRandomProvider provider = new SecureRandomProvider(poolProperties("Hash_DRBG", DataSize.ofBytes(1024)));
+        SecureRandom view = provider.getSecureRandom();
+
+        byte[] block = new byte[512];
+        for (int i = 0; i < 8; i++) {
+            view.nextBytes(block);
+        }
+        view.nextInt();
+
+        assertSame(view, provider.getSecureRandom());
+        assertEquals(9, provider.getNextBytesCalls());
+        assertEquals(8 * 512 + 4, provider.getBytesGenerated());
+        assertTrue(provider.getReseedCount() > 0, "Bytes drawn through the view must count towards reseeding");
+    }
+
+    @Test
+    void testSecureRandomViewRunsHealthTests() {
+        boolean[] stuck = {false};
+        RandomBackend failing = backend("failing", () -> new SecureRandom() {
+            @Override
+            public void nextBytes(byte[] bytes) {
+                super.nextBytes(bytes);
+                if (stuck[0]) {
+                    Arrays.fill(bytes, 8, 16, (byte) 0x5A);
+                }
+            }
+        });
+        SecureRandomProvider provider = new SecureRandomProvider(SecureRandomProperties.defaults(), failing);
+
+        stuck[0] = true;
+        assertThrows(PasswordGenerationException.class, () -> provider.getSecureRandom().nextBytes(new byte[64]));
+        assertEquals(1, provider.getHealthFailureCount());
+    }
+
+    @Test
+    void testAlgorithmSourceUsesNamedAlgorithm() {
+        SecureRandomProvider provider = new SecureRandomProvider(SecureRandomProperties.defaults()
+                .withSource(SecureRandomProperties.Source.ALGORITHM, "SHA1PRNG", "SUN", ""));
+
+        assertEquals("SHA1PRNG", provider.getSecureRandom().getAlgorithm());
+        assertEquals("SHA1PRNG/SUN", provider.getBackendName());
+    }
+
+    @Test
+    void testDrbgSourceUsesConfiguredMechanism() {
+        SecureRandomProvider provider = new SecureRandomProvider(SecureRandomProperties.defaults()
+                .withSource(SecureRandomProperties.Source.DRBG, "", "", ""));
+
+        assertEquals("DRBG", provider.getSecureRandom().getAlgorithm());
+        assertEquals("DRBG Hash_DRBG-256", provider.getBackendName());
+    }
+
+    @Test
+    void testDrbgLeavesSecurityPropertyAlone() {
+        String before = Security.getProperty("securerandom.drbg.config");
+
+        assertEquals("DRBG", RandomBackends.drbg("Hash_DRBG", 256).create().getAlgorithm());
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> RandomBackends.drbg("CTR_DRBG", 256).create());
+        assertTrue(e.getMessage().contains("securerandom.drbg.config"), e.getMessage());
+        assertEquals(before, Security.getProperty("securerandom.drbg.config"));
+    }
+
+    @Test
+    void testUnavailableSourcesFailAtStartup() {
+        assertThrows(IllegalStateException.class, () -> new SecureRandomProvider(SecureRandomProperties.defaults()
+                .withSource(SecureRandomProperties.Source.ALGORITHM, "NoSuchPRNG", "", "")));
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new SecureRandomProvider(SecureRandomProperties.defaults()
+                        .withSource(SecureRandomProperties.Source.PKCS11, "", "", "/nonexistent/softhsm.cfg")));
+        assertTrue(e.getMessage().contains("softhsm.cfg"), e.getMessage());
+    }
+
+    @Test
+    void testBrokenBackendFailsStartupHealthTest() {
+        RandomBackend zeros = backend("zeros", () -> new SecureRandom() {
+            @Override
+            public void nextBytes(byte[] bytes) {
+            }
+        });
+
+        assertThrows(IllegalStateException.class,
+                () -> new SecureRandomProvider(SecureRandomProperties.defaults(), zeros));
+    }
+
+    @Test
+    void testFailingBlocksAreDiscardedAndCounted() {
+        boolean[] stuck = {false};
+        RandomBackend failing = backend("failing", () -> new SecureRandom() {
+            @Override
+            public void nextBytes(byte[] bytes) {
+                super.nextBytes(bytes);
+                if (stuck[0]) {
+                    Arrays.fill(bytes, 8, 16, (byte) 0x5A);
+                }
+            }
+        });
+        SecureRandomProvider provider = new SecureRandomProvider(SecureRandomProperties.defaults(), failing);
+        byte[] block = new byte[64];
+        provider.nextBytes(block);
+
+        stuck[0] = true;
+        assertThrows(PasswordGenerationException.class, () -> provider.nextBytes(block));
+        assertArrayEquals(new byte[64], block, "A failing block must be wiped");
+        assertEquals(1, provider.getHealthFailureCount());
+    }
+
+    @Test
+    void testHealthStateOutlivesShortLivedThreads() throws InterruptedException {
+        RandomBackend stuck = backend("stuck", () -> new SecureRandom() {
+            @Override
+            public void nextBytes(byte[] bytes) {
+                super.nextBytes(bytes);
+                if (bytes.length == 4) {
+                    Arrays.fill(bytes, (byte) 0x5A);
+                }
+            }
+        });
+        SecureRandomProvider provider = new SecureRandomProvider(SecureRandomProperties.defaults(), stuck);
+
+        // Each draw alone is below the repetition cutoff; only state carried across threads can catch the run
+        assertTrue(4 < EntropyHealthCheck.RCT_CUTOFF);
+        int threads = 2 * Runtime.getRuntime().availableProcessors() + 1;
+        for (int i = 0; i < threads; i++) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    provider.nextBytes(new byte[4]);
+                } catch (EntropySourceException e) {
+                    // Counted below
+                }
+            }).join();
+        }
+        assertTrue(provider.getHealthFailureCount() > 0);
+    }
+
+    @Test
+    void testThroughputIsMeasuredForEachCandidate() {
+        SecureRandomProperties properties = SecureRandomProperties.defaults();
+        RandomBackend configured = RandomBackends.drbg("Hash_DRBG", 256);
+        List<RandomBackend> candidates = RandomBackends.candidates(configured, properties);
+
+        assertSame(configured, candidates.get(0));
+        assertEquals(candidates.size(), candidates.stream().map(RandomBackend::name).distinct().count());
+        RandomThroughput throughput = RandomThroughput.measure(configured, Duration.ofMillis(50), 4096);
+        assertNull(throughput.error());
+        assertTrue(throughput.bytesPerSecond() > 0);
+        assertNotNull(RandomThroughput.measure(RandomBackends.algorithm("NoSuchPRNG", ""),
+                Duration.ofMillis(50), 4096).error());
+    }
+
+    private static RandomBackend backend(String name, Supplier<SecureRandom> factory) {
+        return new RandomBackend() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public SecureRandom create() {
+                return factory.get();
+            }
+        };
+    }
+
+    private static SecureRandomProperties poolProperties(String mechanism, DataSize reseedBytes) {
+        return SecureRandomProperties.defaults().withDrbg(SecureRandomProperties.Mode.DRBG_POOL, mechanism, 256, 2,
+                reseedBytes, Duration.ofHours(1));
+    }
+}
@@ -0,0 +1,36 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SipHashTest {
+
+    // The key 00 01 02 ... 0f from the SipHash paper
+    private final SipHash hash = new SipHash(0x0706050403020100L, 0x0f0e0d0c0b0a0908L);
+
+    @Test
+    void testReferenceVectors() {
+        byte[] message = new byte[64];
+        for (int i = 0; i < message.length; i++) {
+            message[i] = (byte) i;
+        }
+
+        assertEquals(0x726fdb47dd0e0e31L, hash.hash(message, 0, 0));
+        assertEquals(0xa129ca6149be45e5L, hash.hash(message, 0, 15));
+        assertEquals(0x958a324ceb064572L, hash.hash(message, 0, 63));
+    }
+
+    @Test
+    void testAsciiCharactersHashLikeTheirBytes() {
+        String password = "Xq7#vL9@mZ2!pR4k-tail";
+        byte[] bytes = password.getBytes(StandardCharsets.US_ASCII);
+
+        for (int length = 0; length <= password.length(); length++) {
+            assertEquals(hash.hash(bytes, 0, length), hash.hash(password.toCharArray(), 0, length));
+        }
+        assertEquals(hash.hash(bytes, 3, 9), hash.hash(password.toCharArray(), 3, 9));
+    }
+}
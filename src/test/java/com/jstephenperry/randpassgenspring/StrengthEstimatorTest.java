@@ -0,0 +1,135 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StrengthEstimatorTest {
+
+    private final StrengthEstimator estimator = new StrengthEstimator(StrengthProperties.defaults());
+
+    @Test
+    void testCommonPasswordIsWeakest() {
+        StrengthEstimate estimate = estimator.estimate("password");
+
+        assertEquals(0, estimate.score());
+        assertEquals(1, estimate.matches().size());
+        PatternMatch match = estimate.matches().get(0);
+        assertEquals(PatternMatch.Kind.DICTIONARY, match.kind());
+        assertEquals(0, match.start());
+        assertEquals(8, match.end());
+    }
+
+    @Test
+    void testDictionaryVariants() {
+        assertHasMatch(estimator.estimate("drowssap"), PatternMatch.Kind.DICTIONARY, "reversed");
+        assertHasMatch(estimator.estimate("p4ssw0rd"), PatternMatch.Kind.DICTIONARY, "l33t");
+        assertTrue(estimator.estimate("Password").log10Guesses() > estimator.estimate("password").log10Guesses());
+        assertTrue(estimator.estimate("PaSsWoRd").log10Guesses() > estimator.estimate("Password").log10Guesses());
+    }
+
+    @Test
+    void testKeyboardWalk() {
+        StrengthEstimate estimate = estimator.estimate("zxcvfdsa");
+
+        assertHasMatch(estimate, PatternMatch.Kind.SPATIAL, "keyboard walk");
+        assertTrue(estimate.score() <= 2, "Keyboard walk scored " + estimate.score());
+    }
+
+    @Test
+    void testRepeatsSequencesAndDates() {
+        assertHasMatch(estimator.estimate("xkqxkqxkqxkq"), PatternMatch.Kind.REPEAT, "repeated 4 times");
+        assertHasMatch(estimator.estimate("lmnopqrs"), PatternMatch.Kind.SEQUENCE, "ascending");
+        assertHasMatch(estimator.estimate("97531"), PatternMatch.Kind.SEQUENCE, "descending");
+        assertHasMatch(estimator.estimate("13/05/1987"), PatternMatch.Kind.DATE, "separators");
+        assertHasMatch(estimator.estimate("13051987"), PatternMatch.Kind.DATE, "date");
+    }
+
+    @Test
+    void testMatchesCoverPasswordInOrder() {
+        String password = "Tr0ub4dour&3qwerty2019";
+        StrengthEstimate estimate = estimator.estimate(password);
+
+        int position = 0;
+        for (PatternMatch match : estimate.matches()) {
+            assertEquals(position, match.start());
+            position = match.end();
+        }
+        assertEquals(password.length(), position);
+    }
+
+    @Test
+    void testRandomPasswordIsStrong() {
+        StrengthEstimate estimate = estimator.estimate("Xq7#vL9@mZ2!pR4k");
+
+        assertEquals(4, estimate.score());
+        assertTrue(estimate.entropyBits() > 50);
+    }
+
+    @Test
+    void testCharArrayRangeMatchesCharSequence() {
+        char[] buffer = "..letmein123..".toCharArray();
+
+        StrengthEstimate fromRange = estimator.estimate(buffer, 2, 10);
+        StrengthEstimate fromString = estimator.estimate("letmein123");
+
+        assertEquals(fromString.log10Guesses(), fromRange.log10Guesses(), 1e-9);
+        assertArrayEquals("..letmein123..".toCharArray(), buffer);
+    }
+
+    @Test
+    void testLongPasswordTailCountsAsBruteForce() {
+        String password = "a".repeat(StrengthEstimator.MAX_ANALYZED_LENGTH) + "bcd";
+        StrengthEstimate estimate = estimator.estimate(password);
+
+        PatternMatch last = estimate.matches().get(estimate.matches().size() - 1);
+        assertEquals(PatternMatch.Kind.BRUTEFORCE, last.kind());
+        assertEquals(password.length(), last.end());
+    }
+
+    @Test
+    void testMaximumLengthPasswordsVisitQuadraticallyManyCells() {
+        // Overlapping repeats, dictionary words and keyboard walks give the sequence search the most matches
+        List<String> passwords = List.of("password".repeat(16), "a".repeat(128), "1qaz2wsx".repeat(16),
+                "pass1234qwer19".repeat(10).substring(0, 128));
+        int n = StrengthEstimator.MAX_ANALYZED_LENGTH;
+
+        for (String password : passwords) {
+            assertEquals(n, password.length());
+            // Extending brute force runs from every earlier position would visit on the order of n^3 / 6 cells
+            long cells = estimator.countSequenceCells(password);
+            assertTrue(cells <= 2L * n * n, "Visited " + cells + " cells for " + password);
+        }
+    }
+
+    @Test
+    void testEmptyPassword() {
+        StrengthEstimate estimate = estimator.estimate("");
+
+        assertEquals(0.0, estimate.log10Guesses());
+        assertTrue(estimate.matches().isEmpty());
+    }
+
+    @Test
+    void testExtraDictionaryFromFile(@TempDir Path tempDir) throws IOException {
+        Path dictionary = tempDir.resolve("company.txt");
+        Files.writeString(dictionary, "zorblaxian\nquintorpe\n");
+        StrengthEstimator withCompanyWords = new StrengthEstimator(new StrengthProperties(List.of(dictionary.toString())));
+
+        assertHasMatch(withCompanyWords.estimate("quintorpe"), PatternMatch.Kind.DICTIONARY, "company #2");
+        assertTrue(withCompanyWords.estimate("zorblaxian").log10Guesses()
+                < estimator.estimate("zorblaxian").log10Guesses());
+    }
+
+    private static void assertHasMatch(StrengthEstimate estimate, PatternMatch.Kind kind, String detail) {
+        assertTrue(estimate.matches().stream()
+                        .anyMatch(match -> match.kind() == kind && match.detail().contains(detail)),
+                "Expected " + kind + " match containing '" + detail + "' in " + estimate.matches());
+    }
+}
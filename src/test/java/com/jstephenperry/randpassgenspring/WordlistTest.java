@@ -0,0 +1,71 @@
+package com.jstephenperry.randpassgenspring;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordlistTest {
+
+    @Test
+    void testParsesEffDiceFormat() {
+        Wordlist wordlist = parse("11111\tabacus\n11112\tabdomen\r\n11113\tabdominal\n");
+
+        assertEquals(3, wordlist.size());
+        assertEquals("abacus", wordlist.word(0));
+        assertEquals("abdomen", wordlist.word(1));
+        assertEquals("abdominal", wordlist.word(2));
+        assertFalse(wordlist.containsDigits());
+    }
+
+    @Test
+    void testParsesPlainListSkippingCommentsBlanksAndDuplicates() {
+        Wordlist wordlist = parse("# custom list\n\n  apple \nbanana\napple\ncherry\nbanana\n42\n");
+
+        assertEquals(4, wordlist.size());
+        assertEquals("apple", wordlist.word(0));
+        assertEquals("banana", wordlist.word(1));
+        assertEquals("cherry", wordlist.word(2));
+        assertEquals("42", wordlist.word(3));
+        assertTrue(wordlist.containsDigits());
+    }
+
+    @Test
+    void testDecodesNonAsciiWords() {
+        Wordlist wordlist = parse("grüße\nnaïve\n\uD83D\uDE00smile\n");
+
+        for (int i = 0; i < wordlist.size(); i++) {
+            char[] destination = new char[wordlist.charLength(i)];
+            assertEquals(destination.length, wordlist.copyWord(i, destination, 0));
+            assertEquals(wordlist.word(i), new String(destination));
+        }
+        assertEquals(7, wordlist.charLength(2));
+    }
+
+    @Test
+    void testCapitalizedListDropsWordsDifferingOnlyInCase() {
+        Wordlist wordlist = parse("may\nMay\nmarch\nüber\nApril\n");
+
+        Wordlist capitalized = wordlist.capitalized();
+        assertEquals(5, wordlist.size());
+        assertEquals(4, capitalized.size());
+        assertEquals("May", capitalized.word(0));
+        assertEquals("March", capitalized.word(1));
+        assertEquals("Über", capitalized.word(2));
+        assertEquals("April", capitalized.word(3));
+        assertSame(capitalized, wordlist.capitalized());
+    }
+
+    @Test
+    void testRejectsInvalidLists() {
+        assertThrows(PasswordGenerationException.class, () -> parse("only\nonly\n"));
+        assertThrows(PasswordGenerationException.class, () -> parse("two words\nthree\n"));
+        assertThrows(PasswordGenerationException.class,
+                () -> Wordlist.parse(new byte[]{'a', '\n', (byte) 0xC3, '\n'}));
+    }
+
+    private static Wordlist parse(String content) {
+        return Wordlist.parse(content.getBytes(StandardCharsets.UTF_8));
+    }
+}